@@ -1,10 +1,14 @@
 package main.java.author.controller;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JFileChooser;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import main.java.author.controller.tabbed_controllers.EnemyController;
@@ -13,6 +17,10 @@ import main.java.author.model.AuthorModel;
 import main.java.author.view.AuthoringView;
 import main.java.schema.map.GameMapSchema;
 import main.java.data.DataHandler;
+import main.java.engine.balance.BalanceReport;
+import main.java.engine.balance.BalanceSimulator;
+import main.java.engine.balance.PlacementStrategy;
+import main.java.engine.host.Match;
 import main.java.exceptions.data.InvalidGameBlueprintException;
 import main.java.schema.GameSchema;
 import main.java.schema.tdobjects.ItemSchema;
@@ -48,8 +56,12 @@ public class MainController {
 
 	}
 
+	private static final int SIMULATED_MATCHES_PER_STRATEGY = 16;
+	private static final int SIMULATION_MAX_TICKS = 30000;
+
 	private AuthorModel myModel;
 	private AuthoringView myAuthoringView;
+	private BalanceSimulator mySimulator;
 
 	private List<TabController> myTabControllers;
 
@@ -188,6 +200,60 @@ public class MainController {
 		handler.saveBlueprint(myModel.getBlueprint(), filePath);
 	}
 
+	/**
+	 * Plays the game blueprint many times in the background, placing towers
+	 * with every PlacementStrategy, and shows how each wave went. The
+	 * blueprint is copied first, so it can keep being edited meanwhile.
+	 * 
+	 * @param onDone
+	 *            run on the Swing thread once the simulation has finished
+	 */
+	public void simulateBlueprint(final Runnable onDone) {
+		final byte[] serializedBlueprint;
+		try {
+			serializedBlueprint = Match.writeBlueprint(myModel.getBlueprint());
+		} catch (IOException e) {
+			e.printStackTrace();
+			myAuthoringView.showSimulationReport("Could not copy the game: " + e);
+			onDone.run();
+			return;
+		}
+		if (mySimulator == null) {
+			mySimulator = new BalanceSimulator();
+		}
+		new SwingWorker<BalanceReport, Void>() {
+			@Override
+			protected BalanceReport doInBackground() throws Exception {
+				return mySimulator.simulate(serializedBlueprint,
+						Arrays.asList(PlacementStrategy.values()),
+						SIMULATED_MATCHES_PER_STRATEGY, SIMULATION_MAX_TICKS);
+			}
+
+			@Override
+			protected void done() {
+				try {
+					myAuthoringView.showSimulationReport(get().toString());
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+					myAuthoringView.showSimulationReport("Simulation failed: "
+							+ (e.getCause() == null ? e : e.getCause()));
+				} finally {
+					onDone.run();
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Stops the simulator's workers, letting simulations already queued
+	 * finish. Called when the authoring environment is closed.
+	 */
+	public void shutdown() {
+		if (mySimulator != null) {
+			mySimulator.shutdown();
+		}
+	}
+
 	/**
 	 * Used to allow the Main controller to gain a reference to the Authoring
 	 * View.
@@ -2,12 +2,19 @@ package main.java.author.view;
 
 import java.awt.BorderLayout;
 import java.awt.Component;
+import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
+import javax.swing.JTextArea;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -36,6 +43,7 @@ public class AuthoringView extends JFrame {
 	private MainController myController;
 
 	private JButton finalizeGameButton;
+	private JButton simulateGameButton;
 
 	private JTabbedPane tabbedPane = new JTabbedPane();
 
@@ -46,6 +54,11 @@ public class AuthoringView extends JFrame {
 	private static final String TERRAIN_EDITOR_STRING = "Terrain Editor";
 	private static final String WAVE_EDITOR_STRING = "Wave Editor";
 	private static final String TITLE_STRING = "OOGASalad Authoring Environment";
+	private static final String SIMULATE_STRING = "Simulate Game";
+	private static final String SIMULATING_STRING = "Simulating...";
+	private static final String SIMULATION_REPORT_STRING = "Simulation Report";
+	private static final int REPORT_ROWS = 30;
+	private static final int REPORT_COLUMNS = 60;
 	public static final String DEFAULT_RESOURCES_DIR = "src/main/resources";
 
 	public AuthoringView(MainController mainController) {
@@ -105,8 +118,17 @@ public class AuthoringView extends JFrame {
 	public void createAndShowGUI() {
 		createEditorTabs();
 		add(tabbedPane, BorderLayout.CENTER);
-		add(createFinalizeGameButton(), BorderLayout.SOUTH);
+		JPanel buttonPanel = new JPanel();
+		buttonPanel.add(createSimulateGameButton());
+		buttonPanel.add(createFinalizeGameButton());
+		add(buttonPanel, BorderLayout.SOUTH);
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				myController.shutdown();
+			}
+		});
 		setResizable(true);
 		pack();
 		setVisible(true);
@@ -130,13 +152,7 @@ public class AuthoringView extends JFrame {
 
 			@Override
 			public void actionPerformed(ActionEvent e) {
-				myController.updateWaveTab();
-				int editorTabCount = tabbedPane.getTabCount();
-				for (int count = 0; count < editorTabCount; count++) {
-					EditorTab tab = (EditorTab) tabbedPane
-							.getComponentAt(count);
-					tab.saveTabData();
-				}
+				saveAllTabData();
 
 				if (myController.isGameValid()) {
 					try {
@@ -147,6 +163,34 @@ public class AuthoringView extends JFrame {
 				}
 			}
 		});
+		simulateGameButton.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				saveAllTabData();
+				simulateGameButton.setEnabled(false);
+				simulateGameButton.setText(SIMULATING_STRING);
+				myController.simulateBlueprint(new Runnable() {
+					@Override
+					public void run() {
+						simulateGameButton.setText(SIMULATE_STRING);
+						simulateGameButton.setEnabled(true);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Saves the data of every tab into the game blueprint
+	 */
+	private void saveAllTabData() {
+		myController.updateWaveTab();
+		int editorTabCount = tabbedPane.getTabCount();
+		for (int count = 0; count < editorTabCount; count++) {
+			EditorTab tab = (EditorTab) tabbedPane.getComponentAt(count);
+			tab.saveTabData();
+		}
 	}
 
 	/**
@@ -158,6 +202,28 @@ public class AuthoringView extends JFrame {
 		return finalizeGameButton;
 	}
 
+	/**
+	 * Constructs a JButton which plays the game many times in the background
+	 * to show how hard each wave is
+	 */
+	private JButton createSimulateGameButton() {
+		simulateGameButton = new JButton(SIMULATE_STRING);
+		return simulateGameButton;
+	}
+
+	/**
+	 * Shows the result of a simulation of the game
+	 * 
+	 * @param report
+	 */
+	public void showSimulationReport(String report) {
+		JTextArea reportArea = new JTextArea(report, REPORT_ROWS, REPORT_COLUMNS);
+		reportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		reportArea.setEditable(false);
+		JOptionPane.showMessageDialog(this, new JScrollPane(reportArea),
+				SIMULATION_REPORT_STRING, JOptionPane.PLAIN_MESSAGE);
+	}
+
 	/**
 	 * Used to shift the selected tab to the EnemyEditorTab
 	 */
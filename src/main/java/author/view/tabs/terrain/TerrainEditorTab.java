@@ -12,6 +12,7 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,8 +37,8 @@ import main.java.author.view.AuthoringView;
 import main.java.author.view.tabs.EditorTab;
 import main.java.schema.CanvasSchema;
 import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
 import main.java.schema.map.TileMapSchema;
-import main.java.schema.map.TileSchema;
 
 public class TerrainEditorTab extends EditorTab {
 	private static final String CLEAR = "Clear Tiles";
@@ -247,20 +248,19 @@ public class TerrainEditorTab extends EditorTab {
 	public void saveTabData() {
 		GameMapSchema myCompletedMap = new GameMapSchema();
 
-		List<Tile> gameTiles = myCanvas.getTiles();
-		List<TileSchema> gameTileSchemas = new ArrayList<TileSchema>();        
-		for (Tile tile : gameTiles) {
-			TileSchema tileSchema = new TileSchema();
-			populateTileSchema(tileSchema, tile);
-			gameTileSchemas.add(tileSchema);
-		}
-
 		List<TileDisplay> tileDisplays = myTileSelectionManager.getAllTileDisplays();
 		List<TileMapSchema> gameTileMapSchemas = new ArrayList<TileMapSchema>();
+		Map<String, Integer> tileMapColumns = new HashMap<String, Integer>();
 		for (TileDisplay tileDisp : tileDisplays) {
 			TileMapSchema tileMapSchema = new TileMapSchema();
 			populateTileMapSchema(tileMapSchema, tileDisp);
 			gameTileMapSchemas.add(tileMapSchema);
+			tileMapColumns.put(tileDisp.getTileMapFile(), tileDisp.getNumCols());
+		}
+
+		TileLayer gameTileLayer = new TileLayer(myCanvas.getCols(), myCanvas.getRows());
+		for (Tile tile : myCanvas.getTiles()) {
+			populateTileLayer(gameTileLayer, tile, tileMapColumns);
 		}
 		
 		CanvasSchema canvasSchema = new CanvasSchema();
@@ -271,7 +271,7 @@ public class TerrainEditorTab extends EditorTab {
 		canvasSchema.addAttribute(CanvasSchema.EXIT_ROW, (Serializable) myCanvas.getExitRow());
 		canvasSchema.addAttribute(CanvasSchema.EXIT_COL, (Serializable) myCanvas.getExitCol());
 
-		myCompletedMap.addAttribute(GameMapSchema.MY_TILES, (Serializable) gameTileSchemas);
+		myCompletedMap.addAttribute(GameMapSchema.MY_TILE_LAYER, gameTileLayer);
 		myCompletedMap.addAttribute(GameMapSchema.MY_TILEMAPS, (Serializable) gameTileMapSchemas);
 		myCompletedMap.addAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES, (Serializable) canvasSchema);
 
@@ -280,18 +280,20 @@ public class TerrainEditorTab extends EditorTab {
 	}
 
 	/**
-	 * Transfers information about a Tile into a TileSchema object
+	 * Transfers information about a Tile into its cell of a TileLayer. Tiles
+	 * without an imported tilemap are left empty.
 	 * 
-	 * @param tileSchema 
+	 * @param tileLayer
 	 * @param tile
+	 * @param tileMapColumns number of columns of each imported tilemap
 	 */
-	private void populateTileSchema(TileSchema tileSchema, Tile tile) {
-		tileSchema.addAttribute(TileSchema.CANVAS_ROW, tile.getRow());
-		tileSchema.addAttribute(TileSchema.CANVAS_COL, tile.getCol());
-		tileSchema.addAttribute(TileSchema.TILEMAP_ROW, tile.getMyMapYIndex());
-		tileSchema.addAttribute(TileSchema.TILEMAP_COL, tile.getMyMapXIndex());
-		tileSchema.addAttribute(TileSchema.TILEMAP_FILE_NAME, tile.getMyTileMapFileName());
-		tileSchema.addAttribute(TileSchema.TILE_CID, tile.getPassIndex());
+	private void populateTileLayer(TileLayer tileLayer, Tile tile, Map<String, Integer> tileMapColumns) {
+		Integer numCols = tileMapColumns.get(tile.getMyTileMapFileName());
+		if (numCols == null) {
+			return;
+		}
+		int tileIndex = tile.getMyMapYIndex() * numCols + tile.getMyMapXIndex();
+		tileLayer.setTile(tile.getCol(), tile.getRow(), tile.getMyTileMapFileName(), tileIndex, tile.getPassIndex());
 	}
 
 	/**
@@ -0,0 +1,132 @@
+package main.java.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import main.java.schema.GameBlueprint;
+
+/**
+ * Bounded, least-recently-used cache of serialized GameBlueprints,
+ * keyed on the blueprint file's path, modification time and length.
+ * Only the serialized bytes are kept, and every hit deserializes a
+ * fresh copy, so callers can never modify what is cached. A hit saves
+ * unzipping the blueprint and its resources and reading them from disk,
+ * but still pays for deserializing the blueprint.
+ * @author Jimmy Fang
+ *
+ */
+public class BlueprintCache {
+	private final int myMaxEntries;
+	private final Map<String, CachedBlueprint> myCache;
+	private String myExtractedResourcesKey;
+
+	/**
+	 * @param maxEntries number of blueprints to hold before evicting
+	 * the least recently used one
+	 */
+	public BlueprintCache(final int maxEntries) {
+		myMaxEntries = maxEntries;
+		myCache = new LinkedHashMap<String, CachedBlueprint>(maxEntries + 1, 1f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedBlueprint> eldest) {
+				return size() > myMaxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @param filePath of a saved blueprint
+	 * @return a fresh copy of the blueprint, or null if it is not
+	 * cached or the file changed since it was cached
+	 */
+	public synchronized GameBlueprint get(String filePath) {
+		File file = new File(filePath);
+		String path = file.getAbsolutePath();
+		CachedBlueprint cached = myCache.get(path);
+		if (cached == null) {
+			return null;
+		}
+		if (!cached.matches(file)) {
+			invalidate(filePath);
+			return null;
+		}
+		try {
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(cached.myBytes));
+			GameBlueprint copy = (GameBlueprint) in.readObject();
+			in.close();
+			return copy;
+		} catch (IOException | ClassNotFoundException e) {
+			invalidate(filePath);
+			return null;
+		}
+	}
+
+	/**
+	 * @param filePath of the saved blueprint the bytes were read from
+	 * @param serializedBlueprint contents of the blueprint entry
+	 */
+	public synchronized void put(String filePath, byte[] serializedBlueprint) {
+		File file = new File(filePath);
+		myCache.put(file.getAbsolutePath(), new CachedBlueprint(file, serializedBlueprint.clone()));
+	}
+
+	/**
+	 * Drops a blueprint, e.g. when it is about to be overwritten
+	 * @param filePath
+	 */
+	public synchronized void invalidate(String filePath) {
+		String path = new File(filePath).getAbsolutePath();
+		myCache.remove(path);
+		if (path.equals(myExtractedResourcesKey)) {
+			myExtractedResourcesKey = null;
+		}
+	}
+
+	/**
+	 * Records which blueprint's resources are currently extracted
+	 * into the resources folder
+	 * @param filePath
+	 */
+	public synchronized void setExtractedResources(String filePath) {
+		myExtractedResourcesKey = (filePath == null) ? null : new File(filePath).getAbsolutePath();
+	}
+
+	/**
+	 * @param filePath
+	 * @return whether the resources folder already holds this blueprint's resources
+	 */
+	public synchronized boolean hasExtractedResources(String filePath) {
+		return new File(filePath).getAbsolutePath().equals(myExtractedResourcesKey);
+	}
+
+	public synchronized int size() {
+		return myCache.size();
+	}
+
+	public synchronized void clear() {
+		myCache.clear();
+		myExtractedResourcesKey = null;
+	}
+
+	private static class CachedBlueprint {
+		private final long myLastModified;
+		private final long myLength;
+		private final byte[] myBytes;
+
+		private CachedBlueprint(File file, byte[] bytes) {
+			myLastModified = file.lastModified();
+			myLength = file.length();
+			myBytes = bytes;
+		}
+
+		private boolean matches(File file) {
+			return file.lastModified() == myLastModified && file.length() == myLength;
+		}
+	}
+}
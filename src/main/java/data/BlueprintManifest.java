@@ -0,0 +1,123 @@
+package main.java.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import main.java.schema.CanvasSchema;
+import main.java.schema.GameBlueprint;
+import main.java.schema.GameSchema;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.tdobjects.TDObjectSchema;
+
+/**
+ * Small summary of a GameBlueprint that is written as the
+ * first entry of a saved blueprint archive, so that the canvas
+ * size, music and object names can be read without extracting
+ * resources or deserializing the whole blueprint.
+ * @author Jimmy Fang
+ *
+ */
+public class BlueprintManifest implements Serializable {
+	private static final long serialVersionUID = 1L;
+	public static final int FORMAT_VERSION = 1;
+
+	private int myFormatVersion;
+	private int myXTiles;
+	private int myYTiles;
+	private String myMusic;
+	private List<String> myTowerNames;
+	private List<String> myMonsterNames;
+	private List<String> myItemNames;
+	private String myContentHash;
+
+	/**
+	 * Builds a manifest out of a (possibly unfinished) blueprint
+	 * @param blueprint to summarize
+	 * @param contentHash hash of the serialized blueprint entry
+	 */
+	public BlueprintManifest(GameBlueprint blueprint, String contentHash) {
+		myFormatVersion = FORMAT_VERSION;
+		myContentHash = contentHash;
+		myTowerNames = collectNames(blueprint.getMyTowerSchemas());
+		myMonsterNames = collectNames(blueprint.getMyMonsterSchemas());
+		myItemNames = collectNames(blueprint.getMyItemSchemas());
+
+		if (blueprint.getMyGameScenario() != null) {
+			myMusic = (String) blueprint.getMyGameScenario().getAttribute(GameSchema.MUSIC);
+		}
+		List<GameMapSchema> maps = blueprint.getMyGameMapSchemas();
+		if (maps != null && !maps.isEmpty()) {
+			CanvasSchema canvasSchema = (CanvasSchema) maps.get(0).getAttributesMap().
+					get(GameMapSchema.MY_CANVAS_ATTRIBUTES);
+			if (canvasSchema != null) {
+				Map<String, Serializable> canvasAttributes = canvasSchema.getAttributesMap();
+				myXTiles = toInt(canvasAttributes.get(CanvasSchema.X_TILES));
+				myYTiles = toInt(canvasAttributes.get(CanvasSchema.Y_TILES));
+			}
+		}
+	}
+
+	private static List<String> collectNames(List<? extends TDObjectSchema> schemas) {
+		List<String> names = new ArrayList<String>();
+		if (schemas != null) {
+			for (TDObjectSchema schema : schemas) {
+				names.add((String) schema.getAttribute(TDObjectSchema.NAME));
+			}
+		}
+		return names;
+	}
+
+	private static int toInt(Serializable value) {
+		return (value instanceof Integer) ? (Integer) value : 0;
+	}
+
+	/**
+	 * @return whether the canvas size was present when the blueprint was saved
+	 */
+	public boolean hasCanvasSize() {
+		return myXTiles > 0 && myYTiles > 0;
+	}
+
+	public int getFormatVersion() {
+		return myFormatVersion;
+	}
+
+	public int getXTiles() {
+		return myXTiles;
+	}
+
+	public int getYTiles() {
+		return myYTiles;
+	}
+
+	public String getMusic() {
+		return myMusic;
+	}
+
+	public List<String> getTowerNames() {
+		return Collections.unmodifiableList(myTowerNames);
+	}
+
+	public List<String> getMonsterNames() {
+		return Collections.unmodifiableList(myMonsterNames);
+	}
+
+	public List<String> getItemNames() {
+		return Collections.unmodifiableList(myItemNames);
+	}
+
+	public String getContentHash() {
+		return myContentHash;
+	}
+
+	@Override
+	public String toString() {
+		return "Map: " + myXTiles + " x " + myYTiles + "\n"
+				+ "Towers: " + myTowerNames + "\n"
+				+ "Monsters: " + myMonsterNames + "\n"
+				+ "Items: " + myItemNames;
+	}
+}
@@ -12,6 +12,8 @@ import java.lang.reflect.Modifier;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -41,6 +43,12 @@ public class DataHandler {
 	private final static String TEST_FILE_PATH = "src/test/resources.replacement.tester";
 	private final static String TEMP_FOLDER_PATH = "src/main/resources.loaded/";
 	private final static int BUFF_SIZE = 4096;
+	private final static String BLUEPRINT_ENTRY = "MyBlueprint.ser";
+	private final static String MANIFEST_ENTRY = "MyManifest.ser";
+	private final static String HASH_ALGORITHM = "SHA-256";
+	private final static int MAX_CACHED_BLUEPRINTS = 4;
+	// Shared by every DataHandler so that restarting a game does not unzip the blueprint again
+	private final static BlueprintCache BLUEPRINT_CACHE = new BlueprintCache(MAX_CACHED_BLUEPRINTS);
 
 	/*private Gson myGson;
 
@@ -92,6 +100,7 @@ public class DataHandler {
 
 	public boolean saveBlueprint(GameBlueprint blueprint, String filePath) throws InvalidGameBlueprintException {
 		//		if (checkGameBlueprint(blueprint)){
+		BLUEPRINT_CACHE.invalidate(filePath);
 
 		// Create temp folder for serialized blueprint and zipped resources
 		String tempDirLocation = filePath + "TempBlueprintHolder/";
@@ -108,11 +117,17 @@ public class DataHandler {
 			compressResources(myResources,zipResourcesLocation);
 
 			// Serialize blueprint
-			saveObjectToFile(blueprint,tempDirLocation + "MyBlueprint.ser"); 
+			saveObjectToFile(blueprint,tempDirLocation + BLUEPRINT_ENTRY); 
 
-			// Prepare to zip: 1) zipped resources and 2) serialized blueprint
+			// Serialize manifest, which summarizes the blueprint for fast reads
+			String manifestLocation = tempDirLocation + MANIFEST_ENTRY;
+			saveObjectToFile(new BlueprintManifest(blueprint, hashFile(tempDirLocation + BLUEPRINT_ENTRY)), manifestLocation);
+
+			// Prepare to zip: 1) manifest, 2) zipped resources and 3) serialized blueprint
+			// The manifest goes first so readers can stop after the first entry
+			myFilesToZip.add(new File(manifestLocation));
 			myFilesToZip.add(new File(zipResourcesLocation));
-			myFilesToZip.add(new File(tempDirLocation + "MyBlueprint.ser"));
+			myFilesToZip.add(new File(tempDirLocation + BLUEPRINT_ENTRY));
 
 			// Compress container file
 			if (compressAuthoringEnvironment(myFilesToZip,filePath)){
@@ -214,19 +229,28 @@ public class DataHandler {
 	public GameBlueprint loadBlueprint(String filePath, boolean isEngine) throws ClassNotFoundException, IOException, ZipException { // create another parameter isEngine that determine where it comes from
 		//	If method is being used by Engine, throw exceptions of unfinished state
 		//  If method is being used by Author (isEngine is false), allow them to load an unfinished state
-		Boolean tempDirCreated = new File(TEMP_FOLDER_PATH).mkdir();
-		// load the zipped blueprint + resources
-		decompress(filePath, TEMP_FOLDER_PATH);
+		// A blueprint seen before whose resources are still extracted needs no unzipping
+		GameBlueprint toReturn = BLUEPRINT_CACHE.hasExtractedResources(filePath) ? BLUEPRINT_CACHE.get(filePath) : null;
+
+		if (toReturn == null) {
+			Boolean tempDirCreated = new File(TEMP_FOLDER_PATH).mkdir();
+			// load the zipped blueprint + resources
+			decompress(filePath, TEMP_FOLDER_PATH);
 
-		GameBlueprint toReturn = ((GameBlueprint) loadObjectFromFile(TEMP_FOLDER_PATH + "MyBlueprint.ser"));
+			toReturn = ((GameBlueprint) loadObjectFromFile(TEMP_FOLDER_PATH + BLUEPRINT_ENTRY));
+			if (toReturn != null) {
+				BLUEPRINT_CACHE.put(filePath, Files.readAllBytes(Paths.get(TEMP_FOLDER_PATH + BLUEPRINT_ENTRY)));
+			}
 
-		// Delete resources and reload from container file
-		
-		File myDir = new File(FILE_PATH);
-		//deleteDirectory(myDir);
-		decompress(TEMP_FOLDER_PATH + "ZippedResources.zip", FILE_PATH);
-		// Delete temp folder
-		deleteDirectory(new File(TEMP_FOLDER_PATH));
+			// Delete resources and reload from container file
+
+			File myDir = new File(FILE_PATH);
+			//deleteDirectory(myDir);
+			decompress(TEMP_FOLDER_PATH + "ZippedResources.zip", FILE_PATH);
+			BLUEPRINT_CACHE.setExtractedResources(filePath);
+			// Delete temp folder
+			deleteDirectory(new File(TEMP_FOLDER_PATH));
+		}
 
 		if (isEngine) {
 			// Validate game blueprint for engine, but not author
@@ -242,6 +266,51 @@ public class DataHandler {
 		return toReturn;	
 	}
 
+	/**
+	 * Reads only the manifest entry of a saved blueprint, without
+	 * extracting resources or deserializing the blueprint itself
+	 * @param filePath of a ZIP
+	 * @return the manifest, or null if the blueprint was saved before
+	 * manifests existed or the entry could not be read
+	 * @throws ZipException
+	 */
+	public BlueprintManifest loadManifest(String filePath) throws ZipException {
+		ZipFile zipFile = new ZipFile(filePath);
+		FileHeader manifestHeader = zipFile.getFileHeader(MANIFEST_ENTRY);
+		if (manifestHeader == null) {
+			return null;
+		}
+		ZipInputStream is = zipFile.getInputStream(manifestHeader);
+		try {
+			Object manifest = new ObjectInputStream(is).readObject();
+			return (manifest instanceof BlueprintManifest) ? (BlueprintManifest) manifest : null;
+		} catch (IOException | ClassNotFoundException e) {
+			return null;
+		} finally {
+			try {
+				is.close(true);
+			} catch (IOException e) {}
+		}
+	}
+
+	/**
+	 * Hashes the contents of a file
+	 * @param fileName
+	 * @return hex encoded hash, or null if the file could not be read
+	 */
+	private String hashFile(String fileName) {
+		try {
+			byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(Files.readAllBytes(Paths.get(fileName)));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (IOException | NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Deletes a directory
 	 * @param dir
@@ -0,0 +1,212 @@
+package main.java.engine;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jgame.JGPoint;
+import jgame.impl.JGEngineInterface;
+import main.java.engine.agent.Observation;
+import main.java.engine.archetype.ArchetypeListener;
+import main.java.engine.archetype.ArchetypeSprites;
+import main.java.engine.archetype.ArchetypeWorld;
+import main.java.engine.archetype.MonsterArchetype;
+import main.java.engine.factory.TDObjectFactory;
+import main.java.engine.objects.Exit;
+import main.java.engine.objects.monster.jgpathfinder.NoPossiblePathException;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+import main.java.schema.MonsterSpawnSchema;
+import main.java.schema.WaveSpawnSchema;
+import main.java.schema.tdobjects.MonsterSchema;
+import main.java.schema.tdobjects.TDObjectSchema;
+
+/**
+ * Plays waves too large for a Monster per unit in an ArchetypeWorld, drawn
+ * by one ArchetypeSprites. Off unless the td.archetypeWaveSize system
+ * property is set: waves of at least that many monsters are spawned here,
+ * smaller ones as Monsters.
+ *
+ * Shooting towers target these monsters and hit them with plain damage
+ * projectiles, also when the tower would fire bombs or freezing shots.
+ * Items and the leak map only know about Monsters.
+ */
+public class ArchetypeWaves {
+	public static final String WAVE_SIZE_PROPERTY = "td.archetypeWaveSize";
+	// how far from the entrance monsters spawn, as in Monster's constructor
+	private static final double SPAWN_SPREAD = 100;
+
+	private JGEngineInterface engine;
+	private TDObjectFactory factory;
+	private PathfinderManager pathfinderManager;
+	private ArchetypeWorld world;
+	private int minWaveSize;
+	// packed paths by start tile and blocked tiles, shared by the monsters walking them
+	private Map<List<Object>, int[]> packedPaths = new HashMap<List<Object>, int[]>();
+	private int packedPathsVersion;
+
+	/**
+	 * @return waves as set by the system property, or null if it is not set
+	 */
+	public static ArchetypeWaves fromSystemProperty (JGEngineInterface engine, TDObjectFactory factory,
+			PathfinderManager pathfinderManager) {
+		int minWaveSize = Integer.getInteger(WAVE_SIZE_PROPERTY, 0);
+		return minWaveSize > 0 ? new ArchetypeWaves(engine, factory, pathfinderManager, minWaveSize) : null;
+	}
+
+	/**
+	 * @param minWaveSizeInit number of monsters from which a wave is spawned here
+	 */
+	public ArchetypeWaves (JGEngineInterface engineInit, TDObjectFactory factoryInit,
+			PathfinderManager pathfinderManagerInit, int minWaveSizeInit) {
+		engine = engineInit;
+		factory = factoryInit;
+		pathfinderManager = pathfinderManagerInit;
+		minWaveSize = minWaveSizeInit;
+		packedPathsVersion = pathfinderManager.getMapVersion();
+		world = new ArchetypeWorld(engine.pfTilesX(), engine.pfTilesY(), engine.tileWidth(), engine.tileHeight());
+		new ArchetypeSprites(world);
+	}
+
+	/**
+	 * @param listener told about every monster removed
+	 */
+	public void setListener (ArchetypeListener listener) {
+		world.setListener(listener);
+	}
+
+	/**
+	 * @return whether the wave has enough monsters to be spawned here
+	 */
+	public boolean isLarge (WaveSpawnSchema wave) {
+		int size = 0;
+		for (MonsterSpawnSchema spawnSchema : wave.getMonsterSpawnSchemas()) {
+			size += spawnSchema.getSwarmSize();
+		}
+		return size >= minWaveSize;
+	}
+
+	/**
+	 * Spawn the monsters of a spawn schema around a point, as
+	 * LevelManager.spawnMonsterSpawnSchema does
+	 *
+	 * @param spawnSchema
+	 * @param entrance
+	 * @param exit where the monsters head to
+	 * @throws MonsterCreationFailureException if the monster is not loaded
+	 * or cannot reach the exit
+	 */
+	public void spawn (MonsterSpawnSchema spawnSchema, Point2D entrance, Exit exit)
+			throws MonsterCreationFailureException {
+		String name = (String) spawnSchema.getMonsterSchema().getAttributesMap().get(TDObjectSchema.NAME);
+		Map<String, Serializable> attributes = factory.loadMonsterAttributes(name);
+		if (attributes == null) {
+			throw new MonsterCreationFailureException(new IllegalArgumentException("No monster named " + name));
+		}
+		try {
+			for (int i = 0; i < spawnSchema.getSwarmSize(); i++) {
+				double x = entrance.getX() + engine.random(0, SPAWN_SPREAD);
+				double y = entrance.getY() + engine.random(0, SPAWN_SPREAD);
+				world.getMonsters().spawn(attributes, x, y, getPath(engine.getTileIndex(x, y), exit, name));
+			}
+		}
+		// also thrown by the pathfinder when the spread puts a monster off the map,
+		// which fails creating a Monster in the factory too
+		catch (NoPossiblePathException | RuntimeException e) {
+			throw new MonsterCreationFailureException(e);
+		}
+	}
+
+	/**
+	 * Advance the monsters and projectiles by one tick
+	 */
+	public void step () {
+		world.step();
+	}
+
+	/**
+	 * Send every monster along a new path from where it is, as
+	 * PathfinderManager.updatePaths does for Monsters
+	 *
+	 * @throws NoPossiblePathException if a monster can no longer reach the exit
+	 */
+	public void updatePaths (Exit exit) throws NoPossiblePathException {
+		MonsterArchetype monsters = world.getMonsters();
+		for (int row = 0; row < monsters.size(); row++) {
+			monsters.setPath(row, getPath(getCenterTile(row), exit, monsters.getImage(row)));
+		}
+	}
+
+	/**
+	 * @return whether every monster could still reach the exit if a tile were unwalkable
+	 */
+	public boolean canReachExitWithout (JGPoint unwalkable, Exit exit) {
+		JGPoint exitTile = engine.getTileIndex(exit.x, exit.y);
+		MonsterArchetype monsters = world.getMonsters();
+		for (int row = 0; row < monsters.size(); row++) {
+			if (!pathfinderManager.canReachWith(getCenterTile(row), exitTile,
+					getBlockedTiles(monsters.getImage(row)), unwalkable)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Set every monster to have taken more damage than it can
+	 */
+	public void killAll () {
+		MonsterArchetype monsters = world.getMonsters();
+		for (int row = 0; row < monsters.size(); row++) {
+			monsters.takeDamage(row, Double.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Add the monsters to an observation, as Model.exportObservation does for Monsters
+	 */
+	public void exportMonsters (Observation observation) {
+		MonsterArchetype monsters = world.getMonsters();
+		for (int row = 0; row < monsters.size(); row++) {
+			observation.addMonster(monsters.getX(row), monsters.getY(row), monsters.getHealth(row));
+		}
+	}
+
+	public boolean isEmpty () {
+		return world.getMonsters().size() == 0;
+	}
+
+	public ArchetypeWorld getWorld () {
+		return world;
+	}
+
+	private JGPoint getCenterTile (int row) {
+		MonsterArchetype monsters = world.getMonsters();
+		return engine.getTileIndex(monsters.getX(row) + world.getTileWidth() / 2,
+				monsters.getY(row) + world.getTileHeight() / 2);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Set<Integer> getBlockedTiles (String monsterName) {
+		return (Set<Integer>) factory.getTDObjectAttribute(monsterName, MonsterSchema.BLOCKED_TILES);
+	}
+
+	private int[] getPath (JGPoint start, Exit exit, String monsterName) throws NoPossiblePathException {
+		if (packedPathsVersion != pathfinderManager.getMapVersion()) {
+			packedPaths.clear();
+			packedPathsVersion = pathfinderManager.getMapVersion();
+		}
+		Set<Integer> blocked = getBlockedTiles(monsterName);
+		List<Object> key = Arrays.<Object>asList(start.x, start.y, blocked);
+		int[] path = packedPaths.get(key);
+		if (path == null) {
+			path = MonsterArchetype.packPath(
+					pathfinderManager.getPath(start, engine.getTileIndex(exit.x, exit.y), blocked));
+			packedPaths.put(key, path);
+		}
+		return path;
+	}
+}
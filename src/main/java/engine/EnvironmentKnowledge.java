@@ -1,8 +1,14 @@
 package main.java.engine;
 
+import java.awt.geom.Point2D;
 import java.util.List;
 
+import main.java.engine.archetype.ArchetypeWorld;
+import main.java.engine.archetype.MonsterArchetype;
+import main.java.engine.objects.EntityRegistry;
 import main.java.engine.objects.Exit;
+import main.java.engine.objects.item.decorations.Effect;
+import main.java.engine.objects.item.decorations.ParticleSystem;
 import main.java.engine.objects.monster.Monster;
 import main.java.engine.objects.tower.ITower;
 
@@ -29,6 +35,8 @@ public class EnvironmentKnowledge {
     Player currentPlayer;
     ITower[][] allTowers;
     Exit exit;
+    ParticleSystem particleSystem;
+    ArchetypeWaves archetypeWaves;
 
     /**
      * Add necessary state info.
@@ -36,6 +44,11 @@ public class EnvironmentKnowledge {
      * @param allMonsters
      */
     public EnvironmentKnowledge (List<Monster> allMonsters, Player currentPlayer, ITower[][] towers, Exit exit) {
+        this(allMonsters, currentPlayer, towers, exit, null);
+    }
+
+    public EnvironmentKnowledge (List<Monster> allMonsters, Player currentPlayer, ITower[][] towers, Exit exit,
+                                 ParticleSystem particleSystem) {
 
         // add more parameters as necessary
 
@@ -43,6 +56,7 @@ public class EnvironmentKnowledge {
         this.currentPlayer = currentPlayer;
         this.allTowers = towers;
         this.exit = exit;
+        this.particleSystem = particleSystem;
 
     }
 
@@ -82,6 +96,71 @@ public class EnvironmentKnowledge {
     	return exit;
     }
     
+    /**
+     * Show a visual effect at a location for its default lifetime
+     * 
+     * @param effect
+     * @param x
+     * @param y
+     */
+    public void showEffect(Effect effect, double x, double y) {
+    	showEffect(effect, x, y, effect.getDefaultLifetime());
+    }
+
+    /**
+     * Show a visual effect at a location for a number of frames
+     * 
+     * @param effect
+     * @param x
+     * @param y
+     * @param lifetime
+     */
+    public void showEffect(Effect effect, double x, double y, int lifetime) {
+    	if (particleSystem != null) {
+    		particleSystem.spawn(effect, x, y, lifetime);
+    	}
+    }
+    
+    /**
+     * Let towers target the monsters of large waves too
+     * 
+     * @param archetypeWaves or null if there are none
+     */
+    public void setArchetypeWaves(ArchetypeWaves archetypeWaves) {
+    	this.archetypeWaves = archetypeWaves;
+    }
+
+    /**
+     * Find the monster of the archetype waves nearest to a point within range
+     * 
+     * @param target set to the position of the monster found
+     * @return whether one was found
+     */
+    public boolean findArchetypeTarget(double x, double y, double range, Point2D target) {
+    	if (archetypeWaves == null) {
+    		return false;
+    	}
+    	ArchetypeWorld world = archetypeWaves.getWorld();
+    	int handle = world.findNearestMonster(x, y, range);
+    	if (handle == EntityRegistry.NO_HANDLE) {
+    		return false;
+    	}
+    	MonsterArchetype monsters = world.getMonsters();
+    	int row = monsters.getRow(handle);
+    	target.setLocation(monsters.getX(row), monsters.getY(row));
+    	return true;
+    }
+
+    /**
+     * Fire a projectile at the monsters of the archetype waves
+     * 
+     * @param angle Math.atan2(destX - srcX, destY - srcY)
+     * @param hits number of monsters it hits before it is removed
+     */
+    public void fireArchetypeProjectile(double x, double y, double angle, double damage, String image, int hits) {
+    	archetypeWaves.getWorld().getProjectiles().spawn(x, y, angle, damage, image, hits);
+    }
+
     /**
      * Add a life to the current player
      */
@@ -3,6 +3,8 @@ package main.java.engine;
 import java.io.IOException;
 import java.util.List;
 
+import main.java.engine.agent.Observation;
+import main.java.engine.replay.SessionRecorder;
 import main.java.exceptions.engine.InvalidSavedGameException;
 import main.java.exceptions.engine.MonsterCreationFailureException;
 import main.java.exceptions.engine.TowerCreationFailureException;
@@ -36,6 +38,26 @@ public interface IModel {
 	 * @return true if there is a tower
 	 */
 	public boolean isTowerPresent (double x, double y);
+
+	/**
+	 * Check if a tower could be placed at the specified coordinates right now:
+	 * the tile is free, the player can afford the tower and no monster would
+	 * be cut off from the exit. Nothing in the game is changed.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param towerName
+	 * @return true if placeTower would succeed
+	 */
+	public boolean canPlaceTower (double x, double y, String towerName);
+
+	/**
+	 * Range of a tower type, e.g. to show it before the tower is placed
+	 * 
+	 * @param towerName
+	 * @return range of the tower, or 0 if it has none
+	 */
+	public double getTowerRange (String towerName);
 	/**
 	 * Get the information of the TDObject, if any, 
 	 * at the specified coordinates
@@ -84,6 +106,15 @@ public interface IModel {
 	 */
 	public double getGameClock ();
 
+	/**
+	 * Get a number that changes whenever the towers or the player's money,
+	 * lives or score change, so the view can skip refreshing when it didn't.
+	 * The game clock is not included.
+	 * 
+	 * @return version of the state shown to the player
+	 */
+	public long getStateVersion ();
+
 	/**
 	 * Get the number of remaining lives of the player
 	 * 
@@ -158,6 +189,35 @@ public interface IModel {
 	 */
 	public void decrementLives ();
 
+	/**
+	 * Get the number of waves spawned so far
+	 * 
+	 * @return current wave number
+	 */
+	public int getCurrentWave ();
+
+	/**
+	 * Where the monsters that reached the exit came through
+	 * 
+	 * @return leaks counted since the game started
+	 */
+	public LeakMap getLeakMap ();
+
+	/**
+	 * Record the player's commands, stamped with the game clock, from now on
+	 * 
+	 * @param recorder where the commands are written, or null to stop recording
+	 */
+	public void setSessionRecorder (SessionRecorder recorder);
+
+	/**
+	 * Write the state an automated agent observes into an Observation,
+	 * without allocating
+	 * 
+	 * @param observation
+	 */
+	public void exportObservation (Observation observation);
+
 
 
 	/**
@@ -201,6 +261,33 @@ public interface IModel {
 	 * @return
 	 */
 	public String getTowerDescription(String towerName);
+
+	/**
+	 * Make sure the image of a tower is loaded, e.g. before showing a ghost of it.
+	 * 
+	 * @param towerName
+	 */
+	public void loadTowerImage(String towerName);
+
+	/**
+	 * Draw the visual effects of the game, such as fire and explosions.
+	 * Must be called while the engine is painting a frame.
+	 */
+	public void paintEffects ();
+
+	/**
+	 * Optional visual work of the game objects, for the view to turn down under load.
+	 * 
+	 * @return visual detail of the current game
+	 */
+	public VisualDetail getVisualDetail();
+
+	/**
+	 * Tiles on the predicted paths of the monsters, for the view to draw.
+	 * 
+	 * @return path overlay of the current game
+	 */
+	public PathOverlay getPathOverlay();
 	
 	/**
 	 * Description of an item/power-up
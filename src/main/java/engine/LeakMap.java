@@ -0,0 +1,62 @@
+package main.java.engine;
+
+import java.util.BitSet;
+
+/**
+ * Counts, for every tile, how many of the monsters that reached the exit
+ * walked through it, so that an author can see where the defense leaks.
+ *
+ */
+public class LeakMap {
+	private int[][] leaks;
+	private int totalLeaks;
+
+	public LeakMap (int numXTiles, int numYTiles) {
+		leaks = new int[numXTiles][numYTiles];
+	}
+
+	/**
+	 * Count a monster that reached the exit
+	 *
+	 * @param walkedTiles tiles the monster walked through, with tile (x, y)
+	 * at index x * getNumYTiles() + y
+	 */
+	public void recordLeak (BitSet walkedTiles) {
+		totalLeaks++;
+		int numYTiles = getNumYTiles();
+		if (numYTiles == 0) {
+			return;
+		}
+		for (int i = walkedTiles.nextSetBit(0); i >= 0; i = walkedTiles.nextSetBit(i + 1)) {
+			if (isOnMap(i / numYTiles, i % numYTiles)) {
+				leaks[i / numYTiles][i % numYTiles]++;
+			}
+		}
+	}
+
+	private boolean isOnMap (int x, int y) {
+		return x >= 0 && x < getNumXTiles() && y >= 0 && y < getNumYTiles();
+	}
+
+	/**
+	 * @return number of monsters that reached the exit through a tile
+	 */
+	public int getLeaks (int x, int y) {
+		return isOnMap(x, y) ? leaks[x][y] : 0;
+	}
+
+	/**
+	 * @return number of monsters that reached the exit
+	 */
+	public int getTotalLeaks () {
+		return totalLeaks;
+	}
+
+	public int getNumXTiles () {
+		return leaks.length;
+	}
+
+	public int getNumYTiles () {
+		return leaks.length == 0 ? 0 : leaks[0].length;
+	}
+}
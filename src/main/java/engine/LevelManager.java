@@ -28,6 +28,8 @@ public class LevelManager {
     private Exit exit;
     private Player myPlayer;
     private boolean survivalMode;
+    private LeakMap myLeakMap;
+    private ArchetypeWaves myArchetypeWaves;
 
     /**
      * Tasked with managing state for levels/waves/lives and spawning waves of monsters.
@@ -49,9 +51,20 @@ public class LevelManager {
         myAllWaves.add(newWave);
     }
 
+    /**
+     * Spawn waves large enough for it into an ArchetypeWorld
+     * 
+     * @param archetypeWaves
+     */
+    public void setArchetypeWaves (ArchetypeWaves archetypeWaves) {
+        myArchetypeWaves = archetypeWaves;
+    }
+
     /**
      * Spawns the next wave in the list of all waves.
      * Currently rotates through all waves indefinitely.
+     * Monsters of large waves are spawned into the archetype waves, if
+     * set, and not returned.
      * 
      * @throws MonsterCreationFailureException
      */
@@ -69,10 +82,16 @@ public class LevelManager {
             }
         }
 
-        for (MonsterSpawnSchema spawnSchema : myAllWaves.get(myCurrentWave++)
-                .getMonsterSpawnSchemas()) {
+        WaveSpawnSchema wave = myAllWaves.get(myCurrentWave++);
+        boolean archetypes = myArchetypeWaves != null && myArchetypeWaves.isLarge(wave);
+        for (MonsterSpawnSchema spawnSchema : wave.getMonsterSpawnSchemas()) {
             myPlayer.incrementScore();
-            spawnedMonsters.addAll(spawnMonsterSpawnSchema(spawnSchema));
+            if (archetypes) {
+                myArchetypeWaves.spawn(spawnSchema, entrance, exit);
+            }
+            else {
+                spawnedMonsters.addAll(spawnMonsterSpawnSchema(spawnSchema));
+            }
         }
 
         return spawnedMonsters;
@@ -155,6 +174,27 @@ public class LevelManager {
         }
     }
 
+    /**
+     * Called for every monster that reaches the exit, also during the exit's
+     * grace time when no life is taken
+     * 
+     * @param monster
+     */
+    public void monsterLeaked (Monster monster) {
+        if (myLeakMap != null) {
+            myLeakMap.recordLeak(monster.getWalkedTiles());
+        }
+    }
+
+    /**
+     * Set where monsters that reach the exit are counted
+     * 
+     * @param leakMap
+     */
+    public void setLeakMap (LeakMap leakMap) {
+        myLeakMap = leakMap;
+    }
+
     /**
      * Returns wave number currently on
      * 
@@ -11,20 +11,26 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import jgame.JGPoint;
 import jgame.platform.JGEngine;
 import main.java.author.view.tabs.terrain.TerrainAttribute;
 import main.java.data.DataHandler;
+import main.java.engine.agent.Observation;
+import main.java.engine.archetype.ArchetypeListener;
+import main.java.engine.factory.AssetLoader;
 import main.java.engine.factory.TDObjectFactory;
 import main.java.engine.map.TDMap;
 import main.java.engine.objects.CollisionManager;
 import main.java.engine.objects.Exit;
 import main.java.engine.objects.TDObject;
+import main.java.engine.objects.item.decorations.ParticleSystem;
 import main.java.engine.objects.monster.Monster;
 import main.java.engine.objects.monster.jgpathfinder.*;
 import main.java.engine.objects.powerup.TDPowerupPowerup;
 import main.java.engine.objects.tower.ITower;
 import main.java.engine.objects.tower.ShootingTower;
 import main.java.engine.objects.tower.TowerBehaviors;
+import main.java.engine.replay.SessionRecorder;
 import main.java.exceptions.engine.InvalidSavedGameException;
 import main.java.exceptions.engine.MonsterCreationFailureException;
 import main.java.exceptions.engine.ObjectInfoException;
@@ -62,30 +68,95 @@ public class Model implements IModel {
 	private List<TDPowerupPowerup> items;
 	private TDMap currentMap;
 	private PathfinderManager pathfinderManager;
+	private AssetLoader assetLoader;
+	private VisualDetail visualDetail;
+	private ParticleSystem particleSystem;
+	private LeakMap leakMap;
+	private SessionRecorder sessionRecorder;
+	private int stateVersion;
+	// null unless large waves are played as archetypes, see ArchetypeWaves
+	private ArchetypeWaves archetypeWaves;
 
 	public Model (JGEngine engine, String pathToBlueprint) {
+		this(engine);
+		try {
+			loadGameBlueprint(pathToBlueprint);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		addNewPlayer();
+	}
+
+	/**
+	 * Create a model from a blueprint that was already loaded, so that many
+	 * models (e.g. the matches of a MatchHost) don't each unzip the blueprint
+	 * 
+	 * @param engine engine of this model only
+	 * @param blueprint
+	 * @return the new model
+	 */
+	public static Model fromBlueprint (JGEngine engine, GameBlueprint blueprint) {
+		Model model = new Model(engine);
+		model.loadGameBlueprint(blueprint);
+		model.addNewPlayer();
+		return model;
+	}
+
+	private Model (JGEngine engine) {
 		this.engine = engine;
 		dataHandler = new DataHandler();
 		defineExitImage();
-		this.factory = new TDObjectFactory(engine);
+		assetLoader = new AssetLoader(engine);
+		visualDetail = new VisualDetail();
+		this.factory = new TDObjectFactory(engine, assetLoader, visualDetail);
+		particleSystem = new ParticleSystem(engine, assetLoader, RESOURCE_PATH, visualDetail);
 		collisionManager = new CollisionManager(engine);
 
 		initPathfinderManager();
 		levelManager = new LevelManager(factory, pathfinderManager);
+		archetypeWaves = ArchetypeWaves.fromSystemProperty(engine, factory, pathfinderManager);
+		if (archetypeWaves != null) {
+			levelManager.setArchetypeWaves(archetypeWaves);
+			listenToArchetypeWaves();
+		}
 
 		this.gameClock = 0;
 		monsters = new ArrayList<Monster>();
 		towers = new ITower[engine.viewTilesX()][engine.viewTilesY()];
+		// monsters index the tiles they walk through by the playfield's tiles
+		leakMap = new LeakMap(engine.pfTilesX(), engine.pfTilesY());
+		levelManager.setLeakMap(leakMap);
 		items = new ArrayList<TDPowerupPowerup>();
+	}
 
-		try {
-			loadGameBlueprint(pathToBlueprint);
-		}
-		catch (Exception e) {
-			e.printStackTrace();
-		}
+	/**
+	 * Pay for and resurrect the monsters of archetype waves that are killed,
+	 * and take lives for those that escape, as for Monsters
+	 */
+	private void listenToArchetypeWaves () {
+		archetypeWaves.setListener(new ArchetypeListener() {
+			@Override
+			public void monsterKilled (int handle, double x, double y, double reward,
+					MonsterSpawnSchema resurrection) {
+				addMoney(reward);
+				if (resurrection != null) {
+					try {
+						archetypeWaves.spawn(resurrection, new Point2D.Double(x, y), levelManager.getExit());
+					}
+					catch (MonsterCreationFailureException e) {
+						// resurrection schema could not be spawned, so ignore it.
+						e.printStackTrace();
+					}
+				}
+			}
 
-		addNewPlayer();
+			@Override
+			public void monsterEscaped (int handle) {
+				levelManager.getExit().monsterEscaped();
+			}
+		});
 	}
 
 	private void defineExitImage () {
@@ -108,9 +179,11 @@ public class Model implements IModel {
 	 */
 	public void addNewPlayer () {
 		this.player = new Player();
+		stateVersion++;
 		levelManager.registerPlayer(player);
 
-		environ = new EnvironmentKnowledge(monsters, player, towers, levelManager.getExit());
+		environ = new EnvironmentKnowledge(monsters, player, towers, levelManager.getExit(), particleSystem);
+		environ.setArchetypeWaves(archetypeWaves);
 	}
 
 	/**
@@ -121,6 +194,9 @@ public class Model implements IModel {
 	 * @param towerName Type tower to be placed
 	 */
 	public boolean placeTower (double x, double y, String towerName) {
+		if (sessionRecorder != null) {
+			sessionRecorder.placeTower(gameClock, x, y, towerName);
+		}
 		try {
 			Point2D location = new Point2D.Double(x, y);
 			int[] currentTile = getTileCoordinates(location);
@@ -140,11 +216,13 @@ public class Model implements IModel {
 				// FIXME: Decrease money?
 				player.changeMoney(-newTower.getCost());
 				towers[currentTile[0]][currentTile[1]] = newTower;
+				stateVersion++;
 				return true;
 			}
 			else {
 				newTower.remove();
 				currentMap.revertTileCIDToOriginal(currentTile[0], currentTile[1]);
+				pathfinderManager.mapChanged();
 				return false;
 			}
 		}
@@ -158,10 +236,14 @@ public class Model implements IModel {
 	private boolean willTowerBlockPath(int currentTile[]) {
 		try {
 			currentMap.setTileCID(currentTile[0], currentTile[1],
-					TerrainAttribute.Unwalkable.getIndex()); // TODO: get from schema
+					TerrainAttribute.Unwalkable.getIndex());
 			pathfinderManager.updatePaths(monsters);
+			if (archetypeWaves != null) {
+				archetypeWaves.updatePaths(levelManager.getExit());
+			}
 		} catch (NoPossiblePathException e) {
 			currentMap.revertTileCIDToOriginal(currentTile[0], currentTile[1]);
+			pathfinderManager.mapChanged();
 			System.out.println("Cannot place tower as it will block path");
 			return true;
 		}
@@ -177,10 +259,27 @@ public class Model implements IModel {
 	 * @return the row, col of the tile on which the location is situated
 	 */
 	private int[] getTileCoordinates (Point2D location) {
-		int curXTilePos = (int) (location.getX() / engine.tileWidth());
-		int curYTilePos = (int) (location.getY() / engine.tileHeight());
+		return new int[] { getTileX(location.getX()), getTileY(location.getY()) };
+	}
 
-		return new int[] { curXTilePos, curYTilePos };
+	/**
+	 * Allocation-free version of getTileCoordinates, for checks made every frame
+	 * 
+	 * @param x
+	 * @return the column of the tile on which the x coordinate is situated
+	 */
+	private int getTileX (double x) {
+		return (int) (x / engine.tileWidth());
+	}
+
+	/**
+	 * Allocation-free version of getTileCoordinates, for checks made every frame
+	 * 
+	 * @param y
+	 * @return the row of the tile on which the y coordinate is situated
+	 */
+	private int getTileY (double y) {
+		return (int) (y / engine.tileHeight());
 	}
 
 	/**
@@ -193,6 +292,46 @@ public class Model implements IModel {
 		return towers[coordinates[0]][coordinates[1]] != null;
 	}
 
+	/**
+	 * Check if a tower could be placed at the specified coordinates right now:
+	 * the tile is free, the player can afford the tower and no monster would
+	 * be cut off from the exit. Nothing in the game is changed.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param towerName
+	 * @return true if placeTower would succeed
+	 */
+	public boolean canPlaceTower (double x, double y, String towerName) {
+		int[] tile = getTileCoordinates(new Point2D.Double(x, y));
+		if (tile[0] < 0 || tile[0] >= towers.length || tile[1] < 0 || tile[1] >= towers[0].length
+				|| isTowerPresent(tile)) {
+			return false;
+		}
+		Serializable cost = factory.getTDObjectAttribute(towerName, TowerSchema.COST);
+		if (cost instanceof Number && ((Number) cost).doubleValue() > player.getMoney()) {
+			return false;
+		}
+		JGPoint unwalkable = new JGPoint(tile[0], tile[1]);
+		for (Monster m : monsters) {
+			if (!m.hasPathToExitWithout(unwalkable)) {
+				return false;
+			}
+		}
+		return archetypeWaves == null || archetypeWaves.canReachExitWithout(unwalkable, levelManager.getExit());
+	}
+
+	/**
+	 * Range of a tower type, e.g. to show it before the tower is placed
+	 * 
+	 * @param towerName
+	 * @return range of the tower, or 0 if it has none
+	 */
+	public double getTowerRange (String towerName) {
+		Serializable range = factory.getTDObjectAttribute(towerName, TowerSchema.RANGE);
+		return (range instanceof Number) ? ((Number) range).doubleValue() : 0;
+	}
+
 	/**
 	 * Check if there's a tower present at the specified coordinates
 	 * This is mainly for the view to do a quick check
@@ -202,7 +341,7 @@ public class Model implements IModel {
 	 * @return true if there is a tower
 	 */
 	public boolean isTowerPresent (double x, double y) {
-		return isTowerPresent(getTileCoordinates(new Point2D.Double(x, y)));
+		return towers[getTileX(x)][getTileY(y)] != null;
 	}
 
 	/**
@@ -216,8 +355,7 @@ public class Model implements IModel {
 	public List<String> getUnitInfo (double x, double y) {
 		List<String> info = new ArrayList<String>();
 		if (isTowerPresent(x, y)) {
-			int[] currentTile = getTileCoordinates(new Point2D.Double(x, y));
-			ITower currTower = towers[currentTile[0]][currentTile[1]];
+			ITower currTower = towers[getTileX(x)][getTileY(y)];
 			info.add(currTower.getInfo());
 		}
 
@@ -238,6 +376,33 @@ public class Model implements IModel {
 		return factory.getTowerDescription(towerName);
 	}
 
+	/**
+	 * Make sure the image of a tower is loaded, e.g. before showing a ghost of it.
+	 * 
+	 * @param towerName
+	 */
+	public void loadTowerImage(String towerName) {
+		factory.loadTowerImages(towerName);
+	}
+
+	/**
+	 * Optional visual work of the game objects, for the view to turn down under load.
+	 * 
+	 * @return visual detail of the current game
+	 */
+	public VisualDetail getVisualDetail() {
+		return visualDetail;
+	}
+
+	/**
+	 * Tiles on the predicted paths of the monsters, for the view to draw.
+	 * 
+	 * @return path overlay of the current game
+	 */
+	public PathOverlay getPathOverlay() {
+		return pathfinderManager.getPathOverlay();
+	}
+
 	/**
 	 * Return the monster at the specified coordinates.
 	 * If there's no monster at that location, null will be returned.
@@ -265,6 +430,9 @@ public class Model implements IModel {
 	 * @param y
 	 */
 	public void checkAndRemoveTower (double x, double y) {
+		if (sessionRecorder != null) {
+			sessionRecorder.removeTower(gameClock, x, y);
+		}
 		int[] coordinates = getTileCoordinates(new Point2D.Double(x, y));
 		if (isTowerPresent(coordinates)) {
 			int xtile = coordinates[0];
@@ -274,10 +442,14 @@ public class Model implements IModel {
 			currentMap.revertTileCIDToOriginal(xtile, ytile);
 			try {
 				pathfinderManager.updatePaths(monsters);
+				if (archetypeWaves != null) {
+					archetypeWaves.updatePaths(levelManager.getExit());
+				}
 			} catch (Exception e) {
 				e.printStackTrace(); // ignore, removing a tower should never block a path
 			}
 			towers[xtile][ytile] = null;
+			stateVersion++;
 		}
 	}
 
@@ -303,7 +475,15 @@ public class Model implements IModel {
 				return;
 			}
 		}
+		loadGameBlueprint(blueprint);
+	}
 
+	/**
+	 * Load an already deserialized GameBlueprint into the engine
+	 * 
+	 * @param blueprint
+	 */
+	public void loadGameBlueprint (GameBlueprint blueprint) {
 		// Initialize from game settings from game schema
 		GameSchema gameSchema = blueprint.getMyGameScenario();
 		Map<String, Serializable> gameSchemaAttributeMap = gameSchema.getAttributesMap();
@@ -324,6 +504,7 @@ public class Model implements IModel {
 		if (blueprint.getMyItemSchemas() != null) {
 			factory.loadItemSchemas(blueprint.getMyItemSchemas());
 		}
+		factory.loadRequestedImages();
 
 		// Initialize waves
 		if (blueprint.getMyWaveSchemas() != null) {
@@ -332,7 +513,7 @@ public class Model implements IModel {
 
 		// Initialize map settings
 		if (blueprint.getMyGameMapSchemas() != null) {
-			currentMap = new TDMap(engine, blueprint.getMyGameMapSchemas().get(0)); // TODO: load
+			currentMap = new TDMap(engine, blueprint.getMyGameMapSchemas().get(0), assetLoader); // TODO: load
 			// each map
 			CanvasSchema myCanvasSchema =
 					(CanvasSchema) blueprint.getMyGameMapSchemas().get(0).getAttributesMap()
@@ -387,6 +568,17 @@ public class Model implements IModel {
 		return this.gameClock;
 	}
 
+	/**
+	 * Get a number that changes whenever the towers or the player's money,
+	 * lives or score change, so the view can skip refreshing when it didn't.
+	 * The game clock is not included.
+	 * 
+	 * @return version of the state shown to the player
+	 */
+	public long getStateVersion () {
+		return ((long) stateVersion << 32) | (player.getVersion() & 0xffffffffL);
+	}
+
 	/**
 	 * Get the number of remaining lives of the player
 	 * 
@@ -414,7 +606,8 @@ public class Model implements IModel {
 	public boolean isGameWon () {
 		return !levelManager.isSurvivalMode()
 				&& levelManager.zeroWavesRemaining()
-				&& monsters.size() == 0;
+				&& monsters.size() == 0
+				&& (archetypeWaves == null || archetypeWaves.isEmpty());
 	}
 
 	/**
@@ -436,7 +629,7 @@ public class Model implements IModel {
 		// at determined intervals:
 		// if (gameClock % 100 == 0)
 		// or if previous wave defeated:
-		if (monsters.isEmpty())
+		if (monsters.isEmpty() && (archetypeWaves == null || archetypeWaves.isEmpty()))
 			monsters.addAll(levelManager.spawnNextWave());
 
 	}
@@ -452,15 +645,27 @@ public class Model implements IModel {
 		doSpawnActivity();
 		doTowerBehaviors();
 		doItemActions();
+		if (archetypeWaves != null) {
+			archetypeWaves.step();
+		}
 		removeDeadMonsters();
+		particleSystem.update();
+	}
+
+	/**
+	 * Draw the visual effects of the game, such as fire and explosions.
+	 * Must be called while the engine is painting a frame.
+	 */
+	public void paintEffects () {
+		particleSystem.paint();
 	}
 
 	private void doItemActions () {
-		Iterator<TDPowerupPowerup> itemIter = items.iterator();
-		while (itemIter.hasNext()) {
-			TDPowerupPowerup currentItem = itemIter.next();
+		// indexed, since the JIT does not always get rid of an iterator here
+		for (int i = 0; i < items.size(); i++) {
+			TDPowerupPowerup currentItem = items.get(i);
 			if (currentItem.isDead()) {
-				itemIter.remove();
+				items.remove(i);
 				currentItem.remove();
 				return;
 			}
@@ -477,6 +682,9 @@ public class Model implements IModel {
 	 * @param y
 	 */
 	public boolean placeItem (String name, double x, double y) {
+		if (sessionRecorder != null) {
+			sessionRecorder.placeItem(gameClock, x, y, name);
+		}
 		try {
 			TDPowerupPowerup newItem = factory.placeItem(new Point2D.Double(x, y), name);
 			if (newItem.getCost() <= player.getMoney()) {
@@ -500,31 +708,35 @@ public class Model implements IModel {
 	 * Clean up dead monsters from monsters list and JGEngine display.
 	 */
 	private void removeDeadMonsters () {
-		Iterator<Monster> monsterIter = monsters.iterator();
-		List<Monster> newlyAdded = new ArrayList<Monster>();
-		while (monsterIter.hasNext()) {
-			Monster currentMonster = monsterIter.next();
+		// only created when a monster resurrects, so frames without deaths don't allocate
+		List<Monster> newlyAdded = null;
+		// indexed, since the JIT does not always get rid of an iterator here
+		for (int i = 0; i < monsters.size(); i++) {
+			Monster currentMonster = monsters.get(i);
 			if (currentMonster.isDead()) {
 				MonsterSpawnSchema resurrectSchema =
 						currentMonster.getResurrrectMonsterSpawnSchema();
 				if (resurrectSchema != null) {
 					try {
-						newlyAdded =
-								levelManager.spawnMonsterSpawnSchema(resurrectSchema,
-										currentMonster
-										.getCurrentCoor());
+						if (newlyAdded == null) {
+							newlyAdded = new ArrayList<Monster>();
+						}
+						newlyAdded.addAll(levelManager.spawnMonsterSpawnSchema(resurrectSchema,
+								currentMonster.getCurrentCoor()));
 					}
 					catch (MonsterCreationFailureException e) {
 						// resurrection schema could not be spawned, so ignore it.
 						e.printStackTrace();
 					}
 				}
-				monsterIter.remove();
+				monsters.remove(i--);
 				addMoney(currentMonster.getMoneyValue());
 				currentMonster.remove();
 			}
 		}
-		monsters.addAll(newlyAdded);
+		if (newlyAdded != null) {
+			monsters.addAll(newlyAdded);
+		}
 	}
 
 	private void addMoney (double moneyValue) {
@@ -562,6 +774,9 @@ public class Model implements IModel {
 	 * @throws TowerCreationFailureException
 	 */
 	public boolean upgradeTower (double x, double y) throws TowerCreationFailureException {
+		if (sessionRecorder != null) {
+			sessionRecorder.upgradeTower(gameClock, x, y);
+		}
 		int[] coordinates = getTileCoordinates(new Point2D.Double(x, y));
 
 		if (!isTowerPresent(coordinates)) { return false; }
@@ -579,6 +794,7 @@ public class Model implements IModel {
 		// some discount?
 		existingTower.remove();
 		towers[xtile][ytile] = newTower;
+		stateVersion++;
 		return true;
 	}
 
@@ -600,6 +816,59 @@ public class Model implements IModel {
 		player.decrementLives();
 	}
 
+	/**
+	 * Get the number of waves spawned so far
+	 * 
+	 * @return current wave number
+	 */
+	public int getCurrentWave () {
+		return levelManager.getCurrentWave();
+	}
+
+	/**
+	 * Record the player's commands from now on, or stop recording them
+	 * 
+	 * @param recorder where the commands are written, or null
+	 */
+	public void setSessionRecorder (SessionRecorder recorder) {
+		sessionRecorder = recorder;
+	}
+
+	/**
+	 * Where the monsters that reached the exit came through
+	 * 
+	 * @return leaks counted since the game started
+	 */
+	public LeakMap getLeakMap () {
+		return leakMap;
+	}
+
+	/**
+	 * Write the state an automated agent observes into an Observation,
+	 * without allocating
+	 * 
+	 * @param observation
+	 */
+	public void exportObservation (Observation observation) {
+		observation.clear(towers.length, towers[0].length);
+		for (int x = 0; x < towers.length; x++) {
+			for (int y = 0; y < towers[x].length; y++) {
+				if (towers[x][y] != null) {
+					observation.setTower(x, y);
+				}
+			}
+		}
+		for (int i = 0; i < monsters.size(); i++) {
+			Monster m = monsters.get(i);
+			observation.addMonster(m.getX(), m.getY(), m.getHealth());
+		}
+		if (archetypeWaves != null) {
+			archetypeWaves.exportMonsters(observation);
+		}
+		observation.setPlayer(player.getMoney(), player.getLivesRemaining(), player.getScore());
+		observation.setGame(levelManager.getCurrentWave(), gameClock, isGameWon(), isGameLost());
+	}
+
 	/**
 	 * A list of names of possible towers to create
 	 * 
@@ -673,6 +942,9 @@ public class Model implements IModel {
 	 *         (please pause and notify the player, then continue the present game).
 	 */
 	public void loadSavedGame (String filename) throws InvalidSavedGameException {
+		if (sessionRecorder != null) {
+			sessionRecorder.loadSavedGame(gameClock, filename);
+		}
 		try {
 			// TODO: check for proper game blueprint loaded prior?
 			// removed the RESOURCE_PATH variable as i think thats causing issues with actually
@@ -684,6 +956,7 @@ public class Model implements IModel {
 			towers = newGameState.getTowers();
 			player = newGameState.getPlayer();
 			gameClock = newGameState.getGameClock();
+			stateVersion++;
 
 			// cleanly reload waves in the level manager, and reset wave # to start at.
 			levelManager.cleanLoadWaveSchemas(newGameState.getAllWaveSchemas(),
@@ -724,10 +997,16 @@ public class Model implements IModel {
          * Call this cheat to annihilate all monsters on field.
          */
         public void annihilateMonsters() {
+            if (sessionRecorder != null) {
+                sessionRecorder.annihilateMonsters(gameClock);
+            }
             Iterator<Monster> iter = monsters.iterator();
             while(iter.hasNext()) {
                 Monster m = iter.next();
                 m.takeDamage(Double.MAX_VALUE);
             }
+            if (archetypeWaves != null) {
+                archetypeWaves.killAll();
+            }
         }
 }
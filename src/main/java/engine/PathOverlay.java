@@ -0,0 +1,114 @@
+package main.java.engine;
+
+import java.io.Serializable;
+
+import jgame.JGPoint;
+import main.java.engine.objects.monster.jgpathfinder.JGPath;
+
+/**
+ * Keeps count of how many monster paths still pass through each tile, so
+ * the player can draw all predicted paths at once instead of every monster
+ * drawing its own. Monsters add their path when it is computed, leave tiles
+ * as they reach them and remove what is left when they are removed.
+ * Traffic is also reported as a level that doubles with every step
+ * (1, 2-3, 4-7, ...) so crowded tiles can be drawn thicker. The version
+ * only changes when the level of a tile changes, which is when a cached
+ * drawing of the overlay has to be redrawn.
+ *
+ */
+public class PathOverlay implements Serializable {
+	private static final long serialVersionUID = 1L;
+	public static final int MAX_TRAFFIC_LEVEL = 5;
+
+	private int[][] traffic;
+	private volatile int version;
+
+	public PathOverlay (int numXTiles, int numYTiles) {
+		traffic = new int[numXTiles][numYTiles];
+	}
+
+	/**
+	 * Count every tile of a newly computed path
+	 *
+	 * @param path
+	 */
+	public void addPath (JGPath path) {
+		if (path == null) { return; }
+		for (JGPoint tile : path) {
+			changeTraffic(tile, 1);
+		}
+	}
+
+	/**
+	 * Stop counting the tiles left on a path
+	 *
+	 * @param path
+	 */
+	public void removePath (JGPath path) {
+		if (path == null) { return; }
+		for (JGPoint tile : path) {
+			changeTraffic(tile, -1);
+		}
+	}
+
+	/**
+	 * Stop counting a single tile that a monster has reached
+	 *
+	 * @param tile
+	 */
+	public void leaveTile (JGPoint tile) {
+		changeTraffic(tile, -1);
+	}
+
+	private void changeTraffic (JGPoint tile, int change) {
+		if (tile == null || !isOnMap(tile.x, tile.y)) { return; }
+		int before = traffic[tile.x][tile.y];
+		int after = Math.max(0, before + change);
+		traffic[tile.x][tile.y] = after;
+		if (toLevel(before) != toLevel(after)) {
+			version++;
+		}
+	}
+
+	private static int toLevel (int traffic) {
+		int level = 0;
+		while (traffic > 0 && level < MAX_TRAFFIC_LEVEL) {
+			traffic >>= 1;
+			level++;
+		}
+		return level;
+	}
+
+	private boolean isOnMap (int x, int y) {
+		return x >= 0 && x < getNumXTiles() && y >= 0 && y < getNumYTiles();
+	}
+
+	/**
+	 * @return number that changes whenever the traffic level of a tile changes
+	 */
+	public int getVersion () {
+		return version;
+	}
+
+	/**
+	 * @return number of paths still passing through a tile
+	 */
+	public int getTraffic (int x, int y) {
+		return isOnMap(x, y) ? traffic[x][y] : 0;
+	}
+
+	/**
+	 * @return 0 for tiles on no path, up to MAX_TRAFFIC_LEVEL for the most crowded tiles
+	 */
+	public int getTrafficLevel (int x, int y) {
+		return toLevel(getTraffic(x, y));
+	}
+
+	public int getNumXTiles () {
+		return traffic.length;
+	}
+
+	public int getNumYTiles () {
+		return traffic.length == 0 ? 0 : traffic[0].length;
+	}
+}
@@ -5,29 +5,165 @@ import main.java.engine.objects.monster.Monster;
 import main.java.engine.objects.monster.jgpathfinder.*;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Computes monster paths. Most monsters of a wave start from the same tile
+ * and head to the same exit, so each path is only computed once per map
+ * version and every monster asking for it gets its own copy. The map version
+ * changes whenever the walkable tiles may have changed (see mapChanged).
+ */
 public class PathfinderManager implements Serializable {
+	private static final long serialVersionUID = -3414374989081805265L;
 	private JGTileMapInterface tileMap;
 	private JGPathfinderInterface pathfinder;
 	private JGPathfinderHeuristicInterface pathfinderHeuristic;
+	private PathOverlay pathOverlay;
+	private transient Map<List<Object>, JGPath> computedPaths;
+	private int mapVersion;
+	// tiles from which the exit can be reached, for the exit, blocked tiles,
+	// extra unwalkable tile and map version they were flooded for
+	private transient boolean[][] reachable;
+	private transient List<Object> reachableKey;
 
 	public PathfinderManager(JGTileMapInterface tileMap,
 							 JGPathfinderHeuristicInterface pathfinderHeuristic) {
 		this.tileMap = tileMap;
 		this.pathfinderHeuristic = pathfinderHeuristic;
+		this.pathOverlay = new PathOverlay(tileMap.getNumXTiles(), tileMap.getNumYTiles());
 	}
 
 	public JGPath getPath(JGPoint source, JGPoint target,
 						  Set<Integer> blocked) throws NoPossiblePathException {
-		pathfinder = new JGPathfinder(tileMap, pathfinderHeuristic);
+		if (computedPaths == null) {
+			computedPaths = new HashMap<List<Object>, JGPath>();
+		}
+		List<Object> key = Arrays.<Object>asList(source.x, source.y, target.x, target.y, blocked);
+		JGPath path = computedPaths.get(key);
+		if (path == null) {
+			pathfinder = new JGPathfinder(tileMap, pathfinderHeuristic);
+			tileMap.setBlockedTiles(blocked);
+			path = pathfinder.getPath(source, target);
+			computedPaths.put(key, path);
+		}
+		return new JGPath(path);
+	}
+
+	/**
+	 * Check whether a path from source to target would exist if one more
+	 * tile were unwalkable, without changing the map. The tiles that can
+	 * reach the target are flooded once per target, blocked tiles, extra
+	 * tile and map version, so that checking every monster of a wave
+	 * costs one search.
+	 *
+	 * @param source
+	 * @param target
+	 * @param blocked tile CIDs that cannot be walked on
+	 * @param unwalkable tile to treat as unwalkable
+	 * @return whether a path would exist
+	 */
+	public boolean canReachWith(JGPoint source, JGPoint target, Set<Integer> blocked, JGPoint unwalkable) {
+		if (source.x == target.x && source.y == target.y) {
+			return true;
+		}
+		List<Object> key = Arrays.<Object>asList(target.x, target.y, blocked, unwalkable.x, unwalkable.y, mapVersion);
+		if (!key.equals(reachableKey)) {
+			reachable = floodToTarget(target, blocked, unwalkable);
+			reachableKey = key;
+		}
+		if (reachable[source.x][source.y]) {
+			return true;
+		}
+		// the source itself may be blocked, as when a tower would go where a monster is
+		List<JGPoint> neighbors = new ArrayList<JGPoint>();
+		tileMap.setBlockedTiles(blocked);
+		tileMap.getNeighbors(source, neighbors);
+		for (JGPoint n : neighbors) {
+			if (reachable[n.x][n.y]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return for every tile, whether the target can be walked to from it
+	 * through walkable tiles other than unwalkable
+	 */
+	private boolean[][] floodToTarget(JGPoint target, Set<Integer> blocked, JGPoint unwalkable) {
+		boolean[][] flooded = new boolean[tileMap.getNumXTiles()][tileMap.getNumYTiles()];
 		tileMap.setBlockedTiles(blocked);
+		List<JGPoint> queue = new ArrayList<JGPoint>();
+		List<JGPoint> neighbors = new ArrayList<JGPoint>();
+		if ((target.x == unwalkable.x && target.y == unwalkable.y) || !isWalkable(target, neighbors)) {
+			return flooded;
+		}
+		// walking between neighbors only depends on the tile walked onto,
+		// and every flooded tile is walkable, so the flood can run backwards
+		queue.add(target);
+		flooded[target.x][target.y] = true;
+		for (int i = 0; i < queue.size(); i++) {
+			tileMap.getNeighbors(queue.get(i), neighbors);
+			for (JGPoint n : neighbors) {
+				if (!flooded[n.x][n.y] && (n.x != unwalkable.x || n.y != unwalkable.y)) {
+					flooded[n.x][n.y] = true;
+					queue.add(n);
+				}
+			}
+		}
+		return flooded;
+	}
+
+	/**
+	 * A tile is walkable if it is a neighbor of its neighbors; a tile
+	 * without walkable neighbors counts as walkable, as nothing can walk
+	 * onto it anyway.
+	 */
+	private boolean isWalkable(JGPoint tile, List<JGPoint> neighbors) {
+		tileMap.getNeighbors(tile, neighbors);
+		if (neighbors.isEmpty()) {
+			return true;
+		}
+		tileMap.getNeighbors(neighbors.get(0), neighbors);
+		for (JGPoint n : neighbors) {
+			if (n.x == tile.x && n.y == tile.y) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Forget computed paths. Must be called whenever the walkable tiles change.
+	 */
+	public void mapChanged() {
+		mapVersion++;
+		if (computedPaths != null) {
+			computedPaths.clear();
+		}
+	}
+
+	/**
+	 * @return number of times the walkable tiles have changed
+	 */
+	public int getMapVersion() {
+		return mapVersion;
+	}
 
-		return pathfinder.getPath(source, target);
+	/**
+	 * @return tiles covered by the paths of the monsters using this manager
+	 */
+	public PathOverlay getPathOverlay() {
+		return pathOverlay;
 	}
 
 	public void updatePaths(List<Monster> monsters) throws NoPossiblePathException {
+		mapChanged();
 		for (Monster m : monsters) {
 			m.updatePath();
 		}
@@ -12,11 +12,13 @@ import jgame.JGObject;
  *
  */
 public class Player implements Serializable {
+	private static final long serialVersionUID = 5720125450350668263L;
 	private static final int DEFAULT_INITIAL_LIVES_NUM = 3;
 	private int money;
 	private int lives;
 	private double score;
 	private Map<String, Integer> skills;
+	private transient int version;
 	
 	public Player() {
 		this.money = 300;
@@ -42,6 +44,7 @@ public class Player implements Serializable {
 	 */
 	public void incrementScore() {
 		this.score ++;
+		version++;
 	}
 	
 	/**
@@ -51,6 +54,7 @@ public class Player implements Serializable {
 	public void updateSkills(String skill) {
 		if (this.skills.containsKey(skill)) this.skills.put(skill, this.skills.get(skill)+1);
 		else this.skills.put(skill, 1);
+		version++;
 	}
 	
 	/**
@@ -68,6 +72,7 @@ public class Player implements Serializable {
 	 */
 	public void changeMoney(double value) {
 		this.money+=value;
+		version++;
 	}
 	
 	/**
@@ -84,6 +89,7 @@ public class Player implements Serializable {
 	 */
 	public void decrementLives(){
 	    lives--;
+	    version++;
 	}
 	
 	/**
@@ -91,6 +97,7 @@ public class Player implements Serializable {
 	 */
 	public void incrementLives() {
 		lives++;
+		version++;
 	}
 
 	/**
@@ -100,4 +107,12 @@ public class Player implements Serializable {
 	public double getScore() {
 		return this.score;
 	}
+
+	/**
+	 * Get a number that changes whenever the player's stats change.
+	 * @return
+	 */
+	public int getVersion() {
+		return version;
+	}
 } 
@@ -0,0 +1,34 @@
+package main.java.engine;
+
+/**
+ * Optional visual work done by game objects while they paint or act,
+ * which the view can turn down when frames take too long.
+ * The view changes these between frames, so they are volatile.
+ *
+ */
+public class VisualDetail {
+	private volatile boolean fullHealthBarsShown = true;
+	private volatile boolean decorationsShown = true;
+
+	/**
+	 * @return whether monsters with full health draw their health bar
+	 */
+	public boolean areFullHealthBarsShown () {
+		return fullHealthBarsShown;
+	}
+
+	public void setFullHealthBarsShown (boolean shown) {
+		fullHealthBarsShown = shown;
+	}
+
+	/**
+	 * @return whether purely decorative effects such as fire are created
+	 */
+	public boolean areDecorationsShown () {
+		return decorationsShown;
+	}
+
+	public void setDecorationsShown (boolean shown) {
+		decorationsShown = shown;
+	}
+}
@@ -0,0 +1,68 @@
+package main.java.engine.agent;
+
+/**
+ * Something an automated agent does to a game, in place of the mouse
+ * clicks a player would make. Coordinates are in pixels, like the
+ * mouse position.
+ */
+public class AgentAction {
+
+	public enum Type {
+		PlaceTower,
+		UpgradeTower,
+		RemoveTower,
+		PlaceItem
+	}
+
+	private Type type;
+	private double x;
+	private double y;
+	private String name;
+
+	private AgentAction(Type typeInit, double xInit, double yInit, String nameInit) {
+		type = typeInit;
+		x = xInit;
+		y = yInit;
+		name = nameInit;
+	}
+
+	public static AgentAction placeTower(double x, double y, String towerName) {
+		return new AgentAction(Type.PlaceTower, x, y, towerName);
+	}
+
+	public static AgentAction upgradeTower(double x, double y) {
+		return new AgentAction(Type.UpgradeTower, x, y, null);
+	}
+
+	public static AgentAction removeTower(double x, double y) {
+		return new AgentAction(Type.RemoveTower, x, y, null);
+	}
+
+	public static AgentAction placeItem(double x, double y, String itemName) {
+		return new AgentAction(Type.PlaceItem, x, y, itemName);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return name of the tower or item to place, null for other actions
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return type + " (" + x + ", " + y + ")" + (name == null ? "" : " " + name);
+	}
+}
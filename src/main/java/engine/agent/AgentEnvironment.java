@@ -0,0 +1,43 @@
+package main.java.engine.agent;
+
+import java.util.List;
+
+/**
+ * A game that an automated agent plays by stepping it, instead of through
+ * the view. Nothing is drawn.
+ */
+public interface AgentEnvironment {
+
+	/**
+	 * Start the game over
+	 *
+	 * @param seed seed for the game's random numbers; the same seed and actions
+	 * play the same game
+	 * @return the state of the new game
+	 */
+	public Observation reset(long seed);
+
+	/**
+	 * Carry out actions, in order, then advance the game
+	 *
+	 * @param actions actions to carry out before the first tick
+	 * @param numTicks ticks to advance; fewer are run if the game ends
+	 * @return the state of the game after the step, including whether each action was carried out
+	 */
+	public Observation step(List<AgentAction> actions, int numTicks);
+
+	/**
+	 * @return whether the game has been won or lost
+	 */
+	public boolean isOver();
+
+	/**
+	 * @return names of the towers that can be placed
+	 */
+	public List<String> getTowerNames();
+
+	/**
+	 * Free the game's engine
+	 */
+	public void close();
+}
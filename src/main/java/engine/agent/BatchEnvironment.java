@@ -0,0 +1,154 @@
+package main.java.engine.agent;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.java.engine.host.Match;
+import main.java.engine.host.MatchClassLoader;
+import main.java.schema.GameBlueprint;
+
+/**
+ * Many copies of a game, stepped together, for agents that learn from
+ * batches of experience. Each copy is a MatchEnvironment in a class loader
+ * of its own, since jgame allows one engine per class loader; only the
+ * agent classes are shared with the caller. Copies are stepped in parallel.
+ */
+public class BatchEnvironment {
+	private static final String[] SHARED_CLASSES = {
+		AgentEnvironment.class.getName(),
+		AgentAction.class.getName(),
+		AgentAction.Type.class.getName(),
+		Observation.class.getName()
+	};
+
+	private List<AgentEnvironment> environments = new ArrayList<AgentEnvironment>();
+	private ExecutorService workers;
+	private Observation[] observations;
+
+	/**
+	 * @param blueprint game to play, already loaded by DataHandler
+	 * @param numEnvironments number of copies of the game
+	 * @param numThreads number of copies stepped at the same time
+	 * @throws IOException if the blueprint cannot be serialized
+	 */
+	public BatchEnvironment(GameBlueprint blueprint, int numEnvironments, int numThreads) throws IOException {
+		byte[] serializedBlueprint = Match.writeBlueprint(blueprint);
+		for (int i = 0; i < numEnvironments; i++) {
+			environments.add(createEnvironment(serializedBlueprint));
+		}
+		workers = Executors.newFixedThreadPool(numThreads);
+		observations = new Observation[numEnvironments];
+	}
+
+	private static AgentEnvironment createEnvironment(byte[] serializedBlueprint) {
+		ClassLoader loader = new MatchClassLoader(SHARED_CLASSES);
+		Thread thread = Thread.currentThread();
+		ClassLoader previousLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			return (AgentEnvironment) loader.loadClass(MatchEnvironment.class.getName())
+					.getConstructor(byte[].class).newInstance(serializedBlueprint);
+		}
+		catch (InvocationTargetException e) {
+			throw new IllegalStateException("Could not create environment", e.getCause());
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not create environment", e);
+		}
+		finally {
+			thread.setContextClassLoader(previousLoader);
+		}
+	}
+
+	/**
+	 * Start every copy over
+	 *
+	 * @param seed copy i is seeded with seed + i
+	 * @return state of each copy; the array and observations are reused by the next call
+	 */
+	public Observation[] reset(final long seed) {
+		List<Callable<Observation>> tasks = new ArrayList<Callable<Observation>>();
+		for (int i = 0; i < environments.size(); i++) {
+			final AgentEnvironment environment = environments.get(i);
+			final long environmentSeed = seed + i;
+			tasks.add(new Callable<Observation>() {
+				@Override
+				public Observation call() {
+					return environment.reset(environmentSeed);
+				}
+			});
+		}
+		return runAll(tasks);
+	}
+
+	/**
+	 * Step every copy
+	 *
+	 * @param actions actions for each copy, in the order of the copies
+	 * @param numTicks ticks to advance each copy
+	 * @return state of each copy; the array and observations are reused by the next call
+	 */
+	public Observation[] step(List<List<AgentAction>> actions, final int numTicks) {
+		if (actions.size() != environments.size()) {
+			throw new IllegalArgumentException("Expected actions for " + environments.size()
+					+ " environments, got " + actions.size());
+		}
+		List<Callable<Observation>> tasks = new ArrayList<Callable<Observation>>();
+		for (int i = 0; i < environments.size(); i++) {
+			final AgentEnvironment environment = environments.get(i);
+			final List<AgentAction> environmentActions = actions.get(i);
+			tasks.add(new Callable<Observation>() {
+				@Override
+				public Observation call() {
+					return environment.step(environmentActions, numTicks);
+				}
+			});
+		}
+		return runAll(tasks);
+	}
+
+	private Observation[] runAll(List<Callable<Observation>> tasks) {
+		try {
+			List<Future<Observation>> results = workers.invokeAll(tasks);
+			for (int i = 0; i < results.size(); i++) {
+				observations[i] = results.get(i).get();
+			}
+			return observations;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	public int size() {
+		return environments.size();
+	}
+
+	/**
+	 * @return copy i, e.g. to step it on its own or ask for its tower names
+	 */
+	public AgentEnvironment get(int i) {
+		return environments.get(i);
+	}
+
+	/**
+	 * Free every copy's engine and stop the workers
+	 */
+	public void close() {
+		workers.shutdown();
+		for (AgentEnvironment environment : environments) {
+			environment.close();
+		}
+	}
+}
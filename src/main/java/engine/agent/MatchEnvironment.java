@@ -0,0 +1,100 @@
+package main.java.engine.agent;
+
+import java.io.IOException;
+import java.util.List;
+
+import main.java.engine.IModel;
+import main.java.engine.host.Match;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+import main.java.exceptions.engine.TowerCreationFailureException;
+import main.java.schema.GameBlueprint;
+
+/**
+ * AgentEnvironment over a headless Match. Actions go through the same model
+ * calls as the player's mouse clicks; the Observation is reused between steps.
+ */
+public class MatchEnvironment implements AgentEnvironment {
+	private Match match;
+	private Observation observation = new Observation();
+
+	/**
+	 * @param blueprint game to play, already loaded by DataHandler
+	 */
+	public MatchEnvironment(GameBlueprint blueprint) {
+		match = new Match(blueprint);
+	}
+
+	/**
+	 * Used by BatchEnvironment, which creates environments through reflection
+	 * in class loaders of their own, so that only java types cross over
+	 *
+	 * @param serializedBlueprint blueprint written with ObjectOutputStream
+	 */
+	public MatchEnvironment(byte[] serializedBlueprint) throws IOException, ClassNotFoundException {
+		match = new Match(Match.readBlueprint(serializedBlueprint));
+	}
+
+	@Override
+	public Observation reset(long seed) {
+		match.reset(seed);
+		observation.clearActionResults(0);
+		match.getModel().exportObservation(observation);
+		return observation;
+	}
+
+	@Override
+	public Observation step(List<AgentAction> actions, int numTicks) {
+		IModel model = match.getModel();
+		observation.clearActionResults(actions.size());
+		for (int i = 0; i < actions.size(); i++) {
+			observation.setActionResult(i, apply(model, actions.get(i)));
+		}
+		try {
+			match.step(numTicks);
+		}
+		catch (MonsterCreationFailureException e) {
+			throw new IllegalStateException(e);
+		}
+		model.exportObservation(observation);
+		return observation;
+	}
+
+	private boolean apply(IModel model, AgentAction action) {
+		switch (action.getType()) {
+			case PlaceTower:
+				return model.placeTower(action.getX(), action.getY(), action.getName());
+			case UpgradeTower:
+				try {
+					return model.upgradeTower(action.getX(), action.getY());
+				}
+				catch (TowerCreationFailureException e) {
+					return false;
+				}
+			case RemoveTower:
+				if (!model.isTowerPresent(action.getX(), action.getY())) {
+					return false;
+				}
+				model.checkAndRemoveTower(action.getX(), action.getY());
+				return true;
+			case PlaceItem:
+				return model.placeItem(action.getName(), action.getX(), action.getY());
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public boolean isOver() {
+		return match.isOver();
+	}
+
+	@Override
+	public List<String> getTowerNames() {
+		return match.getModel().getPossibleTowers();
+	}
+
+	@Override
+	public void close() {
+		match.close();
+	}
+}
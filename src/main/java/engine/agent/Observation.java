@@ -0,0 +1,180 @@
+package main.java.engine.agent;
+
+import java.util.Arrays;
+
+/**
+ * What an automated agent sees of a game after a step, as primitive arrays
+ * that can be fed to a learner as they are. An environment keeps filling
+ * the same Observation, so stepping does not allocate once the arrays are
+ * big enough; copy anything that has to outlive the next step.
+ */
+public class Observation {
+	private static final int INITIAL_MONSTERS = 64;
+
+	private int xTiles;
+	private int yTiles;
+	private int[] towerGrid = new int[0];
+	private int numMonsters;
+	private double[] monsterX = new double[INITIAL_MONSTERS];
+	private double[] monsterY = new double[INITIAL_MONSTERS];
+	private double[] monsterHealth = new double[INITIAL_MONSTERS];
+	private boolean[] actionResults = new boolean[0];
+	private int numActions;
+	private int money;
+	private int lives;
+	private double score;
+	private int wave;
+	private double gameClock;
+	private boolean won;
+	private boolean lost;
+
+	/**
+	 * Forget the towers and monsters of the previous step
+	 *
+	 * @param xTilesInit width of the map in tiles
+	 * @param yTilesInit height of the map in tiles
+	 */
+	public void clear(int xTilesInit, int yTilesInit) {
+		xTiles = xTilesInit;
+		yTiles = yTilesInit;
+		if (towerGrid.length != xTiles * yTiles) {
+			towerGrid = new int[xTiles * yTiles];
+		}
+		else {
+			Arrays.fill(towerGrid, 0);
+		}
+		numMonsters = 0;
+	}
+
+	/**
+	 * Mark a tile as taken by a tower
+	 */
+	public void setTower(int xTile, int yTile) {
+		towerGrid[yTile * xTiles + xTile] = 1;
+	}
+
+	public void addMonster(double x, double y, double health) {
+		if (numMonsters == monsterX.length) {
+			monsterX = Arrays.copyOf(monsterX, numMonsters * 2);
+			monsterY = Arrays.copyOf(monsterY, numMonsters * 2);
+			monsterHealth = Arrays.copyOf(monsterHealth, numMonsters * 2);
+		}
+		monsterX[numMonsters] = x;
+		monsterY[numMonsters] = y;
+		monsterHealth[numMonsters] = health;
+		numMonsters++;
+	}
+
+	public void setPlayer(int moneyInit, int livesInit, double scoreInit) {
+		money = moneyInit;
+		lives = livesInit;
+		score = scoreInit;
+	}
+
+	public void setGame(int waveInit, double gameClockInit, boolean wonInit, boolean lostInit) {
+		wave = waveInit;
+		gameClock = gameClockInit;
+		won = wonInit;
+		lost = lostInit;
+	}
+
+	/**
+	 * Record whether each action of the step was carried out
+	 *
+	 * @param numActionsInit number of actions of the step
+	 */
+	public void clearActionResults(int numActionsInit) {
+		numActions = numActionsInit;
+		if (actionResults.length < numActions) {
+			actionResults = new boolean[numActions];
+		}
+	}
+
+	public void setActionResult(int action, boolean succeeded) {
+		actionResults[action] = succeeded;
+	}
+
+	public int getXTiles() {
+		return xTiles;
+	}
+
+	public int getYTiles() {
+		return yTiles;
+	}
+
+	/**
+	 * @return 1 for every tile with a tower and 0 otherwise, row by row
+	 * (index yTile * getXTiles() + xTile)
+	 */
+	public int[] getTowerGrid() {
+		return towerGrid;
+	}
+
+	public int getNumMonsters() {
+		return numMonsters;
+	}
+
+	/**
+	 * @return x coordinates of the monsters; only the first getNumMonsters() are valid
+	 */
+	public double[] getMonsterX() {
+		return monsterX;
+	}
+
+	/**
+	 * @return y coordinates of the monsters; only the first getNumMonsters() are valid
+	 */
+	public double[] getMonsterY() {
+		return monsterY;
+	}
+
+	/**
+	 * @return health of the monsters; only the first getNumMonsters() are valid
+	 */
+	public double[] getMonsterHealth() {
+		return monsterHealth;
+	}
+
+	public int getNumActions() {
+		return numActions;
+	}
+
+	/**
+	 * @return whether each action of the step was carried out; only the first getNumActions() are valid
+	 */
+	public boolean[] getActionResults() {
+		return actionResults;
+	}
+
+	public int getMoney() {
+		return money;
+	}
+
+	public int getLives() {
+		return lives;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public int getWave() {
+		return wave;
+	}
+
+	public double getGameClock() {
+		return gameClock;
+	}
+
+	public boolean isWon() {
+		return won;
+	}
+
+	public boolean isLost() {
+		return lost;
+	}
+
+	public boolean isOver() {
+		return won || lost;
+	}
+}
@@ -0,0 +1,151 @@
+package main.java.engine.archetype;
+
+import java.util.Arrays;
+
+import main.java.engine.objects.EntityRegistry;
+
+/**
+ * Storage for entities that all have the same components, one row per
+ * entity in parallel arrays, so that systems walk memory in order instead
+ * of chasing an object per entity. Every archetype has a position and a
+ * velocity; subclasses add their own columns. Removing an entity moves the
+ * last row into its place, so rows are dense but change; entities are
+ * referred to by their EntityRegistry handle, which getRow resolves.
+ */
+public abstract class Archetype {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private EntityRegistry<Archetype> registry;
+	// row of each entity of this archetype, by the index of its handle
+	private int[] rowsByIndex = new int[0];
+	private int[] handles = new int[0];
+	protected double[] x = new double[0];
+	protected double[] y = new double[0];
+	protected double[] xspeed = new double[0];
+	protected double[] yspeed = new double[0];
+	protected int size;
+	// changed whenever rows move or are added or removed
+	protected int version;
+
+	/**
+	 * @param registryInit registry shared by all archetypes of a world
+	 */
+	protected Archetype(EntityRegistry<Archetype> registryInit) {
+		registry = registryInit;
+	}
+
+	/**
+	 * Add a row at the end, growing the columns if needed
+	 *
+	 * @return the new row; the subclass fills in its own columns
+	 */
+	protected int addRow(double xInit, double yInit, double xspeedInit, double yspeedInit) {
+		if (size == handles.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+			handles = Arrays.copyOf(handles, capacity);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			xspeed = Arrays.copyOf(xspeed, capacity);
+			yspeed = Arrays.copyOf(yspeed, capacity);
+			growColumns(capacity);
+		}
+		int row = size++;
+		version++;
+		int handle = registry.register(this);
+		int index = EntityRegistry.getIndex(handle);
+		if (index >= rowsByIndex.length) {
+			rowsByIndex = Arrays.copyOf(rowsByIndex, Math.max(index + 1, rowsByIndex.length * 2));
+		}
+		rowsByIndex[index] = row;
+		handles[row] = handle;
+		x[row] = xInit;
+		y[row] = yInit;
+		xspeed[row] = xspeedInit;
+		yspeed[row] = yspeedInit;
+		return row;
+	}
+
+	/**
+	 * Remove an entity, releasing its handle and moving the last row into
+	 * its place. Systems that remove while iterating go from the last row down.
+	 *
+	 * @param row
+	 */
+	public void removeRow(int row) {
+		registry.release(handles[row]);
+		version++;
+		int last = --size;
+		if (row != last) {
+			handles[row] = handles[last];
+			x[row] = x[last];
+			y[row] = y[last];
+			xspeed[row] = xspeed[last];
+			yspeed[row] = yspeed[last];
+			copyRow(last, row);
+			rowsByIndex[EntityRegistry.getIndex(handles[row])] = row;
+		}
+		clearRow(last);
+	}
+
+	/**
+	 * Remove every entity
+	 */
+	public void clear() {
+		while (size > 0) {
+			removeRow(size - 1);
+		}
+	}
+
+	/**
+	 * Grow the subclass's columns to the given length
+	 */
+	protected abstract void growColumns(int capacity);
+
+	/**
+	 * Copy the subclass's columns of a row into another
+	 */
+	protected abstract void copyRow(int from, int to);
+
+	/**
+	 * Drop the references a row no longer in use holds
+	 */
+	protected abstract void clearRow(int row);
+
+	/**
+	 * @param handle
+	 * @return row of the entity, or -1 if it has been removed or is of another archetype
+	 */
+	public int getRow(int handle) {
+		if (registry.get(handle) != this) {
+			return -1;
+		}
+		return rowsByIndex[EntityRegistry.getIndex(handle)];
+	}
+
+	public int getHandle(int row) {
+		return handles[row];
+	}
+
+	/**
+	 * @return number of entities, all in the rows below it
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return a number that changes whenever an entity moves or is added or
+	 * removed, e.g. to know when a SpatialGrid has to be rebuilt
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	public double getX(int row) {
+		return x[row];
+	}
+
+	public double getY(int row) {
+		return y[row];
+	}
+}
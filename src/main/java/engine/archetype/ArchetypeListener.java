@@ -0,0 +1,29 @@
+package main.java.engine.archetype;
+
+import main.java.schema.MonsterSpawnSchema;
+
+/**
+ * Told about the monsters an ArchetypeWorld removes, so that the game can
+ * pay rewards, take lives and spawn resurrected monsters as Model does
+ */
+public interface ArchetypeListener {
+
+	/**
+	 * Called as a dead monster is removed. Monsters spawned from here are
+	 * not moved until the next step.
+	 *
+	 * @param handle handle of the monster, already released
+	 * @param x where it died
+	 * @param y
+	 * @param reward money received for it
+	 * @param resurrection monsters to spawn in its place, or null
+	 */
+	public void monsterKilled(int handle, double x, double y, double reward, MonsterSpawnSchema resurrection);
+
+	/**
+	 * Called as a monster that walked the whole of its path is removed
+	 *
+	 * @param handle handle of the monster, already released
+	 */
+	public void monsterEscaped(int handle);
+}
@@ -0,0 +1,54 @@
+package main.java.engine.archetype;
+
+import jgame.JGColor;
+import jgame.JGObject;
+
+/**
+ * Draws an ArchetypeWorld through the engine it is added to: one JGObject
+ * paints every monster, with the health bar Monster paints, and every
+ * projectile, so that the view is unchanged without an object per unit.
+ */
+public class ArchetypeSprites extends JGObject {
+	public static final int SPRITES_CID = 0;
+	private static final double HEALTH_BAR_OFFSET = 3;
+	private static final double HEALTH_BAR_THICKNESS = 2;
+
+	private ArchetypeWorld world;
+
+	/**
+	 * Joins the engine that new JGObjects join, like every JGObject
+	 *
+	 * @param worldInit world to draw
+	 */
+	public ArchetypeSprites(ArchetypeWorld worldInit) {
+		super("archetypes", true, 0, 0, SPRITES_CID, null);
+		world = worldInit;
+	}
+
+	@Override
+	public void paint() {
+		MonsterArchetype monsters = world.getMonsters();
+		for (int row = 0; row < monsters.size(); row++) {
+			double x = monsters.getX(row);
+			double y = monsters.getY(row);
+			eng.drawImage(x, y, monsters.getImage(row));
+			paintHealthBar(x, y, monsters.getHealth(row), monsters.getBaseHealth(row));
+		}
+		ProjectileArchetype projectiles = world.getProjectiles();
+		for (int row = 0; row < projectiles.size(); row++) {
+			eng.drawImage(projectiles.getX(row), projectiles.getY(row), projectiles.getImage(row));
+		}
+	}
+
+	private void paintHealthBar(double x, double y, double health, double baseHealth) {
+		if (health >= baseHealth) {
+			return;
+		}
+		double yOffset = y - HEALTH_BAR_OFFSET;
+		eng.drawLine(x, yOffset, x + world.getTileWidth(), yOffset, HEALTH_BAR_THICKNESS, JGColor.red);
+		if (health >= 0) {
+			eng.drawLine(x, yOffset, x + health / baseHealth * world.getTileWidth(), yOffset,
+					HEALTH_BAR_THICKNESS, JGColor.green);
+		}
+	}
+}
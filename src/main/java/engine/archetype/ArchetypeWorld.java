@@ -0,0 +1,170 @@
+package main.java.engine.archetype;
+
+import main.java.engine.objects.EntityRegistry;
+import main.java.schema.MonsterSpawnSchema;
+
+/**
+ * An optional core for waves too large for a JGObject per unit, played by
+ * Model through ArchetypeWaves when it is switched on: monsters
+ * and projectiles live in archetypes of parallel arrays instead, and every
+ * step runs the systems over them in order, as a frame of the engine would:
+ * movement, projectile hits, then cleanup of dead monsters, escaped
+ * monsters and spent projectiles. Nothing here needs a display; an
+ * ArchetypeSprites draws the world when there is one.
+ *
+ * Monsters are tile-sized boxes whose position is their top left corner,
+ * like the JGObjects they stand in for, and a projectile hits the monsters
+ * whose box it is in.
+ */
+public class ArchetypeWorld {
+	private EntityRegistry<Archetype> registry = new EntityRegistry<Archetype>();
+	private MonsterArchetype monsters = new MonsterArchetype(registry);
+	private ProjectileArchetype projectiles = new ProjectileArchetype(registry);
+	private SpatialGrid monsterGrid;
+	// version of the monsters the grid was built for
+	private int gridVersion = -1;
+	private int tileWidth;
+	private int tileHeight;
+	private double width;
+	private double height;
+	private ArchetypeListener listener;
+
+	public ArchetypeWorld(int xTiles, int yTiles, int tileWidthInit, int tileHeightInit) {
+		tileWidth = tileWidthInit;
+		tileHeight = tileHeightInit;
+		width = xTiles * tileWidth;
+		height = yTiles * tileHeight;
+		monsterGrid = new SpatialGrid(xTiles, yTiles, tileWidth, tileHeight);
+	}
+
+	/**
+	 * @param listenerInit told about every monster removed, or null
+	 */
+	public void setListener(ArchetypeListener listenerInit) {
+		listener = listenerInit;
+	}
+
+	/**
+	 * Advance the world by one tick
+	 */
+	public void step() {
+		monsters.move(tileWidth, tileHeight);
+		projectiles.move(width, height);
+		applyHits();
+		removeFinished();
+	}
+
+	private void applyHits() {
+		SpatialGrid grid = getMonsterGrid();
+		for (int projectile = 0; projectile < projectiles.size(); projectile++) {
+			double x = projectiles.getX(projectile);
+			double y = projectiles.getY(projectile);
+			int tileX = grid.getTileX(x);
+			int tileY = grid.getTileY(y);
+			// a monster whose box holds the point has its corner in this tile or the ones up and left
+			search:
+			for (int cellY = Math.max(0, tileY - 1); cellY <= tileY; cellY++) {
+				for (int cellX = Math.max(0, tileX - 1); cellX <= tileX; cellX++) {
+					int tile = grid.getTile(cellX, cellY);
+					for (int i = grid.getStart(tile); i < grid.getStart(tile + 1); i++) {
+						if (projectiles.isSpent(projectile)) {
+							break search;
+						}
+						int monster = grid.getRow(i);
+						double dx = x - monsters.getX(monster);
+						double dy = y - monsters.getY(monster);
+						if (dx >= 0 && dx < tileWidth && dy >= 0 && dy < tileHeight
+								&& projectiles.hit(projectile, monsters.getHandle(monster))) {
+							monsters.takeDamage(monster, projectiles.getDamage(projectile));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void removeFinished() {
+		// from the last row down, since removing moves the last row into the removed one
+		for (int row = monsters.size() - 1; row >= 0; row--) {
+			if (monsters.isDead(row)) {
+				int handle = monsters.getHandle(row);
+				double x = monsters.getX(row);
+				double y = monsters.getY(row);
+				double reward = monsters.getReward(row);
+				// read before the row is reused
+				MonsterSpawnSchema resurrection = monsters.getResurrection(row);
+				monsters.removeRow(row);
+				if (listener != null) {
+					listener.monsterKilled(handle, x, y, reward, resurrection);
+				}
+			}
+			else if (monsters.hasReachedEnd(row)) {
+				int handle = monsters.getHandle(row);
+				monsters.removeRow(row);
+				if (listener != null) {
+					listener.monsterEscaped(handle);
+				}
+			}
+		}
+		for (int row = projectiles.size() - 1; row >= 0; row--) {
+			if (projectiles.isSpent(row)) {
+				projectiles.removeRow(row);
+			}
+		}
+	}
+
+	/**
+	 * Range test for targeting, looking only at the tiles within range
+	 *
+	 * @param x
+	 * @param y
+	 * @param range
+	 * @return handle of the living monster nearest to the point within range,
+	 * or EntityRegistry.NO_HANDLE if there is none
+	 */
+	public int findNearestMonster(double x, double y, double range) {
+		SpatialGrid grid = getMonsterGrid();
+		int nearest = EntityRegistry.NO_HANDLE;
+		double nearestDistance = range * range;
+		for (int cellY = grid.getTileY(y - range); cellY <= grid.getTileY(y + range); cellY++) {
+			for (int cellX = grid.getTileX(x - range); cellX <= grid.getTileX(x + range); cellX++) {
+				int tile = grid.getTile(cellX, cellY);
+				for (int i = grid.getStart(tile); i < grid.getStart(tile + 1); i++) {
+					int monster = grid.getRow(i);
+					double dx = monsters.getX(monster) - x;
+					double dy = monsters.getY(monster) - y;
+					double distance = dx * dx + dy * dy;
+					if (distance <= nearestDistance && !monsters.isDead(monster)) {
+						nearest = monsters.getHandle(monster);
+						nearestDistance = distance;
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	private SpatialGrid getMonsterGrid() {
+		if (gridVersion != monsters.getVersion()) {
+			monsterGrid.build(monsters);
+			gridVersion = monsters.getVersion();
+		}
+		return monsterGrid;
+	}
+
+	public MonsterArchetype getMonsters() {
+		return monsters;
+	}
+
+	public ProjectileArchetype getProjectiles() {
+		return projectiles;
+	}
+
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+}
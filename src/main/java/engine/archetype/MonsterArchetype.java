@@ -0,0 +1,225 @@
+package main.java.engine.archetype;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+
+import jgame.JGPoint;
+import main.java.engine.objects.EntityRegistry;
+import main.java.engine.objects.TDObject;
+import main.java.engine.objects.monster.Monster;
+import main.java.engine.objects.monster.SimpleMonster;
+import main.java.engine.objects.monster.jgpathfinder.JGPath;
+import main.java.schema.MonsterSpawnSchema;
+import main.java.schema.tdobjects.MonsterSchema;
+
+/**
+ * Monsters stored as rows: health, speed and reward as in Monster, and the
+ * path as an array of packed tiles with a cursor at the next one. Monsters
+ * spawned on the same path can share its array, since it is never changed.
+ */
+public class MonsterArchetype extends Archetype {
+	private static final int PERCENT = 100;
+	private static final int[] NO_PATH = new int[0];
+
+	private double[] health = new double[0];
+	private double[] baseHealth = new double[0];
+	private double[] moveSpeed = new double[0];
+	private double[] reward = new double[0];
+	private int[][] paths = new int[0][];
+	private int[] pathCursors = new int[0];
+	private String[] images = new String[0];
+	private MonsterSpawnSchema[] resurrections = new MonsterSpawnSchema[0];
+
+	public MonsterArchetype(EntityRegistry<Archetype> registry) {
+		super(registry);
+	}
+
+	/**
+	 * Spawn a monster from the attributes of a MonsterSchema, with the same
+	 * defaults as SimpleMonster
+	 *
+	 * @param attributes key value map of attributes as defined by MonsterSchema
+	 * @param xInit
+	 * @param yInit
+	 * @param path tiles to walk, packed with packPath
+	 * @return handle of the new monster
+	 */
+	public int spawn(Map<String, Serializable> attributes, double xInit, double yInit, int[] path) {
+		return spawn(xInit, yInit,
+				(Double) TDObject.getValueOrDefault(attributes, MonsterSchema.HEALTH, SimpleMonster.DEFAULT_HEALTH),
+				(Double) TDObject.getValueOrDefault(attributes, MonsterSchema.SPEED,
+						SimpleMonster.DEFAULT_MOVE_SPEED),
+				(Double) TDObject.getValueOrDefault(attributes, MonsterSchema.REWARD,
+						SimpleMonster.DEFAULT_REWARD_AMOUNT),
+				(String) attributes.get(MonsterSchema.NAME), path,
+				(MonsterSpawnSchema) attributes.get(MonsterSchema.RESURRECT_MONSTERSPAWNSCHEMA));
+	}
+
+	/**
+	 * @param path tiles to walk, packed with packPath
+	 * @param resurrection monsters spawned when this one dies, or null
+	 * @return handle of the new monster
+	 */
+	public int spawn(double xInit, double yInit, double healthInit, double speed, double rewardAmount,
+			String image, int[] path, MonsterSpawnSchema resurrection) {
+		int row = addRow(xInit, yInit, 0, 0);
+		health[row] = healthInit;
+		baseHealth[row] = healthInit;
+		moveSpeed[row] = speed;
+		reward[row] = rewardAmount;
+		paths[row] = path == null ? NO_PATH : path;
+		pathCursors[row] = 0;
+		images[row] = image;
+		resurrections[row] = resurrection;
+		return getHandle(row);
+	}
+
+	/**
+	 * @param path
+	 * @return the path's tiles, each packed into an int, for spawn
+	 */
+	public static int[] packPath(JGPath path) {
+		int length = 0;
+		for (@SuppressWarnings("unused") JGPoint tile : path) {
+			length++;
+		}
+		int[] packed = new int[length];
+		int i = 0;
+		for (JGPoint tile : path) {
+			packed[i++] = tile.x << 16 | tile.y;
+		}
+		return packed;
+	}
+
+	static int getTileX(int packedTile) {
+		return packedTile >>> 16;
+	}
+
+	static int getTileY(int packedTile) {
+		return packedTile & 0xFFFF;
+	}
+
+	@Override
+	protected void growColumns(int capacity) {
+		health = Arrays.copyOf(health, capacity);
+		baseHealth = Arrays.copyOf(baseHealth, capacity);
+		moveSpeed = Arrays.copyOf(moveSpeed, capacity);
+		reward = Arrays.copyOf(reward, capacity);
+		paths = Arrays.copyOf(paths, capacity);
+		pathCursors = Arrays.copyOf(pathCursors, capacity);
+		images = Arrays.copyOf(images, capacity);
+		resurrections = Arrays.copyOf(resurrections, capacity);
+	}
+
+	@Override
+	protected void copyRow(int from, int to) {
+		health[to] = health[from];
+		baseHealth[to] = baseHealth[from];
+		moveSpeed[to] = moveSpeed[from];
+		reward[to] = reward[from];
+		paths[to] = paths[from];
+		pathCursors[to] = pathCursors[from];
+		images[to] = images[from];
+		resurrections[to] = resurrections[from];
+	}
+
+	@Override
+	protected void clearRow(int row) {
+		paths[row] = null;
+		images[row] = null;
+		resurrections[row] = null;
+	}
+
+	/**
+	 * Walk every monster one tick towards the next tile of its path, moving
+	 * on to the following tile once Monster.isWaypointReached, as
+	 * Monster.move does
+	 *
+	 * @param tileWidth
+	 * @param tileHeight
+	 */
+	void move(int tileWidth, int tileHeight) {
+		version++;
+		for (int row = 0; row < size; row++) {
+			int[] path = paths[row];
+			int cursor = pathCursors[row];
+			if (cursor >= path.length) {
+				xspeed[row] = 0;
+				yspeed[row] = 0;
+				continue;
+			}
+			int waypointX = getTileX(path[cursor]) * tileWidth;
+			int waypointY = getTileY(path[cursor]) * tileHeight;
+			if (Monster.isWaypointReached(x[row], y[row], waypointX, waypointY)) {
+				pathCursors[row] = ++cursor;
+				if (cursor < path.length) {
+					waypointX = getTileX(path[cursor]) * tileWidth;
+					waypointY = getTileY(path[cursor]) * tileHeight;
+				}
+			}
+			xspeed[row] = Double.compare(waypointX, x[row]) * moveSpeed[row];
+			yspeed[row] = Double.compare(waypointY, y[row]) * moveSpeed[row];
+			x[row] += xspeed[row];
+			y[row] += yspeed[row];
+		}
+	}
+
+	/**
+	 * Send the monster along a new path, from the path's first tile, e.g.
+	 * after the walkable tiles changed
+	 *
+	 * @param path tiles to walk, packed with packPath
+	 */
+	public void setPath(int row, int[] path) {
+		paths[row] = path == null ? NO_PATH : path;
+		pathCursors[row] = 0;
+	}
+
+	/**
+	 * @return whether the monster has walked the whole of its path
+	 */
+	public boolean hasReachedEnd(int row) {
+		return pathCursors[row] >= paths[row].length;
+	}
+
+	public boolean isDead(int row) {
+		return health[row] <= 0;
+	}
+
+	public void takeDamage(int row, double damage) {
+		health[row] -= damage;
+	}
+
+	/**
+	 * Set the monster to be dead, without a reward, as Monster.setDead does
+	 */
+	public void setDead(int row) {
+		health[row] = 0;
+		reward[row] = 0;
+	}
+
+	public void reduceSpeed(int row, double speedPercentage) {
+		moveSpeed[row] *= speedPercentage / PERCENT;
+	}
+
+	public double getHealth(int row) {
+		return health[row];
+	}
+
+	public double getBaseHealth(int row) {
+		return baseHealth[row];
+	}
+
+	public double getReward(int row) {
+		return reward[row];
+	}
+
+	public String getImage(int row) {
+		return images[row];
+	}
+
+	public MonsterSpawnSchema getResurrection(int row) {
+		return resurrections[row];
+	}
+}
@@ -0,0 +1,116 @@
+package main.java.engine.archetype;
+
+import java.util.Arrays;
+
+import main.java.engine.objects.EntityRegistry;
+import main.java.engine.objects.projectile.DamageProjectile;
+import main.java.engine.util.IntSet;
+
+/**
+ * Projectiles stored as rows: damage and how many more monsters they can
+ * hit, as DamageProjectile and PiercingProjectile. Projectiles that hit
+ * more than one monster keep the handles of the monsters hit, so that no
+ * monster is hit twice.
+ */
+public class ProjectileArchetype extends Archetype {
+	private double[] damage = new double[0];
+	private int[] hitsLeft = new int[0];
+	private IntSet[] hitLists = new IntSet[0];
+	private String[] images = new String[0];
+
+	public ProjectileArchetype(EntityRegistry<Archetype> registry) {
+		super(registry);
+	}
+
+	/**
+	 * Spawn a projectile heading at the given angle with the default speed,
+	 * as DamageProjectile's constructor does
+	 *
+	 * @param angle Math.atan2(destX - srcX, destY - srcY)
+	 * @param hits number of monsters it hits before it is removed
+	 * @return handle of the new projectile
+	 */
+	public int spawn(double xInit, double yInit, double angle, double damageInit, String image, int hits) {
+		return spawn(xInit, yInit, DamageProjectile.DEFAULT_SPEED * Math.sin(angle),
+				DamageProjectile.DEFAULT_SPEED * Math.cos(angle), damageInit, image, hits);
+	}
+
+	/**
+	 * @param hits number of monsters it hits before it is removed
+	 * @return handle of the new projectile
+	 */
+	public int spawn(double xInit, double yInit, double xspeedInit, double yspeedInit, double damageInit,
+			String image, int hits) {
+		int row = addRow(xInit, yInit, xspeedInit, yspeedInit);
+		damage[row] = damageInit;
+		hitsLeft[row] = hits;
+		hitLists[row] = hits > 1 ? new IntSet() : null;
+		images[row] = image;
+		return getHandle(row);
+	}
+
+	@Override
+	protected void growColumns(int capacity) {
+		damage = Arrays.copyOf(damage, capacity);
+		hitsLeft = Arrays.copyOf(hitsLeft, capacity);
+		hitLists = Arrays.copyOf(hitLists, capacity);
+		images = Arrays.copyOf(images, capacity);
+	}
+
+	@Override
+	protected void copyRow(int from, int to) {
+		damage[to] = damage[from];
+		hitsLeft[to] = hitsLeft[from];
+		hitLists[to] = hitLists[from];
+		images[to] = images[from];
+	}
+
+	@Override
+	protected void clearRow(int row) {
+		hitLists[row] = null;
+		images[row] = null;
+	}
+
+	/**
+	 * Move every projectile one tick, using up those that leave the
+	 * playfield as jgame's expire_off_view does
+	 */
+	void move(double width, double height) {
+		version++;
+		for (int row = 0; row < size; row++) {
+			x[row] += xspeed[row];
+			y[row] += yspeed[row];
+			if (x[row] < 0 || y[row] < 0 || x[row] >= width || y[row] >= height) {
+				hitsLeft[row] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Hit a monster, unless this projectile already has
+	 *
+	 * @return whether the monster was hit
+	 */
+	boolean hit(int row, int monsterHandle) {
+		if (hitsLeft[row] <= 0 || (hitLists[row] != null && !hitLists[row].add(monsterHandle))) {
+			return false;
+		}
+		hitsLeft[row]--;
+		return true;
+	}
+
+	/**
+	 * @return whether the projectile has hit all it can, or left the playfield
+	 */
+	public boolean isSpent(int row) {
+		return hitsLeft[row] <= 0;
+	}
+
+	public double getDamage(int row) {
+		return damage[row];
+	}
+
+	public String getImage(int row) {
+		return images[row];
+	}
+}
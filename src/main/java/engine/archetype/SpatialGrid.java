@@ -0,0 +1,72 @@
+package main.java.engine.archetype;
+
+import java.util.Arrays;
+
+/**
+ * The rows of an archetype sorted by the tile their position is in, with a
+ * counting sort, so that range and hit tests only look at nearby tiles.
+ * Rows in a tile are contiguous: those of tile t are getRow(i) for i from
+ * getStart(t) to getStart(t + 1). Positions outside the map count as the
+ * nearest tile on its edge. The grid is only valid until the archetype's
+ * entities move, are added or are removed.
+ */
+class SpatialGrid {
+	private int xTiles;
+	private int yTiles;
+	private int tileWidth;
+	private int tileHeight;
+	private int[] starts;
+	// where the next row of each tile goes while building
+	private int[] cursors;
+	private int[] rows = new int[0];
+	private int[] tiles = new int[0];
+
+	SpatialGrid(int xTilesInit, int yTilesInit, int tileWidthInit, int tileHeightInit) {
+		xTiles = xTilesInit;
+		yTiles = yTilesInit;
+		tileWidth = tileWidthInit;
+		tileHeight = tileHeightInit;
+		starts = new int[xTiles * yTiles + 1];
+		cursors = new int[xTiles * yTiles];
+	}
+
+	void build(Archetype archetype) {
+		int size = archetype.size();
+		if (rows.length < size) {
+			rows = new int[size * 2];
+			tiles = new int[size * 2];
+		}
+		Arrays.fill(starts, 0);
+		for (int row = 0; row < size; row++) {
+			tiles[row] = getTile(getTileX(archetype.getX(row)), getTileY(archetype.getY(row)));
+			starts[tiles[row] + 1]++;
+		}
+		for (int tile = 0; tile < cursors.length; tile++) {
+			starts[tile + 1] += starts[tile];
+		}
+		System.arraycopy(starts, 0, cursors, 0, cursors.length);
+		for (int row = 0; row < size; row++) {
+			rows[cursors[tiles[row]]++] = row;
+		}
+	}
+
+	int getTileX(double x) {
+		return Math.max(0, Math.min(xTiles - 1, (int) Math.floor(x / tileWidth)));
+	}
+
+	int getTileY(double y) {
+		return Math.max(0, Math.min(yTiles - 1, (int) Math.floor(y / tileHeight)));
+	}
+
+	int getTile(int tileX, int tileY) {
+		return tileY * xTiles + tileX;
+	}
+
+	int getStart(int tile) {
+		return starts[tile];
+	}
+
+	int getRow(int i) {
+		return rows[i];
+	}
+}
@@ -0,0 +1,80 @@
+package main.java.engine.balance;
+
+import java.io.IOException;
+
+import main.java.engine.IModel;
+import main.java.engine.LeakMap;
+import main.java.engine.host.Match;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+import main.java.schema.GameBlueprint;
+
+/**
+ * One simulated match: a ScriptedPlayer plays a blueprint to the end, or
+ * until time runs out, while what happens in every wave is recorded.
+ * Survival mode is turned off, so the match ends after the last wave.
+ */
+public class BalanceMatch {
+	// ticks between the scripted player's turns
+	private static final int TICKS_PER_TURN = 10;
+
+	private BalanceMatch() {
+	}
+
+	/**
+	 * Play a match. Called by BalanceSimulator through reflection from another
+	 * class loader, so only java types and the shared MatchRecord are passed.
+	 *
+	 * @param serializedBlueprint blueprint written by Match.writeBlueprint
+	 * @param strategy name of a PlacementStrategy
+	 * @param seed seed of the match
+	 * @param maxTicks the match is stopped after this many ticks if it has not ended
+	 * @return what happened in the match
+	 */
+	public static MatchRecord play(byte[] serializedBlueprint, String strategy, long seed, int maxTicks)
+			throws IOException, ClassNotFoundException, MonsterCreationFailureException {
+		GameBlueprint blueprint = Match.readBlueprint(serializedBlueprint);
+		int numWaves = blueprint.getMyWaveSchemas() == null ? 0 : blueprint.getMyWaveSchemas().size();
+		MatchRecord record = new MatchRecord(strategy, seed, numWaves);
+
+		Match match = new Match(blueprint, seed);
+		try {
+			IModel model = match.getModel();
+			model.setSurvivalMode(false);
+			ScriptedPlayer player = new ScriptedPlayer(model, blueprint.getMyTowerSchemas(),
+					PlacementStrategy.valueOf(strategy), seed);
+
+			int wave = 0;
+			int livesAtWaveStart = model.getPlayerLives();
+			while (match.getTicks() < maxTicks && !match.isOver()) {
+				if (match.getTicks() % TICKS_PER_TURN == 0) {
+					player.act();
+				}
+				match.step(1);
+				if (model.getCurrentWave() != wave) {
+					// the previous wave was beaten, since the next one only spawns once the map is clear
+					record.endWave(wave - 1, true, livesAtWaveStart - model.getPlayerLives(), model.getMoney());
+					wave = model.getCurrentWave();
+					livesAtWaveStart = model.getPlayerLives();
+				}
+			}
+			record.endWave(wave - 1, model.isGameWon(), livesAtWaveStart - model.getPlayerLives(),
+					model.getMoney());
+			record.endMatch(match.getTicks(), model.isGameWon(), model.isGameLost(),
+					copyLeaks(model.getLeakMap()));
+			return record;
+		}
+		finally {
+			match.close();
+		}
+	}
+
+	private static int[][] copyLeaks(LeakMap leakMap) {
+		int[][] leaks = new int[leakMap.getNumXTiles()][leakMap.getNumYTiles()];
+		for (int x = 0; x < leaks.length; x++) {
+			for (int y = 0; y < leaks[x].length; y++) {
+				leaks[x][y] = leakMap.getLeaks(x, y);
+			}
+		}
+		return leaks;
+	}
+}
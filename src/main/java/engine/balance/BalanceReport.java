@@ -0,0 +1,152 @@
+package main.java.engine.balance;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a balance simulation, summed up per strategy and wave
+ */
+public class BalanceReport {
+	private Map<String, List<MatchRecord>> records = new LinkedHashMap<String, List<MatchRecord>>();
+	private int numWaves;
+
+	public void addRecord(MatchRecord record) {
+		if (!records.containsKey(record.getStrategy())) {
+			records.put(record.getStrategy(), new ArrayList<MatchRecord>());
+		}
+		records.get(record.getStrategy()).add(record);
+		numWaves = Math.max(numWaves, record.getNumWaves());
+	}
+
+	/**
+	 * @return names of the strategies simulated, in the order they were added
+	 */
+	public List<String> getStrategies() {
+		return new ArrayList<String>(records.keySet());
+	}
+
+	public List<MatchRecord> getRecords(String strategy) {
+		return records.get(strategy);
+	}
+
+	public int getNumWaves() {
+		return numWaves;
+	}
+
+	/**
+	 * @return fraction of the matches played with a strategy that were won
+	 */
+	public double getWinRate(String strategy) {
+		int won = 0;
+		for (MatchRecord record : records.get(strategy)) {
+			won += record.isWon() ? 1 : 0;
+		}
+		return (double) won / records.get(strategy).size();
+	}
+
+	/**
+	 * @return fraction of the matches played with a strategy in which a wave was beaten
+	 */
+	public double getWaveWinRate(String strategy, int wave) {
+		int survived = 0;
+		for (MatchRecord record : records.get(strategy)) {
+			survived += record.isWaveSurvived(wave) ? 1 : 0;
+		}
+		return (double) survived / records.get(strategy).size();
+	}
+
+	/**
+	 * @return mean lives lost in a wave, over the matches that reached it
+	 */
+	public double getMeanLivesLost(String strategy, int wave) {
+		double total = 0;
+		int reached = 0;
+		for (MatchRecord record : records.get(strategy)) {
+			if (record.getWavesPlayed() > wave) {
+				total += record.getLivesLost(wave);
+				reached++;
+			}
+		}
+		return reached == 0 ? 0 : total / reached;
+	}
+
+	/**
+	 * @return mean money when a wave ended, over the matches that reached it
+	 */
+	public double getMeanMoney(String strategy, int wave) {
+		double total = 0;
+		int reached = 0;
+		for (MatchRecord record : records.get(strategy)) {
+			if (record.getWavesPlayed() > wave) {
+				total += record.getMoneyAtWaveEnd(wave);
+				reached++;
+			}
+		}
+		return reached == 0 ? 0 : total / reached;
+	}
+
+	/**
+	 * @return for every tile (indexed [x][y]), the monsters that reached the
+	 * exit through it, summed over the matches played with a strategy
+	 */
+	public int[][] getLeaks(String strategy) {
+		int[][] leaks = new int[0][0];
+		for (MatchRecord record : records.get(strategy)) {
+			int[][] recordLeaks = record.getLeaks();
+			if (leaks.length == 0) {
+				leaks = new int[recordLeaks.length][recordLeaks.length == 0 ? 0 : recordLeaks[0].length];
+			}
+			for (int x = 0; x < recordLeaks.length && x < leaks.length; x++) {
+				for (int y = 0; y < recordLeaks[x].length && y < leaks[x].length; y++) {
+					leaks[x][y] += recordLeaks[x][y];
+				}
+			}
+		}
+		return leaks;
+	}
+
+	/**
+	 * @return a plain text table per strategy, followed by its leak map with
+	 * one character per tile ('.' for no leaks, 1-9 for more and more)
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		for (String strategy : records.keySet()) {
+			report.append(String.format("%s: %d matches, %.0f%% won%n", strategy,
+					records.get(strategy).size(), 100 * getWinRate(strategy)));
+			report.append(String.format("%6s %8s %12s %12s%n", "Wave", "Beaten", "Lives lost", "Money"));
+			for (int wave = 0; wave < numWaves; wave++) {
+				report.append(String.format("%6d %7.0f%% %12.1f %12.0f%n", wave + 1,
+						100 * getWaveWinRate(strategy, wave), getMeanLivesLost(strategy, wave),
+						getMeanMoney(strategy, wave)));
+			}
+			appendLeaks(report, getLeaks(strategy));
+			report.append(String.format("%n"));
+		}
+		return report.toString();
+	}
+
+	private static void appendLeaks(StringBuilder report, int[][] leaks) {
+		int most = 0;
+		for (int[] column : leaks) {
+			for (int tileLeaks : column) {
+				most = Math.max(most, tileLeaks);
+			}
+		}
+		if (most == 0) {
+			report.append(String.format("No leaks%n"));
+			return;
+		}
+		report.append(String.format("Leaks (9 = %d):%n", most));
+		int numYTiles = leaks.length == 0 ? 0 : leaks[0].length;
+		for (int y = 0; y < numYTiles; y++) {
+			for (int x = 0; x < leaks.length; x++) {
+				report.append(leaks[x][y] == 0 ? '.' : (char) ('0' + Math.max(1, 9 * leaks[x][y] / most)));
+			}
+			report.append(String.format("%n"));
+		}
+	}
+}
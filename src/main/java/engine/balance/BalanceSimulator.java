@@ -0,0 +1,111 @@
+package main.java.engine.balance;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.java.engine.host.Match;
+import main.java.engine.host.IsolatedMethod;
+import main.java.schema.GameBlueprint;
+
+/**
+ * Estimates how hard a blueprint is by playing many headless matches of it
+ * with every PlacementStrategy and random seeds, on all cores. Like
+ * MatchHost, each worker plays its matches in a class loader of its own,
+ * which shares only MatchRecord with the simulator.
+ */
+public class BalanceSimulator {
+	private ExecutorService workers;
+	private IsolatedMethod playMethod = new IsolatedMethod(BalanceMatch.class.getName(), "play",
+			new Class<?>[] { byte[].class, String.class, long.class, int.class },
+			MatchRecord.class.getName());
+	private Random seeds = new Random();
+
+	/**
+	 * A simulator using one worker per core
+	 */
+	public BalanceSimulator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param numWorkers number of matches to play at the same time
+	 */
+	public BalanceSimulator(int numWorkers) {
+		workers = Executors.newFixedThreadPool(numWorkers);
+	}
+
+	/**
+	 * Simulate a blueprint with every strategy
+	 *
+	 * @see #simulate(byte[], List, int, int)
+	 */
+	public BalanceReport simulate(GameBlueprint blueprint, int matchesPerStrategy, int maxTicks)
+			throws IOException, InterruptedException, ExecutionException {
+		List<PlacementStrategy> strategies = new ArrayList<PlacementStrategy>();
+		for (PlacementStrategy strategy : PlacementStrategy.values()) {
+			strategies.add(strategy);
+		}
+		return simulate(Match.writeBlueprint(blueprint), strategies, matchesPerStrategy, maxTicks);
+	}
+
+	/**
+	 * Play matches and wait for all of them. Call it off the Swing thread.
+	 *
+	 * @param serializedBlueprint blueprint written by Match.writeBlueprint, so
+	 * that it cannot change while it is simulated
+	 * @param strategies strategies to play with
+	 * @param matchesPerStrategy matches to play with each strategy, each with a seed of its own
+	 * @param maxTicks matches are stopped after this many ticks if they have not ended
+	 * @return results of all matches
+	 */
+	public BalanceReport simulate(byte[] serializedBlueprint, List<PlacementStrategy> strategies,
+			int matchesPerStrategy, int maxTicks) throws InterruptedException, ExecutionException {
+		List<Future<MatchRecord>> futures = new ArrayList<Future<MatchRecord>>();
+		for (PlacementStrategy strategy : strategies) {
+			for (int i = 0; i < matchesPerStrategy; i++) {
+				futures.add(submit(serializedBlueprint, strategy.name(), seeds.nextLong(), maxTicks));
+			}
+		}
+		BalanceReport report = new BalanceReport();
+		try {
+			for (Future<MatchRecord> future : futures) {
+				report.addRecord(future.get());
+			}
+		}
+		finally {
+			for (Future<MatchRecord> future : futures) {
+				future.cancel(false);
+			}
+		}
+		return report;
+	}
+
+	private Future<MatchRecord> submit(final byte[] serializedBlueprint, final String strategy,
+			final long seed, final int maxTicks) {
+		return workers.submit(new Callable<MatchRecord>() {
+			@Override
+			public MatchRecord call() throws Exception {
+				return play(serializedBlueprint, strategy, seed, maxTicks);
+			}
+		});
+	}
+
+	private MatchRecord play(byte[] serializedBlueprint, String strategy, long seed, int maxTicks)
+			throws Exception {
+		return (MatchRecord) playMethod.invoke(serializedBlueprint, strategy, seed, maxTicks);
+	}
+
+	/**
+	 * Stop the workers once the queued matches are played
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+}
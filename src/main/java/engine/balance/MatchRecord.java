@@ -0,0 +1,109 @@
+package main.java.engine.balance;
+
+/**
+ * What happened in one simulated match, wave by wave. It is filled in the
+ * match's own class loader and read by the simulator in the host's, so it
+ * only holds java types.
+ */
+public class MatchRecord {
+	private String strategy;
+	private long seed;
+	private int ticks;
+	private boolean won;
+	private boolean lost;
+	private int wavesPlayed;
+	private boolean[] waveSurvived;
+	private int[] livesLost;
+	private int[] moneyAtWaveEnd;
+	private int[][] leaks;
+
+	/**
+	 * @param strategyInit name of the PlacementStrategy used
+	 * @param seedInit seed of the match
+	 * @param numWaves number of waves in the blueprint
+	 */
+	public MatchRecord(String strategyInit, long seedInit, int numWaves) {
+		strategy = strategyInit;
+		seed = seedInit;
+		waveSurvived = new boolean[numWaves];
+		livesLost = new int[numWaves];
+		moneyAtWaveEnd = new int[numWaves];
+		leaks = new int[0][0];
+	}
+
+	/**
+	 * Record how a wave went
+	 *
+	 * @param wave index of the wave, from 0
+	 * @param survived whether the player was still alive once the wave was beaten
+	 * @param lives lives lost during the wave
+	 * @param money money when the wave ended
+	 */
+	public void endWave(int wave, boolean survived, int lives, int money) {
+		if (wave < 0 || wave >= waveSurvived.length) {
+			return;
+		}
+		waveSurvived[wave] = survived;
+		livesLost[wave] = lives;
+		moneyAtWaveEnd[wave] = money;
+		wavesPlayed = Math.max(wavesPlayed, wave + 1);
+	}
+
+	public void endMatch(int ticksInit, boolean wonInit, boolean lostInit, int[][] leaksInit) {
+		ticks = ticksInit;
+		won = wonInit;
+		lost = lostInit;
+		leaks = leaksInit;
+	}
+
+	public String getStrategy() {
+		return strategy;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public int getTicks() {
+		return ticks;
+	}
+
+	public boolean isWon() {
+		return won;
+	}
+
+	public boolean isLost() {
+		return lost;
+	}
+
+	public int getNumWaves() {
+		return waveSurvived.length;
+	}
+
+	/**
+	 * @return number of waves that were started
+	 */
+	public int getWavesPlayed() {
+		return wavesPlayed;
+	}
+
+	public boolean isWaveSurvived(int wave) {
+		return waveSurvived[wave];
+	}
+
+	public int getLivesLost(int wave) {
+		return livesLost[wave];
+	}
+
+	public int getMoneyAtWaveEnd(int wave) {
+		return moneyAtWaveEnd[wave];
+	}
+
+	/**
+	 * @return for every tile (indexed [x][y]), the number of monsters that
+	 * reached the exit through it
+	 */
+	public int[][] getLeaks() {
+		return leaks;
+	}
+}
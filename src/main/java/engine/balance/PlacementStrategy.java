@@ -0,0 +1,25 @@
+package main.java.engine.balance;
+
+/**
+ * Scripted ways of placing towers that a ScriptedPlayer can follow. They are
+ * not meant to play well, but to bracket how hard a game is: if the game
+ * cannot be beaten by any of them, it is probably too hard.
+ */
+public enum PlacementStrategy {
+	/**
+	 * Never places a tower, to show how far the waves get on their own
+	 */
+	None,
+	/**
+	 * Places as many of the cheapest tower as possible, where they cover the most of the path
+	 */
+	Cheapest,
+	/**
+	 * Places the most expensive tower that can be afforded, where it covers the most of the path
+	 */
+	Priciest,
+	/**
+	 * Places a random affordable tower on a random tile next to the path
+	 */
+	Random
+}
@@ -0,0 +1,168 @@
+package main.java.engine.balance;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import main.java.engine.IModel;
+import main.java.engine.PathOverlay;
+import main.java.engine.host.MatchEngine;
+import main.java.schema.tdobjects.TDObjectSchema;
+import main.java.schema.tdobjects.TowerSchema;
+
+/**
+ * Places towers in a headless match by following a PlacementStrategy, in
+ * place of a player. Towers are only placed while monsters are on the map,
+ * since that is when the path they walk is known.
+ */
+public class ScriptedPlayer {
+	// tiles tried, best first, before giving up on a placement until the next act()
+	private static final int MAX_ATTEMPTS = 8;
+
+	private IModel model;
+	private PlacementStrategy strategy;
+	private Random random;
+	// tower names, cheapest first
+	private List<String> towerNames = new ArrayList<String>();
+	private List<Integer> towerCosts = new ArrayList<Integer>();
+
+	/**
+	 * @param modelInit model of the match
+	 * @param towerSchemas towers of the blueprint
+	 * @param strategyInit
+	 * @param seed seed for the Random strategy
+	 */
+	public ScriptedPlayer(IModel modelInit, List<TowerSchema> towerSchemas,
+			PlacementStrategy strategyInit, long seed) {
+		model = modelInit;
+		strategy = strategyInit;
+		random = new Random(seed);
+		if (towerSchemas != null) {
+			for (TowerSchema schema : towerSchemas) {
+				addTower((String) schema.getAttributesMap().get(TDObjectSchema.NAME),
+						schema.getAttributesMap().get(TowerSchema.COST));
+			}
+		}
+	}
+
+	private void addTower(String name, Serializable cost) {
+		int towerCost = (cost instanceof Number) ? ((Number) cost).intValue() : 0;
+		int i = 0;
+		while (i < towerCosts.size() && towerCosts.get(i) <= towerCost) {
+			i++;
+		}
+		towerNames.add(i, name);
+		towerCosts.add(i, towerCost);
+	}
+
+	/**
+	 * Place at most one tower
+	 *
+	 * @return whether a tower was placed
+	 */
+	public boolean act() {
+		String tower = chooseTower();
+		if (tower == null) {
+			return false;
+		}
+		List<int[]> tiles = findCoveringTiles(model.getTowerRange(tower));
+		if (strategy == PlacementStrategy.Random) {
+			for (int attempt = 0; attempt < MAX_ATTEMPTS && !tiles.isEmpty(); attempt++) {
+				int[] tile = tiles.remove(random.nextInt(tiles.size()));
+				if (tryPlace(tile, tower)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		sortByCoverage(tiles);
+		for (int attempt = 0; attempt < MAX_ATTEMPTS && attempt < tiles.size(); attempt++) {
+			if (tryPlace(tiles.get(attempt), tower)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return name of the tower to place next, or null if none should or can be placed
+	 */
+	private String chooseTower() {
+		int affordable = 0;
+		while (affordable < towerCosts.size() && towerCosts.get(affordable) <= model.getMoney()) {
+			affordable++;
+		}
+		if (affordable == 0) {
+			return null;
+		}
+		switch (strategy) {
+			case Cheapest:
+				return towerNames.get(0);
+			case Priciest:
+				return towerNames.get(affordable - 1);
+			case Random:
+				return towerNames.get(random.nextInt(affordable));
+			default:
+				return null;
+		}
+	}
+
+	private boolean tryPlace(int[] tile, String tower) {
+		double x = (tile[0] + 0.5) * MatchEngine.TILE_WIDTH;
+		double y = (tile[1] + 0.5) * MatchEngine.TILE_HEIGHT;
+		return model.canPlaceTower(x, y, tower) && model.placeTower(x, y, tower);
+	}
+
+	/**
+	 * Find the free tiles from which a tower would reach the monsters' path.
+	 * Each tile is {x, y, number of path tiles in range}.
+	 */
+	private List<int[]> findCoveringTiles(double range) {
+		PathOverlay path = model.getPathOverlay();
+		List<int[]> pathTiles = new ArrayList<int[]>();
+		for (int x = 0; x < path.getNumXTiles(); x++) {
+			for (int y = 0; y < path.getNumYTiles(); y++) {
+				if (path.getTraffic(x, y) > 0) {
+					pathTiles.add(new int[] { x, y });
+				}
+			}
+		}
+		List<int[]> tiles = new ArrayList<int[]>();
+		if (pathTiles.isEmpty()) {
+			return tiles;
+		}
+		double tileRange = range / MatchEngine.TILE_WIDTH;
+		for (int x = 0; x < path.getNumXTiles(); x++) {
+			for (int y = 0; y < path.getNumYTiles(); y++) {
+				if (model.isTowerPresent((x + 0.5) * MatchEngine.TILE_WIDTH,
+						(y + 0.5) * MatchEngine.TILE_HEIGHT)) {
+					continue;
+				}
+				int coverage = 0;
+				for (int[] pathTile : pathTiles) {
+					double dx = pathTile[0] - x;
+					double dy = pathTile[1] - y;
+					if (dx * dx + dy * dy <= tileRange * tileRange) {
+						coverage++;
+					}
+				}
+				if (coverage > 0) {
+					tiles.add(new int[] { x, y, coverage });
+				}
+			}
+		}
+		return tiles;
+	}
+
+	private static void sortByCoverage(List<int[]> tiles) {
+		Collections.sort(tiles, new Comparator<int[]>() {
+			@Override
+			public int compare(int[] a, int[] b) {
+				return b[2] - a[2];
+			}
+		});
+	}
+}
@@ -0,0 +1,204 @@
+package main.java.engine.factory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jgame.JGObject;
+import jgame.impl.JGEngineInterface;
+
+/**
+ * Defines images in the jgame engine on behalf of the factory and map.
+ *
+ * Images needed from the start are requested, then defined together on a
+ * small worker pool. This relies on jgame keeping its image tables in
+ * synchronized Hashtables, so concurrent definitions of different image
+ * names are safe. jgame waits for every image on one static MediaTracker,
+ * though, so the workers mostly overlap reading files and cutting and
+ * scaling images, not the decoding itself, and one bad file makes every
+ * load waiting at the same time fail; see runInParallel. Images that may
+ * never be needed (upgrades, resurrected
+ * monsters, items) are deferred instead, and only defined the first time
+ * ensureDefined is called for them. At most MAX_DEFERRED_IMAGES of those
+ * stay defined; the least recently used one is undefined when another is
+ * needed, unless an object on screen still shows it. Images that can be
+ * shown at any moment without such an object, like the bullets of placed
+ * towers and effects, are defined with keepDefined instead and never
+ * undefined.
+ *
+ * Apart from runInParallel's workers, an AssetLoader is confined to the
+ * game thread: its LRU order changes on every lookup and eviction walks
+ * the engine's objects, so it must not be used from the Swing thread.
+ *
+ */
+public class AssetLoader {
+	public static final int MAX_DEFERRED_IMAGES = 16;
+	private static final int MAX_THREADS = 4;
+	private static final String IMG_OP = "-";
+	private static final String NO_IMAGE_FILE = "null";
+	private static final int IMAGE_CID = 1;
+
+	private JGEngineInterface engine;
+	private Map<String, String> requestedImages;
+	private Map<String, String> deferredImages;
+	private LinkedHashMap<String, String> definedDeferredImages;
+	private Set<String> keptImages;
+
+	public AssetLoader (JGEngineInterface engine) {
+		this.engine = engine;
+		requestedImages = new LinkedHashMap<String, String>();
+		deferredImages = new HashMap<String, String>();
+		definedDeferredImages = new LinkedHashMap<String, String>(MAX_DEFERRED_IMAGES, 1f, true);
+		keptImages = new HashSet<String>();
+	}
+
+	/**
+	 * Request an image to be defined on the next call to loadRequestedImages.
+	 * A requested image is never deferred, even if it was deferred before.
+	 *
+	 * @param imageName name of the image in the engine
+	 * @param imagePath path to the image file
+	 */
+	public void requestImage (String imageName, String imagePath) {
+		if (imageName == null) { return; }
+		deferredImages.remove(imageName);
+		requestedImages.put(imageName, imagePath);
+	}
+
+	/**
+	 * Defer an image until ensureDefined is called for it.
+	 *
+	 * @param imageName name of the image in the engine
+	 * @param imagePath path to the image file
+	 */
+	public void deferImage (String imageName, String imagePath) {
+		if (imageName == null || requestedImages.containsKey(imageName)) { return; }
+		deferredImages.put(imageName, imagePath);
+	}
+
+	/**
+	 * Define every requested image, decoding them in parallel.
+	 */
+	public void loadRequestedImages () {
+		List<Runnable> definitions = new ArrayList<Runnable>();
+		for (final Map.Entry<String, String> image : requestedImages.entrySet()) {
+			definitions.add(new Runnable() {
+				@Override
+				public void run () {
+					engine.defineImage(image.getKey(), IMG_OP, IMAGE_CID, image.getValue(), IMG_OP);
+				}
+			});
+		}
+		requestedImages.clear();
+		runInParallel(definitions);
+	}
+
+	/**
+	 * Make sure a deferred image is defined before it is shown.
+	 * Does nothing for images that were requested or are unknown.
+	 *
+	 * @param imageName
+	 */
+	public void ensureDefined (String imageName) {
+		String imagePath = deferredImages.get(imageName);
+		if (imagePath == null || keptImages.contains(imageName)
+				|| definedDeferredImages.get(imageName) != null) { return; }
+		engine.defineImage(imageName, IMG_OP, IMAGE_CID, imagePath, IMG_OP);
+		definedDeferredImages.put(imageName, imagePath);
+		evictUnusedImages();
+	}
+
+	/**
+	 * Make sure a deferred image is defined, and keep it defined for the
+	 * rest of the game. For images that something already on the map can
+	 * show at any time, such as the bullets of a placed tower.
+	 * Does nothing for images that were requested or are unknown.
+	 *
+	 * @param imageName
+	 */
+	public void keepDefined (String imageName) {
+		String imagePath = deferredImages.get(imageName);
+		if (imagePath == null || keptImages.contains(imageName)) { return; }
+		if (definedDeferredImages.remove(imageName) == null) {
+			engine.defineImage(imageName, IMG_OP, IMAGE_CID, imagePath, IMG_OP);
+		}
+		keptImages.add(imageName);
+	}
+
+	/**
+	 * Undefine least recently used deferred images until at most
+	 * MAX_DEFERRED_IMAGES remain, skipping images still in use.
+	 */
+	private void evictUnusedImages () {
+		if (definedDeferredImages.size() <= MAX_DEFERRED_IMAGES) { return; }
+		Collection<String> imagesInUse = findImagesInUse();
+		Iterator<String> leastRecentlyUsed = definedDeferredImages.keySet().iterator();
+		while (definedDeferredImages.size() > MAX_DEFERRED_IMAGES && leastRecentlyUsed.hasNext()) {
+			String imageName = leastRecentlyUsed.next();
+			if (!imagesInUse.contains(imageName)) {
+				leastRecentlyUsed.remove();
+				// jgame undefines an image when it is redefined with no file
+				engine.defineImage(imageName, IMG_OP, IMAGE_CID, NO_IMAGE_FILE, IMG_OP);
+			}
+		}
+	}
+
+	private Collection<String> findImagesInUse () {
+		Collection<String> imagesInUse = new HashSet<String>();
+		for (Object object : engine.getObjects(null, 0, true, null)) {
+			imagesInUse.add(((JGObject) object).getImageName());
+		}
+		return imagesInUse;
+	}
+
+	/**
+	 * Run independent image definitions on a worker pool and wait for all of
+	 * them. If any of them fails, they are all run again one after the other:
+	 * jgame's shared MediaTracker fails every load in flight when one file is
+	 * bad, and only a sequential run throws for the image that is at fault.
+	 * Definitions must therefore be safe to repeat.
+	 *
+	 * @param definitions
+	 */
+	public void runInParallel (Collection<Runnable> definitions) {
+		if (definitions.isEmpty()) { return; }
+		int threads = Math.min(definitions.size(),
+				Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for (Runnable definition : definitions) {
+			tasks.add(Executors.callable(definition));
+		}
+		try {
+			for (Future<Object> result : pool.invokeAll(tasks)) {
+				result.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			runSequentially(definitions);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private void runSequentially (Collection<Runnable> definitions) {
+		for (Runnable definition : definitions) {
+			definition.run();
+		}
+	}
+}
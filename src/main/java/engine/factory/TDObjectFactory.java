@@ -8,12 +8,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import jgame.impl.JGEngineInterface;
 import main.java.engine.Model;
 import main.java.engine.PathfinderManager;
+import main.java.engine.VisualDetail;
 import main.java.engine.map.TDMap;
 import main.java.engine.objects.Exit;
 import main.java.engine.objects.monster.Monster;
@@ -29,6 +32,7 @@ import main.java.engine.util.Reflection;
 import main.java.exceptions.engine.ItemCreationFailureException;
 import main.java.exceptions.engine.MonsterCreationFailureException;
 import main.java.exceptions.engine.TowerCreationFailureException;
+import main.java.schema.MonsterSpawnSchema;
 import main.java.schema.tdobjects.ItemSchema;
 import main.java.schema.tdobjects.MonsterSchema;
 import main.java.schema.tdobjects.TDObjectSchema;
@@ -48,9 +52,21 @@ public class TDObjectFactory {
 	private List<String> possibleItemNames;
 	private Map<String, String> towerMap;
 	private Map<String, String> itemMap;
+	private AssetLoader assetLoader;
+	private VisualDetail visualDetail;
 
 	public TDObjectFactory (JGEngineInterface engine) {
+		this(engine, new AssetLoader(engine));
+	}
+
+	public TDObjectFactory (JGEngineInterface engine, AssetLoader assetLoader) {
+		this(engine, assetLoader, new VisualDetail());
+	}
+
+	public TDObjectFactory (JGEngineInterface engine, AssetLoader assetLoader, VisualDetail visualDetail) {
 		this.engine = engine;
+		this.assetLoader = assetLoader;
+		this.visualDetail = visualDetail;
 		tdObjectSchemaMap = new HashMap<>();
 		possibleTowersNames = new ArrayList<String>();
 		possibleItemNames = new ArrayList<String>();
@@ -59,71 +75,147 @@ public class TDObjectFactory {
 	}
 
 	/**
-	 * Load tower defense object schemas into schema map
+	 * Load tower defense object schemas into schema map, requesting their images
 	 * 
 	 * @param schemas
 	 */
 	public void loadTDObjectSchemas (List<TDObjectSchema> schemas) {
+		loadTDObjectSchemas(schemas, Collections.<String> emptySet());
+	}
+
+	/**
+	 * Load tower defense object schemas into schema map. Images of objects named
+	 * in deferredNames are only defined once such an object is first placed.
+	 * 
+	 * @param schemas
+	 * @param deferredNames names of objects that are rarely used
+	 */
+	private void loadTDObjectSchemas (List<TDObjectSchema> schemas, Set<String> deferredNames) {
 		for (TDObjectSchema s : schemas) {
-			String objName = (String) s.getAttributesMap().get(TDObjectSchema.NAME);
+			String objName = (String) s.getAttribute(TDObjectSchema.NAME);
 			String objImagePath =
-					Model.RESOURCE_PATH + s.getAttributesMap().get(TDObjectSchema.IMAGE_NAME);
-			engine.defineImage(objName, "-", 1, objImagePath, "-");
+					Model.RESOURCE_PATH + s.getAttribute(TDObjectSchema.IMAGE_NAME);
+			if (deferredNames.contains(objName)) {
+				assetLoader.deferImage(objName, objImagePath);
+			}
+			else {
+				assetLoader.requestImage(objName, objImagePath);
+			}
 			tdObjectSchemaMap.put(objName, s);
 		}
 	}
 
 	/**
-	 * Load tower schemas
+	 * Load tower schemas. Towers that are only reachable as another tower's
+	 * upgrade have their images deferred.
 	 * 
 	 * @param schemas
 	 */
 	@SuppressWarnings("unchecked")
 	public void loadTowerSchemas (List<TowerSchema> schemas) {
+		Set<String> upgradeTowerNames = new HashSet<String>();
+		for (TowerSchema towerschema: schemas) {
+			upgradeTowerNames.add((String) towerschema.getAttribute(TowerSchema.UPGRADE_PATH));
+		}
 		for (TowerSchema towerschema: schemas) {
-			String towerName = (String) towerschema.getAttributesMap().get(TDObjectSchema.NAME);
-			String towerDescription = (String) towerschema.getAttributesMap().get(TowerSchema.DESCRIPTION);
+			String towerName = (String) towerschema.getAttribute(TDObjectSchema.NAME);
+			String towerDescription = (String) towerschema.getAttribute(TowerSchema.DESCRIPTION);
+			boolean isDeferred = upgradeTowerNames.contains(towerName);
 			possibleTowersNames.add(towerName);
 			towerMap.put(towerName, towerDescription);
-			defineBulletImage(towerschema, TowerSchema.BULLET_IMAGE_NAME);
-			defineBulletImage(towerschema, TowerSchema.SHRAPNEL_IMAGE_NAME);
+			defineBulletImage(towerschema, TowerSchema.BULLET_IMAGE_NAME, isDeferred);
+			defineBulletImage(towerschema, TowerSchema.SHRAPNEL_IMAGE_NAME, isDeferred);
 		}
 		// Perhaps a better method of casting than using an intermediate wildcard type?
-		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas);
+		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas, upgradeTowerNames);
 	}
 
 	/**
 	 * Define the image of a bullet/shrapnel attribute in jgame engine.
 	 * @param towerschema the tower schema
 	 * @param imageNameConstant a constant of TowerSchema that is an image name attribute
+	 * @param isDeferred whether the image is only needed once the tower is placed
 	 */
-	private void defineBulletImage (TowerSchema towerschema, String imageNameConstant) {
-		String bulletImageName = (String) towerschema.getAttributesMap().get(imageNameConstant);
-		String bulletImagePath = Model.RESOURCE_PATH + towerschema.getAttributesMap().get(imageNameConstant);
-		engine.defineImage(bulletImageName, "-", 1, bulletImagePath, "-");
+	private void defineBulletImage (TowerSchema towerschema, String imageNameConstant, boolean isDeferred) {
+		String bulletImageName = (String) towerschema.getAttribute(imageNameConstant);
+		String bulletImagePath = Model.RESOURCE_PATH + towerschema.getAttribute(imageNameConstant);
+		if (isDeferred) {
+			assetLoader.deferImage(bulletImageName, bulletImagePath);
+		}
+		else {
+			assetLoader.requestImage(bulletImageName, bulletImagePath);
+		}
 	}
 
 	/**
-	 * Load monster schemas
+	 * Load monster schemas. Monsters that are spawned by another monster's
+	 * resurrection have their images deferred.
 	 * 
 	 * @param schemas
 	 */
 	@SuppressWarnings("unchecked")
 	public void loadMonsterSchemas (List<MonsterSchema> schemas) {
-		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas);
+		Set<String> resurrectedMonsterNames = new HashSet<String>();
+		for (MonsterSchema monsterSchema : schemas) {
+			Object resurrect = monsterSchema.getAttribute(MonsterSchema.RESURRECT_MONSTERSPAWNSCHEMA);
+			if (resurrect instanceof MonsterSpawnSchema) {
+				resurrectedMonsterNames.add((String) ((MonsterSpawnSchema) resurrect).getMonsterSchema()
+						.getAttribute(TDObjectSchema.NAME));
+			}
+		}
+		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas, resurrectedMonsterNames);
 	}
 
 	/**
-	 * Load item schemas
+	 * Load item schemas. Item images are deferred until an item is placed.
 	 * 
 	 * @param schemas
 	 */
 	@SuppressWarnings("unchecked")
 	public void loadItemSchemas(List<ItemSchema> schemas) {
+		Set<String> itemNames = new HashSet<String>();
 		for (ItemSchema i: schemas) {
-			possibleItemNames.add((String) i.getAttributesMap().get(TDObjectSchema.NAME));
+			String itemName = (String) i.getAttribute(TDObjectSchema.NAME);
+			possibleItemNames.add(itemName);
+			itemNames.add(itemName);
 		}
-		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas);		
+		loadTDObjectSchemas((List<TDObjectSchema>)(List<?>) schemas, itemNames);		
+	}
+
+	/**
+	 * Define the images of every loaded schema that are needed from the start.
+	 * Call after all schemas are loaded.
+	 */
+	public void loadRequestedImages () {
+		assetLoader.loadRequestedImages();
+	}
+
+	/**
+	 * Make sure the images of a tower, including its bullets, are defined.
+	 * The bullets stay defined, since the tower may fire them at any time.
+	 * 
+	 * @param towerName
+	 */
+	public void loadTowerImages (String towerName) {
+		TDObjectSchema schema = tdObjectSchemaMap.get(towerName);
+		if (schema == null) { return; }
+		assetLoader.ensureDefined(towerName);
+		assetLoader.keepDefined((String) schema.getAttribute(TowerSchema.BULLET_IMAGE_NAME));
+		assetLoader.keepDefined((String) schema.getAttribute(TowerSchema.SHRAPNEL_IMAGE_NAME));
+	}
+
+	/**
+	 * Attributes of a monster to be spawned without a Monster object, e.g.
+	 * into an ArchetypeWorld. Its image stays defined, since no object of
+	 * the engine holds on to it.
+	 * 
+	 * @param monsterName
+	 * @return unmodifiable map of attributes, or null if the monster is not loaded
+	 */
+	public Map<String, Serializable> loadMonsterAttributes (String monsterName) {
+		if (!tdObjectSchemaMap.containsKey(monsterName)) { return null; }
+		assetLoader.keepDefined(monsterName);
+		return getTDObjectAttributes(monsterName);
 	}
 
 	/**
@@ -140,9 +232,10 @@ public class TDObjectFactory {
 	 */
 	public TDPowerupPowerup placeItem (Point2D location, String itemName) throws ItemCreationFailureException {
 
-		Point2D tileOrigin = TDMap.findTileOrigin(location);
+		Point2D tileOrigin = TDMap.findTileOrigin(location, engine);
 		try {
 			TDObjectSchema schema = tdObjectSchemaMap.get(itemName);
+			assetLoader.ensureDefined(itemName);
 			schema.addAttribute(ItemSchema.LOCATION, (Serializable) tileOrigin);
 			Object[] itemParameters = { schema.getAttributesMap() };
 			return (TDPowerupPowerup) placeObject(schema.getMyConcreteType(), itemParameters);
@@ -162,9 +255,10 @@ public class TDObjectFactory {
 	 */
 	public ITower placeTower (Point2D location, String towerName)
 			throws TowerCreationFailureException {
-		Point2D tileOrigin = TDMap.findTileOrigin(location);
+		Point2D tileOrigin = TDMap.findTileOrigin(location, engine);
 		try {
 			TDObjectSchema schema = tdObjectSchemaMap.get(towerName);
+			loadTowerImages(towerName);
 			schema.addAttribute(TowerSchema.LOCATION, (Serializable) tileOrigin);
 			Object[] towerParameters = { schema.getAttributesMap() };
 
@@ -208,6 +302,7 @@ public class TDObjectFactory {
 					throws MonsterCreationFailureException {
 		try {
 			TDObjectSchema schema = tdObjectSchemaMap.get(monsterName);
+			assetLoader.ensureDefined(monsterName);
 
 			schema.addAttribute(MonsterSchema.ENTRANCE_LOCATION, (Serializable) entrance);
 			schema.addAttribute(MonsterSchema.EXIT_LOCATION, exit);
@@ -215,7 +310,9 @@ public class TDObjectFactory {
 
 			Object[] monsterParameters = { schema.getAttributesMap() };
 
-			return (Monster) placeObject(schema.getMyConcreteType(), monsterParameters);
+			Monster monster = (Monster) placeObject(schema.getMyConcreteType(), monsterParameters);
+			monster.setVisualDetail(visualDetail);
+			return monster;
 		}
 		catch (Exception e) {
 			throw new MonsterCreationFailureException(e);
@@ -242,6 +339,17 @@ public class TDObjectFactory {
 		return tdObjectSchemaMap.containsKey(objName) ? Collections.unmodifiableMap(tdObjectSchemaMap.get(objName).getAttributesMap()) : null;
 	}
 
+	/**
+	 * Returns a single attribute of a TDobject from its schema without copying its attributes
+	 * @param objName
+	 * @param attributeName
+	 * @return value of the attribute, or null if the schema or attribute doesn't exist
+	 */
+	public Serializable getTDObjectAttribute(String objName, String attributeName) {
+		TDObjectSchema schema = tdObjectSchemaMap.get(objName);
+		return (schema == null) ? null : schema.getAttribute(attributeName);
+	}
+
 	/**
 	 * Returns names of towers that have loaded schemas, and can possibly be created.
 	 * @return an unmodifiable list
@@ -0,0 +1,61 @@
+package main.java.engine.host;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A static method of the game's classes, loaded by each thread that calls it
+ * in a MatchClassLoader of that thread's own, so that threads playing
+ * matches at the same time share none of jgame's static state. Calls run
+ * with that loader as the context class loader, which is where the game
+ * looks up classes and resources by name.
+ */
+public class IsolatedMethod {
+	private ThreadLocal<Method> methods;
+
+	/**
+	 * @param className binary name of the class declaring the method
+	 * @param methodName name of the static method
+	 * @param parameterTypes parameter types of the method; anything but the
+	 * JDK must be shared
+	 * @param sharedClassNames binary names of the classes the caller and the
+	 * method exchange, taken from the caller's loader
+	 */
+	public IsolatedMethod(final String className, final String methodName,
+			final Class<?>[] parameterTypes, final String... sharedClassNames) {
+		methods = new ThreadLocal<Method>() {
+			@Override
+			protected Method initialValue() {
+				try {
+					ClassLoader loader = new MatchClassLoader(sharedClassNames);
+					return loader.loadClass(className).getMethod(methodName, parameterTypes);
+				}
+				catch (ClassNotFoundException | NoSuchMethodException e) {
+					throw new IllegalStateException("Could not load " + className, e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Call the method in the current thread's loader
+	 *
+	 * @return what the method returned
+	 * @throws Exception what the method threw
+	 */
+	public Object invoke(Object... arguments) throws Exception {
+		Method method = methods.get();
+		Thread thread = Thread.currentThread();
+		ClassLoader previousLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(method.getDeclaringClass().getClassLoader());
+		try {
+			return method.invoke(null, arguments);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+		finally {
+			thread.setContextClassLoader(previousLoader);
+		}
+	}
+}
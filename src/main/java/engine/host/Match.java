@@ -0,0 +1,201 @@
+package main.java.engine.host;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Random;
+
+import main.java.engine.IModel;
+import main.java.engine.Model;
+import main.java.engine.objects.TDObject;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+import main.java.schema.CanvasSchema;
+import main.java.schema.GameBlueprint;
+import main.java.schema.map.GameMapSchema;
+
+/**
+ * A single game played without a view, on an engine of its own.
+ * The match is stepped by its caller and ends when the game is won or lost.
+ */
+public class Match {
+	private GameBlueprint blueprint;
+	private MatchEngine engine;
+	private Model model;
+	private int ticks;
+
+	/**
+	 * @param blueprintInit game to play; it is only read
+	 */
+	public Match(GameBlueprint blueprintInit) {
+		this(blueprintInit, new Random().nextLong());
+	}
+
+	/**
+	 * @param blueprintInit game to play; it is only read
+	 * @param seed seed for the engine's random numbers
+	 */
+	public Match(GameBlueprint blueprintInit, long seed) {
+		blueprint = blueprintInit;
+		CanvasSchema canvasSchema = (CanvasSchema) blueprint.getMyGameMapSchemas().get(0)
+				.getAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES);
+		Map<String, Serializable> canvasAttributes = canvasSchema.getAttributesMap();
+		engine = new MatchEngine((Integer) canvasAttributes.get(CanvasSchema.X_TILES),
+				(Integer) canvasAttributes.get(CanvasSchema.Y_TILES));
+		engine.setSeed(seed);
+		model = Model.fromBlueprint(engine, blueprint);
+	}
+
+	/**
+	 * Start the match over on the same engine
+	 *
+	 * @param seed seed for the engine's random numbers
+	 */
+	public void reset(long seed) {
+		engine.removeObjects(null, 0);
+		engine.setSeed(seed);
+		model = Model.fromBlueprint(engine, blueprint);
+		ticks = 0;
+	}
+
+	/**
+	 * Advance the match, stopping early if it ends
+	 *
+	 * @param maxTicks most ticks to run
+	 * @return number of ticks run
+	 * @throws MonsterCreationFailureException
+	 */
+	public int step(int maxTicks) throws MonsterCreationFailureException {
+		int ticksRun = 0;
+		while (ticksRun < maxTicks && !isOver()) {
+			engine.tick(model);
+			ticksRun++;
+		}
+		ticks += ticksRun;
+		return ticksRun;
+	}
+
+	/**
+	 * Start a frame the way TDPlayerEngine's frames start, adding the objects
+	 * created since the last one. Commands given after this and before
+	 * runTicks act as the player's commands do during a frame.
+	 */
+	public void startFrame() {
+		engine.addAndRemoveObjects();
+	}
+
+	/**
+	 * Run the ticks of a frame started with startFrame. As in TDPlayerEngine,
+	 * the first tick always runs and the others stop once the match is over.
+	 *
+	 * @param numTicks ticks the frame runs
+	 * @return number of ticks run
+	 * @throws MonsterCreationFailureException
+	 */
+	public int runTicks(int numTicks) throws MonsterCreationFailureException {
+		int ticksRun = 0;
+		while (ticksRun < numTicks && (ticksRun == 0 || !isOver())) {
+			engine.simulate(model);
+			ticksRun++;
+		}
+		ticks += ticksRun;
+		return ticksRun;
+	}
+
+	public boolean isOver() {
+		return model.isGameWon() || model.isGameLost();
+	}
+
+	/**
+	 * @return number of game objects in the match's engine; objects created
+	 * or removed since the last frame started are only counted from the next
+	 */
+	public int countObjects() {
+		return engine.countObjects(null, 0);
+	}
+
+	/**
+	 * @return number of ticks run since the match started
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+
+	public IModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Remove the match's engine, so that another can be created in its place
+	 */
+	public void close() {
+		engine.destroy();
+		// the engine's objects are dropped without being removed one by one
+		TDObject.getEntities().clear();
+	}
+
+	/**
+	 * Play a whole match. Called by MatchHost through reflection from another
+	 * class loader, so only java types are passed in and out.
+	 *
+	 * @param serializedBlueprint blueprint written with ObjectOutputStream
+	 * @param maxTicks most ticks to run
+	 * @return results indexed by the MatchResult constants
+	 */
+	public static double[] play(byte[] serializedBlueprint, int maxTicks)
+			throws IOException, ClassNotFoundException, MonsterCreationFailureException {
+		GameBlueprint blueprint = readBlueprint(serializedBlueprint);
+
+		long start = System.nanoTime();
+		Match match = new Match(blueprint);
+		try {
+			match.step(maxTicks);
+			IModel result = match.getModel();
+			double[] results = new double[MatchResult.NUM_RESULTS];
+			results[MatchResult.TICKS] = match.getTicks();
+			results[MatchResult.SCORE] = result.getScore();
+			results[MatchResult.MONEY] = result.getMoney();
+			results[MatchResult.LIVES] = result.getPlayerLives();
+			results[MatchResult.WON] = result.isGameWon() ? 1 : 0;
+			results[MatchResult.LOST] = result.isGameLost() ? 1 : 0;
+			results[MatchResult.NANOS] = System.nanoTime() - start;
+			return results;
+		}
+		finally {
+			match.close();
+		}
+	}
+
+	/**
+	 * Serialize a blueprint, so that it can be passed to matches in other
+	 * class loaders and cannot change while they are played
+	 *
+	 * @param blueprint
+	 * @return the blueprint written with ObjectOutputStream
+	 * @throws IOException
+	 */
+	public static byte[] writeBlueprint(GameBlueprint blueprint) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(blueprint);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Read a blueprint written by writeBlueprint
+	 *
+	 * @param serializedBlueprint
+	 * @return a copy of the blueprint of this class loader's own
+	 */
+	public static GameBlueprint readBlueprint(byte[] serializedBlueprint)
+			throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedBlueprint));
+		GameBlueprint blueprint = (GameBlueprint) in.readObject();
+		in.close();
+		return blueprint;
+	}
+}
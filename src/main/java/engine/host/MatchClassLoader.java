@@ -0,0 +1,67 @@
+package main.java.engine.host;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads the game's classes again, from the application class path, so that
+ * the static state jgame keeps is not shared with the host or with other
+ * matches. Only the JDK and the classes named as shared come from the host,
+ * so that the host can talk to the match through them.
+ */
+public class MatchClassLoader extends URLClassLoader {
+	private Set<String> sharedClasses;
+	private ClassLoader host;
+
+	/**
+	 * A loader that shares nothing but the JDK with the host
+	 */
+	public MatchClassLoader() {
+		this(Collections.<String>emptySet());
+	}
+
+	/**
+	 * @param sharedClassNames binary names of the classes to take from the host
+	 */
+	public MatchClassLoader(Collection<String> sharedClassNames) {
+		super(getClassPath(), ClassLoader.getSystemClassLoader().getParent());
+		sharedClasses = new HashSet<String>(sharedClassNames);
+		host = MatchClassLoader.class.getClassLoader();
+	}
+
+	/**
+	 * @param sharedClassNames binary names of the classes to take from the host
+	 */
+	public MatchClassLoader(String... sharedClassNames) {
+		this(Arrays.asList(sharedClassNames));
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if (sharedClasses.contains(name)) {
+			return host.loadClass(name);
+		}
+		return super.loadClass(name, resolve);
+	}
+
+	private static URL[] getClassPath() {
+		String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		URL[] urls = new URL[entries.length];
+		try {
+			for (int i = 0; i < entries.length; i++) {
+				urls[i] = new File(entries[i]).toURI().toURL();
+			}
+		}
+		catch (MalformedURLException e) {
+			throw new IllegalStateException("Invalid class path", e);
+		}
+		return urls;
+	}
+}
@@ -0,0 +1,118 @@
+package main.java.engine.host;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import jgame.JGColor;
+import jgame.platform.JGEngine;
+import main.java.engine.IModel;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+
+/**
+ * JGEngine for a match that nobody watches. It is never shown and jgame's
+ * own thread never runs its frames: the match calls tick(), which runs a
+ * whole frame right away on the calling thread, so matches run as fast as
+ * the CPU allows. Like every JGEngine it still needs a display to be created.
+ * Random numbers come from a generator that can be seeded, so a match can
+ * be played again exactly.
+ *
+ * jgame keeps the engine that new JGObjects join in a static field, so only
+ * one MatchEngine may exist at a time per class loader; MatchHost gives each
+ * of its workers a class loader of its own.
+ */
+public class MatchEngine extends JGEngine {
+	private static final long serialVersionUID = 1L;
+	public static final int TILE_WIDTH = 32;
+	public static final int TILE_HEIGHT = 32;
+
+	// Objects created during a frame are only added to the engine at the start
+	// of the next one, in jgame's private doFrameAll
+	private static final Method DO_FRAME_ALL = findDoFrameAll();
+	// invoke's varargs would otherwise allocate an empty array every frame
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	private int xtiles, ytiles;
+	private Random random = new Random();
+
+	public MatchEngine(int xtilesInit, int ytilesInit) {
+		xtiles = xtilesInit;
+		ytiles = ytilesInit;
+		// must be stopped before jgame's thread starts, so that it never runs a frame
+		stop();
+		initEngineComponent(xtiles * TILE_WIDTH, ytiles * TILE_HEIGHT);
+	}
+
+	private static Method findDoFrameAll() {
+		try {
+			Method doFrameAll = JGEngine.class.getDeclaredMethod("doFrameAll");
+			doFrameAll.setAccessible(true);
+			return doFrameAll;
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException("Unsupported jgame version", e);
+		}
+	}
+
+	/**
+	 * Seed the numbers returned by random(min, max), which the game objects use
+	 * 
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	@Override
+	public double random(double min, double max) {
+		return min + random.nextDouble() * (max - min);
+	}
+
+	@Override
+	public void initCanvas() {
+		setCanvasSettings(xtiles, ytiles, TILE_WIDTH, TILE_HEIGHT, null, JGColor.black, null);
+	}
+
+	@Override
+	public void initGame() {
+	}
+
+	/**
+	 * Add the objects created and drop the objects removed since this was
+	 * last called, as jgame does at the start of every frame
+	 */
+	public void addAndRemoveObjects() {
+		try {
+			DO_FRAME_ALL.invoke(this, NO_ARGUMENTS);
+		}
+		catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Advance the match by one simulation tick, the same way a frame of
+	 * TDPlayerEngine does
+	 *
+	 * @param model model of the match
+	 * @throws MonsterCreationFailureException
+	 */
+	public void tick(IModel model) throws MonsterCreationFailureException {
+		addAndRemoveObjects();
+		simulate(model);
+	}
+
+	/**
+	 * Advance the match by one simulation tick without adding or dropping
+	 * objects first, as TDPlayerEngine does for every tick of a frame after
+	 * the first when it catches up
+	 *
+	 * @param model model of the match
+	 * @throws MonsterCreationFailureException
+	 */
+	public void simulate(IModel model) throws MonsterCreationFailureException {
+		model.updateGame();
+		moveObjects();
+		model.checkCollisions();
+	}
+}
@@ -0,0 +1,106 @@
+package main.java.engine.host;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import main.java.schema.GameBlueprint;
+
+/**
+ * Plays many independent matches at once, e.g. for tournaments and balance
+ * sweeps. Matches run on a fixed pool of workers. jgame keeps its engine in
+ * static fields, so each worker loads the game's classes in a class loader
+ * of its own and plays its matches one after another in it; matches on
+ * different workers share no state at all.
+ */
+public class MatchHost {
+	private ExecutorService workers;
+	// Match.play, in a class loader that shares nothing but the JDK with the host
+	private IsolatedMethod playMethod = new IsolatedMethod(Match.class.getName(), "play",
+			new Class<?>[] { byte[].class, int.class });
+	private AtomicLong ticksRun = new AtomicLong();
+	private AtomicLong matchesPlayed = new AtomicLong();
+	private long startNanos;
+
+	/**
+	 * @param numWorkers number of matches to play at the same time
+	 */
+	public MatchHost(int numWorkers) {
+		workers = Executors.newFixedThreadPool(numWorkers);
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Queue a match
+	 *
+	 * @param blueprint game to play, already loaded (and its resources extracted) by DataHandler
+	 * @param maxTicks the match is stopped after this many ticks if it has not ended
+	 * @return result of the match once it has been played
+	 * @throws IOException if the blueprint cannot be serialized
+	 */
+	public Future<MatchResult> submit(GameBlueprint blueprint, int maxTicks) throws IOException {
+		return submit(Match.writeBlueprint(blueprint), maxTicks);
+	}
+
+	/**
+	 * Queue a number of matches of the same game
+	 *
+	 * @return results of the matches, in the order they were queued
+	 */
+	public List<Future<MatchResult>> submitAll(GameBlueprint blueprint, int numMatches, int maxTicks)
+			throws IOException {
+		byte[] serializedBlueprint = Match.writeBlueprint(blueprint);
+		List<Future<MatchResult>> results = new ArrayList<Future<MatchResult>>();
+		for (int i = 0; i < numMatches; i++) {
+			results.add(submit(serializedBlueprint, maxTicks));
+		}
+		return results;
+	}
+
+	private Future<MatchResult> submit(final byte[] serializedBlueprint, final int maxTicks) {
+		return workers.submit(new Callable<MatchResult>() {
+			@Override
+			public MatchResult call() throws Exception {
+				MatchResult result = new MatchResult(play(serializedBlueprint, maxTicks));
+				ticksRun.addAndGet(result.getTicks());
+				matchesPlayed.incrementAndGet();
+				return result;
+			}
+		});
+	}
+
+	private double[] play(byte[] serializedBlueprint, int maxTicks) throws Exception {
+		return (double[]) playMethod.invoke(serializedBlueprint, maxTicks);
+	}
+
+	/**
+	 * @return ticks run by all finished matches together
+	 */
+	public long getTicksRun() {
+		return ticksRun.get();
+	}
+
+	public long getMatchesPlayed() {
+		return matchesPlayed.get();
+	}
+
+	/**
+	 * @return ticks run by all finished matches per second since the host was created
+	 */
+	public double getTicksPerSecond() {
+		double seconds = (System.nanoTime() - startNanos) / 1e9;
+		return seconds > 0 ? ticksRun.get() / seconds : 0;
+	}
+
+	/**
+	 * Play the queued matches, then stop the workers
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+}
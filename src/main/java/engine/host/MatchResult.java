@@ -0,0 +1,74 @@
+package main.java.engine.host;
+
+/**
+ * How a match played by a MatchHost ended.
+ */
+public class MatchResult {
+	// Indices into the array Match.play returns
+	static final int TICKS = 0;
+	static final int SCORE = 1;
+	static final int MONEY = 2;
+	static final int LIVES = 3;
+	static final int WON = 4;
+	static final int LOST = 5;
+	static final int NANOS = 6;
+	static final int NUM_RESULTS = 7;
+
+	private int ticks;
+	private double score;
+	private int money;
+	private int lives;
+	private boolean won;
+	private boolean lost;
+	private long nanos;
+
+	MatchResult(double[] results) {
+		ticks = (int) results[TICKS];
+		score = results[SCORE];
+		money = (int) results[MONEY];
+		lives = (int) results[LIVES];
+		won = results[WON] != 0;
+		lost = results[LOST] != 0;
+		nanos = (long) results[NANOS];
+	}
+
+	/**
+	 * @return number of ticks the match ran
+	 */
+	public int getTicks() {
+		return ticks;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public int getMoney() {
+		return money;
+	}
+
+	public int getLives() {
+		return lives;
+	}
+
+	public boolean isWon() {
+		return won;
+	}
+
+	public boolean isLost() {
+		return lost;
+	}
+
+	/**
+	 * @return time taken to set up and play the match
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	@Override
+	public String toString() {
+		return "Ticks: " + ticks + ", Score: " + score + ", Money: " + money + ", Lives: " + lives
+				+ (won ? ", won" : lost ? ", lost" : "");
+	}
+}
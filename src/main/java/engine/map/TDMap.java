@@ -2,9 +2,10 @@ package main.java.engine.map;
 
 import jgame.impl.JGEngineInterface;
 import main.java.engine.Model;
+import main.java.engine.factory.AssetLoader;
 import main.java.schema.map.GameMapSchema;
 import main.java.schema.map.TileMapSchema;
-import main.java.schema.map.TileSchema;
+import main.java.schema.map.TileLayer;
 
 import java.awt.geom.Point2D;
 import java.io.Serializable;
@@ -18,23 +19,23 @@ public class TDMap {
     private static final String IMG_OP = "-";
 
 	private JGEngineInterface engine;
-    private List<TileSchema> tileSchemas;
+	private AssetLoader assetLoader;
+    private TileLayer tileLayer;
     private List<TileMapSchema> tileMapSchemas;
     private Map<String, TileMap> tileMaps;
-    private Set<String> definedTiles;
 	private int[][] originalTileCIDs;
-    private static int tileHeight;
-    private static int tileWidth;
 
     public TDMap(JGEngineInterface engine, GameMapSchema gameMapSchema) {
+        this(engine, gameMapSchema, new AssetLoader(engine));
+    }
+
+    public TDMap(JGEngineInterface engine, GameMapSchema gameMapSchema, AssetLoader assetLoader) {
 		this.engine = engine;
-        tileHeight = engine.tileHeight();
-        tileWidth = engine.tileWidth();
+		this.assetLoader = assetLoader;
         Map<String, Serializable> gameMapAttributes = gameMapSchema.getAttributesMap();
-        tileSchemas = (List<TileSchema>) gameMapAttributes.get(GameMapSchema.MY_TILES);
+        tileLayer = gameMapSchema.getTileLayer();
         tileMapSchemas = (List<TileMapSchema>) gameMapAttributes.get(GameMapSchema.MY_TILEMAPS);
         tileMaps = new HashMap<>();
-        definedTiles = new HashSet<>();
 
 		initOriginalTileCIDs();
 		loadTilemaps();
@@ -54,51 +55,113 @@ public class TDMap {
 	}
 
 	/**
-	 * Load in tilemaps.
+	 * Load in tilemaps, decoding their images in parallel.
 	 */
 	private void loadTilemaps() {
+		List<Runnable> definitions = new ArrayList<>();
 		for (TileMapSchema tms : tileMapSchemas) {
-			TileMap tileMap = new TileMap(tms);
+			final TileMap tileMap = new TileMap(tms);
 			tileMaps.put(tileMap.name, tileMap);
 
-			engine.defineImageMap(tileMap.name, Model.RESOURCE_PATH + tileMap.name,
-					X_OFFSET, Y_OFFSET, tileMap.pixelSize, tileMap.pixelSize,
-					X_SKIP, Y_SKIP);
+			definitions.add(new Runnable() {
+				@Override
+				public void run() {
+					engine.defineImageMap(tileMap.name, Model.RESOURCE_PATH + tileMap.name,
+							X_OFFSET, Y_OFFSET, tileMap.pixelSize, tileMap.pixelSize,
+							X_SKIP, Y_SKIP);
+				}
+			});
 		}
+		assetLoader.runInParallel(definitions);
 	}
 
 	/**
-	 * Load in tiles.
+	 * Load in tiles. Tile images are cut out of their tilemaps in parallel,
+	 * then tiles are placed on the playfield. Images sharing a tile string
+	 * are defined in order on one worker, so the last one still wins.
 	 */
 	private void loadTiles() {
-		for (TileSchema ts : tileSchemas) {
-			Map<String, Serializable> tsAttributeMap = ts.getAttributesMap();
-			String tileMapFileName = (String) tsAttributeMap.get(TileSchema.TILEMAP_FILE_NAME);
-
-			if (tileMaps.get(tileMapFileName) == null) {
-				continue; // TODO: fix
+		if (tileLayer == null) {
+			return;
+		}
+		// tile strings of defined tile images, by palette index and tile index
+		String[][] tileStrings = new String[tileLayer.getPaletteSize()][];
+		TileMap[] paletteTileMaps = new TileMap[tileLayer.getPaletteSize()];
+		for (int i = 0; i < paletteTileMaps.length; i++) {
+			paletteTileMaps[i] = tileMaps.get(tileLayer.getPaletteEntry(i));
+			if (paletteTileMaps[i] != null) {
+				tileStrings[i] = new String[paletteTileMaps[i].numRows * paletteTileMaps[i].numCols];
 			}
+		}
 
-			int tileRow = (Integer) tsAttributeMap.get(TileSchema.CANVAS_ROW);
-			int tileCol = (Integer) tsAttributeMap.get(TileSchema.CANVAS_COL);
-			int tileMapRow = (Integer) tsAttributeMap.get(TileSchema.TILEMAP_ROW);
-			int tileMapCol = (Integer) tsAttributeMap.get(TileSchema.TILEMAP_COL);
-			int tileCID = (Integer) tsAttributeMap.get(TileSchema.TILE_CID);
-			int tileIndex = tileMapRow * tileMaps.get(tileMapFileName).numCols + tileMapCol;
-
-			String tileName = tileMapFileName + tileMapCol + tileMapRow;
-
-			if (!definedTiles.contains(tileName)) {
-				engine.defineImage(tileName, tileMapRow + tileMapCol + "", tileCID,
-						tileMapFileName, tileIndex, IMG_OP);
-				definedTiles.add(tileName);
+		int cols = Math.min(tileLayer.getWidth(), originalTileCIDs.length);
+		int rows = Math.min(tileLayer.getHeight(), engine.pfTilesY());
+		Map<String, List<Runnable>> definitionsByTileString = new LinkedHashMap<>();
+		for (int tileRow = 0; tileRow < rows; tileRow++) {
+			for (int tileCol = 0; tileCol < cols; tileCol++) {
+				int paletteIndex = tileLayer.getTileMapIndex(tileCol, tileRow);
+				if (paletteIndex == TileLayer.EMPTY || paletteTileMaps[paletteIndex] == null) {
+					continue; // TODO: fix
+				}
+
+				TileMap tileMap = paletteTileMaps[paletteIndex];
+				int tileIndex = tileLayer.getTileIndex(tileCol, tileRow);
+				int tileCID = tileLayer.getCID(tileCol, tileRow);
+				if (tileIndex < 0 || tileIndex >= tileStrings[paletteIndex].length) {
+					continue;
+				}
+				if (tileStrings[paletteIndex][tileIndex] == null) {
+					int tileMapRow = tileIndex / tileMap.numCols;
+					int tileMapCol = tileIndex % tileMap.numCols;
+					String tileName = tileMap.name + tileMapCol + tileMapRow;
+					String tileString = tileMapRow + tileMapCol + "";
+					if (!definitionsByTileString.containsKey(tileString)) {
+						definitionsByTileString.put(tileString, new ArrayList<Runnable>());
+					}
+					definitionsByTileString.get(tileString).add(defineTile(tileName, tileString, tileCID,
+							tileMap.name, tileIndex));
+					tileStrings[paletteIndex][tileIndex] = tileString;
+				}
+				originalTileCIDs[tileCol][tileRow] = tileCID;
+			}
+		}
+		List<Runnable> definitions = new ArrayList<>();
+		for (final List<Runnable> sameTileString : definitionsByTileString.values()) {
+			definitions.add(new Runnable() {
+				@Override
+				public void run() {
+					for (Runnable definition : sameTileString) {
+						definition.run();
+					}
+				}
+			});
+		}
+		assetLoader.runInParallel(definitions);
+
+		for (int tileRow = 0; tileRow < rows; tileRow++) {
+			for (int tileCol = 0; tileCol < cols; tileCol++) {
+				int paletteIndex = tileLayer.getTileMapIndex(tileCol, tileRow);
+				if (paletteIndex == TileLayer.EMPTY || tileStrings[paletteIndex] == null) {
+					continue;
+				}
+				int tileIndex = tileLayer.getTileIndex(tileCol, tileRow);
+				if (tileIndex >= 0 && tileIndex < tileStrings[paletteIndex].length) {
+					engine.setTile(tileCol, tileRow, tileStrings[paletteIndex][tileIndex]);
+				}
 			}
-
-			engine.setTile(tileCol, tileRow, tileMapRow + tileMapCol + "");
-			originalTileCIDs[tileCol][tileRow] = tileCID;
 		}
 	}
 
+	private Runnable defineTile(final String tileName, final String tileString, final int tileCID,
+			final String tileMapFileName, final int tileIndex) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				engine.defineImage(tileName, tileString, tileCID, tileMapFileName, tileIndex, IMG_OP);
+			}
+		};
+	}
+
 	/**
 	 * Set the given tile for the map to a given CID.
 	 *
@@ -141,11 +204,16 @@ public class TDMap {
     
     /**
      * Find the top-left corner associated with the tile associated with the given location.
+     * Tile sizes are taken from the engine the location belongs to, so that
+     * several engines (e.g. matches run by a MatchHost) do not share them.
      * 
      * @param location Coordinate of the map used to find the associated file
+     * @param engine Engine whose tiles the location is on
      * @return The top left corner of the tile at the given coordinate
      */
-    public static Point2D findTileOrigin (Point2D location) {
+    public static Point2D findTileOrigin (Point2D location, JGEngineInterface engine) {
+        int tileWidth = engine.tileWidth();
+        int tileHeight = engine.tileHeight();
         int curXTilePos = (int) location.getX() / tileWidth * tileWidth;
         int curYTilePos = (int) location.getY() / tileHeight * tileHeight;
         return new Point2D.Double(curXTilePos, curYTilePos);
@@ -0,0 +1,133 @@
+package main.java.engine.objects;
+
+import java.util.Arrays;
+
+/**
+ * Gives game objects int handles, so that hit lists, targets and other
+ * references to them are cheap to store and compare, and safe to keep after
+ * the object is removed. A handle holds the object's slot in a dense table
+ * and the generation of the slot; releasing a handle moves its slot to the
+ * next generation before the slot is reused, so stale handles resolve to
+ * null instead of to whatever took the slot.
+ *
+ * Handles only live as long as the registry, so they are not saved with the
+ * game. The registry is not synchronized; only the engine thread uses it.
+ *
+ * @param <T> type of the objects registered
+ */
+public class EntityRegistry<T> {
+	/**
+	 * Never handed out; fields holding no handle can be left at 0
+	 */
+	public static final int NO_HANDLE = 0;
+	private static final int INDEX_BITS = 20;
+	public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+	private static final int INDEX_MASK = MAX_ENTITIES - 1;
+	private static final int MAX_GENERATION = (1 << (32 - INDEX_BITS)) - 1;
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Object[] entities = new Object[INITIAL_CAPACITY];
+	private int[] generations = new int[INITIAL_CAPACITY];
+	private int[] freeIndices = new int[INITIAL_CAPACITY];
+	private int numFree;
+	private int numSlots;
+	private int size;
+
+	/**
+	 * @param entity object to hand out a handle for; registering it twice gives it two
+	 * @return the object's new handle
+	 * @throws IllegalStateException if MAX_ENTITIES are already registered
+	 */
+	public int register(T entity) {
+		int index;
+		if (numFree > 0) {
+			index = freeIndices[--numFree];
+		}
+		else {
+			if (numSlots == MAX_ENTITIES) {
+				throw new IllegalStateException("More than " + MAX_ENTITIES + " entities registered");
+			}
+			if (numSlots == entities.length) {
+				int capacity = Math.min(entities.length * 2, MAX_ENTITIES);
+				entities = Arrays.copyOf(entities, capacity);
+				generations = Arrays.copyOf(generations, capacity);
+				freeIndices = Arrays.copyOf(freeIndices, capacity);
+			}
+			index = numSlots++;
+			generations[index] = 1;
+		}
+		entities[index] = entity;
+		size++;
+		return (generations[index] << INDEX_BITS) | index;
+	}
+
+	/**
+	 * Drop an object, making all copies of its handle stale
+	 *
+	 * @param handle
+	 * @return whether the handle was still valid
+	 */
+	public boolean release(int handle) {
+		if (get(handle) == null) {
+			return false;
+		}
+		int index = handle & INDEX_MASK;
+		entities[index] = null;
+		// skip generation 0, so that no handle equals NO_HANDLE
+		generations[index] = generations[index] == MAX_GENERATION ? 1 : generations[index] + 1;
+		freeIndices[numFree++] = index;
+		size--;
+		return true;
+	}
+
+	/**
+	 * @param handle
+	 * @return the object the handle was given to, or null if it has been released
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int handle) {
+		int index = handle & INDEX_MASK;
+		if (index >= numSlots || generations[index] != handle >>> INDEX_BITS) {
+			return null;
+		}
+		return (T) entities[index];
+	}
+
+	public boolean isValid(int handle) {
+		return get(handle) != null;
+	}
+
+	/**
+	 * @param handle
+	 * @return slot of the handle's object in the registry, below getCapacity, e.g. to index
+	 * arrays or bit sets by; slots are reused once their handles are released
+	 */
+	public static int getIndex(int handle) {
+		return handle & INDEX_MASK;
+	}
+
+	/**
+	 * @return number of slots used so far; all indices are below it
+	 */
+	public int getCapacity() {
+		return numSlots;
+	}
+
+	/**
+	 * @return number of objects registered and not released
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Release every handle, e.g. when the engine the objects lived in is gone
+	 */
+	public void clear() {
+		for (int index = 0; index < numSlots; index++) {
+			if (entities[index] != null) {
+				release((generations[index] << INDEX_BITS) | index);
+			}
+		}
+	}
+}
@@ -46,12 +46,21 @@ public class Exit extends JGObject implements Serializable {
     @Override
     public void hit (JGObject obj) {
         if (and(obj.colid, Monster.MONSTER_CID)) {
+            mySpawnManager.monsterLeaked((Monster) obj);
             decreasePlayerLives();  
             ((Monster) obj).setDead();
             obj.remove();
         }
     }
     
+    /**
+     * Count a monster that reached the exit without colliding with it, such
+     * as one of an ArchetypeWorld, with the same grace time as those that do
+     */
+    public void monsterEscaped () {
+        decreasePlayerLives();
+    }
+
     @Override
     public void move() {
     	if (myGraceTime>=0) myGraceTime--;
@@ -10,6 +10,12 @@ import jgame.JGObject;
  * Abstract extension of JGObject. Represents monsters, towers, etc.
  */
 public abstract class TDObject extends JGObject implements Serializable {
+    private static final long serialVersionUID = -4482124350194107420L;
+    // one registry per class loader, like jgame's engine
+    private static final EntityRegistry<TDObject> ENTITIES = new EntityRegistry<TDObject>();
+
+    // handed out on first use, so objects nothing refers to are never registered
+    private transient int handle = EntityRegistry.NO_HANDLE;
 
     // TODO: abstract methods?
 
@@ -32,6 +38,37 @@ public abstract class TDObject extends JGObject implements Serializable {
         super(name, true, x, y, cid, gfxname, xspeed, yspeed, expireOffView);
     }
 
+    /**
+     * @return registry of the handles of the objects in this class loader's engine
+     */
+    public static EntityRegistry<TDObject> getEntities () {
+        return ENTITIES;
+    }
+
+    /**
+     * Handle to refer to this object by in place of its name, e.g. in hit
+     * lists; it resolves to null through getEntities() once the object is removed
+     *
+     * @return this object's handle, never NO_HANDLE
+     */
+    public int getHandle () {
+        if (handle == EntityRegistry.NO_HANDLE) {
+            handle = ENTITIES.register(this);
+        }
+        return handle;
+    }
+
+    /**
+     * Called by jgame when the object is removed. Subclasses overriding it
+     * must call it, so that the object's handle is released.
+     */
+    @Override
+    public void destroy () {
+        if (handle != EntityRegistry.NO_HANDLE) {
+            ENTITIES.release(handle);
+        }
+    }
+
     /**
      * Within an attribute map, returns the value of the attributeName or returns the defaultValue
      * otherwise
@@ -55,6 +92,24 @@ public abstract class TDObject extends JGObject implements Serializable {
     public Point2D getCurrentCoor () {
         return new Point2D.Double(this.x, this.y);
     }
+
+    /**
+     * Allocation-free alternative to getCurrentCoor().getX(), for code run every frame
+     * 
+     * @return current x coordinate
+     */
+    public double getX () {
+        return x;
+    }
+
+    /**
+     * Allocation-free alternative to getCurrentCoor().getY(), for code run every frame
+     * 
+     * @return current y coordinate
+     */
+    public double getY () {
+        return y;
+    }
     
     /**
      * Flash by setting image to null based on flashInterval
@@ -79,7 +134,20 @@ public abstract class TDObject extends JGObject implements Serializable {
      * @return a Point2D object representing center coordinates
      */
     public Point2D centerCoordinate () {
-        return new Point2D.Double(x + this.getImageBBoxConst().width / 2,
-                                  y + this.getImageBBoxConst().height / 2);
+        return new Point2D.Double(getCenterX(), getCenterY());
+    }
+
+    /**
+     * @return x coordinate of centerCoordinate(), without creating a Point2D
+     */
+    public double getCenterX () {
+        return x + this.getImageBBoxConst().width / 2;
+    }
+
+    /**
+     * @return y coordinate of centerCoordinate(), without creating a Point2D
+     */
+    public double getCenterY () {
+        return y + this.getImageBBoxConst().height / 2;
     }
 }
@@ -1,6 +1,7 @@
 package main.java.engine.objects.detector;
 
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
 import java.util.List;
 
 import main.java.engine.EnvironmentKnowledge;
@@ -25,8 +26,35 @@ public abstract class TDDetector implements TargetDetectorInterface{
 	protected Point2D centerCoordinate (Monster m) {
 //		        return new Point2D.Double(m.getCurrentCoor().getX() + m.getImageBBoxConst().width / 2,
 //		                                  m.getCurrentCoor().getY() + m.getImageBBoxConst().height / 2);
-		return new Point2D.Double(m.getCurrentCoor().getX(),
-				m.getCurrentCoor().getY());
+		return new Point2D.Double(m.getX(), m.getY());
+	}
+
+	/**
+	 * Uses the first of the targets found, for detectors that only have a list
+	 */
+	@Override
+	public boolean findTarget(double x, double y, double range,
+			EnvironmentKnowledge environmentKnowledge, Point2D target) {
+		List<Point2D> targets = findTarget(x, y, range, environmentKnowledge);
+		if (targets.isEmpty()) {
+			return false;
+		}
+		target.setLocation(targets.get(0));
+		return true;
+	}
+
+	/**
+	 * Wraps the single target found by the allocation-free findTarget in a list,
+	 * for detectors that only ever find one target
+	 */
+	protected List<Point2D> findSingleTarget(double x, double y, double range,
+			EnvironmentKnowledge environmentKnowledge) {
+		List<Point2D> targets = new ArrayList<Point2D>();
+		Point2D target = new Point2D.Double();
+		if (findTarget(x, y, range, environmentKnowledge, target)) {
+			targets.add(target);
+		}
+		return targets;
 	}
 
 	/**
@@ -23,5 +23,18 @@ public interface TargetDetectorInterface {
 	 * @return list of target locations
 	 */
 	public List<Point2D> findTarget(double x, double y, double range, EnvironmentKnowledge environmentKnowledge);
+
+	/**
+	 * Find the single most appropriate target without creating a list,
+	 * for objects that only act on one target at a time every frame
+	 * @param x: x-coor
+	 * @param y: y-coor
+	 * @param range: range of effect
+	 * @param environmentKnowledge
+	 * @param target: set to the target location if one is found
+	 * @return whether a target was found
+	 */
+	public boolean findTarget(double x, double y, double range, EnvironmentKnowledge environmentKnowledge,
+			Point2D target);
 	
 }
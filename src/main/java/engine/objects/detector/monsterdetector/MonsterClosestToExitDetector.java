@@ -1,7 +1,6 @@
 package main.java.engine.objects.detector.monsterdetector;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.List;
 
 import main.java.engine.EnvironmentKnowledge;
@@ -20,21 +19,28 @@ public class MonsterClosestToExitDetector extends TDDetector {
 	@Override
 	public List<Point2D> findTarget(double x, double y,
 			double range, EnvironmentKnowledge environmentKnowledge) {
-		List<Point2D> targetMonsterLocation = new ArrayList<Point2D>();
-		Point2D towerCoordinate = new Point2D.Double(x, y);
+		return findSingleTarget(x, y, range, environmentKnowledge);
+	}
+
+	@Override
+	public boolean findTarget(double x, double y, double range,
+			EnvironmentKnowledge environmentKnowledge, Point2D target) {
 		Point2D exitCoordinate = environmentKnowledge.getExit().getLocation();
 		double minDistance = Double.MAX_VALUE;
+		boolean found = false;
+		List<Monster> monsters = environmentKnowledge.getAllMonsters();
 
-		for (Monster m : environmentKnowledge.getAllMonsters()) {
-			if (isWithinDistance(m.getCurrentCoor(), exitCoordinate, minDistance) &&
-					isWithinDistance(m.getCurrentCoor(), towerCoordinate, range)) {
-				minDistance = m.getCurrentCoor().distance(exitCoordinate);
-				targetMonsterLocation.clear();
-				targetMonsterLocation.add(centerCoordinate(m));
+		for (int i = 0; i < monsters.size(); i++) {
+			Monster m = monsters.get(i);
+			double exitDistance = exitCoordinate.distance(m.getX(), m.getY());
+			if (exitDistance < minDistance && Point2D.distance(m.getX(), m.getY(), x, y) < range) {
+				minDistance = exitDistance;
+				target.setLocation(m.getX(), m.getY());
+				found = true;
 			}
 		}
 
-		return targetMonsterLocation;
+		return found;
 	}
 	
 }
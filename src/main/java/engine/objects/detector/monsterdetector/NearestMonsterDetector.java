@@ -1,13 +1,10 @@
 package main.java.engine.objects.detector.monsterdetector;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.List;
 
 import main.java.engine.EnvironmentKnowledge;
-import main.java.engine.objects.TDObject;
 import main.java.engine.objects.detector.TDDetector;
-import main.java.engine.objects.detector.TargetDetectorInterface;
 import main.java.engine.objects.monster.Monster;
 
 /**
@@ -21,22 +18,28 @@ public class NearestMonsterDetector extends TDDetector{
 	@Override
 	public List<Point2D> findTarget(double x, double y, 
 			double range, EnvironmentKnowledge environmentKnowledge) {
-		double minDistance = Double.MAX_VALUE;
-		List<Point2D> closestMonster = new ArrayList<Point2D>();
-		Point2D towerCoordinate = new Point2D.Double(x, y);
+		return findSingleTarget(x, y, range, environmentKnowledge);
+	}
 
-		for (Monster m : environmentKnowledge.getAllMonsters()) {
-			if (isWithinDistance(m.getCurrentCoor(), towerCoordinate, minDistance) && 
-					isWithinDistance(m.getCurrentCoor(), towerCoordinate, range)) {
-				minDistance = m.getCurrentCoor().distance(towerCoordinate);
+	@Override
+	public boolean findTarget(double x, double y, double range,
+			EnvironmentKnowledge environmentKnowledge, Point2D target) {
+		double minDistance = Double.MAX_VALUE;
+		boolean found = false;
+		List<Monster> monsters = environmentKnowledge.getAllMonsters();
+
+		for (int i = 0; i < monsters.size(); i++) {
+			Monster m = monsters.get(i);
+			double distance = Point2D.distance(m.getX(), m.getY(), x, y);
+			if (distance < minDistance && distance < range) {
+				minDistance = distance;
 				// a tower should only target one monster at a time
-				closestMonster.clear();
-				closestMonster.add(centerCoordinate(m));
+				target.setLocation(m.getX(), m.getY());
+				found = true;
 			}
 		}
 
-		return closestMonster;
-
+		return found;
 	}
 
 }
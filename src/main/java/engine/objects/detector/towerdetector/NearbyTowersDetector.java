@@ -25,10 +25,11 @@ public class NearbyTowersDetector extends TDDetector {
         List<Point2D> nearbyTowersList = new ArrayList<Point2D>();
         for (ITower[] tArray : environmentKnowledge.getAllTowers()) {
             for (ITower t : tArray) {
+                if (t == null) {
+                    continue;
+                }
             	Point2D targetTowerCoor = new Point2D.Double(t.getXCoordinate(), t.getYCoordinate());
-                if (t != null &&
-                		isWithinDistance(targetTowerCoor, 
-                				currentTowerCoordinate, range)) {
+                if (isWithinDistance(targetTowerCoor, currentTowerCoordinate, range)) {
                     nearbyTowersList.add(targetTowerCoor);
                 }
             }
@@ -0,0 +1,49 @@
+package main.java.engine.objects.item.decorations;
+
+/**
+ * Kinds of short-lived visual effects drawn by the ParticleSystem.
+ * Effects with an image are drawn with that image, the others as a
+ * growing ring. Decorations are skipped when the view turns visual
+ * detail down; other effects tell the player something and are kept.
+ *
+ */
+public enum Effect {
+	Fire("fire", "fire.png", 10, true),
+	Ice("ice", "ice.png", 0, false),
+	Explosion(null, null, 12, true);
+
+	private String imageName;
+	private String imageFile;
+	private int defaultLifetime;
+	private boolean decoration;
+
+	private Effect (String imageNameInit, String imageFileInit, int defaultLifetimeInit,
+			boolean decorationInit) {
+		imageName = imageNameInit;
+		imageFile = imageFileInit;
+		defaultLifetime = defaultLifetimeInit;
+		decoration = decorationInit;
+	}
+
+	/**
+	 * @return name of the image in the engine, or null if the effect is drawn as a ring
+	 */
+	public String getImageName () {
+		return imageName;
+	}
+
+	public String getImageFile () {
+		return imageFile;
+	}
+
+	/**
+	 * @return number of frames the effect lasts unless told otherwise
+	 */
+	public int getDefaultLifetime () {
+		return defaultLifetime;
+	}
+
+	public boolean isDecoration () {
+		return decoration;
+	}
+}
@@ -0,0 +1,147 @@
+package main.java.engine.objects.item.decorations;
+
+import jgame.JGColor;
+import jgame.impl.JGEngineInterface;
+import main.java.engine.VisualDetail;
+import main.java.engine.factory.AssetLoader;
+
+/**
+ * Short-lived visual effects (fire, ice, explosions) kept outside of the
+ * engine's object list. Particles live in a fixed number of slots held in
+ * plain arrays; live particles are kept at the front, and a particle that
+ * expires is replaced by the last live one, so nothing is allocated while
+ * playing. Once MAX_PARTICLES are alive, new particles are dropped, so a
+ * bomb going off in a dense wave cannot flood the engine.
+ * Particles of the same effect are drawn together.
+ *
+ */
+public class ParticleSystem {
+	public static final int MAX_PARTICLES = 256;
+	private static final JGColor EXPLOSION_COLOR = JGColor.orange;
+	private static final double EXPLOSION_GROWTH = 4;
+	private static final double EXPLOSION_THICKNESS = 3;
+	// values() copies the array on every call
+	private static final Effect[] EFFECTS = Effect.values();
+
+	private JGEngineInterface engine;
+	private AssetLoader assetLoader;
+	private VisualDetail visualDetail;
+	private Effect[] effects;
+	private double[] xs;
+	private double[] ys;
+	private int[] ages;
+	private int[] lifetimes;
+	private int count;
+
+	public ParticleSystem (JGEngineInterface engine, AssetLoader assetLoader, String resourcePath,
+			VisualDetail visualDetail) {
+		this.engine = engine;
+		this.assetLoader = assetLoader;
+		this.visualDetail = visualDetail;
+		effects = new Effect[MAX_PARTICLES];
+		xs = new double[MAX_PARTICLES];
+		ys = new double[MAX_PARTICLES];
+		ages = new int[MAX_PARTICLES];
+		lifetimes = new int[MAX_PARTICLES];
+		for (Effect effect : EFFECTS) {
+			if (effect.getImageName() != null) {
+				assetLoader.deferImage(effect.getImageName(), resourcePath + effect.getImageFile());
+			}
+		}
+	}
+
+	/**
+	 * Show an effect for its default lifetime
+	 *
+	 * @return whether the effect was added
+	 */
+	public boolean spawn (Effect effect, double x, double y) {
+		return spawn(effect, x, y, effect.getDefaultLifetime());
+	}
+
+	/**
+	 * Show an effect at a position for a number of frames. Does nothing if
+	 * all slots are taken, or if the effect is a decoration and decorations
+	 * are turned off.
+	 *
+	 * @return whether the effect was added
+	 */
+	public boolean spawn (Effect effect, double x, double y, int lifetime) {
+		if (count == MAX_PARTICLES || lifetime <= 0
+				|| (effect.isDecoration() && !visualDetail.areDecorationsShown())) {
+			return false;
+		}
+		if (effect.getImageName() != null) {
+			// particles are not objects the asset loader can see, so their images are never undefined
+			assetLoader.keepDefined(effect.getImageName());
+		}
+		effects[count] = effect;
+		xs[count] = x;
+		ys[count] = y;
+		ages[count] = 0;
+		lifetimes[count] = lifetime;
+		count++;
+		return true;
+	}
+
+	/**
+	 * Age every particle by a frame and drop the expired ones
+	 */
+	public void update () {
+		int i = 0;
+		while (i < count) {
+			if (++ages[i] >= lifetimes[i]) {
+				removeAt(i);
+			}
+			else {
+				i++;
+			}
+		}
+	}
+
+	private void removeAt (int i) {
+		count--;
+		effects[i] = effects[count];
+		xs[i] = xs[count];
+		ys[i] = ys[count];
+		ages[i] = ages[count];
+		lifetimes[i] = lifetimes[count];
+		effects[count] = null;
+	}
+
+	/**
+	 * Draw all particles, one effect at a time. Must be called while painting.
+	 */
+	public void paint () {
+		for (Effect effect : EFFECTS) {
+			for (int i = 0; i < count; i++) {
+				if (effects[i] != effect) {
+					continue;
+				}
+				if (effect.getImageName() != null) {
+					engine.drawImage(xs[i], ys[i], effect.getImageName());
+				}
+				else {
+					double size = (ages[i] + 1) * EXPLOSION_GROWTH;
+					engine.drawOval(xs[i], ys[i], size, size, false, true, EXPLOSION_THICKNESS, EXPLOSION_COLOR);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove every particle
+	 */
+	public void clear () {
+		while (count > 0) {
+			removeAt(count - 1);
+		}
+	}
+
+	/**
+	 * @return number of live particles
+	 */
+	public int size () {
+		return count;
+	}
+}
@@ -1,10 +1,12 @@
 package main.java.engine.objects.monster;
 
 import java.awt.geom.Point2D;
+import java.util.BitSet;
 import java.util.Set;
 import jgame.JGColor;
 import jgame.JGPoint;
 import main.java.engine.PathfinderManager;
+import main.java.engine.VisualDetail;
 import main.java.engine.objects.Exit;
 import main.java.engine.objects.TDObject;
 import main.java.engine.objects.monster.jgpathfinder.JGPath;
@@ -23,9 +25,12 @@ import main.java.schema.MonsterSpawnSchema;
  */
 public abstract class Monster extends TDObject {
 
+    private static final long serialVersionUID = -7738044461755184307L;
     private static final int PERCENT = 100;
 
     public static final int MONSTER_CID = 1;
+    // distance in pixels at which a monster counts as having reached a tile
+    public static final int WAYPOINT_REACH = 10;
 
 	protected double myBaseHealth;
     protected double myCurrentHealth;
@@ -36,8 +41,11 @@ public abstract class Monster extends TDObject {
     protected Point2D myEntrance;
     protected Exit myExit;
     protected JGPath myPath;
+    // tiles walked through, each once; sized for the whole map, so walking never grows it
+    private BitSet myWalkedTiles;
     protected String originalImage;
     private MonsterSpawnSchema resurrectMonsterSchema;
+    private transient VisualDetail myVisualDetail;
 
     /*
      * TODO: Clean up/move instance variables to appropriate concrete classes
@@ -55,8 +63,10 @@ public abstract class Monster extends TDObject {
                     MonsterSpawnSchema resurrectSchema) {
         // TODO make factory add the spread between monsters in the same wave, and remove random
         // from initial x,y
-        super("monster", entrance.getX() + Math.random() * 100, entrance.getY() + Math.random() *
-                                                                100, MONSTER_CID, graphic);
+        super("monster", entrance.getX(), entrance.getY(), MONSTER_CID, graphic);
+        // the engine's random numbers can be seeded, so that matches can be replayed
+        x += eng.random(0, 100);
+        y += eng.random(0, 100);
         myCurrentHealth = health;
 		myBaseHealth = health;
         myMoveSpeed = moveSpeed;
@@ -66,10 +76,11 @@ public abstract class Monster extends TDObject {
 		myBlockedTiles = blocked;
 
         myPathfinderManager = pathfinderManager;
+        myWalkedTiles = new BitSet(eng.pfTilesX() * eng.pfTilesY());
         JGPoint pathEntrance = new JGPoint(eng.getTileIndex(x, y));
         JGPoint pathExit = eng.getTileIndex(myExit.x, myExit.y);
 		try {
-			myPath = myPathfinderManager.getPath(pathEntrance, pathExit, blocked);
+			setPath(myPathfinderManager.getPath(pathEntrance, pathExit, blocked));
 		}
 		catch (NoPossiblePathException e) {
 			e.printStackTrace();
@@ -84,16 +95,20 @@ public abstract class Monster extends TDObject {
     public void move () {
         if (this.xspeed != 0) {
             if (myPath.peek() != null) {
-                JGPoint waypoint = eng.getTileCoord(myPath.peek());
+                // pixel coordinates of the next tile, worked out without eng.getTileCoord's new JGPoint
+                int waypointX = myPath.peek().x * eng.tileWidth();
+                int waypointY = myPath.peek().y * eng.tileHeight();
 
-                // TODO: refactor, quick implementation to test - jordan
-                if (((int) (x + 10) >= waypoint.x && (int) (x - 10) <= waypoint.x) &&
-                    ((int) (y + 10) >= waypoint.y && (int) (y - 10) <= waypoint.y)) {
-                    waypoint = myPath.getNext();
+                if (isWaypointReached(x, y, waypointX, waypointY)) {
+                    JGPoint waypoint = myPath.getNext();
+                    myPathfinderManager.getPathOverlay().leaveTile(waypoint);
+                    myWalkedTiles.set(waypoint.x * eng.pfTilesY() + waypoint.y);
+                    waypointX = waypoint.x;
+                    waypointY = waypoint.y;
                 }
 
-                xdir = Double.compare(waypoint.x, x);
-                ydir = Double.compare(waypoint.y, y);
+                xdir = Double.compare(waypointX, x);
+                ydir = Double.compare(waypointY, y);
                 setDirSpeed(xdir, ydir, myMoveSpeed);
             }
             else {
@@ -102,15 +117,60 @@ public abstract class Monster extends TDObject {
         }
     }
 
+    /**
+     * Whether a monster at x, y is close enough to the tile with its top left
+     * corner at waypointX, waypointY to head on to the next tile of its path
+     */
+    public static boolean isWaypointReached (double x, double y, int waypointX, int waypointY) {
+        return (int) (x + WAYPOINT_REACH) >= waypointX && (int) (x - WAYPOINT_REACH) <= waypointX
+                && (int) (y + WAYPOINT_REACH) >= waypointY && (int) (y - WAYPOINT_REACH) <= waypointY;
+    }
+
 	/**
 	 * Update the path of the monster.
 	 */
 	public void updatePath() throws NoPossiblePathException {
 		JGPoint currentPos = this.getCenterTile();
-		myPath = myPathfinderManager.getPath(currentPos,
-				eng.getTileIndex(myExit.x, myExit.y), myBlockedTiles);
+		setPath(myPathfinderManager.getPath(currentPos,
+				eng.getTileIndex(myExit.x, myExit.y), myBlockedTiles));
+	}
+
+	/**
+	 * Check whether the monster could still reach the exit from where it is
+	 * now if a tile were unwalkable, without changing its path or the map.
+	 *
+	 * @param unwalkable tile to treat as unwalkable
+	 */
+	public boolean hasPathToExitWithout(JGPoint unwalkable) {
+		return myPathfinderManager.canReachWith(this.getCenterTile(),
+				eng.getTileIndex(myExit.x, myExit.y), myBlockedTiles, unwalkable);
+	}
+
+	/**
+	 * Replace the path of the monster, moving its share of the
+	 * path overlay from the old path to the new one.
+	 */
+	private void setPath(JGPath path) {
+		myPathfinderManager.getPathOverlay().removePath(myPath);
+		myPath = path;
+		myPathfinderManager.getPathOverlay().addPath(myPath);
+	}
+
+	@Override
+	public void destroy() {
+		super.destroy();
+		myPathfinderManager.getPathOverlay().removePath(myPath);
+		myPath = null;
 	}
 
+    /**
+     * @return tiles the monster has walked through, with tile (x, y) at
+     * index x * (number of tile rows) + y
+     */
+    public BitSet getWalkedTiles () {
+        return myWalkedTiles;
+    }
+
     /**
      * Check if this object has died and should be removed
      */
@@ -118,6 +178,13 @@ public abstract class Monster extends TDObject {
         return myCurrentHealth <= 0;
     }
 
+    /**
+     * @return health left, 0 or less when dead
+     */
+    public double getHealth () {
+        return myCurrentHealth;
+    }
+
     /**
      * Reduce the health of this object by a damage amount.
      * 
@@ -162,28 +229,30 @@ public abstract class Monster extends TDObject {
         return originalImage;
     }
 
+    public void setVisualDetail (VisualDetail visualDetail) {
+        myVisualDetail = visualDetail;
+    }
+
+    /**
+     * The predicted path is drawn for all monsters at once
+     * from the PathOverlay, so only the health bar is painted here.
+     */
     @Override
     public void paint () {
-		paintPredictedPath();
 		paintHealthBar();
 	}
 
-	protected void paintPredictedPath() {
-		if (myPath != null) {
-			for (JGPoint p : myPath) {
-				JGPoint coord = eng.getTileCoord(p);
-				eng.drawOval(coord.x + eng.tileWidth() / 2, coord.y + eng.tileHeight() / 2,
-							 10, 10, true, true, 10, JGColor.yellow);
-			}
-		}
-	}
-
 	protected void paintHealthBar() {
 		final double offset = 3;
 		final double healthBarThickness = 2;
 		final JGColor depletedHealthColor = JGColor.red;
 		final JGColor healthColor = JGColor.green;
 
+		if (myCurrentHealth >= myBaseHealth && myVisualDetail != null
+				&& !myVisualDetail.areFullHealthBarsShown()) {
+			return;
+		}
+
 		// draw red background
 		double xStart = x;
 		double xEnd = x + getTileBBox().width;
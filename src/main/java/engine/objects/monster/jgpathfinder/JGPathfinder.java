@@ -2,7 +2,9 @@ package main.java.engine.objects.monster.jgpathfinder;
 
 import jgame.JGPoint;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.PriorityQueue;
 
 public class JGPathfinder implements JGPathfinderInterface {
@@ -27,6 +29,7 @@ public class JGPathfinder implements JGPathfinderInterface {
     public JGPath getPath(JGPoint source, JGPoint target) throws NoPossiblePathException {
         OpenQueue<Node> open = new OpenQueue<Node>();
         HashSet<Node> closed = new HashSet<Node>();
+        List<JGPoint> neighbors = new ArrayList<JGPoint>();
         open.add(nodeMap.getNode(source));
 
         Node current = null;
@@ -34,7 +37,8 @@ public class JGPathfinder implements JGPathfinderInterface {
             current = open.poll();
             closed.add(current);
 
-            for (JGPoint n :  tileMap.getNeighbors(current.index)) {
+            tileMap.getNeighbors(current.index, neighbors);
+            for (JGPoint n : neighbors) {
                 Node neighbor = nodeMap.getNode(n);
                 double cost = current.pathCost + tileMap.getCostToMove(neighbor.index);
 
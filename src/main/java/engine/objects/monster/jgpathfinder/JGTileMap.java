@@ -10,6 +10,8 @@ import java.util.Set;
 
 public class JGTileMap implements JGTileMapInterface {
 	public static final int DEFAULT_COST = 1;
+	private static final int[] X_DIRS = {0, 1, 0, -1};
+	private static final int[] Y_DIRS = {1, 0, -1, 0};
 
 	private JGEngineInterface engine;
     private JGPoint[][] tileMap;
@@ -80,12 +82,16 @@ public class JGTileMap implements JGTileMapInterface {
     @Override
 	public List<JGPoint> getNeighbors(JGPoint tile) {
         List<JGPoint> neighbors = new ArrayList<JGPoint>();
+        getNeighbors(tile, neighbors);
+        return neighbors;
+    }
 
-        int[] xDirs = new int[]{0, 1, 0, -1};
-        int[] yDirs = new int[]{1, 0, -1, 0};
-        for (int i = 0; i < xDirs.length; i++) {
-            int neighborX = tile.x + xDirs[i];
-            int neighborY = tile.y + yDirs[i];
+    @Override
+	public void getNeighbors(JGPoint tile, List<JGPoint> neighbors) {
+        neighbors.clear();
+        for (int i = 0; i < X_DIRS.length; i++) {
+            int neighborX = tile.x + X_DIRS[i];
+            int neighborY = tile.y + Y_DIRS[i];
 
             if ((neighborX < tileMap.length && neighborX >= 0) &&
                     (neighborY < tileMap[0].length && neighborY >= 0) &&
@@ -93,8 +99,6 @@ public class JGTileMap implements JGTileMapInterface {
                 neighbors.add(tileMap[neighborX][neighborY]);
             }
         }
-
-        return neighbors;
     }
 
     @Override
@@ -35,6 +35,15 @@ public interface JGTileMapInterface {
 	 */
 	public List<JGPoint> getNeighbors(JGPoint tile);
 
+	/**
+	 * Put the neighbors of a tile into a list the caller reuses, so
+	 * searching a path does not create a list for every tile visited.
+	 *
+	 * @param tile The tile index you want the neighbors of
+	 * @param neighbors list to clear and fill with the neighboring tiles
+	 */
+	public void getNeighbors(JGPoint tile, List<JGPoint> neighbors);
+
 	/**
 	 * Get the cost of moving on a given tile (for example a grass tile can have a cost of
 	 * 1 while a mud tile can have a cost of 4).
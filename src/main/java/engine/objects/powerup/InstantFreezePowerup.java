@@ -2,10 +2,13 @@ package main.java.engine.objects.powerup;
 
 import java.awt.geom.Point2D;
 import java.io.Serializable;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import main.java.author.view.tabs.item.ItemViewConstants;
 import main.java.engine.EnvironmentKnowledge;
+import main.java.engine.objects.item.decorations.Effect;
 import main.java.engine.objects.monster.Monster;
 import main.java.schema.tdobjects.ItemSchema;
 import main.java.schema.tdobjects.items.AnnihilatorItemSchema;
@@ -19,7 +22,11 @@ import main.java.schema.tdobjects.items.InstantFreezeItemSchema;
  *
  */
 public class InstantFreezePowerup extends TDPowerupPowerup {
+	private static final long serialVersionUID = 7411465509492650173L;
+
 	private double freeze_duration;
+	// monsters already shown frozen; only decides which effects to show, so not saved
+	private transient Set<Monster> iced;
 	
 	public InstantFreezePowerup(Point2D location, String image, double cost, double freeze_duration, double damage, int flash_interval) {
 		super("instance_freeze", location.getX(), location.getY(), null, cost, 0, damage, flash_interval);
@@ -54,17 +61,22 @@ public class InstantFreezePowerup extends TDPowerupPowerup {
 	}
 	
 	private void freezeMonsters(EnvironmentKnowledge environmentKnowledge) {
+		if (iced == null) {
+			iced = new HashSet<Monster>();
+		}
 		for (Monster m : environmentKnowledge.getAllMonsters()) {
 			m.setSpeed(0, 0);
-			m.setImage("ice");
+			if (iced.add(m)) {
+				environmentKnowledge.showEffect(Effect.Ice, m.x, m.y, (int) (freeze_duration - timeCounter));
+			}
 		}
 	}
 	
 	private void recoverMonsterSpeed(EnvironmentKnowledge environmentKnowledge) {
 		for (Monster m : environmentKnowledge.getAllMonsters()) {
 			m.setSpeed(m.getOriginalSpeed());
-			m.setImage(m.getOriginalImage());
 		}
+		iced = null;
 	}
 
 }
@@ -7,7 +7,7 @@ import java.util.Map;
 import jgame.JGObject;
 import main.java.author.view.tabs.item.ItemViewConstants;
 import main.java.engine.EnvironmentKnowledge;
-import main.java.engine.objects.item.decorations.Fire;
+import main.java.engine.objects.item.decorations.Effect;
 import main.java.engine.objects.monster.Monster;
 import main.java.schema.tdobjects.ItemSchema;
 import main.java.schema.tdobjects.items.AreaBombItemSchema;
@@ -40,9 +40,11 @@ public class RowBombPowerup extends TDPowerupPowerup{
 	public void doAction(EnvironmentKnowledge environmentKnowledge) {
 		timeCounter++;
 		if (timeCounter >= buildupTime) {
+			Point2D center = centerCoordinate();
+			environmentKnowledge.showEffect(Effect.Explosion, center.getX(), center.getY());
 			for (Monster m : environmentKnowledge.getAllMonsters()) {
 				if (isInRange(m)) {
-					setFireToTheRain(m);
+					setFireToTheRain(m, environmentKnowledge);
 					m.takeDamage(damage);
 				}
 			}
@@ -50,8 +52,8 @@ public class RowBombPowerup extends TDPowerupPowerup{
 		} else flash(timeCounter, flash_interval, image);
 	}
 
-	private void setFireToTheRain(Monster m) {
-		new Fire(m.x, m.y);
+	private void setFireToTheRain(Monster m, EnvironmentKnowledge environmentKnowledge) {
+		environmentKnowledge.showEffect(Effect.Fire, m.x, m.y);
 	}
 
 	protected boolean isInRange(Monster m) {
@@ -55,7 +55,7 @@ public class Bomb extends DamageProjectile {
     }
 
     private double randomOffset () {
-        return (Math.random()-0.5)*100;
+        return eng.random(-50, 50);
     }
 
 }
@@ -1,9 +1,7 @@
 package main.java.engine.objects.projectile;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import main.java.engine.objects.monster.Monster;
+import main.java.engine.util.IntSet;
 import jgame.JGObject;
 
 /**
@@ -19,8 +17,11 @@ public class PiercingProjectile extends DamageProjectile {
     private static final int DEFAULT_MONSTER_TO_PIERCE = 2;
 
     private double myDamage;
-    private Set<String> hitList;
+    // handles of the monsters hit
+    private IntSet hitList;
     private double myPiercingCount;
+    // the tower's pool this projectile is parked in when it stops, if any
+    private ProjectilePool myPool;
     
 
     /**
@@ -43,6 +44,26 @@ public class PiercingProjectile extends DamageProjectile {
         initialize();
     }
     
+    /**
+     * Creates projectile heading in given angle with default speed, which is
+     * parked in the given pool when it stops instead of being removed.
+     * 
+     * @param pool idle projectiles of the tower firing this one
+     */
+    public PiercingProjectile (
+    		double x, 
+    		double y, 
+    		double angle, 
+    		double damage, 
+    		String img,
+    		double piercingCount,
+    		ProjectilePool pool) {
+    	this(x, y, angle, damage, img, piercingCount);
+    	myPool = pool;
+    	// parked projectiles must stay suspended when in view
+    	setResumeMode(false);
+    }
+    
     /**
      * Create projectile with specific src coordinates, xspeed, and yspeed
      * @param x src x-coor
@@ -64,15 +85,52 @@ public class PiercingProjectile extends DamageProjectile {
     }
     
     private void initialize() {
-         hitList = new HashSet<String>();
+         hitList = new IntSet();
+    }
+    
+    /**
+     * Fire a parked projectile again, as the angle constructor does
+     * 
+     * @param x src x-coor
+     * @param y src y-coor
+     * @param angle Math.atan2(destX - srcX, destY - srcY)
+     */
+    public void launch (double x, double y, double angle) {
+        this.x = x;
+        this.y = y;
+        xspeed = DEFAULT_SPEED * Math.sin(angle);
+        yspeed = DEFAULT_SPEED * Math.cos(angle);
+        hitList.clear();
+        resume();
+    }
+    
+    /**
+     * Park in the tower's pool, if there is one, instead of being removed
+     */
+    @Override
+    public void remove () {
+        if (myPool == null) {
+            super.remove();
+        }
+        else if (!isSuspended()) {
+            if (myPool.park(this)) {
+                suspend();
+            }
+            else {
+                super.remove();
+            }
+        }
+    }
+    
+    void removeFromGame () {
+        super.remove();
     }
     
     @Override
     public void hit (JGObject obj) {
         if (and(obj.colid, Monster.MONSTER_CID) && 
-        		(!hitList.contains(obj.getName()))) {
+        		(hitList.add(((Monster) obj).getHandle()))) {
             ((Monster) obj).takeDamage(myDamage);
-            hitList.add(obj.getName());
             if (hitList.size() >= myPiercingCount) this.remove();
         }
     }
@@ -0,0 +1,54 @@
+package main.java.engine.objects.projectile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The idle projectiles of one tower. A PiercingProjectile that belongs to a
+ * pool is parked, suspended where it stopped, instead of being removed when
+ * it hits its last monster or leaves the view, and is launched again for one
+ * of the tower's next shots, so that a tower firing steadily creates no
+ * objects.
+ */
+public class ProjectilePool {
+	private List<PiercingProjectile> idle = new ArrayList<PiercingProjectile>();
+	private boolean closed;
+
+	/**
+	 * @return a parked projectile, or null if none is left
+	 */
+	public PiercingProjectile take() {
+		while (!idle.isEmpty()) {
+			PiercingProjectile projectile = idle.remove(idle.size() - 1);
+			// the engine removes parked projectiles too when it clears its objects
+			if (projectile.isAlive()) {
+				return projectile;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether the projectile was parked; once the pool is closed,
+	 * projectiles that stop are removed instead
+	 */
+	boolean park(PiercingProjectile projectile) {
+		if (closed) {
+			return false;
+		}
+		idle.add(projectile);
+		return true;
+	}
+
+	/**
+	 * Remove the parked projectiles, and those still flying once they stop,
+	 * e.g. when the tower is sold
+	 */
+	public void close() {
+		closed = true;
+		for (int i = 0; i < idle.size(); i++) {
+			idle.get(i).removeFromGame();
+		}
+		idle.clear();
+	}
+}
@@ -39,8 +39,8 @@ public class BombTower extends ShootingTower {
     @Override
     public void fireProjectile (double angle) {
         new Bomb(
-                 baseTower.centerCoordinate().getX(),
-                 baseTower.centerCoordinate().getY(),
+                 baseTower.getCenterX(),
+                 baseTower.getCenterY(),
                  angle, myDamage, myShrapnelDamage,
                  myBulletImage, myShrapnelImage);
     }
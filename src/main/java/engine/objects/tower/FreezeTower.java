@@ -38,8 +38,8 @@ public class FreezeTower extends ShootingTower {
     @Override
     public void fireProjectile (double angle) {
         new FreezeProjectile(
-        		baseTower.centerCoordinate().getX(),
-        		baseTower.centerCoordinate().getY(),
+        		baseTower.getCenterX(),
+        		baseTower.getCenterY(),
         		angle, myFreezeSlowdownProportion, myBulletImage);
     }
     
@@ -62,6 +62,18 @@ public interface ITower {
      */
     public Point2D centerCoordinate ();
 
+    /**
+     * Get the x coordinate of the tower's center without creating a Point2D.
+     * @return
+     */
+    public double getCenterX ();
+
+    /**
+     * Get the y coordinate of the tower's center without creating a Point2D.
+     * @return
+     */
+    public double getCenterY ();
+
     /**
      * Get the information about the tower.
      * 
@@ -15,6 +15,7 @@ import main.java.schema.tdobjects.TowerSchema;
  * 
  */
 public class MoneyTower extends TowerBehaviorDecorator {
+    private static final long serialVersionUID = 3197842460273914894L;
 
     /**
      * How much money to grant at one time.
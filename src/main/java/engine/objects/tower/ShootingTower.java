@@ -3,7 +3,6 @@ package main.java.engine.objects.tower;
 import java.awt.geom.Point2D;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import main.java.engine.EnvironmentKnowledge;
 import main.java.engine.objects.TDObject;
@@ -11,6 +10,7 @@ import main.java.engine.objects.detector.TargetDetectorInterface;
 import main.java.engine.objects.detector.monsterdetector.MonsterClosestToExitDetector;
 import main.java.engine.objects.detector.monsterdetector.NearestMonsterDetector;
 import main.java.engine.objects.projectile.PiercingProjectile;
+import main.java.engine.objects.projectile.ProjectilePool;
 import main.java.schema.tdobjects.TowerSchema;
 
 
@@ -21,6 +21,7 @@ import main.java.schema.tdobjects.TowerSchema;
  * 
  */
 public class ShootingTower extends TowerBehaviorDecorator {
+	private static final long serialVersionUID = -9195787113488344622L;
 
 	private static final int PIERCING_DEFAULT = 0;
 	public static final double DEFAULT_DAMAGE = 10;
@@ -38,6 +39,10 @@ public class ShootingTower extends TowerBehaviorDecorator {
 	protected double myPiercingCount;
 
 	private TargetDetectorInterface myDetector = new MonsterClosestToExitDetector();
+	// reused every frame to find a target without allocating
+	private transient Point2D myTarget;
+	// projectiles fired by this tower that stopped, launched again instead of new ones
+	private transient ProjectilePool myProjectiles;
 
 	/**
 	 * Create a new tower by adding shooting behavior to an existing tower
@@ -86,13 +91,19 @@ public class ShootingTower extends TowerBehaviorDecorator {
 	@Override
 	void doDecoratedBehavior (EnvironmentKnowledge environ) {
 		//        fire(environ.getNearestMonsterCoordinate(getXCoordinate(), getYCoordinate()));
-		List<Point2D> targetLocation = myDetector.findTarget(getXCoordinate(), getYCoordinate(), myRange, environ);
-		if (targetLocation.size() < 1) {
-			// a tower should only target one monster at a time
-			return;
+		if (myTarget == null) {
+			myTarget = new Point2D.Double();
+		}
+		// a tower should only target one monster at a time
+		if (myDetector.findTarget(getXCoordinate(), getYCoordinate(), myRange, environ, myTarget)) {
+			fire(myTarget);
+		}
+		else if (environ.findArchetypeTarget(getXCoordinate(), getYCoordinate(), myRange, myTarget)
+				&& inFiringInterval()) {
+			// each shot hits as many monsters as a PiercingProjectile would
+			environ.fireArchetypeProjectile(baseTower.getCenterX(), baseTower.getCenterY(), getAngle(myTarget),
+					myDamage, myBulletImage, Math.max(1, (int) Math.ceil(myPiercingCount)));
 		}
-
-		fire(targetLocation.get(0));
 	}
 
 	private void fire (Point2D target) {
@@ -100,13 +111,15 @@ public class ShootingTower extends TowerBehaviorDecorator {
 		// Point2D currCoor = new Point2D.Double(getXCoordinate(), getYCoordinate());
 		// if (inFiringInterval() && target.distance(currCoor) < myRange) {
 		if (inFiringInterval()) {
-			/* trigonometry from Guardian JGame example */
-			double angle =
-					Math.atan2(target.getX() - getXCoordinate(), target.getY() - getYCoordinate());
-			fireProjectile(angle);
+			fireProjectile(getAngle(target));
 		}
 	}
 
+	private double getAngle (Point2D target) {
+		/* trigonometry from Guardian JGame example */
+		return Math.atan2(target.getX() - getXCoordinate(), target.getY() - getYCoordinate());
+	}
+
 	/**
 	 * Returns whether or not it is time for the tower to fire, based on its
 	 * firing speed
@@ -123,11 +136,18 @@ public class ShootingTower extends TowerBehaviorDecorator {
 	 */
 
 	public void fireProjectile (double angle) {
-
+		if (myProjectiles == null) {
+			myProjectiles = new ProjectilePool();
+		}
+		PiercingProjectile projectile = myProjectiles.take();
+		if (projectile != null) {
+			projectile.launch(baseTower.getCenterX(), baseTower.getCenterY(), angle);
+			return;
+		}
 		new PiercingProjectile(
-				baseTower.centerCoordinate().getX(),
-				baseTower.centerCoordinate().getY(),
-				angle, myDamage, myBulletImage, myPiercingCount);
+				baseTower.getCenterX(),
+				baseTower.getCenterY(),
+				angle, myDamage, myBulletImage, myPiercingCount, myProjectiles);
 	}
 
 	/**
@@ -135,11 +155,19 @@ public class ShootingTower extends TowerBehaviorDecorator {
 	 */
 	public void fireProjectile (double xspeed, double yspeed) {
 		new PiercingProjectile(
-				baseTower.centerCoordinate().getX(),
-				baseTower.centerCoordinate().getY(),
+				baseTower.getCenterX(),
+				baseTower.getCenterY(),
 				xspeed, yspeed, myDamage, myBulletImage, myPiercingCount);
 	}
 
+	@Override
+	public void remove () {
+		if (myProjectiles != null) {
+			myProjectiles.close();
+		}
+		super.remove();
+	}
+
 	@Override
 	public String getInfo() {
 		String info = 
@@ -24,8 +24,8 @@ public class SplashTower extends ShootingTower {
     public void fireProjectile (double angle) {
         for (int i = 0; i < Bomb.BOMB_SPRAY_X.length; i++) {
             new DamageProjectile(
-                                 baseTower.centerCoordinate().getX(),
-                                 baseTower.centerCoordinate().getY(),
+                                 baseTower.getCenterX(),
+                                 baseTower.getCenterY(),
                                  Bomb.BOMB_SPRAY_X[i], Bomb.BOMB_SPRAY_Y[i], myDamage,
                                  myBulletImage);
         }
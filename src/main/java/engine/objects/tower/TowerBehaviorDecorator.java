@@ -12,6 +12,8 @@ import main.java.engine.EnvironmentKnowledge;
  *
  */
 abstract class TowerBehaviorDecorator implements ITower, Serializable {
+    private static final long serialVersionUID = 250547708025219631L;
+
     /**
      * The base tower that will have behaviors added to it ("decorations")
      * This is not necessarily a SimpleTower/TDObject, but could be another TowerBehaviorDecorator!
@@ -66,6 +68,16 @@ abstract class TowerBehaviorDecorator implements ITower, Serializable {
     public Point2D centerCoordinate () {
         return baseTower.centerCoordinate();
     }
+
+    @Override
+    public double getCenterX () {
+        return baseTower.getCenterX();
+    }
+
+    @Override
+    public double getCenterY () {
+        return baseTower.getCenterY();
+    }
     
     
     /**
@@ -0,0 +1,22 @@
+package main.java.engine.replay;
+
+import main.java.engine.host.Match;
+
+/**
+ * Told about every frame of a replay, e.g. to time it
+ */
+public interface ReplayListener {
+
+	/**
+	 * Called before a frame starts, before any of its commands are given
+	 */
+	public void frameStarting();
+
+	/**
+	 * Called once the frame's ticks have run
+	 *
+	 * @param match the match being replayed
+	 * @param ticks ticks the frame ran
+	 */
+	public void frameFinished(Match match, int ticks);
+}
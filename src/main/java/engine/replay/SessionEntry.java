@@ -0,0 +1,121 @@
+package main.java.engine.replay;
+
+/**
+ * One entry of a session log: a run of frames, or a player command stamped
+ * with the game clock it was given at
+ */
+public class SessionEntry {
+
+	/**
+	 * Kinds of entries; the ordinal is written to the log, so only add new ones at the end
+	 */
+	public enum Type {
+		Frames,
+		PlaceTower,
+		RemoveTower,
+		UpgradeTower,
+		PlaceItem,
+		AnnihilateMonsters,
+		LoadSavedGame,
+		SpeedChange
+	}
+
+	private Type type;
+	private long gameClock;
+	private double x;
+	private double y;
+	private String name;
+	private int count;
+	private int value;
+
+	SessionEntry(Type typeInit) {
+		type = typeInit;
+	}
+
+	static SessionEntry frames(int numFrames, int ticksPerFrame) {
+		SessionEntry entry = new SessionEntry(Type.Frames);
+		entry.count = numFrames;
+		entry.value = ticksPerFrame;
+		return entry;
+	}
+
+	static SessionEntry command(Type type, long gameClock, double x, double y, String name) {
+		SessionEntry entry = new SessionEntry(type);
+		entry.gameClock = gameClock;
+		entry.x = x;
+		entry.y = y;
+		entry.name = name;
+		return entry;
+	}
+
+	static SessionEntry speedChange(long gameClock, int frameRate, int ticksPerFrame) {
+		SessionEntry entry = new SessionEntry(Type.SpeedChange);
+		entry.gameClock = gameClock;
+		entry.count = frameRate;
+		entry.value = ticksPerFrame;
+		return entry;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return game clock when the command was given; 0 for frames
+	 */
+	public long getGameClock() {
+		return gameClock;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return name of the tower, item or saved game; null for other entries
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return number of frames in a run of frames
+	 */
+	public int getNumFrames() {
+		return type == Type.Frames ? count : 0;
+	}
+
+	/**
+	 * @return ticks run in each frame of a run of frames, or per frame after a speed change
+	 */
+	public int getTicksPerFrame() {
+		return value;
+	}
+
+	/**
+	 * @return frames per second after a speed change
+	 */
+	public int getFrameRate() {
+		return type == Type.SpeedChange ? count : 0;
+	}
+
+	public boolean isCommand() {
+		return type != Type.Frames && type != Type.SpeedChange;
+	}
+
+	@Override
+	public String toString() {
+		switch (type) {
+			case Frames:
+				return count + " frames of " + value + " ticks";
+			case SpeedChange:
+				return "@" + gameClock + " " + count + " fps, " + value + " ticks per frame";
+			default:
+				return "@" + gameClock + " " + type + " (" + x + ", " + y + ")" + (name == null ? "" : " " + name);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package main.java.engine.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a log written by SessionRecorder, one entry at a time. A log cut
+ * short, e.g. by a crash, ends at its last whole entry.
+ */
+public class SessionReader implements Closeable {
+	private DataInputStream in;
+	private long seed;
+	private String blueprintPath;
+
+	/**
+	 * @param stream log to read; closed with the reader
+	 * @throws IOException if the stream is not a session log
+	 */
+	public SessionReader(InputStream stream) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(stream));
+		if (in.readInt() != SessionRecorder.MAGIC) {
+			throw new IOException("Not a session log");
+		}
+		int version = in.readByte();
+		if (version != SessionRecorder.VERSION) {
+			throw new IOException("Unsupported session log version " + version);
+		}
+		seed = in.readLong();
+		blueprintPath = in.readUTF();
+	}
+
+	/**
+	 * @return seed of the engine's random numbers in the recorded game
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return path of the blueprint played, or an empty string if it was not recorded
+	 */
+	public String getBlueprintPath() {
+		return blueprintPath;
+	}
+
+	/**
+	 * @return the next entry, or null at the end of the log
+	 * @throws IOException
+	 */
+	public SessionEntry next() throws IOException {
+		int typeIndex = in.read();
+		if (typeIndex < 0) {
+			return null;
+		}
+		if (typeIndex >= SessionEntry.Type.values().length) {
+			throw new IOException("Unknown session log entry " + typeIndex);
+		}
+		SessionEntry.Type type = SessionEntry.Type.values()[typeIndex];
+		try {
+			switch (type) {
+				case Frames:
+					return SessionEntry.frames((int) readVarLong(), (int) readVarLong());
+				case SpeedChange:
+					return SessionEntry.speedChange(readVarLong(), (int) readVarLong(), (int) readVarLong());
+				case AnnihilateMonsters:
+					return SessionEntry.command(type, readVarLong(), 0, 0, null);
+				case LoadSavedGame:
+					return SessionEntry.command(type, readVarLong(), 0, 0, in.readUTF());
+				case PlaceTower:
+				case PlaceItem:
+					return SessionEntry.command(type, readVarLong(), in.readDouble(), in.readDouble(), in.readUTF());
+				default:
+					return SessionEntry.command(type, readVarLong(), in.readDouble(), in.readDouble(), null);
+			}
+		}
+		catch (EOFException e) {
+			return null;
+		}
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,189 @@
+package main.java.engine.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes what a player does in a game to a compact binary log, so that the
+ * game can be replayed exactly by a SessionReplayer: the seed of the
+ * engine's random numbers, every command with the game clock it was given
+ * at, and how many ticks every frame ran. Consecutive frames that ran the
+ * same number of ticks take a single entry.
+ *
+ * Recording must not disturb the game, so a failure to write is printed
+ * and ends the recording. Speed changes may come from the Swing thread, so
+ * the recorder is synchronized.
+ */
+public class SessionRecorder implements Closeable {
+	public static final String FILE_EXTENSION = ".tdsession";
+	static final int MAGIC = 0x54445352;
+	static final int VERSION = 1;
+	// entries written between flushes, so that a crashed game leaves most of its log
+	private static final int FLUSH_INTERVAL = 256;
+
+	private DataOutputStream out;
+	private int pendingFrames;
+	private int pendingTicksPerFrame;
+	private int unflushedEntries;
+
+	/**
+	 * @param stream where the log is written; closed with the recorder
+	 * @param seed seed of the engine's random numbers
+	 * @param blueprintPath path of the blueprint played, or an empty string
+	 * @throws IOException
+	 */
+	public SessionRecorder(OutputStream stream, long seed, String blueprintPath) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(seed);
+		out.writeUTF(blueprintPath);
+	}
+
+	/**
+	 * Called at the end of every frame
+	 *
+	 * @param ticks number of simulation ticks the frame ran
+	 */
+	public synchronized void frame(int ticks) {
+		if (pendingFrames > 0 && ticks != pendingTicksPerFrame) {
+			writeFrames();
+		}
+		pendingTicksPerFrame = ticks;
+		pendingFrames++;
+	}
+
+	public synchronized void placeTower(double gameClock, double x, double y, String towerName) {
+		writeCommand(SessionEntry.Type.PlaceTower, gameClock, x, y, towerName);
+	}
+
+	public synchronized void removeTower(double gameClock, double x, double y) {
+		writeCommand(SessionEntry.Type.RemoveTower, gameClock, x, y, null);
+	}
+
+	public synchronized void upgradeTower(double gameClock, double x, double y) {
+		writeCommand(SessionEntry.Type.UpgradeTower, gameClock, x, y, null);
+	}
+
+	public synchronized void placeItem(double gameClock, double x, double y, String itemName) {
+		writeCommand(SessionEntry.Type.PlaceItem, gameClock, x, y, itemName);
+	}
+
+	public synchronized void annihilateMonsters(double gameClock) {
+		writeCommand(SessionEntry.Type.AnnihilateMonsters, gameClock, 0, 0, null);
+	}
+
+	public synchronized void loadSavedGame(double gameClock, String fileName) {
+		writeCommand(SessionEntry.Type.LoadSavedGame, gameClock, 0, 0, fileName);
+	}
+
+	/**
+	 * Called when the player changes the game's speed. Replays run as fast as
+	 * possible, so this only tells how the game was paced.
+	 *
+	 * @param gameClock
+	 * @param frameRate frames per second
+	 * @param ticksPerFrame ticks run per frame, when the game keeps up
+	 */
+	public synchronized void speedChanged(double gameClock, int frameRate, int ticksPerFrame) {
+		if (out == null) {
+			return;
+		}
+		try {
+			writeFrames();
+			out.writeByte(SessionEntry.Type.SpeedChange.ordinal());
+			writeVarLong((long) gameClock);
+			writeVarLong(frameRate);
+			writeVarLong(ticksPerFrame);
+			entryWritten();
+		}
+		catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	private void writeCommand(SessionEntry.Type type, double gameClock, double x, double y, String name) {
+		if (out == null) {
+			return;
+		}
+		try {
+			writeFrames();
+			out.writeByte(type.ordinal());
+			writeVarLong((long) gameClock);
+			if (type != SessionEntry.Type.AnnihilateMonsters && type != SessionEntry.Type.LoadSavedGame) {
+				out.writeDouble(x);
+				out.writeDouble(y);
+			}
+			if (name != null) {
+				out.writeUTF(name);
+			}
+			// commands are rare, and the ones before a slowdown are the ones wanted
+			out.flush();
+		}
+		catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	private void writeFrames() {
+		if (out == null || pendingFrames == 0) {
+			return;
+		}
+		try {
+			out.writeByte(SessionEntry.Type.Frames.ordinal());
+			writeVarLong(pendingFrames);
+			writeVarLong(pendingTicksPerFrame);
+			pendingFrames = 0;
+			entryWritten();
+		}
+		catch (IOException e) {
+			failed(e);
+		}
+	}
+
+	private void entryWritten() throws IOException {
+		if (++unflushedEntries >= FLUSH_INTERVAL) {
+			out.flush();
+			unflushedEntries = 0;
+		}
+	}
+
+	/**
+	 * Write a non-negative number in as few bytes as it needs, 7 bits per byte
+	 */
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private void failed(IOException e) {
+		e.printStackTrace();
+		try {
+			out.close();
+		}
+		catch (IOException closeFailure) {
+		}
+		out = null;
+	}
+
+	/**
+	 * Write the frames not yet written and close the log
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (out == null) {
+			return;
+		}
+		writeFrames();
+		if (out != null) {
+			out.close();
+			out = null;
+		}
+	}
+}
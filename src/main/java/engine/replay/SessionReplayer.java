@@ -0,0 +1,199 @@
+package main.java.engine.replay;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import main.java.data.DataHandler;
+import main.java.engine.IModel;
+import main.java.engine.host.Match;
+import main.java.exceptions.engine.InvalidSavedGameException;
+import main.java.exceptions.engine.MonsterCreationFailureException;
+import main.java.exceptions.engine.ReplayDivergedException;
+import main.java.exceptions.engine.TowerCreationFailureException;
+import main.java.schema.GameBlueprint;
+import net.lingala.zip4j.exception.ZipException;
+
+/**
+ * Plays a recorded session again on a headless Match, as fast as the CPU
+ * allows. Frames are rebuilt as the player's engine ran them, with the same
+ * number of ticks each, and every command is given in the frame it was given
+ * in, so the replay is the recorded game. Replays of slow sessions also
+ * serve as workloads for performance work.
+ */
+public class SessionReplayer {
+	private SessionReader reader;
+	private GameBlueprint blueprint;
+	private ReplayListener listener;
+	private int frames;
+	private int commands;
+	private long nanos;
+
+	/**
+	 * @param readerInit log to replay, read from its first entry
+	 * @param blueprintInit blueprint the session was played on
+	 */
+	public SessionReplayer(SessionReader readerInit, GameBlueprint blueprintInit) {
+		reader = readerInit;
+		blueprint = blueprintInit;
+	}
+
+	/**
+	 * @param listenerInit told about every frame replayed, or null
+	 */
+	public void setListener(ReplayListener listenerInit) {
+		listener = listenerInit;
+	}
+
+	/**
+	 * Open a log, loading the blueprint it names
+	 *
+	 * @param log
+	 * @return replayer of the log
+	 * @throws IOException if the log or the blueprint cannot be read
+	 * @throws ClassNotFoundException
+	 * @throws ZipException
+	 */
+	public static SessionReplayer open(File log) throws IOException, ClassNotFoundException, ZipException {
+		SessionReader reader = new SessionReader(new FileInputStream(log));
+		if (reader.getBlueprintPath().isEmpty()) {
+			reader.close();
+			throw new IOException("The log does not name its blueprint");
+		}
+		return new SessionReplayer(reader, new DataHandler().loadBlueprint(reader.getBlueprintPath(), true));
+	}
+
+	/**
+	 * Replay the whole log
+	 *
+	 * @return the match at the end of the log; close it when done
+	 * @throws ReplayDivergedException if the game no longer plays as it was recorded
+	 */
+	public Match replay() throws IOException, ReplayDivergedException, MonsterCreationFailureException,
+			TowerCreationFailureException, InvalidSavedGameException {
+		long start = System.nanoTime();
+		Match match = new Match(blueprint, reader.getSeed());
+		boolean replayed = false;
+		try {
+			boolean frameStarted = false;
+			for (SessionEntry entry = reader.next(); entry != null; entry = reader.next()) {
+				if (entry.getType() == SessionEntry.Type.Frames) {
+					for (int i = 0; i < entry.getNumFrames(); i++) {
+						if (!frameStarted) {
+							startFrame(match);
+						}
+						frameStarted = false;
+						if (match.runTicks(entry.getTicksPerFrame()) != entry.getTicksPerFrame()) {
+							throw new ReplayDivergedException("The game ended at tick " + match.getTicks()
+									+ ", before the recorded session did");
+						}
+						if (listener != null) {
+							listener.frameFinished(match, entry.getTicksPerFrame());
+						}
+						frames++;
+					}
+				}
+				else if (entry.isCommand()) {
+					if (!frameStarted) {
+						startFrame(match);
+						frameStarted = true;
+					}
+					apply(entry, match.getModel());
+					commands++;
+				}
+			}
+			replayed = true;
+		}
+		finally {
+			reader.close();
+			nanos = System.nanoTime() - start;
+			if (!replayed) {
+				match.close();
+			}
+		}
+		return match;
+	}
+
+	private void startFrame(Match match) {
+		if (listener != null) {
+			listener.frameStarting();
+		}
+		match.startFrame();
+	}
+
+	private void apply(SessionEntry command, IModel model) throws ReplayDivergedException,
+			TowerCreationFailureException, InvalidSavedGameException {
+		if (command.getGameClock() != (long) model.getGameClock()) {
+			throw new ReplayDivergedException(command + " was replayed at game clock " + model.getGameClock());
+		}
+		switch (command.getType()) {
+			case PlaceTower:
+				model.placeTower(command.getX(), command.getY(), command.getName());
+				break;
+			case RemoveTower:
+				model.checkAndRemoveTower(command.getX(), command.getY());
+				break;
+			case UpgradeTower:
+				model.upgradeTower(command.getX(), command.getY());
+				break;
+			case PlaceItem:
+				model.placeItem(command.getName(), command.getX(), command.getY());
+				break;
+			case AnnihilateMonsters:
+				model.annihilateMonsters();
+				break;
+			case LoadSavedGame:
+				model.loadSavedGame(command.getName());
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * @return frames replayed
+	 */
+	public int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return commands replayed
+	 */
+	public int getCommands() {
+		return commands;
+	}
+
+	/**
+	 * @return time the replay took, including creating the match
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Replay a log, as many times as asked, and print how long each replay took
+	 *
+	 * @param args log file, then optionally the number of replays
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("Usage: SessionReplayer <session log> [replays]");
+			System.exit(2);
+		}
+		int replays = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		for (int i = 0; i < replays; i++) {
+			SessionReplayer replayer = open(new File(args[0]));
+			Match match = replayer.replay();
+			IModel model = match.getModel();
+			System.out.println(String.format(
+					"Replay %d: %d frames, %d ticks, %d commands in %.1f ms (%.0f ticks/s); score %.0f, lives %d, %s",
+					i + 1, replayer.getFrames(), match.getTicks(), replayer.getCommands(), replayer.getNanos() / 1e6,
+					match.getTicks() / (replayer.getNanos() / 1e9), model.getScore(), model.getPlayerLives(),
+					model.isGameWon() ? "won" : model.isGameLost() ? "lost" : "unfinished"));
+			match.close();
+		}
+		// jgame's threads would keep the JVM alive
+		System.exit(0);
+	}
+}
@@ -0,0 +1,104 @@
+package main.java.engine.scenario;
+
+import java.util.Collections;
+import java.util.List;
+
+import main.java.engine.IModel;
+import main.java.engine.host.Match;
+import main.java.engine.host.MatchEngine;
+import main.java.schema.GameBlueprint;
+
+/**
+ * A generated game: a blueprint, plus the towers to place on it before the
+ * first wave, since blueprints do not hold placed towers
+ */
+public class Scenario {
+	private String name;
+	private GameBlueprint blueprint;
+	private List<TowerPlacement> towers;
+
+	Scenario(String nameInit, GameBlueprint blueprintInit, List<TowerPlacement> towersInit) {
+		name = nameInit;
+		blueprint = blueprintInit;
+		towers = Collections.unmodifiableList(towersInit);
+	}
+
+	/**
+	 * @return a description of the parameters the scenario was generated with
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public GameBlueprint getBlueprint() {
+		return blueprint;
+	}
+
+	public List<TowerPlacement> getTowers() {
+		return towers;
+	}
+
+	/**
+	 * Place the scenario's towers in a model created from its blueprint
+	 *
+	 * @param model
+	 * @param tileWidth tile width of the model's engine
+	 * @param tileHeight tile height of the model's engine
+	 * @return number of towers placed
+	 */
+	public int placeTowers(IModel model, int tileWidth, int tileHeight) {
+		int placed = 0;
+		for (TowerPlacement tower : towers) {
+			if (model.placeTower((tower.getXTile() + 0.5) * tileWidth,
+					(tower.getYTile() + 0.5) * tileHeight, tower.getTowerName())) {
+				placed++;
+			}
+		}
+		return placed;
+	}
+
+	/**
+	 * Start a headless match of the scenario with its towers placed
+	 *
+	 * @param seed seed for the match's random numbers
+	 * @return the match; close it when done
+	 */
+	public Match createMatch(long seed) {
+		Match match = new Match(blueprint, seed);
+		match.getModel().setSurvivalMode(false);
+		placeTowers(match.getModel(), MatchEngine.TILE_WIDTH, MatchEngine.TILE_HEIGHT);
+		return match;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * A tower to place, by tile
+	 */
+	public static class TowerPlacement {
+		private int xTile;
+		private int yTile;
+		private String towerName;
+
+		public TowerPlacement(int xTileInit, int yTileInit, String towerNameInit) {
+			xTile = xTileInit;
+			yTile = yTileInit;
+			towerName = towerNameInit;
+		}
+
+		public int getXTile() {
+			return xTile;
+		}
+
+		public int getYTile() {
+			return yTile;
+		}
+
+		public String getTowerName() {
+			return towerName;
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package main.java.engine.scenario;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import main.java.author.view.tabs.terrain.TerrainAttribute;
+import main.java.engine.host.MatchEngine;
+import main.java.engine.objects.tower.TowerBehaviors;
+import main.java.schema.AbstractSchema;
+import main.java.schema.CanvasSchema;
+import main.java.schema.GameBlueprint;
+import main.java.schema.GameSchema;
+import main.java.schema.MonsterSpawnSchema;
+import main.java.schema.WaveSpawnSchema;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
+import main.java.schema.map.TileMapSchema;
+import main.java.schema.tdobjects.MonsterSchema;
+import main.java.schema.tdobjects.TowerSchema;
+import main.java.schema.tdobjects.monsters.SimpleMonsterSchema;
+
+/**
+ * Builds Scenarios for stress testing the engine, so that benchmarks, soak
+ * tests and profiling sessions can all play the same, repeatable games
+ * without a blueprint made in the authoring environment. Every parameter
+ * has a small default; set the ones to push and call generate(). The same
+ * parameters and seed always generate the same scenario.
+ *
+ * The map has a winding path from the left edge to the right edge, which
+ * stays walkable, and walls scattered over the rest of it. Towers are
+ * placed off the path, next to it first.
+ */
+public class ScenarioGenerator {
+	public static final String TILEMAP_FILE_NAME = "colortilemap.png";
+	private static final int TILEMAP_ROWS = 3;
+	private static final int TILEMAP_COLS = 4;
+	private static final int FLOOR_TILE = 0;
+	private static final int WALL_TILE = 1;
+	private static final int TOWER_COST = 20;
+	private static final String TOWER_NAME_SUFFIX = " tower";
+	private static final String MONSTER_NAME_PREFIX = "monster ";
+
+	private int xTiles = 20;
+	private int yTiles = 15;
+	private double mazeDensity = 0.3;
+	private int towerCount = 10;
+	private List<TowerBehaviors> towerMix = Arrays.asList(TowerBehaviors.SHOOTING);
+	private int numWaves = 5;
+	private int waveSize = 20;
+	private int resurrectDepth = 0;
+	private int resurrectQuantity = 2;
+	private double monsterHealth = 100;
+	private double monsterSpeed = 1;
+	private int lives = 20;
+	private int money = 100;
+
+	/**
+	 * A scenario small enough to play in a test
+	 */
+	public static ScenarioGenerator small() {
+		return new ScenarioGenerator();
+	}
+
+	/**
+	 * A large map with a dense maze, for pathfinding
+	 */
+	public static ScenarioGenerator largeMaze() {
+		return new ScenarioGenerator().setMapSize(80, 60).setMazeDensity(0.45).setTowerCount(200)
+				.setTowerMix(TowerBehaviors.SHOOTING, TowerBehaviors.FREEZING);
+	}
+
+	/**
+	 * Waves of tens of thousands of monsters, for collisions and targeting
+	 */
+	public static ScenarioGenerator hugeWaves() {
+		return new ScenarioGenerator().setMapSize(40, 30).setTowerCount(100)
+				.setTowerMix(TowerBehaviors.values()).setWaves(3, 20000).setMonsterHealth(1000);
+	}
+
+	/**
+	 * Monsters that split into more monsters several times when killed
+	 */
+	public static ScenarioGenerator resurrectChains() {
+		return new ScenarioGenerator().setMapSize(30, 20).setTowerCount(60)
+				.setTowerMix(TowerBehaviors.SHOOTING, TowerBehaviors.BOMBING, TowerBehaviors.SPLASHING)
+				.setWaves(5, 200).setResurrection(4, 3);
+	}
+
+	/**
+	 * @param xTilesInit width of the map in tiles, at least 2
+	 * @param yTilesInit height of the map in tiles, at least 1
+	 */
+	public ScenarioGenerator setMapSize(int xTilesInit, int yTilesInit) {
+		if (xTilesInit < 2 || yTilesInit < 1) {
+			throw new IllegalArgumentException("Map must be at least 2 by 1 tiles");
+		}
+		xTiles = xTilesInit;
+		yTiles = yTilesInit;
+		return this;
+	}
+
+	/**
+	 * @param density fraction, from 0 to 1, of the tiles off the path that are walls
+	 */
+	public ScenarioGenerator setMazeDensity(double density) {
+		mazeDensity = density;
+		return this;
+	}
+
+	/**
+	 * @param count towers to place; fewer are placed if the map is too small
+	 */
+	public ScenarioGenerator setTowerCount(int count) {
+		towerCount = count;
+		return this;
+	}
+
+	/**
+	 * @param behaviors tower types to place, in turn; one tower type is made
+	 * for each behavior, and listing a behavior twice places twice as many
+	 */
+	public ScenarioGenerator setTowerMix(TowerBehaviors... behaviors) {
+		if (behaviors.length == 0) {
+			throw new IllegalArgumentException("Tower mix must not be empty");
+		}
+		towerMix = Arrays.asList(behaviors);
+		return this;
+	}
+
+	/**
+	 * @param numWavesInit number of waves
+	 * @param waveSizeInit monsters spawned at once by each wave
+	 */
+	public ScenarioGenerator setWaves(int numWavesInit, int waveSizeInit) {
+		numWaves = numWavesInit;
+		waveSize = waveSizeInit;
+		return this;
+	}
+
+	/**
+	 * @param depth how many times a wave's monsters split when killed
+	 * @param quantity monsters each monster splits into
+	 */
+	public ScenarioGenerator setResurrection(int depth, int quantity) {
+		resurrectDepth = depth;
+		resurrectQuantity = quantity;
+		return this;
+	}
+
+	public ScenarioGenerator setMonsterHealth(double health) {
+		monsterHealth = health;
+		return this;
+	}
+
+	public ScenarioGenerator setMonsterSpeed(double speed) {
+		monsterSpeed = speed;
+		return this;
+	}
+
+	public ScenarioGenerator setLives(int livesInit) {
+		lives = livesInit;
+		return this;
+	}
+
+	/**
+	 * @param moneyInit money left to the player once the scenario's towers are paid for
+	 */
+	public ScenarioGenerator setMoney(int moneyInit) {
+		money = moneyInit;
+		return this;
+	}
+
+	/**
+	 * Generate a scenario
+	 *
+	 * @param seed seed for the map and tower positions
+	 * @return the scenario
+	 */
+	public Scenario generate(long seed) {
+		Random random = new Random(seed);
+		boolean[][] path = new boolean[xTiles][yTiles];
+		int entryRow = random.nextInt(yTiles);
+		int exitRow = carvePath(path, entryRow, random);
+
+		boolean[][] walls = new boolean[xTiles][yTiles];
+		for (int x = 0; x < xTiles; x++) {
+			for (int y = 0; y < yTiles; y++) {
+				walls[x][y] = !path[x][y] && random.nextDouble() < mazeDensity;
+			}
+		}
+
+		List<TowerSchema> towerSchemas = createTowerSchemas();
+		List<Scenario.TowerPlacement> towers = placeTowers(path, random);
+		List<MonsterSchema> monsterSchemas = createMonsterSchemas();
+		GameBlueprint blueprint = new GameBlueprint();
+		blueprint.setMyGameScenario(createGameSchema(money + towers.size() * TOWER_COST));
+		blueprint.setMyTowerSchemas(towerSchemas);
+		blueprint.setMyMonsterSchemas(monsterSchemas);
+		blueprint.setMyWaveSchemas(createWaves(monsterSchemas.get(0)));
+		blueprint.setMyGameMapSchemas(new ArrayList<GameMapSchema>(
+				Arrays.asList(createMap(walls, entryRow, exitRow))));
+		return new Scenario(toString() + " #" + seed, blueprint, towers);
+	}
+
+	/**
+	 * Carve a path that wanders up and down as it crosses the map
+	 *
+	 * @return row of the exit, on the right edge
+	 */
+	private int carvePath(boolean[][] path, int entryRow, Random random) {
+		int row = entryRow;
+		for (int x = 0; x < xTiles; x++) {
+			int targetRow = random.nextInt(yTiles);
+			path[x][row] = true;
+			while (row != targetRow) {
+				row += (targetRow > row) ? 1 : -1;
+				path[x][row] = true;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Place towers off the path, next to it first, in random order
+	 */
+	private List<Scenario.TowerPlacement> placeTowers(boolean[][] path, Random random) {
+		List<int[]> nextToPath = new ArrayList<int[]>();
+		List<int[]> elsewhere = new ArrayList<int[]>();
+		for (int x = 0; x < xTiles; x++) {
+			for (int y = 0; y < yTiles; y++) {
+				if (!path[x][y]) {
+					(isNextToPath(path, x, y) ? nextToPath : elsewhere).add(new int[] { x, y });
+				}
+			}
+		}
+		Collections.shuffle(nextToPath, random);
+		Collections.shuffle(elsewhere, random);
+		nextToPath.addAll(elsewhere);
+
+		List<Scenario.TowerPlacement> towers = new ArrayList<Scenario.TowerPlacement>();
+		for (int i = 0; i < towerCount && i < nextToPath.size(); i++) {
+			TowerBehaviors behavior = towerMix.get(i % towerMix.size());
+			int[] tile = nextToPath.get(i);
+			towers.add(new Scenario.TowerPlacement(tile[0], tile[1], getTowerName(behavior)));
+		}
+		return towers;
+	}
+
+	private boolean isNextToPath(boolean[][] path, int x, int y) {
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				int nx = x + dx;
+				int ny = y + dy;
+				if (nx >= 0 && nx < xTiles && ny >= 0 && ny < yTiles && path[nx][ny]) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String getTowerName(TowerBehaviors behavior) {
+		return behavior.name().toLowerCase() + TOWER_NAME_SUFFIX;
+	}
+
+	private List<TowerSchema> createTowerSchemas() {
+		List<TowerSchema> towerSchemas = new ArrayList<TowerSchema>();
+		for (TowerBehaviors behavior : new LinkedHashSet<TowerBehaviors>(towerMix)) {
+			TowerSchema towerSchema = new TowerSchema(getTowerName(behavior));
+			towerSchema.addAttribute(TowerSchema.COST, TOWER_COST);
+			towerSchema.addAttribute(TowerSchema.TOWER_BEHAVIORS,
+					new ArrayList<TowerBehaviors>(Arrays.asList(behavior)));
+			castToDoubles(towerSchema);
+			towerSchemas.add(towerSchema);
+		}
+		return towerSchemas;
+	}
+
+	/**
+	 * Create the monsters of the waves, then the monsters each of them splits
+	 * into when killed
+	 */
+	private List<MonsterSchema> createMonsterSchemas() {
+		List<MonsterSchema> monsterSchemas = new ArrayList<MonsterSchema>();
+		for (int depth = 0; depth <= resurrectDepth; depth++) {
+			SimpleMonsterSchema monsterSchema = new SimpleMonsterSchema(MONSTER_NAME_PREFIX + depth);
+			monsterSchema.addAttribute(MonsterSchema.HEALTH, monsterHealth);
+			monsterSchema.addAttribute(MonsterSchema.SPEED, monsterSpeed);
+			monsterSchema.addAttribute(MonsterSchema.BLOCKED_TILES,
+					new HashSet<Integer>(Arrays.asList(TerrainAttribute.Unwalkable.getIndex())));
+			castToDoubles(monsterSchema);
+			monsterSchemas.add(monsterSchema);
+		}
+		for (int depth = 0; depth < resurrectDepth; depth++) {
+			MonsterSchema resurrected = monsterSchemas.get(depth + 1);
+			MonsterSchema monsterSchema = monsterSchemas.get(depth);
+			monsterSchema.addAttribute(MonsterSchema.RESURRECT_MONSTER_NAME,
+					resurrected.getAttribute(MonsterSchema.NAME));
+			monsterSchema.addAttribute(MonsterSchema.RESURRECT_QUANTITY, (double) resurrectQuantity);
+			monsterSchema.addAttribute(MonsterSchema.RESURRECT_MONSTERSPAWNSCHEMA,
+					new MonsterSpawnSchema(resurrected, resurrectQuantity));
+		}
+		return monsterSchemas;
+	}
+
+	/**
+	 * Attributes are read as doubles by the engine, so whole numbers are
+	 * stored as Double, as the authoring environment does
+	 */
+	private static void castToDoubles(AbstractSchema schema) {
+		for (Map.Entry<String, Serializable> attribute : schema.getAttributesMap().entrySet()) {
+			if (attribute.getValue() instanceof Integer) {
+				schema.addAttribute(attribute.getKey(), ((Integer) attribute.getValue()).doubleValue());
+			}
+		}
+	}
+
+	private List<WaveSpawnSchema> createWaves(MonsterSchema monsterSchema) {
+		List<WaveSpawnSchema> waves = new ArrayList<WaveSpawnSchema>();
+		for (int i = 0; i < numWaves; i++) {
+			WaveSpawnSchema wave = new WaveSpawnSchema();
+			wave.addMonsterSchema(new MonsterSpawnSchema(monsterSchema, waveSize));
+			waves.add(wave);
+		}
+		return waves;
+	}
+
+	private GameSchema createGameSchema(int startingMoney) {
+		GameSchema gameSchema = new GameSchema();
+		gameSchema.addAttribute(GameSchema.LIVES, lives);
+		gameSchema.addAttribute(GameSchema.MONEY, startingMoney);
+		gameSchema.addAttribute(GameSchema.ISSURVIVALMODE, Boolean.FALSE);
+		return gameSchema;
+	}
+
+	private GameMapSchema createMap(boolean[][] walls, int entryRow, int exitRow) {
+		TileLayer tileLayer = new TileLayer(xTiles, yTiles);
+		for (int x = 0; x < xTiles; x++) {
+			for (int y = 0; y < yTiles; y++) {
+				if (walls[x][y]) {
+					tileLayer.setTile(x, y, TILEMAP_FILE_NAME, WALL_TILE, TerrainAttribute.Unwalkable.getIndex());
+				}
+				else {
+					tileLayer.setTile(x, y, TILEMAP_FILE_NAME, FLOOR_TILE, TerrainAttribute.Walkable.getIndex());
+				}
+			}
+		}
+
+		TileMapSchema tileMapSchema = new TileMapSchema();
+		tileMapSchema.addAttribute(TileMapSchema.NUM_ROWS, TILEMAP_ROWS);
+		tileMapSchema.addAttribute(TileMapSchema.NUM_COLS, TILEMAP_COLS);
+		tileMapSchema.addAttribute(TileMapSchema.PIXEL_SIZE, MatchEngine.TILE_WIDTH);
+		tileMapSchema.addAttribute(TileMapSchema.TILEMAP_FILE_NAME, TILEMAP_FILE_NAME);
+
+		CanvasSchema canvasSchema = new CanvasSchema();
+		canvasSchema.addAttribute(CanvasSchema.X_TILES, xTiles);
+		canvasSchema.addAttribute(CanvasSchema.Y_TILES, yTiles);
+		canvasSchema.addAttribute(CanvasSchema.ENTRY_COL, 0);
+		canvasSchema.addAttribute(CanvasSchema.ENTRY_ROW, entryRow);
+		canvasSchema.addAttribute(CanvasSchema.EXIT_COL, xTiles - 1);
+		canvasSchema.addAttribute(CanvasSchema.EXIT_ROW, exitRow);
+
+		GameMapSchema gameMapSchema = new GameMapSchema();
+		gameMapSchema.addAttribute(GameMapSchema.MY_TILE_LAYER, tileLayer);
+		gameMapSchema.addAttribute(GameMapSchema.MY_TILEMAPS,
+				new ArrayList<TileMapSchema>(Arrays.asList(tileMapSchema)));
+		gameMapSchema.addAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES, canvasSchema);
+		return gameMapSchema;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%dx%d map, %.0f%% walls, %d towers %s, %d waves of %d, resurrect %d deep x%d",
+				xTiles, yTiles, 100 * mazeDensity, towerCount, towerMix, numWaves, waveSize,
+				resurrectDepth, resurrectQuantity);
+	}
+}
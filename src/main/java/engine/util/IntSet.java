@@ -0,0 +1,76 @@
+package main.java.engine.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints that does not box them, for entity handles and other ids
+ * looked up every frame. Open addressing with linear probing; 0 marks an
+ * empty slot, so 0 cannot be added, which suits EntityRegistry.NO_HANDLE.
+ */
+public class IntSet {
+	private static final int INITIAL_CAPACITY = 8;
+
+	// length is always a power of two, kept at most half full
+	private int[] slots;
+	private int size;
+
+	public IntSet() {
+		slots = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * @param value any int but 0
+	 * @return whether the value was not in the set yet
+	 */
+	public boolean add(int value) {
+		if (value == 0) {
+			throw new IllegalArgumentException("0 cannot be added to an IntSet");
+		}
+		int slot = find(slots, value);
+		if (slots[slot] == value) {
+			return false;
+		}
+		slots[slot] = value;
+		if (++size * 2 > slots.length) {
+			grow();
+		}
+		return true;
+	}
+
+	public boolean contains(int value) {
+		return value != 0 && slots[find(slots, value)] == value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+
+	/**
+	 * @return slot holding the value, or the empty slot it would go in
+	 */
+	private static int find(int[] slots, int value) {
+		int mask = slots.length - 1;
+		// spread the bits, since handles differ mostly in their low bits
+		int hash = value * 0x9E3779B9;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (slots[slot] != 0 && slots[slot] != value) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int[] grown = new int[slots.length * 2];
+		for (int value : slots) {
+			if (value != 0) {
+				grown[find(grown, value)] = value;
+			}
+		}
+		slots = grown;
+	}
+}
@@ -0,0 +1,13 @@
+package main.java.exceptions.engine;
+
+/**
+ * Thrown when a replayed game no longer matches the game that was recorded,
+ * e.g. because the engine changed in a way that affects the game
+ */
+public class ReplayDivergedException extends Exception {
+    private static final long serialVersionUID = 3890347157263085303L;
+
+    public ReplayDivergedException (String message) {
+        super(message);
+    }
+}
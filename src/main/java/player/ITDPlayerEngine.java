@@ -21,6 +21,18 @@ public interface ITDPlayerEngine {
 		 * @return whether the game was slowed down or not
 		 */
 		public boolean slowDown();
+
+		/**
+		 * Cycle through the fast-forward modes, which run several
+		 * simulation steps per rendered frame
+		 */
+		public void toggleFastForward();
+
+		/**
+		 * Show or hide the predicted paths of the monsters,
+		 * e.g. to save drawing time during large waves
+		 */
+		public void togglePathDisplay();
 		
 		public void paintFrame();
 		
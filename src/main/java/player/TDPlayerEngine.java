@@ -1,29 +1,44 @@
 package main.java.player;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import jgame.JGColor;
 import jgame.JGPoint;
 import jgame.platform.JGEngine;
+import main.java.data.BlueprintManifest;
 import main.java.data.DataHandler;
 import main.java.engine.IModel;
 import main.java.engine.Model;
+import main.java.engine.VisualDetail;
+import main.java.engine.replay.SessionRecorder;
 import main.java.engine.util.leapmotion.gamecontroller.LeapGameController;
 import main.java.exceptions.engine.InvalidSavedGameException;
 import main.java.exceptions.engine.MonsterCreationFailureException;
 import main.java.exceptions.engine.TowerCreationFailureException;
+import main.java.player.util.AllocationTracker;
 import main.java.player.util.CursorState;
+import main.java.player.util.FastForward;
+import main.java.player.util.FixedTimestep;
+import main.java.player.util.FrameSnapshot;
+import main.java.player.util.MapRenderCache;
+import main.java.player.util.PositionInterpolator;
+import main.java.player.util.QualityGovernor;
 import main.java.player.util.Observing;
 import main.java.player.util.Subject;
-import main.java.player.util.TowerGhost;
+import main.java.player.util.TowerPreview;
 import main.java.schema.CanvasSchema;
 import main.java.schema.GameBlueprint;
 import main.java.schema.GameSchema;
@@ -49,19 +64,47 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 	public static int RIGHT_CLICK = 3;
 	public static int TILE_WIDTH = 32;
 	public static int TILE_HEIGHT = 32;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double MAX_FRAME_FRACTION = 0.5;
+	private static final int MAX_CATCH_UP_TICKS = 4;
+	private static final long OBSERVER_INTERVAL_NANOS = 100000000L;
+	// directory to record every game into, for SessionReplayer; games are not recorded if unset
+	public static final String RECORD_SESSIONS_PROPERTY = "td.recordSessions";
 
 	private int xtiles, ytiles;
 	private IModel model;
 	private List<Observing> observerList;
 	private CursorState cursorState;
+	private FastForward fastForward;
+	private FixedTimestep timestep;
+	private PositionInterpolator interpolator;
+	private MapRenderCache renderCache;
+	private QualityGovernor governor;
+	private AllocationTracker allocationTracker;
+	private int frameCount;
+	private TowerPreview towerPreview;
+	// written by initModel, which the view calls on the Swing thread, and read by the game thread
+	private volatile int viewVersion;
+	private long notifiedStateVersion;
+	private int notifiedViewVersion;
+	private double notifiedGameClock;
+	private long lastNotifyTime;
+	private AtomicBoolean notifyPending = new AtomicBoolean();
+	private volatile FrameSnapshot snapshot;
+	private long snapshotStateVersion;
 	private boolean isFullScreen;
 	private String pathToBlueprint;
 	private String pathToMusic;
-	private String towerName;
+	private volatile String towerName;
+	// chosen on the Swing thread, taken up by the game thread at the start of a frame
+	private volatile String selectedTowerName;
 	private ResourceBundle hotkeys = ResourceBundle.getBundle("main.resources.hotkeys");
+	private ResourceBundle qualitySettings = ResourceBundle.getBundle("main.resources.quality");
 	private JGPoint lastClickedObject;
 	private LeapGameController leapController;
 	private ViewController viewController;
+	private Random random = new Random();
+	private SessionRecorder sessionRecorder;
 
 
 	public TDPlayerEngine(String pathToBlueprintInit, ViewController myView) throws ClassNotFoundException, IOException, ZipException {
@@ -72,6 +115,13 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		observerList = new ArrayList<Observing>();
 		isFullScreen = false;
 		cursorState = CursorState.None;
+		fastForward = FastForward.Normal;
+		timestep = new FixedTimestep();
+		interpolator = new PositionInterpolator();
+		renderCache = new MapRenderCache();
+		governor = new QualityGovernor(qualitySettings);
+		allocationTracker = new AllocationTracker();
+		towerPreview = new TowerPreview();
 		leapController = new LeapGameController();
 		lastClickedObject = new JGPoint();
 		viewController = myView;
@@ -80,6 +130,14 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 
 	private void loadCanvasSize(String pathToBlueprint) throws ClassNotFoundException, IOException, ZipException {
 		DataHandler dataHandler = new DataHandler();
+		BlueprintManifest manifest = dataHandler.loadManifest(pathToBlueprint);
+		if (manifest != null && manifest.hasCanvasSize()) {
+			xtiles = manifest.getXTiles();
+			ytiles = manifest.getYTiles();
+			pathToMusic = manifest.getMusic();
+			return;
+		}
+		// Blueprints saved before manifests existed need a full load
 		GameBlueprint blueprint = dataHandler.loadBlueprint(pathToBlueprint, true);
 		CanvasSchema canvasSchema = (CanvasSchema) blueprint.getMyGameMapSchemas().get(0).getAttributesMap().
 				get(GameMapSchema.MY_CANVAS_ATTRIBUTES);
@@ -104,12 +162,61 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 	}
 
 	public void initModel(){
+		// seeded, so that a recorded game can be replayed
+		long seed = new Random().nextLong();
+		random.setSeed(seed);
 		model = new Model(this, pathToBlueprint);
+		startRecording(seed);
+		interpolator.clear();
+		renderCache.invalidate();
+		timestep.reset();
+		governor.reset();
+		allocationTracker.reset();
+		applyQualityLevel();
+		towerPreview.invalidate();
+		viewVersion++;
+		selectedTowerName = null;
 		towerName = model.getPossibleTowers().get(0);
+		model.loadTowerImage(towerName);
+		publishSnapshot();
+	}
+
+	/**
+	 * Record the new game, if games are recorded, stopping the recording of the last one
+	 */
+	private void startRecording(long seed) {
+		try {
+			if (sessionRecorder != null) {
+				sessionRecorder.close();
+				sessionRecorder = null;
+			}
+			String directory = System.getProperty(RECORD_SESSIONS_PROPERTY);
+			if (directory != null) {
+				new File(directory).mkdirs();
+				File log = new File(directory, "session-" + System.currentTimeMillis() + SessionRecorder.FILE_EXTENSION);
+				sessionRecorder = new SessionRecorder(new FileOutputStream(log), seed, pathToBlueprint);
+				recordSpeed();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		model.setSessionRecorder(sessionRecorder);
+	}
+
+	private void recordSpeed() {
+		if (sessionRecorder != null) {
+			sessionRecorder.speedChanged(model.getGameClock(), (int) getFrameRate(), fastForward.getMaxSteps());
+		}
+	}
+
+	@Override
+	public double random(double min, double max) {
+		return min + random.nextDouble() * (max - min);
 	}
 
 	public void speedUp() {
 		setFrameRate(getFrameRate() + FRAME_RATE_DELTA, 1);
+		recordSpeed();
 	}
 
 	/**
@@ -119,6 +226,7 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 	public boolean slowDown() {
 		if (getFrameRate() - FRAME_RATE_DELTA > 0) {
 			setFrameRate(getFrameRate() - FRAME_RATE_DELTA, 1);
+			recordSpeed();
 			return true;
 		}
 		return false;
@@ -126,6 +234,12 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 
 	@Override
 	public void paintFrame() {
+		if (model != null) {
+			if (governor.getLevel().arePathsShown()) {
+				renderCache.paint(this, model.getPathOverlay());
+			}
+			model.paintEffects();
+		}
 		highlightMouseoverTile();
 	}
 
@@ -148,7 +262,7 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		JGColor color = JGColor.yellow;
 		if (mousePos.x < pfWidth() && mousePos.x > 0 && mousePos.y < pfHeight() && mousePos.y > 0) {
 			if (cursorState == CursorState.AddTower) {
-				if (model.isTowerPresent(mousePos.x, mousePos.y)) {
+				if (model.isTowerPresent(mousePos.x, mousePos.y) || (towerPreview.isShown() && !towerPreview.isValid())) {
 					color = JGColor.red;
 				}
 				else {
@@ -164,7 +278,14 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		this.drawRect(curXTilePos, curYTilePos, tileWidth(), tileHeight(), false, false, 1.0, color);
 	}
 
+	/**
+	 * Safe to call from the Swing thread
+	 */
 	public List<String> getCurrentDescription() {
+		return snapshot.getUnitInfo();
+	}
+
+	private List<String> readCurrentDescription() {
 		JGPoint mousePos = getMousePos();
 		if (mousePos.x < pfWidth() && mousePos.x > 0 && mousePos.y < pfHeight() && mousePos.y > 0) {
 			return model.getUnitInfo(lastClickedObject.x, lastClickedObject.y);
@@ -172,8 +293,19 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		return new ArrayList<String>();
 	}
 
+	/**
+	 * Copy what the panels show into a new FrameSnapshot. Must be called
+	 * on the game thread, between simulation steps.
+	 */
+	private void publishSnapshot() {
+		snapshotStateVersion = model.getStateVersion();
+		snapshot = new FrameSnapshot(readGameAttributes(), readCurrentDescription(),
+				model.getTowerDescription(towerName), model.getPossibleTowers(), model.getScore());
+	}
+
 	@Override
 	public void doFrame() {
+		long frameStart = System.nanoTime();
 		super.doFrame();
 
 		if (leapController != null) {
@@ -181,18 +313,133 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		}
 
 		if (model != null) {
+			interpolator.restoreSimulatedPositions();
+			applyTowerSelection();
 			checkGameEnd();
 			checkMouse();
 			checkKeys();
-			notifyObservers();
+			// only the ticks are measured: input handling and publishing to the
+			// observers allocate whenever the player acts or the panels change
+			allocationTracker.frameStarted();
+			runSimulationSteps();
+			allocationTracker.frameFinished();
+			if (model.getStateVersion() != snapshotStateVersion) {
+				publishSnapshot();
+			}
+			notifyObserversIfChanged();
+			if (governor.frameMeasured(frameStart, System.nanoTime(), getFrameRate())) {
+				applyQualityLevel();
+			}
+		}
+		frameCount++;
+	}
+
+	/**
+	 * Notify the observers on the Swing thread if anything they show may have
+	 * changed: the model's state version, the selected unit or tower type, or
+	 * the game clock. While a unit is selected its stats may change at any
+	 * time, so the observers are always notified. Notifications are spaced
+	 * at least OBSERVER_INTERVAL_NANOS apart (more at lower quality levels),
+	 * and at most one is ever queued, so Swing is never flooded.
+	 */
+	private void notifyObserversIfChanged() {
+		long now = System.nanoTime();
+		if (now - lastNotifyTime < OBSERVER_INTERVAL_NANOS * governor.getLevel().getObserverInterval()) {
+			return;
+		}
+		long stateVersion = model.getStateVersion();
+		boolean unitSelected = lastClickedObject.x > 0 || lastClickedObject.y > 0;
+		if (stateVersion == notifiedStateVersion && viewVersion == notifiedViewVersion
+				&& model.getGameClock() == notifiedGameClock && !unitSelected) {
+			return;
+		}
+		if (!notifyPending.compareAndSet(false, true)) {
+			return;
+		}
+		notifiedStateVersion = stateVersion;
+		notifiedViewVersion = viewVersion;
+		notifiedGameClock = model.getGameClock();
+		lastNotifyTime = now;
+		publishSnapshot();
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				notifyPending.set(false);
+				notifyObservers();
+			}
+		});
+	}
+
+	/**
+	 * Pass the optional visual work the governor allows on to the game objects
+	 */
+	private void applyQualityLevel() {
+		VisualDetail visualDetail = model.getVisualDetail();
+		visualDetail.setFullHealthBarsShown(governor.getLevel().areFullHealthBarsShown());
+		visualDetail.setDecorationsShown(governor.getLevel().areDecorationsShown());
+	}
+
+	/**
+	 * Steps the simulation at a fixed tick rate, which is the chosen frame
+	 * rate times the fast-forward speed, no matter how many frames per second
+	 * are actually reached. Up to MAX_CATCH_UP_TICKS ticks (times the speed)
+	 * run per frame to catch up; further backlog is dropped. Only the state
+	 * after the last tick gets painted, interpolated towards the next tick.
+	 * In Max mode, ticks stop once half of the frame's time is used up.
+	 */
+	private void runSimulationSteps() {
+		long now = System.nanoTime();
+		long deadline = now + (long) (NANOS_PER_SECOND * MAX_FRAME_FRACTION / getFrameRate());
+		int speed = fastForward.getMaxSteps();
+		int ticks = timestep.advance(now, getFrameRate() * speed, MAX_CATCH_UP_TICKS * speed);
+		int ticksRun = 0;
+		for (int tick = 0; tick < ticks; tick++) {
+			if (tick > 0 && (model.isGameLost() || model.isGameWon())) {
+				break;
+			}
+			if (tick > 0 && fastForward == FastForward.Max && System.nanoTime() > deadline) {
+				break;
+			}
+			interpolator.beforeTick(this);
 			updateModel();
 			moveObjects();
 			model.checkCollisions();
+			ticksRun++;
+		}
+		if (sessionRecorder != null) {
+			sessionRecorder.frame(ticksRun);
 		}
+		interpolator.interpolate(this, timestep.getAlpha());
+	}
+
+	/**
+	 * Cycle through the fast-forward modes
+	 */
+	public void toggleFastForward() {
+		fastForward = fastForward.next();
+		recordSpeed();
+	}
+
+	public FastForward getFastForward() {
+		return fastForward;
+	}
+
+	/**
+	 * Show or hide the predicted paths of the monsters
+	 */
+	public void togglePathDisplay() {
+		setPathDisplay(!renderCache.arePathsShown());
+	}
+
+	public void setPathDisplay(boolean shown) {
+		renderCache.setPathsShown(shown);
 	}
 	
+	/**
+	 * Safe to call from the Swing thread
+	 */
 	public String getCurrentTowerDescription() {
-		return model.getTowerDescription(towerName);
+		return snapshot.getTowerDescription();
 	}
 
 	private void checkGameEnd() {
@@ -227,10 +474,11 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 			if (getMouseButton(LEFT_CLICK)) {
 				model.placeTower(getMouseX(), getMouseY(), towerName);
 				setCursorState(CursorState.None);
-				removeObjects("TowerGhost", 0);
+				towerPreview.hide();
+				towerPreview.invalidate();
 				clearMouseButton(LEFT_CLICK);
 			}
-			else {
+			else if (frameCount % governor.getLevel().getTowerGhostInterval() == 0) {
 				drawTowerGhost(towerName);
 			}
 		}
@@ -238,6 +486,7 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 			if (getMouseButton(LEFT_CLICK)) {
 				lastClickedObject.x = getMousePos().x;
 				lastClickedObject.y = getMousePos().y;
+				viewVersion++;
 				if(getKey(Integer.parseInt(hotkeys.getString("UpgradeTower")))){
 					try {
 						model.upgradeTower(getMouseX(), getMouseY());
@@ -252,16 +501,34 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		}
 		if (getMouseButton(RIGHT_CLICK)) {
 			model.checkAndRemoveTower(getMouseX(), getMouseY());
+			towerPreview.invalidate();
 			clearMouseButton(3);
 		}
 	}
 
+	/**
+	 * Safe to call from the Swing thread; the tower type is switched, and its
+	 * image loaded, on the game thread at the start of the next frame
+	 */
 	public void setCurrentTowerType(String currentTowerName){
-		towerName = currentTowerName;
+		selectedTowerName = currentTowerName;
 	}
 
+	private void applyTowerSelection() {
+		String selected = selectedTowerName;
+		if (selected == null || selected.equals(towerName)) {
+			return;
+		}
+		towerName = selected;
+		model.loadTowerImage(towerName);
+		viewVersion++;
+	}
+
+	/**
+	 * Safe to call from the Swing thread
+	 */
 	public double getHighScore(){
-		return model.getScore();
+		return snapshot.getScore();
 	}
 	
 	/**
@@ -271,7 +538,7 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 	public void toggleAddTower() {
 		if (getCursorState() == CursorState.AddTower) {
 			setCursorState(CursorState.None);
-			removeObjects("TowerGhost", 0);
+			towerPreview.hide();
 		}
 		else {
 			setCursorState(CursorState.AddTower);
@@ -294,6 +561,16 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 			clearKey(Integer.parseInt(hotkeys.getString("FullScreen")));
 		}
 		
+		if (getKey(Integer.parseInt(hotkeys.getString("FastForward")))){
+			toggleFastForward();
+			clearKey(Integer.parseInt(hotkeys.getString("FastForward")));
+		}
+
+		if (getKey(Integer.parseInt(hotkeys.getString("TogglePaths")))){
+			togglePathDisplay();
+			clearKey(Integer.parseInt(hotkeys.getString("TogglePaths")));
+		}
+
 		if (getKey(Integer.parseInt(hotkeys.getString("Annihilate")))){
 			model.annihilateMonsters();
 			clearKey(Integer.parseInt(hotkeys.getString("Annihilate")));
@@ -318,9 +595,33 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 			start();
 	}
 
+	@Override
+	public void start() {
+		// time spent paused should not be caught up on
+		timestep.reset();
+		governor.reset();
+		super.start();
+	}
+
+	/**
+	 * Move the tower ghost to the tile under the mouse. Whether the tower
+	 * can be placed there is only checked again when the tile, tower type
+	 * or money changes, or after towers were placed or removed, since the
+	 * check has to look for paths.
+	 */
 	private void drawTowerGhost(String imageName) {
 		JGPoint mousePos = getMousePos();
-		new TowerGhost(mousePos.x/tileWidth() * tileWidth(), mousePos.y/tileHeight() * tileHeight(), imageName);
+		if (mousePos.x >= pfWidth() || mousePos.x < 0 || mousePos.y >= pfHeight() || mousePos.y < 0) {
+			towerPreview.hide();
+			return;
+		}
+		int tileX = mousePos.x/tileWidth();
+		int tileY = mousePos.y/tileHeight();
+		if (towerPreview.isCheckNeeded(tileX, tileY, imageName, model.getMoney())) {
+			towerPreview.setValid(model.canPlaceTower(mousePos.x, mousePos.y, imageName));
+		}
+		towerPreview.show(tileX * tileWidth(), tileY * tileHeight(), imageName,
+				model.getTowerRange(imageName), towerPreview.isValid());
 	}
 
 	@Override
@@ -340,8 +641,11 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		}
 	}
 
+	/**
+	 * Safe to call from the Swing thread
+	 */
 	public List<String> getPossibleTowers(){
-		return model.getPossibleTowers();
+		return snapshot.getPossibleTowers();
 	}
 
 	public void loadBlueprintFile(String fileName) throws ClassNotFoundException, IOException, ZipException {
@@ -364,12 +668,23 @@ public class TDPlayerEngine extends JGEngine implements Subject, ITDPlayerEngine
 		}
 	}
 
+	/**
+	 * Safe to call from the Swing thread
+	 */
 	public Map<String, String> getGameAttributes() {
+		return snapshot.getGameAttributes();
+	}
+
+	private Map<String, String> readGameAttributes() {
 		Map<String, String> gameStats = new HashMap<String, String>();
 		gameStats.put("Score", "Score: " + model.getScore());
 		gameStats.put("Lives", "Lives left: " + model.getPlayerLives());
 		gameStats.put("Money", "Money: " + model.getMoney());
 		gameStats.put("Time", "Game clock: " + model.getGameClock());
+		gameStats.put("Quality", "Quality: " + governor.getLevel());
+		gameStats.put("Allocation", allocationTracker.isSupported()
+				? "Ticks allocated: " + Math.round(allocationTracker.getBytesPerFrame()) + " bytes/frame"
+				: "Ticks allocated: not measured");
 		return gameStats;
 	}
 
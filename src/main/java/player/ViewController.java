@@ -65,6 +65,7 @@ public class ViewController implements Serializable {
 	public static final String SANS_SERIF_FONT = "SansSerif";
 	public static final String SPEED_UP_METHOD_NAME = "speedUp";
 	public static final String SLOW_DOWN_METHOD_NAME = "slowDown";
+	public static final String FAST_FORWARD_METHOD_NAME = "toggleFastForward";
 	public static final String TOGGLE_ADD_TOWER_METHOD_NAME = "toggleAddTower";
 	public static final String TOGGLE_SOUND_METHOD_NAME = "toggleSound";
 	public static final String TOGGLE_RUNNING_METHOD_NAME = "toggleRunning";
@@ -80,6 +81,7 @@ public class ViewController implements Serializable {
 	public static final String ADD_TOWER_TEXT = "ADD_TOWER_TEXT";
 	public static final String SLOW_DOWN_TEXT = "SLOW_DOWN_TEXT";
 	public static final String SPEED_UP_TEXT = "SPEED_UP_TEXT";
+	public static final String FAST_FORWARD_TEXT = "FAST_FORWARD_TEXT";
 	public static final String PLAY_PAUSE_TEXT = "PLAY_PAUSE_TEXT";
 	public static final String WELCOME_LABEL_TEXT = "WELCOME_LABEL_TEXT";
 	public static final String LOAD_GAME_TEXT = "LOAD_GAME_TEXT";
@@ -323,6 +325,9 @@ public class ViewController implements Serializable {
 		JButton slowDownButton = new JButton(myLanguageResources.getString(SLOW_DOWN_TEXT));
 		slowDownButton.addActionListener(new MethodAction (engine, SLOW_DOWN_METHOD_NAME));
 
+		JButton fastForwardButton = new JButton(myLanguageResources.getString(FAST_FORWARD_TEXT));
+		fastForwardButton.addActionListener(new MethodAction (engine, FAST_FORWARD_METHOD_NAME));
+
 		JButton quitButton = makeQuitButton();
 
 		JButton addTowerButton = new JButton(myLanguageResources.getString(ADD_TOWER_TEXT));
@@ -341,6 +346,7 @@ public class ViewController implements Serializable {
 		gameButtonPanel.add(playResumeButton);
 		gameButtonPanel.add(speedUpButton);
 		gameButtonPanel.add(slowDownButton);
+		gameButtonPanel.add(fastForwardButton);
 		gameButtonPanel.add(quitButton);
 		gameButtonPanel.add(soundButton);
 		gameButtonPanel.add(addTowerButton);
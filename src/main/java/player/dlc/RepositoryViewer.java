@@ -3,6 +3,7 @@ package main.java.player.dlc;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -25,7 +26,10 @@ import javax.swing.ListSelectionModel;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 
+import main.java.data.BlueprintManifest;
+import main.java.data.DataHandler;
 import main.java.player.ITDPlayerEngine;
+import net.lingala.zip4j.exception.ZipException;
 
 /**
  * AbstractAction that can create a panel to
@@ -123,13 +127,32 @@ public class RepositoryViewer {
 		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		list.addListSelectionListener(new ListSelectionListener() {
 			public void valueChanged(ListSelectionEvent e) {
-				descriptionArea.setText(dlc.get(list.getSelectedValue()).getDescription());
+				DLCData selected = dlc.get(list.getSelectedValue());
+				descriptionArea.setText(selected.getDescription() + describeDownloaded(selected.getFileName()));
 			}
 		}
 		);
 		return list;
 	}
 
+	/**
+	 * Reads the manifest of an already downloaded game, which is
+	 * cheap since nothing but the first archive entry is touched
+	 * @param fileName
+	 * @return summary of the game, or an empty string if it is not downloaded yet
+	 */
+	private String describeDownloaded(String fileName) {
+		if (!new File(DOWNLOADS_PATH + fileName).exists()) {
+			return "";
+		}
+		try {
+			BlueprintManifest manifest = new DataHandler().loadManifest(DOWNLOADS_PATH + fileName);
+			return (manifest == null) ? "" : "\n\n" + manifest;
+		} catch (ZipException e) {
+			return "";
+		}
+	}
+
 	private Map<String, DLCData> downloadDLC() {
 		InputStream inputStream = null;
 
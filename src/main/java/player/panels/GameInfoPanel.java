@@ -17,12 +17,16 @@ public class GameInfoPanel extends ObservingPanel{
 	public static final String LIFE = "Lives";
 	public static final String MONEY = "Money";
 	public static final String TIME = "Time";
+	public static final String QUALITY = "Quality";
+	public static final String ALLOCATION = "Allocation";
 
 	//private TDPlayerEngine engine;
 	private JLabel scoreLabel;
 	private JLabel lifeLabel;
 	private JLabel moneyLabel;
 	private JLabel timeLabel;
+	private JLabel qualityLabel;
+	private JLabel allocationLabel;
 
 	public GameInfoPanel(){
 		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
@@ -30,10 +34,14 @@ public class GameInfoPanel extends ObservingPanel{
 		lifeLabel = new JLabel("Lives: ");
 		moneyLabel = new JLabel("Money: ");
 		timeLabel = new JLabel("Time: ");
+		qualityLabel = new JLabel("Quality: ");
+		allocationLabel = new JLabel("Allocated: ");
 		add(scoreLabel);
 		add(lifeLabel);
 		add(moneyLabel);
 		add(timeLabel);
+		add(qualityLabel);
+		add(allocationLabel);
 	}
 
 	public void update() {		
@@ -42,6 +50,8 @@ public class GameInfoPanel extends ObservingPanel{
 		lifeLabel.setText(currentGameInfo.get(LIFE));
 		moneyLabel.setText(currentGameInfo.get(MONEY));
 		timeLabel.setText(currentGameInfo.get(TIME));
+		qualityLabel.setText(currentGameInfo.get(QUALITY));
+		allocationLabel.setText(currentGameInfo.get(ALLOCATION));
 	}
 
 
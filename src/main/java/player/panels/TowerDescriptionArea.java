@@ -14,6 +14,10 @@ public class TowerDescriptionArea extends ObservingPanel{
 
 	@Override
 	public void update() {
-		textArea.setText(engine.getCurrentTowerDescription());
+		String description = engine.getCurrentTowerDescription();
+		// replacing the text repaints the area, so only do it on change
+		if (description != null && !description.equals(textArea.getText())) {
+			textArea.setText(description);
+		}
 	}
 }
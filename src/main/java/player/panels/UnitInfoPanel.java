@@ -23,11 +23,14 @@ public class UnitInfoPanel extends ObservingPanel{
 	public void update() {		
 		List<String> unitInfoList = engine.getCurrentDescription();
 		if (!unitInfoList.isEmpty()) {
-			String unitInfo = "";
+			StringBuilder unitInfo = new StringBuilder();
 			for(String s: unitInfoList){
-				unitInfo += s + "\n";
+				unitInfo.append(s).append("\n");
+			}
+			// replacing the text repaints the area, so only do it on change
+			if (!unitInfo.toString().equals(unitInfoArea.getText())) {
+				unitInfoArea.setText(unitInfo.toString());
 			}
-			unitInfoArea.setText(unitInfo);
 		}
 	}
 }
\ No newline at end of file
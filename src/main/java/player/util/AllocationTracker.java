@@ -0,0 +1,90 @@
+package main.java.player.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes the game thread allocates in the part of each
+ * frame between frameStarted and frameFinished, using the JVM's per-thread
+ * allocation counter. The simulation ticks of a game whose monster count is
+ * stable should allocate nothing, since every allocation is garbage the
+ * collector has to pause the game for sooner or later. The number of bytes
+ * is smoothed over frames like QualityGovernor's load. On JVMs without the
+ * counter nothing is measured and isSupported returns false.
+ * @author Kevin
+ *
+ */
+
+public class AllocationTracker {
+	private static final double SMOOTHING = 0.1;
+
+	private com.sun.management.ThreadMXBean threads;
+	private long frameStartBytes;
+	private long lastFrameBytes;
+	private double bytesPerFrame;
+
+	public AllocationTracker() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (sunBean.isThreadAllocatedMemorySupported()) {
+				if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+					sunBean.setThreadAllocatedMemoryEnabled(true);
+				}
+				threads = sunBean;
+			}
+		}
+		reset();
+	}
+
+	/**
+	 * @return whether allocations can be measured on this JVM
+	 */
+	public boolean isSupported() {
+		return threads != null;
+	}
+
+	/**
+	 * @return total bytes allocated so far by the calling thread, or 0 if not supported
+	 */
+	public long getAllocatedBytes() {
+		if (threads == null) {
+			return 0;
+		}
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Must be called on the same thread as frameFinished
+	 */
+	public void frameStarted() {
+		frameStartBytes = getAllocatedBytes();
+	}
+
+	/**
+	 * Record the bytes allocated since frameStarted
+	 */
+	public void frameFinished() {
+		lastFrameBytes = getAllocatedBytes() - frameStartBytes;
+		bytesPerFrame += SMOOTHING * (lastFrameBytes - bytesPerFrame);
+	}
+
+	public void reset() {
+		frameStartBytes = getAllocatedBytes();
+		lastFrameBytes = 0;
+		bytesPerFrame = 0;
+	}
+
+	/**
+	 * @return bytes allocated during the last frame measured
+	 */
+	public long getLastFrameBytes() {
+		return lastFrameBytes;
+	}
+
+	/**
+	 * @return smoothed bytes allocated per frame
+	 */
+	public double getBytesPerFrame() {
+		return bytesPerFrame;
+	}
+}
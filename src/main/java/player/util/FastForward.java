@@ -0,0 +1,31 @@
+package main.java.player.util;
+
+/**
+ * Enumeration of the fast-forward modes, each running
+ * a number of simulation steps per rendered frame.
+ * Max runs as many steps as fit in the frame, up to
+ * its step count.
+ * @author Kevin
+ *
+ */
+
+public enum FastForward {
+	Normal(1), Double(2), Quadruple(4), Octuple(8), Max(32);
+
+	private int maxSteps;
+
+	private FastForward(int maxStepsInit) {
+		maxSteps = maxStepsInit;
+	}
+
+	public int getMaxSteps() {
+		return maxSteps;
+	}
+
+	/**
+	 * @return the next faster mode, wrapping around to Normal after Max
+	 */
+	public FastForward next() {
+		return values()[(ordinal() + 1) % values().length];
+	}
+}
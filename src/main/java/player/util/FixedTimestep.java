@@ -0,0 +1,57 @@
+package main.java.player.util;
+
+/**
+ * Accumulator that turns elapsed wall-clock time into a whole number of
+ * fixed-length simulation ticks, so game pace does not depend on how
+ * many frames per second the machine manages to render. The fraction
+ * of a tick left over is kept for the next frame and can be used to
+ * interpolate rendering between the last two ticks.
+ * @author Kevin
+ *
+ */
+
+public class FixedTimestep {
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private long lastTime;
+	private double accumulatedTicks;
+
+	public FixedTimestep() {
+		reset();
+	}
+
+	/**
+	 * Forget elapsed time, e.g. after the game was paused
+	 */
+	public void reset() {
+		lastTime = -1;
+		accumulatedTicks = 0;
+	}
+
+	/**
+	 * Accumulate the time elapsed since the previous call
+	 * @param nowNanos current time, from System.nanoTime()
+	 * @param ticksPerSecond simulation tick rate
+	 * @param maxTicks cap on catch-up ticks; further backlog is dropped
+	 * @return number of ticks to run now
+	 */
+	public int advance(long nowNanos, double ticksPerSecond, int maxTicks) {
+		if (lastTime < 0) {
+			lastTime = nowNanos;
+			accumulatedTicks = 1;
+		}
+		accumulatedTicks += (nowNanos - lastTime) / NANOS_PER_SECOND * ticksPerSecond;
+		lastTime = nowNanos;
+
+		int ticks = (int) accumulatedTicks;
+		accumulatedTicks -= ticks;
+		return Math.min(ticks, maxTicks);
+	}
+
+	/**
+	 * @return fraction of a tick that has elapsed since the last tick, in [0, 1)
+	 */
+	public double getAlpha() {
+		return accumulatedTicks;
+	}
+}
@@ -0,0 +1,56 @@
+package main.java.player.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only copy of what the Swing panels show, made on the game thread
+ * and handed to the Swing thread through a volatile reference. Since a
+ * snapshot never changes after it is made, panels can read it without
+ * locking and never see the game half way through a frame.
+ * @author Kevin
+ *
+ */
+
+public class FrameSnapshot {
+	private final Map<String, String> gameAttributes;
+	private final List<String> unitInfo;
+	private final String towerDescription;
+	private final List<String> possibleTowers;
+	private final double score;
+
+	public FrameSnapshot(Map<String, String> gameAttributesInit, List<String> unitInfoInit,
+			String towerDescriptionInit, List<String> possibleTowersInit, double scoreInit) {
+		gameAttributes = Collections.unmodifiableMap(new HashMap<String, String>(gameAttributesInit));
+		unitInfo = Collections.unmodifiableList(new ArrayList<String>(unitInfoInit));
+		towerDescription = towerDescriptionInit;
+		possibleTowers = Collections.unmodifiableList(new ArrayList<String>(possibleTowersInit));
+		score = scoreInit;
+	}
+
+	public Map<String, String> getGameAttributes() {
+		return gameAttributes;
+	}
+
+	/**
+	 * @return info on the unit the player last clicked, if the mouse is on the playfield
+	 */
+	public List<String> getUnitInfo() {
+		return unitInfo;
+	}
+
+	public String getTowerDescription() {
+		return towerDescription;
+	}
+
+	public List<String> getPossibleTowers() {
+		return possibleTowers;
+	}
+
+	public double getScore() {
+		return score;
+	}
+}
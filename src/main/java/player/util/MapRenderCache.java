@@ -0,0 +1,111 @@
+package main.java.player.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import jgame.platform.JGEngine;
+import main.java.engine.PathOverlay;
+
+/**
+ * Offscreen image of the parts of the map that only change now and then,
+ * drawn over the playfield every frame with a single image copy.
+ * Tile art is already kept in jgame's background buffer and only redrawn
+ * for changed tiles, so this holds the monsters' predicted paths, which
+ * used to be drawn oval by oval for every monster. Each tile on any path is
+ * marked once, bigger the more monsters are headed through it. The image is
+ * only redrawn when the PathOverlay's version or the display scale changes.
+ * Paths can be hidden altogether, which skips all of this work.
+ * @author Kevin
+ *
+ */
+
+public class MapRenderCache {
+	private static final int PATH_MARK_SIZE = 10;
+	private static final int PATH_MARK_GROWTH = 4;
+	private static final Color PATH_COLOR = Color.yellow;
+
+	private BufferedImage layer;
+	private PathOverlay drawnOverlay;
+	private int drawnVersion;
+	private double drawnXScale, drawnYScale;
+	private boolean pathsShown = true;
+
+	/**
+	 * Draw the cached layer onto the frame being painted, redrawing it first if it is stale.
+	 * Must be called from paintFrame.
+	 *
+	 * @param engine engine whose frame is being painted
+	 * @param overlay paths to show
+	 */
+	public void paint(JGEngine engine, PathOverlay overlay) {
+		Graphics frame = engine.getBufferGraphics();
+		if (frame == null || overlay == null || !pathsShown) {
+			return;
+		}
+		if (isStale(engine, overlay)) {
+			redraw(engine, overlay);
+		}
+		frame.drawImage(layer, (int) (-engine.viewXOfs() * drawnXScale),
+				(int) (-engine.viewYOfs() * drawnYScale), null);
+	}
+
+	public void setPathsShown(boolean shown) {
+		pathsShown = shown;
+	}
+
+	public boolean arePathsShown() {
+		return pathsShown;
+	}
+
+	/**
+	 * Forget the cached layer, e.g. when a new game is loaded
+	 */
+	public void invalidate() {
+		drawnOverlay = null;
+	}
+
+	private boolean isStale(JGEngine engine, PathOverlay overlay) {
+		return layer == null || overlay != drawnOverlay || overlay.getVersion() != drawnVersion
+				|| engine.getXScaleFactor() != drawnXScale || engine.getYScaleFactor() != drawnYScale;
+	}
+
+	private void redraw(JGEngine engine, PathOverlay overlay) {
+		drawnOverlay = overlay;
+		drawnVersion = overlay.getVersion();
+		drawnXScale = engine.getXScaleFactor();
+		drawnYScale = engine.getYScaleFactor();
+
+		int width = Math.max(1, (int) Math.ceil(engine.pfWidth() * drawnXScale));
+		int height = Math.max(1, (int) Math.ceil(engine.pfHeight() * drawnYScale));
+		if (layer == null || layer.getWidth() != width || layer.getHeight() != height) {
+			layer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		Graphics2D g = layer.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, width, height);
+		g.setComposite(AlphaComposite.SrcOver);
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setColor(PATH_COLOR);
+
+		int maxMarkSize = Math.min(engine.tileWidth(), engine.tileHeight());
+		for (int x = 0; x < overlay.getNumXTiles(); x++) {
+			for (int y = 0; y < overlay.getNumYTiles(); y++) {
+				int level = overlay.getTrafficLevel(x, y);
+				if (level > 0) {
+					int markSize = Math.min(maxMarkSize, PATH_MARK_SIZE + (level - 1) * PATH_MARK_GROWTH);
+					int markWidth = (int) (markSize * drawnXScale);
+					int markHeight = (int) (markSize * drawnYScale);
+					double centerX = (x + 0.5) * engine.tileWidth() * drawnXScale;
+					double centerY = (y + 0.5) * engine.tileHeight() * drawnYScale;
+					g.fillOval((int) (centerX - markWidth / 2.0), (int) (centerY - markHeight / 2.0),
+							markWidth, markHeight);
+				}
+			}
+		}
+		g.dispose();
+	}
+}
@@ -0,0 +1,145 @@
+package main.java.player.util;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+import jgame.JGObject;
+import jgame.impl.JGEngineInterface;
+
+/**
+ * Keeps the simulated positions of all objects apart from the positions
+ * they are drawn at. Before simulation ticks run, objects are put back
+ * at their simulated position; after the ticks, they are moved to a point
+ * between their positions before and after the last tick, so that motion
+ * looks smooth even when the frame and tick rates differ.
+ *
+ * Objects are kept in one snapshot of the engine's objects, with their
+ * positions in arrays by index, which is only taken again when objects
+ * were added or removed, so that ticks and frames do not allocate.
+ * @author Kevin
+ *
+ */
+
+public class PositionInterpolator {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private JGObject[] objects;
+	private double[] previousX;
+	private double[] previousY;
+	private double[] simulatedX;
+	private double[] simulatedY;
+	// suspended before the tick, like parked projectiles that may be launched again
+	private boolean[] previouslySuspended;
+	private int size;
+	// whether objects were moved away from the simulated positions
+	private boolean interpolated;
+
+	public PositionInterpolator() {
+		objects = new JGObject[INITIAL_CAPACITY];
+		previousX = new double[INITIAL_CAPACITY];
+		previousY = new double[INITIAL_CAPACITY];
+		simulatedX = new double[INITIAL_CAPACITY];
+		simulatedY = new double[INITIAL_CAPACITY];
+		previouslySuspended = new boolean[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Move every object back to its simulated position
+	 */
+	public void restoreSimulatedPositions() {
+		if (!interpolated) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			if (objects[i].isAlive()) {
+				objects[i].x = simulatedX[i];
+				objects[i].y = simulatedY[i];
+			}
+		}
+		interpolated = false;
+	}
+
+	/**
+	 * Record where objects are before a tick runs
+	 * @param engine
+	 */
+	public void beforeTick(JGEngineInterface engine) {
+		if (!isSnapshotCurrent(engine)) {
+			takeSnapshot(engine);
+		}
+		for (int i = 0; i < size; i++) {
+			previousX[i] = objects[i].x;
+			previousY[i] = objects[i].y;
+			previouslySuspended[i] = objects[i].isSuspended();
+		}
+	}
+
+	/**
+	 * Record the simulated positions, then move objects to where they
+	 * should be drawn. Objects added or resumed since the last tick started
+	 * have no previous position and are drawn where they are.
+	 * @param engine
+	 * @param alpha fraction of a tick elapsed since the last tick
+	 */
+	public void interpolate(JGEngineInterface engine, double alpha) {
+		for (int i = 0; i < size; i++) {
+			JGObject object = objects[i];
+			if (!object.isAlive()) {
+				continue;
+			}
+			simulatedX[i] = object.x;
+			simulatedY[i] = object.y;
+			if (previouslySuspended[i]) {
+				continue;
+			}
+			object.x = previousX[i] + (simulatedX[i] - previousX[i]) * alpha;
+			object.y = previousY[i] + (simulatedY[i] - previousY[i]) * alpha;
+		}
+		interpolated = true;
+	}
+
+	/**
+	 * Forget all positions, e.g. when a new game starts
+	 */
+	public void clear() {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+		interpolated = false;
+	}
+
+	/**
+	 * The snapshot still holds the engine's objects if none of them died
+	 * and the engine holds as many; an object added and one removed
+	 * leaves a dead one behind.
+	 */
+	private boolean isSnapshotCurrent(JGEngineInterface engine) {
+		for (int i = 0; i < size; i++) {
+			if (!objects[i].isAlive()) {
+				return false;
+			}
+		}
+		return engine.countObjects(null, 0) == size;
+	}
+
+	/**
+	 * Only called between frames' restore and interpolate, when all objects
+	 * are at their simulated positions, so no positions need carrying over
+	 */
+	private void takeSnapshot(JGEngineInterface engine) {
+		Vector<?> current = engine.getObjects(null, 0, true, null);
+		if (current.size() > objects.length) {
+			int capacity = Math.max(current.size(), objects.length * 2);
+			objects = new JGObject[capacity];
+			previousX = new double[capacity];
+			previousY = new double[capacity];
+			simulatedX = new double[capacity];
+			simulatedY = new double[capacity];
+			previouslySuspended = new boolean[capacity];
+		}
+		Arrays.fill(objects, 0, size, null);
+		size = current.size();
+		for (int i = 0; i < size; i++) {
+			objects[i] = (JGObject) current.get(i);
+		}
+	}
+}
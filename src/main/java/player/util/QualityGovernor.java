@@ -0,0 +1,119 @@
+package main.java.player.util;
+
+import java.util.ResourceBundle;
+
+/**
+ * Measures how long frames take and picks the QualityLevel that keeps
+ * the frame rate steady. Load is the time spent in doFrame as a fraction
+ * of the frame's time budget; overrun is the time between frames as a
+ * fraction of the budget, which also catches time lost painting.
+ * Both are smoothed. The level is lowered once load or overrun stays
+ * above its threshold for StepDownFrames frames, and raised again only
+ * after load stays below StepUpLoad for the longer StepUpFrames, so the
+ * level does not flip back and forth.
+ * @author Kevin
+ *
+ */
+
+public class QualityGovernor {
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double SMOOTHING = 0.1;
+
+	private double stepDownLoad;
+	private double stepUpLoad;
+	private double stepDownOverrun;
+	private int stepDownFrames;
+	private int stepUpFrames;
+
+	private QualityLevel level;
+	private double load;
+	private double overrun;
+	private long lastFrameStart;
+	private int framesOverloaded;
+	private int framesIdle;
+
+	/**
+	 * @param settings thresholds, see quality.properties
+	 */
+	public QualityGovernor(ResourceBundle settings) {
+		this(Double.parseDouble(settings.getString("StepDownLoad")),
+				Double.parseDouble(settings.getString("StepUpLoad")),
+				Double.parseDouble(settings.getString("StepDownOverrun")),
+				Integer.parseInt(settings.getString("StepDownFrames")),
+				Integer.parseInt(settings.getString("StepUpFrames")));
+	}
+
+	public QualityGovernor(double stepDownLoadInit, double stepUpLoadInit, double stepDownOverrunInit,
+			int stepDownFramesInit, int stepUpFramesInit) {
+		stepDownLoad = stepDownLoadInit;
+		stepUpLoad = stepUpLoadInit;
+		stepDownOverrun = stepDownOverrunInit;
+		stepDownFrames = stepDownFramesInit;
+		stepUpFrames = stepUpFramesInit;
+		level = QualityLevel.Full;
+		reset();
+	}
+
+	/**
+	 * Record a frame and adjust the quality level
+	 *
+	 * @param startNanos System.nanoTime() when the frame started
+	 * @param endNanos System.nanoTime() when the frame's work was done
+	 * @param frameRate target frames per second
+	 * @return whether the quality level changed
+	 */
+	public boolean frameMeasured(long startNanos, long endNanos, double frameRate) {
+		double budget = NANOS_PER_SECOND / frameRate;
+		load += SMOOTHING * ((endNanos - startNanos) / budget - load);
+		if (lastFrameStart != 0) {
+			overrun += SMOOTHING * ((startNanos - lastFrameStart) / budget - overrun);
+		}
+		lastFrameStart = startNanos;
+
+		if (load > stepDownLoad || overrun > stepDownOverrun) {
+			framesOverloaded++;
+			framesIdle = 0;
+		}
+		else if (load < stepUpLoad) {
+			framesIdle++;
+			framesOverloaded = 0;
+		}
+		else {
+			framesOverloaded = 0;
+			framesIdle = 0;
+		}
+
+		QualityLevel previous = level;
+		if (framesOverloaded >= stepDownFrames) {
+			level = level.lower();
+			framesOverloaded = 0;
+		}
+		else if (framesIdle >= stepUpFrames) {
+			level = level.higher();
+			framesIdle = 0;
+		}
+		return level != previous;
+	}
+
+	/**
+	 * Forget measurements, e.g. after the game was paused
+	 */
+	public void reset() {
+		load = 0;
+		overrun = 1;
+		lastFrameStart = 0;
+		framesOverloaded = 0;
+		framesIdle = 0;
+	}
+
+	public QualityLevel getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return smoothed fraction of the frame budget spent in doFrame
+	 */
+	public double getLoad() {
+		return load;
+	}
+}
@@ -0,0 +1,75 @@
+package main.java.player.util;
+
+/**
+ * Enumeration of the levels of optional visual work the player does,
+ * from everything (Full) to only what is needed to play (Minimal).
+ * Each level drops some work of the level above it.
+ * @author Kevin
+ *
+ */
+
+public enum QualityLevel {
+	Full(true, true, true, 1, 1),
+	Reduced(true, false, true, 1, 3),
+	Low(true, false, false, 2, 6),
+	Minimal(false, false, false, 4, 12);
+
+	// values() copies the array on every call
+	private static final QualityLevel[] LEVELS = values();
+
+	private boolean pathsShown;
+	private boolean fullHealthBarsShown;
+	private boolean decorationsShown;
+	private int towerGhostInterval;
+	private int observerInterval;
+
+	private QualityLevel(boolean pathsShownInit, boolean fullHealthBarsShownInit,
+			boolean decorationsShownInit, int towerGhostIntervalInit, int observerIntervalInit) {
+		pathsShown = pathsShownInit;
+		fullHealthBarsShown = fullHealthBarsShownInit;
+		decorationsShown = decorationsShownInit;
+		towerGhostInterval = towerGhostIntervalInit;
+		observerInterval = observerIntervalInit;
+	}
+
+	public boolean arePathsShown() {
+		return pathsShown;
+	}
+
+	public boolean areFullHealthBarsShown() {
+		return fullHealthBarsShown;
+	}
+
+	public boolean areDecorationsShown() {
+		return decorationsShown;
+	}
+
+	/**
+	 * @return number of frames between redraws of the tower ghost
+	 */
+	public int getTowerGhostInterval() {
+		return towerGhostInterval;
+	}
+
+	/**
+	 * @return how many times the shortest time between refreshes
+	 * of the observing panels to wait
+	 */
+	public int getObserverInterval() {
+		return observerInterval;
+	}
+
+	/**
+	 * @return the level doing less work, or this level if it is the lowest
+	 */
+	public QualityLevel lower() {
+		return LEVELS[Math.min(ordinal() + 1, LEVELS.length - 1)];
+	}
+
+	/**
+	 * @return the level doing more work, or this level if it is the highest
+	 */
+	public QualityLevel higher() {
+		return LEVELS[Math.max(ordinal() - 1, 0)];
+	}
+}
@@ -1,10 +1,16 @@
 package main.java.player.util;
 
+import jgame.JGColor;
 import jgame.JGObject;
 
 /**
  * A "tower ghost" that allows the player to 
- * visualize where they are about to place a tower
+ * visualize where they are about to place a tower,
+ * along with the tower's range. The range is drawn
+ * green if the tower can be placed there, red otherwise.
+ * 
+ * One ghost is moved around and hidden rather than
+ * creating a new one every frame (see TowerPreview).
  * 
  * This JGObject does not interact with anything else
  * in the JGEngine.
@@ -12,9 +18,58 @@ import jgame.JGObject;
  *
  */
 public class TowerGhost extends JGObject {
+	public static final String NAME = "TowerGhost";
+	private static final double RANGE_THICKNESS = 1;
+
+	private double range;
+	private boolean valid;
+	private boolean shown;
 	
 	public TowerGhost(double x, double y, String imageName) {
-		super("TowerGhost", false, x, y, 0, imageName);
-		//expiry = 1;
+		super(NAME, false, x, y, 0, imageName);
+		shown = true;
+	}
+
+	/**
+	 * Move the ghost and change what it shows
+	 * 
+	 * @param newX
+	 * @param newY
+	 * @param imageName image of the tower to be placed
+	 * @param newRange range of the tower
+	 * @param newValid whether the tower can be placed here
+	 */
+	public void update(double newX, double newY, String imageName, double newRange, boolean newValid) {
+		x = newX;
+		y = newY;
+		if (!shown || imageName == null || !imageName.equals(getImageName())) {
+			setImage(imageName);
+		}
+		range = newRange;
+		valid = newValid;
+		shown = true;
+	}
+
+	public void hide() {
+		setImage(null);
+		shown = false;
+	}
+
+	public boolean isShown() {
+		return shown;
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	@Override
+	public void paint() {
+		if (!shown || range <= 0) {
+			return;
+		}
+		JGColor color = valid ? JGColor.green : JGColor.red;
+		eng.drawOval(x + eng.tileWidth() / 2, y + eng.tileHeight() / 2, range * 2, range * 2,
+				false, true, RANGE_THICKNESS, color);
 	}
 }
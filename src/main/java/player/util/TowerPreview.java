@@ -0,0 +1,91 @@
+package main.java.player.util;
+
+/**
+ * Shows where a tower would be placed using a single TowerGhost,
+ * which is created the first time it is needed and then only moved,
+ * changed and hidden, so hovering never adds objects to the engine.
+ * Also remembers what the last placement check was for, so that the
+ * check only runs again when its outcome may have changed.
+ * @author Kevin
+ *
+ */
+
+public class TowerPreview {
+	private TowerGhost ghost;
+	private int checkedTileX = -1;
+	private int checkedTileY = -1;
+	private String checkedTowerName;
+	private double checkedMoney;
+	private boolean valid;
+
+	/**
+	 * Whether placing a tower at a tile must be checked again: the tile,
+	 * the tower or the money changed since the last check, or it was
+	 * invalidated. Remembers the tile, tower and money as checked.
+	 * 
+	 * @param tileX
+	 * @param tileY
+	 * @param towerName
+	 * @param money
+	 * @return true if the check must run, after which setValid is called
+	 */
+	public boolean isCheckNeeded(int tileX, int tileY, String towerName, double money) {
+		if (tileX == checkedTileX && tileY == checkedTileY && towerName.equals(checkedTowerName)
+				&& money == checkedMoney) {
+			return false;
+		}
+		checkedTileX = tileX;
+		checkedTileY = tileY;
+		checkedTowerName = towerName;
+		checkedMoney = money;
+		return true;
+	}
+
+	/**
+	 * @param newValid outcome of the last placement check
+	 */
+	public void setValid(boolean newValid) {
+		valid = newValid;
+	}
+
+	/**
+	 * @return outcome of the last placement check
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Make the next placement check run, e.g. after a tower was placed
+	 */
+	public void invalidate() {
+		checkedTileX = -1;
+		checkedTileY = -1;
+	}
+
+	/**
+	 * Show the ghost of a tower at a tile
+	 * 
+	 * @param x x coordinate of the tile
+	 * @param y y coordinate of the tile
+	 * @param imageName image of the tower
+	 * @param range range of the tower
+	 * @param valid whether the tower can be placed there
+	 */
+	public void show(double x, double y, String imageName, double range, boolean valid) {
+		if (ghost == null || !ghost.isAlive()) {
+			ghost = new TowerGhost(x, y, imageName);
+		}
+		ghost.update(x, y, imageName, range, valid);
+	}
+
+	public void hide() {
+		if (ghost != null) {
+			ghost.hide();
+		}
+	}
+
+	public boolean isShown() {
+		return ghost != null && ghost.isAlive() && ghost.isShown();
+	}
+}
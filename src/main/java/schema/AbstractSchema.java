@@ -1,5 +1,9 @@
 package main.java.schema;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,30 +13,44 @@ import java.util.Set;
 import main.java.exceptions.engine.InvalidParameterForConcreteTypeException;
 
 public abstract class AbstractSchema implements Serializable {
-	protected Map<String, Serializable> myAttributesMap;
-	protected Set<String> myAttributeSet;
+	private static final long serialVersionUID = 95054849909390434L;
+	// Blueprints saved before the compact format hold these two fields
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("myAttributesMap", Map.class),
+		new ObjectStreamField("myAttributeSet", Set.class)
+	};
+
+	// Both are backed by the AttributeKeyTable shared by all schemas of the same class,
+	// but names added to myAttributeSet are legal for this schema only
+	protected transient Map<String, Serializable> myAttributesMap;
+	protected transient Set<String> myAttributeSet;
 	// TODO: Ensure that types of values of myAttributesMap match.
 	// Perhaps make myAttributesSet into a map that maps name of attribute with type?
-	
+
 	protected AbstractSchema()	{
-		myAttributesMap = new HashMap<>();
-		myAttributeSet = new HashSet<>();
+		initAttributes();
 		myAttributeSet.addAll(populateAdditionalAttributes());
 	}
-	
+
+	private void initAttributes() {
+		AttributeKeyTable keys = AttributeKeyTable.forClass(getClass());
+		myAttributesMap = new AttributeMap(keys);
+		myAttributeSet = new LegalNameSet(keys);
+	}
+
 	/**
 	 * Return a set of strings representing all attributes for this specific object
 	 * subclass.
 	 */
 	protected abstract Set<String> populateAdditionalAttributes();
-	
+
 	/**
 	 * Add a new attribute and its value to the internal attributes map. Ensure
 	 * attribute has toString method.
-	 * 
+	 *
 	 * @param attributeName
 	 * @param attributeValue
-	 * @throws InvalidParameterForConcreteTypeException 
+	 * @throws InvalidParameterForConcreteTypeException
 	 */
 	public void addAttribute(String attributeName, Serializable attributeValue) {
         if (myAttributeSet.contains(attributeName)) {
@@ -46,12 +64,72 @@ public abstract class AbstractSchema implements Serializable {
         }
     }
 
+	/**
+	 * Get a single attribute without copying the attributes map.
+	 *
+	 * @param attributeName
+	 * @return value of the attribute, or null if it is not set
+	 */
+	public Serializable getAttribute(String attributeName) {
+		return myAttributesMap.get(attributeName);
+	}
+
 	/**
 	 * Get the internal map of attributes.
-	 * 
+	 *
 	 * @return copy of the attributes map
 	 */
 	public Map<String, Serializable> getAttributesMap() {
         return new HashMap<>(myAttributesMap);
 	}
+
+	/**
+	 * Writes the legal attribute names and the set attributes in place of
+	 * the old HashMap and HashSet. Names are the pooled sets' String
+	 * instances, so after the first schema they are written as back-references.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("myAttributesMap", null);
+		fields.put("myAttributeSet", null);
+		out.writeFields();
+
+		String[] legalNames = myAttributeSet.toArray(new String[0]);
+		out.writeInt(legalNames.length);
+		for (String name : legalNames) {
+			out.writeObject(name);
+		}
+		out.writeInt(myAttributesMap.size());
+		for (Map.Entry<String, Serializable> attribute : myAttributesMap.entrySet()) {
+			out.writeObject(attribute.getKey());
+			out.writeObject(attribute.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		Map<String, Serializable> legacyAttributes = (Map<String, Serializable>) fields.get("myAttributesMap", null);
+		Set<String> legacyNames = (Set<String>) fields.get("myAttributeSet", null);
+		initAttributes();
+
+		if (legacyAttributes != null) {
+			if (legacyNames != null) {
+				myAttributeSet.addAll(legacyNames);
+			}
+			myAttributesMap.putAll(legacyAttributes);
+			return;
+		}
+		int legalNameCount = in.readInt();
+		Set<String> legalNames = new HashSet<String>();
+		for (int i = 0; i < legalNameCount; i++) {
+			legalNames.add((String) in.readObject());
+		}
+		myAttributeSet.addAll(legalNames);
+		int attributes = in.readInt();
+		for (int i = 0; i < attributes; i++) {
+			String name = (String) in.readObject();
+			myAttributesMap.put(name, (Serializable) in.readObject());
+		}
+	}
 }
@@ -0,0 +1,101 @@
+package main.java.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Attribute names shared by every schema of one class. Pools the
+ * unmodifiable sets of legal attribute names, so schemas with the same
+ * names share one set, and gives each attribute name ever stored in such a
+ * schema a fixed index into the schemas' value arrays.
+ */
+class AttributeKeyTable {
+	private static final Map<Class<?>, AttributeKeyTable> TABLES =
+			new ConcurrentHashMap<Class<?>, AttributeKeyTable>();
+
+	private final ConcurrentMap<Set<String>, Set<String>> myLegalNameSets;
+	private final Map<String, Integer> myIndices;
+	private final List<String> myNames;
+
+	private AttributeKeyTable() {
+		myLegalNameSets = new ConcurrentHashMap<Set<String>, Set<String>>();
+		myIndices = new ConcurrentHashMap<String, Integer>();
+		myNames = new ArrayList<String>();
+	}
+
+	/**
+	 * @param schemaClass
+	 * @return the table shared by all schemas of the class
+	 */
+	static AttributeKeyTable forClass(Class<?> schemaClass) {
+		AttributeKeyTable table = TABLES.get(schemaClass);
+		if (table == null) {
+			synchronized (TABLES) {
+				table = TABLES.get(schemaClass);
+				if (table == null) {
+					table = new AttributeKeyTable();
+					TABLES.put(schemaClass, table);
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * @param names
+	 * @return an unmodifiable set equal to names, shared with every schema
+	 * of the class that has the same legal names
+	 */
+	Set<String> legalNames(Set<String> names) {
+		Set<String> pooled = myLegalNameSets.get(names);
+		if (pooled == null) {
+			pooled = Collections.unmodifiableSet(new HashSet<String>(names));
+			Set<String> raced = myLegalNameSets.putIfAbsent(pooled, pooled);
+			if (raced != null) {
+				pooled = raced;
+			}
+		}
+		return pooled;
+	}
+
+	/**
+	 * @param name
+	 * @return index of the name, or -1 if no schema of the class stored it yet
+	 */
+	int indexOf(Object name) {
+		Integer index = myIndices.get(name);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * @param name
+	 * @return index of the name, assigning the next free one if it is new
+	 */
+	int indexFor(String name) {
+		Integer index = myIndices.get(name);
+		if (index != null) {
+			return index;
+		}
+		synchronized (myNames) {
+			index = myIndices.get(name);
+			if (index == null) {
+				myNames.add(name);
+				index = myNames.size() - 1;
+				myIndices.put(name, index);
+			}
+			return index;
+		}
+	}
+
+	String nameAt(int index) {
+		synchronized (myNames) {
+			return myNames.get(index);
+		}
+	}
+}
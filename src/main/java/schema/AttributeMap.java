@@ -0,0 +1,140 @@
+package main.java.schema;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Attribute values of one schema, kept in an array indexed by the
+ * AttributeKeyTable of the schema's class instead of a HashMap per schema.
+ */
+class AttributeMap extends AbstractMap<String, Serializable> {
+	// Stands in for attributes explicitly set to null, so they still count as present
+	private static final Object NULL_VALUE = new Object();
+
+	private final AttributeKeyTable myKeys;
+	private Object[] myValues;
+	private int mySize;
+
+	AttributeMap(AttributeKeyTable keys) {
+		myKeys = keys;
+		myValues = new Object[0];
+	}
+
+	@Override
+	public Serializable get(Object name) {
+		Object value = valueAt(myKeys.indexOf(name));
+		return (value == NULL_VALUE) ? null : (Serializable) value;
+	}
+
+	@Override
+	public boolean containsKey(Object name) {
+		return valueAt(myKeys.indexOf(name)) != null;
+	}
+
+	@Override
+	public Serializable put(String name, Serializable value) {
+		int index = myKeys.indexFor(name);
+		if (index >= myValues.length) {
+			myValues = Arrays.copyOf(myValues, index + 1);
+		}
+		Object previous = myValues[index];
+		myValues[index] = (value == null) ? NULL_VALUE : value;
+		if (previous == null) {
+			mySize++;
+		}
+		return (previous == NULL_VALUE) ? null : (Serializable) previous;
+	}
+
+	@Override
+	public Serializable remove(Object name) {
+		int index = myKeys.indexOf(name);
+		Object previous = valueAt(index);
+		if (previous == null) {
+			return null;
+		}
+		myValues[index] = null;
+		mySize--;
+		return (previous == NULL_VALUE) ? null : (Serializable) previous;
+	}
+
+	@Override
+	public int size() {
+		return mySize;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(myValues, null);
+		mySize = 0;
+	}
+
+	private Object valueAt(int index) {
+		return (index < 0 || index >= myValues.length) ? null : myValues[index];
+	}
+
+	@Override
+	public Set<Map.Entry<String, Serializable>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Serializable>>() {
+			@Override
+			public Iterator<Map.Entry<String, Serializable>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return mySize;
+			}
+		};
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<String, Serializable>> {
+		private int myNext = advance(0);
+		private int myLast = -1;
+
+		private int advance(int from) {
+			while (from < myValues.length && myValues[from] == null) {
+				from++;
+			}
+			return from;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return myNext < myValues.length;
+		}
+
+		@Override
+		public Map.Entry<String, Serializable> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			myLast = myNext;
+			myNext = advance(myNext + 1);
+			final int index = myLast;
+			return new SimpleEntry<String, Serializable>(myKeys.nameAt(index), get(myKeys.nameAt(index))) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Serializable setValue(Serializable value) {
+					super.setValue(value);
+					return put(myKeys.nameAt(index), value);
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (myLast < 0 || myValues[myLast] == null) {
+				throw new IllegalStateException();
+			}
+			myValues[myLast] = null;
+			mySize--;
+		}
+	}
+}
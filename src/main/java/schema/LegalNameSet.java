@@ -0,0 +1,60 @@
+package main.java.schema;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The legal attribute names of one schema. Names added here are legal for
+ * this schema only; the names are kept in an unmodifiable set pooled by the
+ * AttributeKeyTable of the schema's class, which is swapped for another
+ * pooled set when names are added.
+ */
+class LegalNameSet extends AbstractSet<String> {
+	private final AttributeKeyTable myKeys;
+	private Set<String> myNames;
+
+	LegalNameSet(AttributeKeyTable keys) {
+		myKeys = keys;
+		myNames = keys.legalNames(new HashSet<String>());
+	}
+
+	@Override
+	public boolean contains(Object name) {
+		return myNames.contains(name);
+	}
+
+	@Override
+	public boolean add(String name) {
+		if (myNames.contains(name)) {
+			return false;
+		}
+		Set<String> names = new HashSet<String>(myNames);
+		names.add(name);
+		myNames = myKeys.legalNames(names);
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends String> added) {
+		if (myNames.containsAll(added)) {
+			return false;
+		}
+		Set<String> names = new HashSet<String>(myNames);
+		names.addAll(added);
+		myNames = myKeys.legalNames(names);
+		return true;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return myNames.iterator();
+	}
+
+	@Override
+	public int size() {
+		return myNames.size();
+	}
+}
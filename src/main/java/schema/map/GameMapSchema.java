@@ -1,17 +1,23 @@
 package main.java.schema.map;
 
 import main.java.schema.AbstractSchema;
+import main.java.schema.CanvasSchema;
 
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Wrapper for the tiles corresponding to a terrain map. MY_TILES takes a list
- * of TileSchemas and MY_TILEMAPS takes a list of TileMapSchemas
+ * Wrapper for the tiles corresponding to a terrain map. MY_TILE_LAYER takes a
+ * TileLayer and MY_TILEMAPS takes a list of TileMapSchemas. MY_TILES, a list
+ * of TileSchemas, is still read from blueprints saved before tile layers.
  */
 public class GameMapSchema extends AbstractSchema implements Serializable {
+    private static final long serialVersionUID = 6978076721316692854L;
     public static final String MY_TILES = "myTiles";
+    public static final String MY_TILE_LAYER = "myTileLayer";
     public static final String MY_TILEMAPS = "myTilemaps";
     public static final String MY_CANVAS_ATTRIBUTES = "myCanvasAttributes";
 
@@ -19,9 +25,34 @@ public class GameMapSchema extends AbstractSchema implements Serializable {
     protected Set<String> populateAdditionalAttributes() {
         Set<String> attributes = new HashSet<>();
         attributes.add(MY_TILES);
+        attributes.add(MY_TILE_LAYER);
         attributes.add(MY_TILEMAPS);
         attributes.add(MY_CANVAS_ATTRIBUTES);
         
         return attributes;
     }
+
+    /**
+     * Get the tiles of this map, converting the TileSchemas of older
+     * blueprints if no tile layer was saved.
+     *
+     * @return the tile layer, or null if the map has no tiles at all
+     */
+    @SuppressWarnings("unchecked")
+    public TileLayer getTileLayer() {
+        TileLayer tileLayer = (TileLayer) myAttributesMap.get(MY_TILE_LAYER);
+        if (tileLayer != null || myAttributesMap.get(MY_TILES) == null) {
+            return tileLayer;
+        }
+        int width = 0;
+        int height = 0;
+        CanvasSchema canvasSchema = (CanvasSchema) myAttributesMap.get(MY_CANVAS_ATTRIBUTES);
+        if (canvasSchema != null) {
+            Map<String, Serializable> canvasAttributes = canvasSchema.getAttributesMap();
+            width = canvasAttributes.get(CanvasSchema.X_TILES) == null ? 0 : (Integer) canvasAttributes.get(CanvasSchema.X_TILES);
+            height = canvasAttributes.get(CanvasSchema.Y_TILES) == null ? 0 : (Integer) canvasAttributes.get(CanvasSchema.Y_TILES);
+        }
+        return TileLayer.fromTileSchemas((List<TileSchema>) myAttributesMap.get(MY_TILES),
+                (List<TileMapSchema>) myAttributesMap.get(MY_TILEMAPS), width, height);
+    }
 }
@@ -0,0 +1,199 @@
+package main.java.schema.map;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact grid of the tiles on a map, stored in GameMapSchema under
+ * MY_TILE_LAYER in place of one TileSchema per tile. Each cell holds an
+ * index into a palette of tilemap file names, the index of the tile
+ * image within that tilemap (row * tilemap columns + column) and the
+ * tile's CID. Cells are stored row by row, and are run-length encoded
+ * when serialized since neighbouring tiles are usually the same.
+ */
+public class TileLayer implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public static final int EMPTY = -1;
+
+    private int myWidth;
+    private int myHeight;
+    private List<String> myPalette;
+    private transient int[] myTileMapIndices;
+    private transient int[] myTileIndices;
+    private transient int[] myCIDs;
+
+    /**
+     * Creates a layer with every cell empty
+     *
+     * @param width number of columns
+     * @param height number of rows
+     */
+    public TileLayer(int width, int height) {
+        myWidth = width;
+        myHeight = height;
+        myPalette = new ArrayList<>();
+        myTileMapIndices = new int[width * height];
+        myTileIndices = new int[width * height];
+        myCIDs = new int[width * height];
+        Arrays.fill(myTileMapIndices, EMPTY);
+    }
+
+    /**
+     * Converts the TileSchemas of a blueprint saved before tile layers existed
+     *
+     * @param tileSchemas tiles of the map
+     * @param tileMapSchemas tilemaps the tiles refer to
+     * @param width number of columns, or 0 to size the layer from the tiles
+     * @param height number of rows, or 0 to size the layer from the tiles
+     * @return layer with the same tiles
+     */
+    public static TileLayer fromTileSchemas(List<TileSchema> tileSchemas,
+            List<TileMapSchema> tileMapSchemas, int width, int height) {
+        for (TileSchema ts : tileSchemas) {
+            Map<String, Serializable> tsAttributeMap = ts.getAttributesMap();
+            width = Math.max(width, (Integer) tsAttributeMap.get(TileSchema.CANVAS_COL) + 1);
+            height = Math.max(height, (Integer) tsAttributeMap.get(TileSchema.CANVAS_ROW) + 1);
+        }
+        TileLayer layer = new TileLayer(width, height);
+        for (TileSchema ts : tileSchemas) {
+            Map<String, Serializable> tsAttributeMap = ts.getAttributesMap();
+            String tileMapFileName = (String) tsAttributeMap.get(TileSchema.TILEMAP_FILE_NAME);
+            Integer tileMapCols = findNumCols(tileMapSchemas, tileMapFileName);
+            if (tileMapCols == null) {
+                continue;
+            }
+            int tileIndex = (Integer) tsAttributeMap.get(TileSchema.TILEMAP_ROW) * tileMapCols
+                    + (Integer) tsAttributeMap.get(TileSchema.TILEMAP_COL);
+            layer.setTile((Integer) tsAttributeMap.get(TileSchema.CANVAS_COL),
+                    (Integer) tsAttributeMap.get(TileSchema.CANVAS_ROW),
+                    tileMapFileName, tileIndex, (Integer) tsAttributeMap.get(TileSchema.TILE_CID));
+        }
+        return layer;
+    }
+
+    private static Integer findNumCols(List<TileMapSchema> tileMapSchemas, String tileMapFileName) {
+        if (tileMapSchemas == null || tileMapFileName == null) {
+            return null;
+        }
+        for (TileMapSchema tms : tileMapSchemas) {
+            Map<String, Serializable> tmsAttributesMap = tms.getAttributesMap();
+            if (tileMapFileName.equals(tmsAttributesMap.get(TileMapSchema.TILEMAP_FILE_NAME))) {
+                return (Integer) tmsAttributesMap.get(TileMapSchema.NUM_COLS);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the tile at a cell
+     *
+     * @param col column of the cell
+     * @param row row of the cell
+     * @param tileMapFileName tilemap the tile image comes from
+     * @param tileIndex index of the tile image within the tilemap
+     * @param cid CID of the tile
+     */
+    public void setTile(int col, int row, String tileMapFileName, int tileIndex, int cid) {
+        int cell = row * myWidth + col;
+        myTileMapIndices[cell] = paletteIndexOf(tileMapFileName);
+        myTileIndices[cell] = tileIndex;
+        myCIDs[cell] = cid;
+    }
+
+    private int paletteIndexOf(String tileMapFileName) {
+        if (tileMapFileName == null) {
+            return EMPTY;
+        }
+        int index = myPalette.indexOf(tileMapFileName);
+        if (index == EMPTY) {
+            myPalette.add(tileMapFileName);
+            index = myPalette.size() - 1;
+        }
+        return index;
+    }
+
+    public int getWidth() {
+        return myWidth;
+    }
+
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * @return number of distinct tilemaps used by the layer
+     */
+    public int getPaletteSize() {
+        return myPalette.size();
+    }
+
+    /**
+     * @param paletteIndex
+     * @return tilemap file name at a palette index
+     */
+    public String getPaletteEntry(int paletteIndex) {
+        return myPalette.get(paletteIndex);
+    }
+
+    /**
+     * @return palette index of the cell's tilemap, or EMPTY if the cell has no tile
+     */
+    public int getTileMapIndex(int col, int row) {
+        return myTileMapIndices[row * myWidth + col];
+    }
+
+    public int getTileIndex(int col, int row) {
+        return myTileIndices[row * myWidth + col];
+    }
+
+    public int getCID(int col, int row) {
+        return myCIDs[row * myWidth + col];
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        writeRuns(out, myTileMapIndices);
+        writeRuns(out, myTileIndices);
+        writeRuns(out, myCIDs);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        myTileMapIndices = readRuns(in, myWidth * myHeight);
+        myTileIndices = readRuns(in, myWidth * myHeight);
+        myCIDs = readRuns(in, myWidth * myHeight);
+    }
+
+    private static void writeRuns(ObjectOutputStream out, int[] values) throws IOException {
+        int start = 0;
+        while (start < values.length) {
+            int end = start + 1;
+            while (end < values.length && values[end] == values[start]) {
+                end++;
+            }
+            out.writeInt(end - start);
+            out.writeInt(values[start]);
+            start = end;
+        }
+    }
+
+    private static int[] readRuns(ObjectInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        int start = 0;
+        while (start < length) {
+            int runLength = in.readInt();
+            if (runLength <= 0 || start + runLength > length) {
+                throw new IOException("Corrupt tile layer");
+            }
+            Arrays.fill(values, start, start + runLength, in.readInt());
+            start += runLength;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,109 @@
+package test.java.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One operation to time, with its fixture. BenchmarkRunner calls setUp()
+ * once, then setUpIteration(), run() as many times as fit in an iteration
+ * and tearDownIteration() for every iteration, then tearDown(). In
+ * SampleTime mode setUpOperation() is also called, untimed, before every run().
+ */
+public abstract class Benchmark {
+
+	/**
+	 * How the time of run() is measured
+	 */
+	public enum Mode {
+		/**
+		 * Mean time of many calls timed together, for operations of nanoseconds
+		 * to microseconds
+		 */
+		AverageTime,
+		/**
+		 * Every call timed on its own, for operations slow enough (e.g. I/O)
+		 * that latency percentiles are wanted
+		 */
+		SampleTime
+	}
+
+	private String name;
+	private String params;
+	private Map<String, Double> counters = new LinkedHashMap<String, Double>();
+
+	/**
+	 * @param nameInit what is measured, e.g. the method called
+	 * @param paramsInit the fixture's parameters, e.g. "monsters=1000"
+	 */
+	protected Benchmark(String nameInit, String paramsInit) {
+		name = nameInit;
+		params = paramsInit;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getParams() {
+		return params;
+	}
+
+	public Mode getMode() {
+		return Mode.AverageTime;
+	}
+
+	/**
+	 * @return whether the benchmark creates a JGEngine, which needs a display
+	 * even though nothing is shown
+	 */
+	public boolean needsDisplay() {
+		return false;
+	}
+
+	public void setUp() throws Exception {
+	}
+
+	public void setUpIteration() throws Exception {
+	}
+
+	/**
+	 * Prepare a single operation, e.g. delete the file it writes. Only called in SampleTime mode.
+	 */
+	public void setUpOperation() throws Exception {
+	}
+
+	/**
+	 * Do the operation once
+	 *
+	 * @return anything computed, so that the work is not optimized away
+	 */
+	public abstract Object run() throws Exception;
+
+	public void tearDownIteration() throws Exception {
+	}
+
+	public void tearDown() throws Exception {
+	}
+
+	/**
+	 * Add to a quantity reported per operation next to the time, e.g. bytes written
+	 */
+	protected void count(String counter, double amount) {
+		Double total = counters.get(counter);
+		counters.put(counter, (total == null ? 0 : total) + amount);
+	}
+
+	/**
+	 * @return the counters since the last call, which resets them
+	 */
+	Map<String, Double> takeCounters() {
+		Map<String, Double> taken = new LinkedHashMap<String, Double>(counters);
+		counters.clear();
+		return taken;
+	}
+
+	@Override
+	public String toString() {
+		return params.isEmpty() ? name : name + " [" + params + "]";
+	}
+}
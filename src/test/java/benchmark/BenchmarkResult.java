@@ -0,0 +1,79 @@
+package test.java.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measurements of one benchmark, as written to the results file. Times are
+ * in nanoseconds per operation.
+ */
+public class BenchmarkResult {
+	String name;
+	String params;
+	String mode;
+	String skipped;
+	long operations;
+	double meanNanos;
+	// standard deviation of the iterations' means
+	double errorNanos;
+	double operationsPerSecond;
+	double p50Nanos;
+	double p90Nanos;
+	double p99Nanos;
+	double maxNanos;
+	double bytesPerOperation;
+	double allocatedMBPerSecond;
+	long gcCount;
+	long gcMillis;
+	Map<String, Double> countersPerOperation = new LinkedHashMap<String, Double>();
+
+	BenchmarkResult(Benchmark benchmark) {
+		name = benchmark.getName();
+		params = benchmark.getParams();
+		mode = benchmark.getMode().name();
+	}
+
+	/**
+	 * @return name and parameters, which identify the benchmark across runs
+	 */
+	public String getKey() {
+		return params.isEmpty() ? name : name + " [" + params + "]";
+	}
+
+	public boolean isSkipped() {
+		return skipped != null;
+	}
+
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	public double getErrorNanos() {
+		return errorNanos;
+	}
+
+	public double getBytesPerOperation() {
+		return bytesPerOperation;
+	}
+
+	public Map<String, Double> getCountersPerOperation() {
+		return countersPerOperation;
+	}
+
+	@Override
+	public String toString() {
+		if (isSkipped()) {
+			return String.format("%-60s skipped: %s", getKey(), skipped);
+		}
+		StringBuilder line = new StringBuilder(String.format("%-60s %14.1f +- %10.1f ns/op %12.1f B/op",
+				getKey(), meanNanos, errorNanos, bytesPerOperation));
+		if (Benchmark.Mode.SampleTime.name().equals(mode)) {
+			line.append(String.format("  %.1f ops/s  p50 %.0f p90 %.0f p99 %.0f max %.0f", operationsPerSecond,
+					p50Nanos, p90Nanos, p99Nanos, maxNanos));
+		}
+		for (Map.Entry<String, Double> counter : countersPerOperation.entrySet()) {
+			line.append(String.format("  %s %.1f/op", counter.getKey(), counter.getValue()));
+		}
+		return line.toString();
+	}
+}
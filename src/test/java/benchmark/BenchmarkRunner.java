@@ -0,0 +1,400 @@
+package test.java.benchmark;
+
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import main.java.player.util.AllocationTracker;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Runs benchmarks the way JMH would: warm-up iterations to let the JIT
+ * compile the code, then measured iterations of a fixed duration, reporting
+ * time per operation with its error and the bytes allocated per operation.
+ * Results can be written to a JSON file and compared with an earlier run.
+ *
+ * <pre>
+ * BenchmarkRunner [regex] [--out results.json] [--prof gc] [--warmup n] [--iterations n] [--time ms]
+ * BenchmarkRunner compare old.json new.json [threshold percent]
+ * </pre>
+ */
+public class BenchmarkRunner {
+	private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+	private static final long NANOS_PER_MILLI = 1000000;
+	// batches of a few milliseconds keep the clock out of short operations' times
+	private static final long BATCH_NANOS = NANOS_PER_MILLI;
+
+	private int warmupIterations = 5;
+	private int measurementIterations = 10;
+	private long iterationNanos = 500 * NANOS_PER_MILLI;
+	private boolean profileGC;
+	private AllocationTracker allocations = new AllocationTracker();
+	// results are written here so the JIT cannot drop the work that made them
+	private volatile Object sink;
+
+	public BenchmarkRunner setIterations(int warmup, int measurement) {
+		warmupIterations = warmup;
+		measurementIterations = measurement;
+		return this;
+	}
+
+	public BenchmarkRunner setIterationMillis(long millis) {
+		iterationNanos = millis * NANOS_PER_MILLI;
+		return this;
+	}
+
+	/**
+	 * Also report collections and time spent collecting during measurement
+	 */
+	public BenchmarkRunner setProfileGC(boolean profile) {
+		profileGC = profile;
+		return this;
+	}
+
+	/**
+	 * Run benchmarks one after another, printing each result as it is measured
+	 */
+	public List<BenchmarkResult> run(List<Benchmark> benchmarks) {
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		for (Benchmark benchmark : benchmarks) {
+			BenchmarkResult result = run(benchmark);
+			System.out.println(result);
+			results.add(result);
+		}
+		return results;
+	}
+
+	public BenchmarkResult run(Benchmark benchmark) {
+		BenchmarkResult result = new BenchmarkResult(benchmark);
+		if (benchmark.needsDisplay() && GraphicsEnvironment.isHeadless()) {
+			result.skipped = "needs a display";
+			return result;
+		}
+		try {
+			benchmark.setUp();
+			try {
+				measure(benchmark, result);
+			}
+			finally {
+				benchmark.tearDown();
+			}
+		}
+		catch (Exception e) {
+			result.skipped = "failed: " + e;
+		}
+		return result;
+	}
+
+	private void measure(Benchmark benchmark, BenchmarkResult result) throws Exception {
+		boolean sampled = benchmark.getMode() == Benchmark.Mode.SampleTime;
+		int batchSize = 1;
+		for (int i = 0; i < warmupIterations; i++) {
+			benchmark.setUpIteration();
+			if (sampled) {
+				sampleIteration(benchmark, new LongList());
+			}
+			else {
+				batchSize = calibrate(benchmark, batchSize);
+				timeIteration(benchmark, batchSize);
+			}
+			benchmark.tearDownIteration();
+		}
+		benchmark.takeCounters();
+
+		double[] iterationMeans = new double[measurementIterations];
+		LongList samples = new LongList();
+		long totalNanos = 0;
+		long totalBytes = 0;
+		long gcCount = -gcCount();
+		long gcMillis = -gcMillis();
+		for (int i = 0; i < measurementIterations; i++) {
+			benchmark.setUpIteration();
+			long startBytes = allocations.getAllocatedBytes();
+			long[] timed = sampled ? sampleIteration(benchmark, samples) : timeIteration(benchmark, batchSize);
+			totalBytes += allocations.getAllocatedBytes() - startBytes;
+			benchmark.tearDownIteration();
+			result.operations += timed[0];
+			totalNanos += timed[1];
+			iterationMeans[i] = (double) timed[1] / timed[0];
+		}
+		gcCount += gcCount();
+		gcMillis += gcMillis();
+
+		result.meanNanos = (double) totalNanos / result.operations;
+		result.errorNanos = standardDeviation(iterationMeans);
+		result.operationsPerSecond = 1e9 / result.meanNanos;
+		result.bytesPerOperation = allocations.isSupported() ? (double) totalBytes / result.operations : -1;
+		result.allocatedMBPerSecond = totalBytes / (totalNanos / 1e9) / (1 << 20);
+		if (sampled) {
+			long[] sorted = samples.toSortedArray();
+			result.p50Nanos = percentile(sorted, 0.5);
+			result.p90Nanos = percentile(sorted, 0.9);
+			result.p99Nanos = percentile(sorted, 0.99);
+			result.maxNanos = sorted[sorted.length - 1];
+		}
+		if (profileGC) {
+			result.gcCount = gcCount;
+			result.gcMillis = gcMillis;
+		}
+		for (Map.Entry<String, Double> counter : benchmark.takeCounters().entrySet()) {
+			result.countersPerOperation.put(counter.getKey(), counter.getValue() / result.operations);
+		}
+	}
+
+	/**
+	 * @return number of operations in a batch that takes about BATCH_NANOS
+	 */
+	private int calibrate(Benchmark benchmark, int batchSize) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < batchSize; i++) {
+			sink = benchmark.run();
+		}
+		long nanos = Math.max(1, System.nanoTime() - start);
+		return (int) Math.max(1, Math.min(1 << 20, batchSize * BATCH_NANOS / nanos));
+	}
+
+	/**
+	 * @return operations run and the nanoseconds they took
+	 */
+	private long[] timeIteration(Benchmark benchmark, int batchSize) throws Exception {
+		long operations = 0;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			for (int i = 0; i < batchSize; i++) {
+				sink = benchmark.run();
+			}
+			operations += batchSize;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < iterationNanos);
+		return new long[] { operations, elapsed };
+	}
+
+	private long[] sampleIteration(Benchmark benchmark, LongList samples) throws Exception {
+		long operations = 0;
+		long total = 0;
+		do {
+			benchmark.setUpOperation();
+			long start = System.nanoTime();
+			sink = benchmark.run();
+			long nanos = System.nanoTime() - start;
+			samples.add(nanos);
+			total += nanos;
+			operations++;
+		} while (total < iterationNanos);
+		return new long[] { operations, total };
+	}
+
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	private static long gcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+
+	private static double standardDeviation(double[] values) {
+		if (values.length < 2) {
+			return 0;
+		}
+		double mean = 0;
+		for (double value : values) {
+			mean += value / values.length;
+		}
+		double squares = 0;
+		for (double value : values) {
+			squares += (value - mean) * (value - mean);
+		}
+		return Math.sqrt(squares / (values.length - 1));
+	}
+
+	private static double percentile(long[] sorted, double fraction) {
+		return sorted[(int) Math.min(sorted.length - 1, Math.floor(fraction * sorted.length))];
+	}
+
+	/**
+	 * Write results with the machine they were measured on, so runs can be compared later
+	 */
+	public static void writeResults(List<BenchmarkResult> results, File file) throws IOException {
+		RunInfo run = new RunInfo();
+		run.javaVersion = System.getProperty("java.version");
+		run.javaVM = System.getProperty("java.vm.name");
+		run.os = System.getProperty("os.name") + " " + System.getProperty("os.arch");
+		run.processors = Runtime.getRuntime().availableProcessors();
+		run.maxHeapMB = Runtime.getRuntime().maxMemory() >> 20;
+		run.date = new Date().toString();
+		run.results = results;
+		Writer writer = new FileWriter(file);
+		try {
+			new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(run, writer);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	public static List<BenchmarkResult> readResults(File file) throws IOException {
+		Reader reader = new FileReader(file);
+		try {
+			return new Gson().fromJson(reader, RunInfo.class).results;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Print the change in time per operation of every benchmark in both runs
+	 *
+	 * @param thresholdPercent slow-downs larger than this, and than the error of
+	 * both runs, are reported as regressions
+	 * @return number of regressions
+	 */
+	public static int compare(List<BenchmarkResult> oldResults, List<BenchmarkResult> newResults,
+			double thresholdPercent) {
+		Map<String, BenchmarkResult> oldByKey = new LinkedHashMap<String, BenchmarkResult>();
+		for (BenchmarkResult result : oldResults) {
+			oldByKey.put(result.getKey(), result);
+		}
+		int regressions = 0;
+		for (BenchmarkResult result : newResults) {
+			BenchmarkResult old = oldByKey.get(result.getKey());
+			if (old == null || old.isSkipped() || result.isSkipped()) {
+				continue;
+			}
+			double change = 100 * (result.getMeanNanos() - old.getMeanNanos()) / old.getMeanNanos();
+			boolean regressed = change > thresholdPercent
+					&& result.getMeanNanos() - old.getMeanNanos() > result.getErrorNanos() + old.getErrorNanos();
+			if (regressed) {
+				regressions++;
+			}
+			StringBuilder line = new StringBuilder(String.format("%-60s %14.1f -> %14.1f ns/op %+7.1f%%  %10.1f -> %10.1f B/op",
+					result.getKey(), old.getMeanNanos(), result.getMeanNanos(), change,
+					old.getBytesPerOperation(), result.getBytesPerOperation()));
+			for (Map.Entry<String, Double> counter : result.getCountersPerOperation().entrySet()) {
+				Double oldValue = old.getCountersPerOperation().get(counter.getKey());
+				if (oldValue != null) {
+					line.append(String.format("  %s %.1f -> %.1f", counter.getKey(), oldValue, counter.getValue()));
+				}
+			}
+			System.out.println(line.append(regressed ? "  REGRESSION" : ""));
+		}
+		return regressions;
+	}
+
+	/**
+	 * @return every benchmark of the suites
+	 */
+	public static List<Benchmark> allBenchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.addAll(EngineBenchmarks.create());
+		benchmarks.addAll(DataHandlerBenchmarks.create());
+		return benchmarks;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length > 0 && args[0].equals("compare")) {
+			double threshold = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_THRESHOLD_PERCENT;
+			int regressions = compare(readResults(new File(args[1])), readResults(new File(args[2])), threshold);
+			System.out.println(regressions + " regression(s)");
+			System.exit(regressions == 0 ? 0 : 1);
+		}
+
+		BenchmarkRunner runner = new BenchmarkRunner();
+		Pattern filter = null;
+		File out = null;
+		List<String> arguments = Arrays.asList(args);
+		for (int i = 0; i < arguments.size(); i++) {
+			String argument = arguments.get(i);
+			if (argument.equals("--out")) {
+				out = new File(arguments.get(++i));
+			}
+			else if (argument.equals("--prof")) {
+				runner.setProfileGC(arguments.get(++i).equals("gc"));
+			}
+			else if (argument.equals("--warmup")) {
+				runner.warmupIterations = Integer.parseInt(arguments.get(++i));
+			}
+			else if (argument.equals("--iterations")) {
+				runner.measurementIterations = Integer.parseInt(arguments.get(++i));
+			}
+			else if (argument.equals("--time")) {
+				runner.setIterationMillis(Long.parseLong(arguments.get(++i)));
+			}
+			else {
+				filter = Pattern.compile(argument);
+			}
+		}
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Benchmark benchmark : allBenchmarks()) {
+			if (filter == null || filter.matcher(benchmark.toString()).find()) {
+				benchmarks.add(benchmark);
+			}
+		}
+		List<BenchmarkResult> results = runner.run(benchmarks);
+		if (out != null) {
+			writeResults(results, out);
+		}
+		// engines leave jgame's threads behind
+		System.exit(0);
+	}
+
+	/**
+	 * Contents of a results file
+	 */
+	private static class RunInfo {
+		String javaVersion;
+		String javaVM;
+		String os;
+		int processors;
+		long maxHeapMB;
+		String date;
+		List<BenchmarkResult> results;
+	}
+
+	/**
+	 * Growable list of samples that does not box them, so sampling allocates
+	 * as little as possible between operations
+	 */
+	private static class LongList {
+		private long[] values = new long[1024];
+		private int size;
+
+		void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		long[] toSortedArray() {
+			long[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package test.java.benchmark;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import main.java.author.view.tabs.terrain.TerrainAttribute;
+import main.java.engine.EnvironmentKnowledge;
+import main.java.engine.LevelManager;
+import main.java.engine.Model;
+import main.java.engine.PathfinderManager;
+import main.java.engine.factory.AssetLoader;
+import main.java.engine.factory.TDObjectFactory;
+import main.java.engine.host.MatchEngine;
+import main.java.engine.map.TDMap;
+import main.java.engine.objects.Exit;
+import main.java.engine.objects.monster.Monster;
+import main.java.engine.objects.monster.jgpathfinder.JGPathfinderHeuristic;
+import main.java.engine.objects.monster.jgpathfinder.JGTileMap;
+import main.java.engine.objects.tower.ITower;
+import main.java.engine.scenario.Scenario;
+import main.java.schema.CanvasSchema;
+import main.java.schema.GameBlueprint;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
+import main.java.schema.tdobjects.TDObjectSchema;
+
+/**
+ * The parts of a Model that the engine benchmarks time, built from a
+ * generated scenario on a MatchEngine, with monsters and towers placed
+ * directly instead of through waves and clicks. Needs a display, like
+ * every JGEngine.
+ */
+public class BenchmarkWorld {
+	private Scenario scenario;
+	private MatchEngine engine;
+	private TDObjectFactory factory;
+	private TDMap map;
+	private PathfinderManager pathfinderManager;
+	private LevelManager levelManager;
+	private List<Monster> monsters = new ArrayList<Monster>();
+	private ITower[][] towers;
+	private Random random;
+
+	public BenchmarkWorld(Scenario scenarioInit, long seed) {
+		scenario = scenarioInit;
+		random = new Random(seed);
+		GameBlueprint blueprint = scenario.getBlueprint();
+		GameMapSchema mapSchema = blueprint.getMyGameMapSchemas().get(0);
+		Map<String, Serializable> canvas =
+				((CanvasSchema) mapSchema.getAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES)).getAttributesMap();
+		engine = new MatchEngine((Integer) canvas.get(CanvasSchema.X_TILES),
+				(Integer) canvas.get(CanvasSchema.Y_TILES));
+		engine.setSeed(seed);
+		engine.defineImage(Exit.NAME, "-", 1, Model.RESOURCE_PATH + Exit.IMAGE_NAME, "-");
+
+		AssetLoader assetLoader = new AssetLoader(engine);
+		factory = new TDObjectFactory(engine, assetLoader);
+		factory.loadTowerSchemas(blueprint.getMyTowerSchemas());
+		factory.loadMonsterSchemas(blueprint.getMyMonsterSchemas());
+		factory.loadRequestedImages();
+		map = new TDMap(engine, mapSchema, assetLoader);
+
+		pathfinderManager = new PathfinderManager(new JGTileMap(engine), new JGPathfinderHeuristic());
+		levelManager = new LevelManager(factory, pathfinderManager);
+		levelManager.setEntrance((Integer) canvas.get(CanvasSchema.ENTRY_COL) * engine.tileWidth(),
+				(Integer) canvas.get(CanvasSchema.ENTRY_ROW) * engine.tileHeight());
+		levelManager.setExit((Integer) canvas.get(CanvasSchema.EXIT_COL) * engine.tileWidth(),
+				(Integer) canvas.get(CanvasSchema.EXIT_ROW) * engine.tileHeight());
+		towers = new ITower[engine.viewTilesX()][engine.viewTilesY()];
+		engine.addAndRemoveObjects();
+	}
+
+	/**
+	 * Place the scenario's towers, blocking their tiles as Model does
+	 */
+	public void placeTowers() throws Exception {
+		for (Scenario.TowerPlacement placement : scenario.getTowers()) {
+			int x = placement.getXTile();
+			int y = placement.getYTile();
+			towers[x][y] = factory.placeTower(new Point2D.Double((x + 0.5) * engine.tileWidth(),
+					(y + 0.5) * engine.tileHeight()), placement.getTowerName());
+			map.setTileCID(x, y, TerrainAttribute.Unwalkable.getIndex());
+		}
+		pathfinderManager.mapChanged();
+		engine.addAndRemoveObjects();
+	}
+
+	/**
+	 * Place monsters of the scenario's first kind on random walkable tiles
+	 *
+	 * @param count number of monsters to add
+	 */
+	public void placeMonsters(int count) throws Exception {
+		TileLayer tiles = scenario.getBlueprint().getMyGameMapSchemas().get(0).getTileLayer();
+		String monsterName = getMonsterName();
+		for (int i = 0; i < count; i++) {
+			Monster monster = factory.placeMonster(new Point2D.Double(0, 0), levelManager.getExit(),
+					pathfinderManager, monsterName);
+			int x, y;
+			do {
+				x = random.nextInt(tiles.getWidth());
+				y = random.nextInt(tiles.getHeight());
+			} while (tiles.getCID(x, y) == TerrainAttribute.Unwalkable.getIndex() || towers[x][y] != null);
+			monster.setPos(x * engine.tileWidth(), y * engine.tileHeight());
+			monsters.add(monster);
+		}
+		engine.addAndRemoveObjects();
+	}
+
+	/**
+	 * @return name of the scenario's first kind of monster
+	 */
+	public String getMonsterName() {
+		return (String) scenario.getBlueprint().getMyMonsterSchemas().get(0).getAttribute(TDObjectSchema.NAME);
+	}
+
+	public EnvironmentKnowledge getEnvironmentKnowledge() {
+		return new EnvironmentKnowledge(monsters, null, towers, levelManager.getExit());
+	}
+
+	public MatchEngine getEngine() {
+		return engine;
+	}
+
+	public TDObjectFactory getFactory() {
+		return factory;
+	}
+
+	public PathfinderManager getPathfinderManager() {
+		return pathfinderManager;
+	}
+
+	public LevelManager getLevelManager() {
+		return levelManager;
+	}
+
+	public List<Monster> getMonsters() {
+		return monsters;
+	}
+
+	/**
+	 * @return a random point on the map, in pixels
+	 */
+	public Point2D randomPoint() {
+		return new Point2D.Double(random.nextDouble() * engine.pfWidth(), random.nextDouble() * engine.pfHeight());
+	}
+
+	/**
+	 * Remove the engine, so that another world can be created
+	 */
+	public void destroy() {
+		engine.removeObjects(null, 0);
+		engine.destroy();
+	}
+}
@@ -0,0 +1,402 @@
+package test.java.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import main.java.data.BlueprintCache;
+import main.java.data.DataHandler;
+import main.java.engine.GameState;
+import main.java.engine.Player;
+import main.java.engine.objects.tower.ITower;
+import main.java.engine.objects.tower.TowerBehaviors;
+import main.java.engine.scenario.ScenarioGenerator;
+import main.java.schema.GameBlueprint;
+import main.java.schema.GameSchema;
+
+/**
+ * Benchmarks of saving and loading blueprints, saved games and resources,
+ * on generated blueprints and asset folders of three sizes. Every operation
+ * is timed on its own, for latency percentiles, and the bytes it writes are
+ * counted so that storage formats can be compared.
+ *
+ * Cold cases clear DataHandler's blueprint cache and read a fresh copy of
+ * the file for every operation, so no cache has seen it read. The copy is
+ * still in the page cache from being written; with
+ * -Dbenchmark.dropPageCache=true the page cache is also dropped before
+ * every operation, which needs root on Linux and affects the whole machine.
+ * The pageCacheDropped counter tells whether that happened. Warm cases read
+ * files that were just read, and the warm loadBlueprint case is served from
+ * DataHandler's blueprint cache, so it is labelled cache=hit.
+ *
+ * Must be run from the repository root: saveBlueprint zips, and
+ * loadBlueprint extracts to, the resources folder there.
+ */
+public class DataHandlerBenchmarks {
+	private static final long SEED = 42;
+	private static final String RESOURCES_PATH = "src/main/resources";
+	private static final String DROP_CACHES_PATH = "/proc/sys/vm/drop_caches";
+	private static final String DROP_PAGE_CACHE_PROPERTY = "benchmark.dropPageCache";
+	private static final String BYTES_WRITTEN = "bytesWritten";
+	// size of the file read, whether or not a cache spared reading it
+	private static final String FILE_BYTES = "fileBytes";
+	private static final String PAGE_CACHE_DROPPED = "pageCacheDropped";
+
+	/**
+	 * Sizes of the generated blueprints and asset folders
+	 */
+	enum Size {
+		small(ScenarioGenerator.small(), 10, 16),
+		medium(ScenarioGenerator.largeMaze().setWaves(20, 100), 100, 64),
+		huge(new ScenarioGenerator().setMapSize(200, 150).setMazeDensity(0.45)
+				.setTowerMix(TowerBehaviors.values()).setWaves(100, 1000).setResurrection(4, 3), 200, 256);
+
+		private ScenarioGenerator generator;
+		private int assetFiles;
+		private int assetKB;
+
+		private Size(ScenarioGenerator generatorInit, int assetFilesInit, int assetKBInit) {
+			generator = generatorInit;
+			assetFiles = assetFilesInit;
+			assetKB = assetKBInit;
+		}
+	}
+
+	/**
+	 * @return the DataHandler benchmarks, for every size and cache state
+	 */
+	public static List<Benchmark> create() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Size size : Size.values()) {
+			benchmarks.add(saveBlueprint(size));
+			benchmarks.add(loadBlueprint(size, true));
+			benchmarks.add(loadBlueprint(size, false));
+			benchmarks.add(saveState(size));
+			benchmarks.add(loadState(size, true));
+			benchmarks.add(loadState(size, false));
+		}
+		for (Size size : Size.values()) {
+			benchmarks.add(compressResources(size));
+			benchmarks.add(decompress(size, true));
+			benchmarks.add(decompress(size, false));
+		}
+		return benchmarks;
+	}
+
+	static Benchmark saveBlueprint(final Size size) {
+		return new IOBenchmark("DataHandler.saveBlueprint", "blueprint=" + size) {
+			private GameBlueprint blueprint;
+			private File file;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				blueprint = size.generator.generate(SEED).getBlueprint();
+				file = new File(directory, "blueprint.zip");
+			}
+
+			@Override
+			public void setUpOperation() {
+				file.delete();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				boolean saved = dataHandler.saveBlueprint(blueprint, file.getPath());
+				count(BYTES_WRITTEN, file.length());
+				return saved;
+			}
+		};
+	}
+
+	static Benchmark loadBlueprint(final Size size, final boolean cold) {
+		return new IOBenchmark("DataHandler.loadBlueprint",
+				"blueprint=" + size + " cache=" + (cold ? "cold" : "hit")) {
+			private File file;
+			private File read;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				file = new File(directory, "blueprint.zip");
+				dataHandler.saveBlueprint(size.generator.generate(SEED).getBlueprint(), file.getPath());
+				read = file;
+			}
+
+			@Override
+			public void setUpOperation() throws Exception {
+				if (cold) {
+					clearBlueprintCache();
+					read = coldCopy(file);
+				}
+			}
+
+			@Override
+			public Object run() throws Exception {
+				GameBlueprint blueprint = dataHandler.loadBlueprint(read.getPath(), true);
+				count(FILE_BYTES, read.length());
+				return blueprint;
+			}
+		};
+	}
+
+	static Benchmark saveState(final Size size) {
+		return new IOBenchmark("DataHandler.saveState", "blueprint=" + size) {
+			private GameState state;
+			private File file;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				state = createState(size.generator.generate(SEED).getBlueprint());
+				file = new File(directory, "state.ser");
+			}
+
+			@Override
+			public void setUpOperation() {
+				file.delete();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				boolean saved = dataHandler.saveState(state, file.getPath());
+				count(BYTES_WRITTEN, file.length());
+				return saved;
+			}
+		};
+	}
+
+	static Benchmark loadState(final Size size, final boolean cold) {
+		return new IOBenchmark("DataHandler.loadState", "blueprint=" + size + " " + cacheState(cold)) {
+			private File file;
+			private File read;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				file = new File(directory, "state.ser");
+				dataHandler.saveState(createState(size.generator.generate(SEED).getBlueprint()), file.getPath());
+				read = file;
+			}
+
+			@Override
+			public void setUpOperation() throws Exception {
+				if (cold) {
+					read = coldCopy(file);
+				}
+			}
+
+			@Override
+			public Object run() throws Exception {
+				GameState state = dataHandler.loadState(read.getPath());
+				count(FILE_BYTES, read.length());
+				return state;
+			}
+		};
+	}
+
+	static Benchmark compressResources(final Size size) {
+		return new IOBenchmark("DataHandler.compressResources", "assets=" + size) {
+			private Method compressResources;
+			private File assets;
+			private File file;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				compressResources = DataHandler.class.getDeclaredMethod("compressResources", File.class, String.class);
+				compressResources.setAccessible(true);
+				assets = createAssets(new File(directory, "resources"), size);
+				file = new File(directory, "resources.zip");
+			}
+
+			@Override
+			public void setUpOperation() {
+				file.delete();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				Object compressed = compressResources.invoke(dataHandler, assets, file.getPath());
+				count(BYTES_WRITTEN, file.length());
+				return compressed;
+			}
+		};
+	}
+
+	static Benchmark decompress(final Size size, final boolean cold) {
+		return new IOBenchmark("DataHandler.decompress", "assets=" + size + " " + cacheState(cold)) {
+			private Method decompress;
+			private File file;
+			private File read;
+			private File extracted;
+			private long extractedBytes;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				Method compressResources =
+						DataHandler.class.getDeclaredMethod("compressResources", File.class, String.class);
+				compressResources.setAccessible(true);
+				file = new File(directory, "resources.zip");
+				File assets = createAssets(new File(directory, "resources"), size);
+				compressResources.invoke(dataHandler, assets, file.getPath());
+				extractedBytes = (long) size.assetFiles * size.assetKB * 1024;
+				decompress = DataHandler.class.getDeclaredMethod("decompress", String.class, String.class);
+				decompress.setAccessible(true);
+				extracted = new File(directory, "extracted");
+				read = file;
+			}
+
+			@Override
+			public void setUpOperation() throws Exception {
+				DataHandler.deleteDirectory(extracted);
+				extracted.mkdir();
+				if (cold) {
+					read = coldCopy(file);
+				}
+			}
+
+			@Override
+			public Object run() throws Exception {
+				Object result = decompress.invoke(null, read.getPath(), extracted.getPath());
+				count(FILE_BYTES, read.length());
+				count(BYTES_WRITTEN, extractedBytes);
+				return result;
+			}
+		};
+	}
+
+	private static String cacheState(boolean cold) {
+		return "cache=" + (cold ? "cold" : "warm");
+	}
+
+	/**
+	 * A saved game in the middle of the blueprint's first wave, with no towers
+	 * placed, as towers can only be created on an engine
+	 */
+	private static GameState createState(GameBlueprint blueprint) {
+		GameState state = new GameState();
+		int xTiles = blueprint.getMyGameMapSchemas().get(0).getTileLayer().getWidth();
+		int yTiles = blueprint.getMyGameMapSchemas().get(0).getTileLayer().getHeight();
+		state.updateGameStates(new ITower[xTiles][yTiles], 0, blueprint.getMyWaveSchemas(), 0,
+				new Player((Integer) blueprint.getMyGameScenario().getAttribute(GameSchema.MONEY),
+						(Integer) blueprint.getMyGameScenario().getAttribute(GameSchema.LIVES)));
+		return state;
+	}
+
+	/**
+	 * Fill a folder with files like images: half random bytes, which do not
+	 * compress, and half repeated bytes, which do
+	 */
+	private static File createAssets(File folder, Size size) throws IOException {
+		folder.mkdirs();
+		Random random = new Random(SEED);
+		byte[] contents = new byte[size.assetKB * 1024];
+		for (int i = 0; i < size.assetFiles; i++) {
+			random.nextBytes(contents);
+			for (int j = contents.length / 2; j < contents.length; j++) {
+				contents[j] = (byte) (j / 64);
+			}
+			OutputStream out = new FileOutputStream(new File(folder, "asset" + i + ".png"));
+			try {
+				out.write(contents);
+			}
+			finally {
+				out.close();
+			}
+		}
+		return folder;
+	}
+
+	/**
+	 * Forget the blueprints DataHandler read and the resources it extracted
+	 */
+	private static void clearBlueprintCache() throws ReflectiveOperationException {
+		Field cache = DataHandler.class.getDeclaredField("BLUEPRINT_CACHE");
+		cache.setAccessible(true);
+		((BlueprintCache) cache.get(null)).clear();
+	}
+
+	/**
+	 * Write dirty pages to disk and drop the OS page cache, so that the next
+	 * read comes from the disk. Only called with -Dbenchmark.dropPageCache=true.
+	 *
+	 * @return whether the cache was dropped; only root can do it, and only on Linux
+	 */
+	static boolean dropPageCache() {
+		try {
+			new ProcessBuilder("sync").start().waitFor();
+			Writer writer = new FileWriter(DROP_CACHES_PATH);
+			try {
+				writer.write("3");
+			}
+			finally {
+				writer.close();
+			}
+			return true;
+		}
+		catch (IOException | InterruptedException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * A benchmark with a DataHandler and a directory of its own to write to
+	 */
+	abstract static class IOBenchmark extends Benchmark {
+		protected DataHandler dataHandler;
+		protected File directory;
+		private File copy;
+
+		IOBenchmark(String name, String params) {
+			super(name, params);
+		}
+
+		@Override
+		public Mode getMode() {
+			return Mode.SampleTime;
+		}
+
+		@Override
+		public void setUp() throws Exception {
+			if (!new File(RESOURCES_PATH).isDirectory()) {
+				throw new IllegalStateException("Run from the repository root, where " + RESOURCES_PATH + " is");
+			}
+			dataHandler = new DataHandler();
+			directory = Files.createTempDirectory("benchmark").toFile();
+		}
+
+		@Override
+		public void tearDown() {
+			DataHandler.deleteDirectory(directory);
+		}
+
+		/**
+		 * Copy a file under a new name, replacing the last copy, and drop the
+		 * page cache if asked to with -Dbenchmark.dropPageCache=true
+		 *
+		 * @param original
+		 * @return the copy, for a cold case to read
+		 */
+		protected File coldCopy(File original) throws IOException {
+			if (copy != null) {
+				copy.delete();
+			}
+			copy = File.createTempFile("cold", original.getName(), directory);
+			Files.copy(original.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			count(PAGE_CACHE_DROPPED, Boolean.getBoolean(DROP_PAGE_CACHE_PROPERTY) && dropPageCache() ? 1 : 0);
+			return copy;
+		}
+	}
+}
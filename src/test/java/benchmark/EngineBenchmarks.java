@@ -0,0 +1,474 @@
+package test.java.benchmark;
+
+import java.awt.geom.Point2D;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import jgame.JGPoint;
+import main.java.author.view.tabs.terrain.TerrainAttribute;
+import main.java.data.DataHandler;
+import main.java.engine.archetype.ArchetypeWorld;
+import main.java.engine.archetype.ProjectileArchetype;
+import main.java.engine.EnvironmentKnowledge;
+import main.java.engine.host.Match;
+import main.java.engine.host.MatchEngine;
+import main.java.engine.objects.CollisionManager;
+import main.java.engine.objects.detector.TargetDetectorInterface;
+import main.java.engine.objects.detector.monsterdetector.MonsterClosestToExitDetector;
+import main.java.engine.objects.detector.monsterdetector.NearestMonsterDetector;
+import main.java.engine.objects.detector.towerdetector.NearbyTowersDetector;
+import main.java.engine.objects.monster.Monster;
+import main.java.engine.objects.monster.jgpathfinder.JGPathfinder;
+import main.java.engine.objects.monster.jgpathfinder.JGPathfinderHeuristic;
+import main.java.engine.objects.projectile.DamageProjectile;
+import main.java.engine.objects.tower.ITower;
+import main.java.engine.replay.SessionReader;
+import main.java.engine.replay.SessionRecorder;
+import main.java.engine.replay.SessionReplayer;
+import main.java.engine.scenario.Scenario;
+import main.java.engine.scenario.ScenarioGenerator;
+import main.java.schema.CanvasSchema;
+import main.java.schema.GameBlueprint;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
+
+/**
+ * Benchmarks of the code run every frame: pathfinding, targeting,
+ * collisions, object creation and whole ticks, on generated scenarios.
+ * Pathfinding and the archetype systems run without a display; the
+ * others build an engine and are skipped when there is no display (run
+ * them under xvfb-run on a headless machine). Sessions recorded by the
+ * player are replayed too when -Dbenchmark.sessions names their directory.
+ */
+public class EngineBenchmarks {
+	private static final long SEED = 42;
+	private static final double DETECTOR_RANGE = 200;
+	private static final int NUM_DETECTOR_POINTS = 64;
+	private static final int OBJECTS_PER_FLUSH = 1000;
+	private static final int REPLAY_FRAMES = 2000;
+	// directory of recorded sessions to replay, e.g. slow games sent in by players
+	public static final String SESSIONS_PROPERTY = "benchmark.sessions";
+
+	/**
+	 * @return the engine benchmarks, with the sizes they are run at
+	 */
+	public static List<Benchmark> create() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(pathfinder("small", ScenarioGenerator.small()));
+		benchmarks.add(pathfinder("maze", ScenarioGenerator.largeMaze()));
+		benchmarks.add(pathfinder("huge maze", new ScenarioGenerator().setMapSize(200, 150).setMazeDensity(0.45)));
+		for (int monsters : new int[] { 100, 1000 }) {
+			benchmarks.add(updatePaths(monsters));
+		}
+		for (int monsters : new int[] { 100, 1000, 10000 }) {
+			benchmarks.add(detector(new NearestMonsterDetector(), monsters));
+			benchmarks.add(detector(new MonsterClosestToExitDetector(), monsters));
+		}
+		benchmarks.add(detector(new NearbyTowersDetector(), 0));
+		for (int monsters : new int[] { 100, 1000, 10000 }) {
+			benchmarks.add(collisions(monsters, monsters / 10));
+		}
+		for (int monsters : new int[] { 1000, 10000, 100000 }) {
+			benchmarks.add(archetypeStep(monsters, monsters / 10));
+		}
+		benchmarks.add(placeTower());
+		benchmarks.add(placeMonster());
+		benchmarks.add(tick("small", ScenarioGenerator.small()));
+		benchmarks.add(tick("huge waves", ScenarioGenerator.hugeWaves()));
+		benchmarks.add(tick("resurrect chains", ScenarioGenerator.resurrectChains()));
+		benchmarks.add(replay("resurrect chains", ScenarioGenerator.resurrectChains()));
+		String sessions = System.getProperty(SESSIONS_PROPERTY);
+		if (sessions != null) {
+			File[] logs = new File(sessions).listFiles();
+			Arrays.sort(logs);
+			for (File log : logs) {
+				if (log.getName().endsWith(SessionRecorder.FILE_EXTENSION)) {
+					benchmarks.add(replay(log));
+				}
+			}
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * A path from the entrance to the exit, with a new pathfinder every time
+	 * as PathfinderManager does when a path is not cached
+	 */
+	static Benchmark pathfinder(String mapName, final ScenarioGenerator generator) {
+		return new Benchmark("JGPathfinder.getPath", "map=" + mapName) {
+			private LayerTileMap tileMap;
+			private JGPoint entrance;
+			private JGPoint exit;
+
+			@Override
+			public void setUp() {
+				GameMapSchema map = generator.generate(SEED).getBlueprint().getMyGameMapSchemas().get(0);
+				Map<String, Serializable> canvas =
+						((CanvasSchema) map.getAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES)).getAttributesMap();
+				TileLayer tiles = map.getTileLayer();
+				tileMap = new LayerTileMap(tiles);
+				tileMap.setBlockedTiles(new HashSet<Integer>(Arrays.asList(TerrainAttribute.Unwalkable.getIndex())));
+				entrance = new JGPoint((Integer) canvas.get(CanvasSchema.ENTRY_COL),
+						(Integer) canvas.get(CanvasSchema.ENTRY_ROW));
+				exit = new JGPoint((Integer) canvas.get(CanvasSchema.EXIT_COL),
+						(Integer) canvas.get(CanvasSchema.EXIT_ROW));
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return new JGPathfinder(tileMap, new JGPathfinderHeuristic()).getPath(entrance, exit);
+			}
+		};
+	}
+
+	/**
+	 * New paths for every monster, as after a tower is placed
+	 */
+	static Benchmark updatePaths(int monsters) {
+		return new WorldBenchmark("PathfinderManager.updatePaths", ScenarioGenerator.largeMaze(), monsters) {
+			@Override
+			public Object run() throws Exception {
+				world.getPathfinderManager().updatePaths(world.getMonsters());
+				return world.getMonsters();
+			}
+		};
+	}
+
+	/**
+	 * A tower's search for its target, from points spread over the map
+	 */
+	static Benchmark detector(final TargetDetectorInterface detector, int monsters) {
+		return new WorldBenchmark(detector.getClass().getSimpleName() + ".findTarget",
+				ScenarioGenerator.largeMaze(), monsters) {
+			private EnvironmentKnowledge environment;
+			private Point2D[] points = new Point2D[NUM_DETECTOR_POINTS];
+			private Point2D target = new Point2D.Double();
+			private int next;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				environment = world.getEnvironmentKnowledge();
+				for (int i = 0; i < points.length; i++) {
+					points[i] = world.randomPoint();
+				}
+			}
+
+			@Override
+			public Object run() {
+				Point2D point = points[next++ % points.length];
+				return detector.findTarget(point.getX(), point.getY(), DETECTOR_RANGE, environment, target);
+			}
+		};
+	}
+
+	/**
+	 * Collisions of monsters with projectiles and the exit, with the
+	 * projectiles over towers so that nothing is hit and the numbers of
+	 * objects stay the same
+	 */
+	static Benchmark collisions(int monsters, final int projectiles) {
+		return new WorldBenchmark("CollisionManager.checkAllCollisions", "projectiles=" + projectiles,
+				ScenarioGenerator.largeMaze(), monsters) {
+			private CollisionManager collisionManager;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				collisionManager = new CollisionManager(world.getEngine());
+				ITower[][] towers = world.getEnvironmentKnowledge().getAllTowers();
+				int placed = 0;
+				while (placed < projectiles) {
+					for (ITower[] column : towers) {
+						for (ITower tower : column) {
+							if (tower != null && placed < projectiles) {
+								new DamageProjectile(tower.getXCoordinate(), tower.getYCoordinate(), 0, 0, 0, null);
+								placed++;
+							}
+						}
+					}
+				}
+				world.getEngine().addAndRemoveObjects();
+			}
+
+			@Override
+			public Object run() {
+				collisionManager.checkAllCollisions();
+				return collisionManager;
+			}
+		};
+	}
+
+	/**
+	 * A step of the archetype systems over a wave as large as the one the
+	 * collisions benchmark checks, with projectiles refired as they are used
+	 * up. Monsters walk long random paths and cannot die, so their number
+	 * stays the same.
+	 */
+	static Benchmark archetypeStep(final int monsters, final int projectiles) {
+		return new Benchmark("ArchetypeWorld.step", "monsters=" + monsters + " projectiles=" + projectiles) {
+			private static final int X_TILES = 80;
+			private static final int Y_TILES = 60;
+			private static final int NUM_PATHS = 64;
+			private static final int PATH_LENGTH = 20000;
+			private ArchetypeWorld world;
+			private Random random;
+
+			@Override
+			public void setUp() {
+				random = new Random(SEED);
+				world = new ArchetypeWorld(X_TILES, Y_TILES, MatchEngine.TILE_WIDTH, MatchEngine.TILE_HEIGHT);
+				int[][] paths = new int[NUM_PATHS][];
+				for (int i = 0; i < NUM_PATHS; i++) {
+					paths[i] = randomWalk();
+				}
+				for (int i = 0; i < monsters; i++) {
+					int[] path = paths[i % NUM_PATHS];
+					world.getMonsters().spawn((path[0] >>> 16) * MatchEngine.TILE_WIDTH + random.nextInt(20),
+							(path[0] & 0xFFFF) * MatchEngine.TILE_HEIGHT + random.nextInt(20), Double.MAX_VALUE, 1,
+							0, null, path, null);
+				}
+			}
+
+			private int[] randomWalk() {
+				int[] path = new int[PATH_LENGTH];
+				int x = random.nextInt(X_TILES);
+				int y = random.nextInt(Y_TILES);
+				for (int i = 0; i < PATH_LENGTH; i++) {
+					path[i] = x << 16 | y;
+					if (random.nextBoolean()) {
+						x = Math.max(0, Math.min(X_TILES - 1, x + (random.nextBoolean() ? 1 : -1)));
+					}
+					else {
+						y = Math.max(0, Math.min(Y_TILES - 1, y + (random.nextBoolean() ? 1 : -1)));
+					}
+				}
+				return path;
+			}
+
+			@Override
+			public Object run() {
+				world.step();
+				ProjectileArchetype fired = world.getProjectiles();
+				while (fired.size() < projectiles) {
+					fired.spawn(random.nextDouble() * X_TILES * MatchEngine.TILE_WIDTH,
+							random.nextDouble() * Y_TILES * MatchEngine.TILE_HEIGHT,
+							random.nextDouble() * 2 * Math.PI, 1, null, 2);
+				}
+				return world;
+			}
+		};
+	}
+
+	static Benchmark placeTower() {
+		return new WorldBenchmark("TDObjectFactory.placeTower", ScenarioGenerator.small(), 0) {
+			private String towerName;
+			private Point2D location;
+			private int placed;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				towerName = world.getFactory().getPossibleTowersNames().get(0);
+				location = world.randomPoint();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				ITower tower = world.getFactory().placeTower(location, towerName);
+				tower.remove();
+				flush();
+				return tower;
+			}
+
+			/**
+			 * Drop removed objects now and then, as the frames between placements would
+			 */
+			private void flush() {
+				if (++placed % OBJECTS_PER_FLUSH == 0) {
+					world.getEngine().addAndRemoveObjects();
+				}
+			}
+		};
+	}
+
+	static Benchmark placeMonster() {
+		return new WorldBenchmark("TDObjectFactory.placeMonster", ScenarioGenerator.small(), 0) {
+			private String monsterName;
+			private Point2D entrance;
+			private int placed;
+
+			@Override
+			public void setUp() throws Exception {
+				super.setUp();
+				monsterName = world.getMonsterName();
+				entrance = world.randomPoint();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				Monster monster = world.getFactory().placeMonster(entrance, world.getLevelManager().getExit(),
+						world.getPathfinderManager(), monsterName);
+				monster.remove();
+				if (++placed % OBJECTS_PER_FLUSH == 0) {
+					world.getEngine().addAndRemoveObjects();
+				}
+				return monster;
+			}
+		};
+	}
+
+	/**
+	 * Whole ticks of a match with the scenario's towers, started over every
+	 * iteration so that every iteration plays the same part of the match
+	 */
+	static Benchmark tick(String scenarioName, final ScenarioGenerator generator) {
+		return new Benchmark("MatchEngine.tick", "scenario=" + scenarioName) {
+			private Scenario scenario;
+			private Match match;
+
+			@Override
+			public boolean needsDisplay() {
+				return true;
+			}
+
+			@Override
+			public void setUp() {
+				scenario = generator.generate(SEED);
+			}
+
+			@Override
+			public void setUpIteration() {
+				match = scenario.createMatch(SEED);
+			}
+
+			@Override
+			public Object run() throws Exception {
+				if (match.step(1) == 0) {
+					throw new IllegalStateException("Match ended before the iteration did; shorten --time");
+				}
+				return match;
+			}
+
+			@Override
+			public void tearDownIteration() {
+				match.close();
+			}
+		};
+	}
+
+	/**
+	 * Replays of a session placing a scenario's towers and then playing
+	 * REPLAY_FRAMES frames, alternately of one and two ticks as when the
+	 * player's engine falls behind
+	 */
+	static Benchmark replay(String scenarioName, final ScenarioGenerator generator) {
+		return new ReplayBenchmark("scenario=" + scenarioName) {
+			@Override
+			public void setUp() throws Exception {
+				Scenario scenario = generator.generate(SEED);
+				blueprint = scenario.getBlueprint();
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				SessionRecorder recorder = new SessionRecorder(bytes, SEED, "");
+				for (Scenario.TowerPlacement tower : scenario.getTowers()) {
+					recorder.placeTower(0, (tower.getXTile() + 0.5) * MatchEngine.TILE_WIDTH,
+							(tower.getYTile() + 0.5) * MatchEngine.TILE_HEIGHT, tower.getTowerName());
+				}
+				for (int i = 0; i < REPLAY_FRAMES; i++) {
+					recorder.frame(1 + i % 2);
+				}
+				recorder.close();
+				log = bytes.toByteArray();
+			}
+		};
+	}
+
+	/**
+	 * Replays of a recorded session, on the blueprint it names
+	 */
+	static Benchmark replay(final File session) {
+		return new ReplayBenchmark("session=" + session.getName()) {
+			@Override
+			public void setUp() throws Exception {
+				log = Files.readAllBytes(session.toPath());
+				SessionReader reader = new SessionReader(new ByteArrayInputStream(log));
+				blueprint = new DataHandler().loadBlueprint(reader.getBlueprintPath(), true);
+				reader.close();
+			}
+		};
+	}
+
+	abstract static class ReplayBenchmark extends Benchmark {
+		protected byte[] log;
+		protected GameBlueprint blueprint;
+
+		ReplayBenchmark(String params) {
+			super("SessionReplayer.replay", params);
+		}
+
+		@Override
+		public Mode getMode() {
+			return Mode.SampleTime;
+		}
+
+		@Override
+		public boolean needsDisplay() {
+			return true;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			SessionReplayer replayer =
+					new SessionReplayer(new SessionReader(new ByteArrayInputStream(log)), blueprint);
+			Match match = replayer.replay();
+			count("ticks", match.getTicks());
+			match.close();
+			return replayer;
+		}
+	}
+
+	/**
+	 * A benchmark on a BenchmarkWorld of a scenario with its towers and some monsters placed
+	 */
+	abstract static class WorldBenchmark extends Benchmark {
+		private ScenarioGenerator generator;
+		private int monsters;
+		protected BenchmarkWorld world;
+
+		WorldBenchmark(String name, ScenarioGenerator generatorInit, int monstersInit) {
+			this(name, "", generatorInit, monstersInit);
+		}
+
+		WorldBenchmark(String name, String params, ScenarioGenerator generatorInit, int monstersInit) {
+			super(name, ("monsters=" + monstersInit + " " + params).trim());
+			generator = generatorInit;
+			monsters = monstersInit;
+		}
+
+		@Override
+		public boolean needsDisplay() {
+			return true;
+		}
+
+		@Override
+		public void setUp() throws Exception {
+			world = new BenchmarkWorld(generator.generate(SEED), SEED);
+			world.placeTowers();
+			world.placeMonsters(monsters);
+		}
+
+		@Override
+		public void tearDown() {
+			world.destroy();
+		}
+	}
+}
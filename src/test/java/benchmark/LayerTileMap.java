@@ -0,0 +1,74 @@
+package test.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import jgame.JGPoint;
+import main.java.engine.objects.monster.jgpathfinder.JGTileMap;
+import main.java.engine.objects.monster.jgpathfinder.JGTileMapInterface;
+import main.java.schema.map.TileLayer;
+
+/**
+ * The tile map JGTileMap gives the pathfinder, read from a blueprint's tile
+ * layer instead of an engine, so pathfinding can be timed without a display
+ */
+public class LayerTileMap implements JGTileMapInterface {
+	private static final int[] X_DIRS = { 0, 1, 0, -1 };
+	private static final int[] Y_DIRS = { 1, 0, -1, 0 };
+
+	private TileLayer layer;
+	private JGPoint[][] tiles;
+	private Set<Integer> blockedCIDs;
+
+	public LayerTileMap(TileLayer layerInit) {
+		layer = layerInit;
+		tiles = new JGPoint[layer.getWidth()][layer.getHeight()];
+		for (int i = 0; i < tiles.length; i++) {
+			for (int j = 0; j < tiles[0].length; j++) {
+				tiles[i][j] = new JGPoint(i, j);
+			}
+		}
+	}
+
+	@Override
+	public int getNumXTiles() {
+		return layer.getWidth();
+	}
+
+	@Override
+	public int getNumYTiles() {
+		return layer.getHeight();
+	}
+
+	@Override
+	public void setBlockedTiles(Set<Integer> blocked) {
+		blockedCIDs = blocked;
+	}
+
+	@Override
+	public List<JGPoint> getNeighbors(JGPoint tile) {
+		List<JGPoint> neighbors = new ArrayList<JGPoint>();
+		getNeighbors(tile, neighbors);
+		return neighbors;
+	}
+
+	@Override
+	public void getNeighbors(JGPoint tile, List<JGPoint> neighbors) {
+		neighbors.clear();
+		for (int i = 0; i < X_DIRS.length; i++) {
+			int neighborX = tile.x + X_DIRS[i];
+			int neighborY = tile.y + Y_DIRS[i];
+			if (neighborX >= 0 && neighborX < tiles.length && neighborY >= 0
+					&& neighborY < tiles[0].length
+					&& (blockedCIDs == null || !blockedCIDs.contains(layer.getCID(neighborX, neighborY)))) {
+				neighbors.add(tiles[neighborX][neighborY]);
+			}
+		}
+	}
+
+	@Override
+	public int getCostToMove(JGPoint source) {
+		return JGTileMap.DEFAULT_COST;
+	}
+}
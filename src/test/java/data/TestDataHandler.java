@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import main.java.data.BlueprintManifest;
 import main.java.data.DataHandler;
 import main.java.engine.GameState;
 import main.java.engine.objects.tower.TowerBehaviors;
@@ -22,6 +23,10 @@ import main.java.schema.GameBlueprint;
 import main.java.schema.GameSchema;
 import main.java.schema.MonsterSpawnSchema;
 import main.java.schema.WaveSpawnSchema;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
+import main.java.schema.map.TileMapSchema;
+import main.java.schema.map.TileSchema;
 import main.java.schema.tdobjects.MonsterSchema;
 import main.java.schema.tdobjects.TDObjectSchema;
 import main.java.schema.tdobjects.TowerSchema;
@@ -298,4 +303,86 @@ public class TestDataHandler {
 				((GameBlueprint) testDataHandler.loadObjectFromFile(savedBlueprintLocation)).getMyGameScenario().getAttributesMap().get("Lives"));
 	}
 	
+	/**
+	 * Tests that the manifest written with a blueprint
+	 * summarizes it, and can be read on its own
+	 * @throws InvalidGameBlueprintException
+	 * @throws ZipException
+	 */
+	@Test
+	public void testManifestReadWithoutLoadingBlueprint() throws InvalidGameBlueprintException, ZipException {
+		DataHandler testDataHandler = new DataHandler();
+		GameBlueprint testBlueprint = this.createTestBlueprint();
+		testDataHandler.saveBlueprint(testBlueprint, FILE_PATH + "testManifest.zip");
+
+		BlueprintManifest manifest = testDataHandler.loadManifest(FILE_PATH + "testManifest.zip");
+		assertEquals(BlueprintManifest.FORMAT_VERSION, manifest.getFormatVersion());
+		assertEquals(4, manifest.getTowerNames().size());
+		assertEquals("test-monster-1", manifest.getMonsterNames().get(0));
+		assertFalse("Blueprint has no map, so there is no canvas size", manifest.hasCanvasSize());
+		assertTrue(manifest.getContentHash() != null);
+	}
+
+	/**
+	 * Tests that loading the same blueprint twice hands out
+	 * separate copies, so one game cannot change the next one's schemas
+	 * @throws ClassNotFoundException
+	 * @throws IOException
+	 * @throws ZipException
+	 */
+	@Test
+	public void testReloadedBlueprintIsACopy() throws ClassNotFoundException, IOException, ZipException {
+		DataHandler testDataHandler = new DataHandler();
+		testDataHandler.saveBlueprint(this.createTestBlueprint(), FILE_PATH + "testCache.zip");
+
+		// the test blueprint has no map, so it is loaded as the authoring environment does, unvalidated
+		GameBlueprint first = testDataHandler.loadBlueprint(FILE_PATH + "testCache.zip", false);
+		first.getMyGameScenario().addAttribute(GameSchema.LIVES, 99);
+		GameBlueprint second = testDataHandler.loadBlueprint(FILE_PATH + "testCache.zip", false);
+
+		assertFalse(first == second);
+		assertEquals(3, second.getMyGameScenario().getAttributesMap().get(GameSchema.LIVES));
+	}
+
+	/**
+	 * Tests that a tile layer survives being saved, and that the
+	 * TileSchemas of older maps convert to the same layer
+	 */
+	@Test
+	public void testTileLayerSavingAndConversion() {
+		DataHandler testDataHandler = new DataHandler();
+		List<TileMapSchema> tileMaps = new ArrayList<TileMapSchema>();
+		TileMapSchema tileMap = new TileMapSchema();
+		tileMap.addAttribute(TileMapSchema.TILEMAP_FILE_NAME, "tiles.png");
+		tileMap.addAttribute(TileMapSchema.NUM_COLS, 4);
+		tileMaps.add(tileMap);
+
+		List<TileSchema> tiles = new ArrayList<TileSchema>();
+		TileSchema tile = new TileSchema();
+		tile.addAttribute(TileSchema.CANVAS_ROW, 1);
+		tile.addAttribute(TileSchema.CANVAS_COL, 2);
+		tile.addAttribute(TileSchema.TILEMAP_ROW, 1);
+		tile.addAttribute(TileSchema.TILEMAP_COL, 3);
+		tile.addAttribute(TileSchema.TILEMAP_FILE_NAME, "tiles.png");
+		tile.addAttribute(TileSchema.TILE_CID, 11);
+		tiles.add(tile);
+
+		GameMapSchema oldMap = new GameMapSchema();
+		oldMap.addAttribute(GameMapSchema.MY_TILES, (Serializable) tiles);
+		oldMap.addAttribute(GameMapSchema.MY_TILEMAPS, (Serializable) tileMaps);
+		TileLayer converted = oldMap.getTileLayer();
+		assertEquals(7, converted.getTileIndex(2, 1));
+		assertEquals(11, converted.getCID(2, 1));
+		assertEquals(TileLayer.EMPTY, converted.getTileMapIndex(0, 0));
+
+		GameMapSchema newMap = new GameMapSchema();
+		newMap.addAttribute(GameMapSchema.MY_TILE_LAYER, converted);
+		testDataHandler.saveObjectToFile(newMap, FILE_PATH + "testTileLayer.ser");
+		TileLayer loaded = ((GameMapSchema) testDataHandler.loadObjectFromFile(FILE_PATH + "testTileLayer.ser")).getTileLayer();
+		assertEquals(converted.getWidth(), loaded.getWidth());
+		assertEquals("tiles.png", loaded.getPaletteEntry(loaded.getTileMapIndex(2, 1)));
+		assertEquals(7, loaded.getTileIndex(2, 1));
+		assertEquals(11, loaded.getCID(2, 1));
+	}
+
 }
@@ -0,0 +1,347 @@
+package test.java.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import main.java.engine.host.Match;
+import main.java.engine.replay.ReplayListener;
+import main.java.engine.replay.SessionReader;
+import main.java.engine.replay.SessionReplayer;
+import main.java.engine.scenario.ScenarioGenerator;
+import main.java.player.util.AllocationTracker;
+import main.java.schema.GameBlueprint;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Replays the recorded sessions listed in runs.json headlessly and compares
+ * how they ran against baselines.json: the most game objects alive at once
+ * and the bytes allocated per tick, which fail the comparison when they grow
+ * past their tolerance, and the median and 99th percentile time of a tick,
+ * which are only reported. Each run is replayed a few times first so that
+ * the JIT has settled, then measured frame by frame; the series are written
+ * as CSV files next to the report for a closer look.
+ *
+ * Tick times depend on the machine and on what else it is running, so the
+ * recorded ones are only a reference for the machine that recorded them.
+ * Run with -Dgolden.update=true to record baselines from the current run.
+ */
+public class GoldenRunHarness {
+	public static final String DIRECTORY = "src/test/resources/golden/";
+	public static final String RUNS_FILE = "runs.json";
+	public static final String BASELINES_FILE = "baselines.json";
+	public static final String UPDATE_PROPERTY = "golden.update";
+	public static final String REPORT_DIR_PROPERTY = "golden.reportDir";
+	private static final int WARMUP_REPLAYS = 2;
+
+	private File directory;
+	private File reportDirectory;
+
+	public GoldenRunHarness() {
+		this(new File(DIRECTORY), new File(System.getProperty(REPORT_DIR_PROPERTY,
+				new File(System.getProperty("java.io.tmpdir"), "golden-runs").getPath())));
+	}
+
+	/**
+	 * @param directoryInit where runs.json, baselines.json and the logs are
+	 * @param reportDirectoryInit where the report and series are written
+	 */
+	public GoldenRunHarness(File directoryInit, File reportDirectoryInit) {
+		directory = directoryInit;
+		reportDirectory = reportDirectoryInit;
+	}
+
+	/**
+	 * Replay every run and compare it against its baseline
+	 *
+	 * @return the comparison; runs that could not be replayed count as regressions
+	 * @throws IOException if the run list or baselines cannot be read
+	 */
+	public Report run() throws IOException {
+		RunDefinition[] runs = readJson(new File(directory, RUNS_FILE), RunDefinition[].class);
+		Baselines baselines = readJson(new File(directory, BASELINES_FILE), Baselines.class);
+		Report report = new Report(baselines.tolerances);
+		Map<String, Baseline> measured = new TreeMap<String, Baseline>();
+		reportDirectory.mkdirs();
+		for (RunDefinition run : runs) {
+			try {
+				Series series = replay(run);
+				series.writeCsv(new File(reportDirectory, run.name.replaceAll("\\W+", "_") + ".csv"));
+				Baseline current = series.summarize();
+				measured.put(run.name, current);
+				report.addRun(run.name, baselines.runs.get(run.name), current);
+			}
+			catch (Exception e) {
+				report.addFailure(run.name, e.toString());
+			}
+		}
+		writeText(new File(reportDirectory, "report.txt"), report.toString());
+		if (Boolean.getBoolean(UPDATE_PROPERTY)) {
+			baselines.runs.putAll(measured);
+			writeJson(new File(directory, BASELINES_FILE), baselines);
+		}
+		return report;
+	}
+
+	private Series replay(RunDefinition run) throws Exception {
+		ScenarioGenerator generator =
+				(ScenarioGenerator) ScenarioGenerator.class.getMethod(run.scenario).invoke(null);
+		GameBlueprint blueprint = generator.generate(run.scenarioSeed).getBlueprint();
+		byte[] log = Files.readAllBytes(new File(directory, run.session).toPath());
+		for (int i = 0; i < WARMUP_REPLAYS; i++) {
+			new SessionReplayer(new SessionReader(new ByteArrayInputStream(log)), blueprint).replay().close();
+		}
+		Series series = new Series();
+		SessionReplayer replayer = new SessionReplayer(new SessionReader(new ByteArrayInputStream(log)), blueprint);
+		replayer.setListener(series);
+		replayer.replay().close();
+		return series;
+	}
+
+	private static <T> T readJson(File file, Class<T> type) throws IOException {
+		Reader reader = new FileReader(file);
+		try {
+			return new Gson().fromJson(reader, type);
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private static void writeJson(File file, Object value) throws IOException {
+		writeText(file, new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(value) + "\n");
+	}
+
+	private static void writeText(File file, String text) throws IOException {
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(text);
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * An entry of runs.json: a session log and the generated scenario it was recorded on
+	 */
+	static class RunDefinition {
+		String name;
+		// name of the ScenarioGenerator preset, e.g. "small"
+		String scenario;
+		long scenarioSeed;
+		// log file, relative to the golden directory
+		String session;
+	}
+
+	/**
+	 * What a run measured, or what it is expected to measure
+	 */
+	static class Baseline {
+		double p50TickNanos;
+		double p99TickNanos;
+		int peakObjects;
+		double bytesPerTick;
+
+		Baseline(double p50TickNanosInit, double p99TickNanosInit, int peakObjectsInit, double bytesPerTickInit) {
+			p50TickNanos = p50TickNanosInit;
+			p99TickNanos = p99TickNanosInit;
+			peakObjects = peakObjectsInit;
+			bytesPerTick = bytesPerTickInit;
+		}
+	}
+
+	/**
+	 * How much worse than its baseline, in percent, a run may measure
+	 */
+	static class Tolerances {
+		double objectsPercent = 5;
+		double bytesPercent = 25;
+	}
+
+	static class Baselines {
+		Tolerances tolerances = new Tolerances();
+		Map<String, Baseline> runs = new TreeMap<String, Baseline>();
+	}
+
+	/**
+	 * Per-frame measurements of a replay
+	 */
+	static class Series implements ReplayListener {
+		private AllocationTracker allocations = new AllocationTracker();
+		private List<long[]> frames = new ArrayList<long[]>();
+		private long frameStart;
+		private long frameStartBytes;
+
+		@Override
+		public void frameStarting() {
+			frameStartBytes = allocations.getAllocatedBytes();
+			frameStart = System.nanoTime();
+		}
+
+		@Override
+		public void frameFinished(Match match, int ticks) {
+			long nanos = System.nanoTime() - frameStart;
+			long bytes = allocations.getAllocatedBytes() - frameStartBytes;
+			frames.add(new long[] { ticks, nanos, bytes, match.countObjects() });
+		}
+
+		/**
+		 * Record a frame, as frameFinished does
+		 */
+		void addFrame(int ticks, long nanos, long bytes, int objects) {
+			frames.add(new long[] { ticks, nanos, bytes, objects });
+		}
+
+		/**
+		 * @return the series' percentiles, peak and allocation rate; a frame's
+		 * time is shared evenly among its ticks, and the time of frames that
+		 * ran no ticks is added to the next frame that does
+		 */
+		Baseline summarize() {
+			double[] tickNanos = new double[frames.size()];
+			int tickFrames = 0;
+			long pendingNanos = 0;
+			long ticks = 0;
+			long bytes = 0;
+			int peakObjects = 0;
+			for (int i = 0; i < frames.size(); i++) {
+				long[] frame = frames.get(i);
+				pendingNanos += frame[1];
+				if (frame[0] > 0) {
+					tickNanos[tickFrames++] = (double) pendingNanos / frame[0];
+					pendingNanos = 0;
+				}
+				ticks += frame[0];
+				bytes += frame[2];
+				peakObjects = Math.max(peakObjects, (int) frame[3]);
+			}
+			tickNanos = Arrays.copyOf(tickNanos, tickFrames);
+			Arrays.sort(tickNanos);
+			return new Baseline(percentile(tickNanos, 50), percentile(tickNanos, 99), peakObjects,
+					ticks == 0 ? 0 : (double) bytes / ticks);
+		}
+
+		void writeCsv(File file) throws IOException {
+			PrintWriter out = new PrintWriter(new FileWriter(file));
+			try {
+				out.println("frame,ticks,nanos,bytes,objects");
+				for (int i = 0; i < frames.size(); i++) {
+					long[] frame = frames.get(i);
+					out.println(i + "," + frame[0] + "," + frame[1] + "," + frame[2] + "," + frame[3]);
+				}
+			}
+			finally {
+				out.close();
+			}
+		}
+
+		private static double percentile(double[] sorted, double percent) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+		}
+	}
+
+	/**
+	 * A table comparing each run's measurements against its baseline
+	 */
+	static class Report {
+		private static final String ROW_FORMAT = "%-28s %-14s %14s %14s %9s %8s  %s%n";
+
+		private Tolerances tolerances;
+		private StringBuilder table = new StringBuilder();
+		private int regressions;
+		private int unbaselined;
+
+		Report(Tolerances tolerancesInit) {
+			tolerances = tolerancesInit;
+			table.append(String.format(ROW_FORMAT, "run", "metric", "baseline", "current", "change", "limit",
+					"status"));
+		}
+
+		void addRun(String name, Baseline baseline, Baseline current) {
+			if (baseline == null) {
+				unbaselined++;
+			}
+			addMetric(name, "p50 tick ns", baseline == null ? null : baseline.p50TickNanos,
+					current.p50TickNanos, null);
+			addMetric(name, "p99 tick ns", baseline == null ? null : baseline.p99TickNanos,
+					current.p99TickNanos, null);
+			addMetric(name, "peak objects", baseline == null ? null : (double) baseline.peakObjects,
+					current.peakObjects, tolerances.objectsPercent);
+			addMetric(name, "bytes/tick", baseline == null ? null : baseline.bytesPerTick,
+					current.bytesPerTick, tolerances.bytesPercent);
+		}
+
+		void addFailure(String name, String message) {
+			regressions++;
+			table.append(String.format(ROW_FORMAT, name, "-", "-", "-", "-", "-", "FAILED: " + message));
+		}
+
+		/**
+		 * @param tolerance null if the metric is only reported
+		 */
+		private void addMetric(String name, String metric, Double baseline, double current, Double tolerance) {
+			String status;
+			String change;
+			if (baseline == null) {
+				status = "no baseline";
+				change = "-";
+			}
+			else {
+				double percent = baseline == 0 ? (current == 0 ? 0 : Double.POSITIVE_INFINITY)
+						: (current - baseline) / baseline * 100;
+				change = String.format("%+.1f%%", percent);
+				if (tolerance == null) {
+					status = "reported only";
+				}
+				else if (percent > tolerance) {
+					status = "REGRESSED";
+					regressions++;
+				}
+				else if (percent < -tolerance) {
+					status = "improved; consider updating the baseline";
+				}
+				else {
+					status = "ok";
+				}
+			}
+			table.append(String.format(ROW_FORMAT, name, metric,
+					baseline == null ? "-" : String.format("%.0f", baseline), String.format("%.0f", current),
+					change, tolerance == null ? "-" : String.format("+%.0f%%", tolerance), status));
+		}
+
+		/**
+		 * @return number of metrics worse than their tolerance, plus runs that failed
+		 */
+		int getRegressions() {
+			return regressions;
+		}
+
+		@Override
+		public String toString() {
+			String summary = regressions + " regression(s)";
+			if (unbaselined > 0) {
+				summary += ", " + unbaselined + " run(s) without a baseline (record with -D" + UPDATE_PROPERTY
+						+ "=true)";
+			}
+			return table + summary + "\n";
+		}
+	}
+}
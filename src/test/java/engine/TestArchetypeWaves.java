@@ -0,0 +1,60 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.GraphicsEnvironment;
+
+import main.java.engine.ArchetypeWaves;
+import main.java.engine.agent.Observation;
+import main.java.engine.host.Match;
+import main.java.engine.scenario.Scenario;
+import main.java.engine.scenario.ScenarioGenerator;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * A wave large enough to be played as archetypes, through a whole match
+ */
+public class TestArchetypeWaves {
+	private static final int WAVE_SIZE = 500;
+	private static final int MAX_TICKS = 20000;
+
+	@Test
+	public void testLargeWaveIsPlayedWithoutMonsterObjects() throws Exception {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		Scenario scenario = ScenarioGenerator.small().setWaves(1, WAVE_SIZE).setTowerCount(30).generate(1);
+		System.setProperty(ArchetypeWaves.WAVE_SIZE_PROPERTY, String.valueOf(WAVE_SIZE));
+		Match match;
+		try {
+			match = scenario.createMatch(1);
+		}
+		finally {
+			System.clearProperty(ArchetypeWaves.WAVE_SIZE_PROPERTY);
+		}
+		try {
+			Observation observation = new Observation();
+			match.getModel().exportObservation(observation);
+			int money = observation.getMoney();
+			int lives = observation.getLives();
+
+			match.step(1);
+			match.getModel().exportObservation(observation);
+			assertEquals(WAVE_SIZE, observation.getNumMonsters());
+			assertTrue(match.countObjects() < WAVE_SIZE);
+
+			match.step(MAX_TICKS);
+			match.getModel().exportObservation(observation);
+			assertTrue(match.isOver());
+			assertEquals(0, observation.getNumMonsters());
+			// towers killed some of the monsters, and the others cost lives
+			assertTrue(observation.getMoney() > money);
+			assertTrue(observation.getLives() < lives);
+		}
+		finally {
+			match.close();
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import main.java.engine.archetype.ArchetypeListener;
+import main.java.engine.archetype.ArchetypeWorld;
+import main.java.engine.archetype.MonsterArchetype;
+import main.java.engine.objects.EntityRegistry;
+import main.java.schema.MonsterSpawnSchema;
+
+import org.junit.Test;
+
+/**
+ * The archetype systems on their own, without an engine
+ */
+public class TestArchetypeWorld {
+	private static final int TILE = 32;
+
+	private int killed;
+	private int escaped;
+	private double rewards;
+
+	private ArchetypeWorld createWorld() {
+		ArchetypeWorld world = new ArchetypeWorld(20, 10, TILE, TILE);
+		world.setListener(new ArchetypeListener() {
+			@Override
+			public void monsterKilled(int handle, double x, double y, double reward,
+					MonsterSpawnSchema resurrection) {
+				killed++;
+				rewards += reward;
+			}
+
+			@Override
+			public void monsterEscaped(int handle) {
+				escaped++;
+			}
+		});
+		return world;
+	}
+
+	/**
+	 * @return a path along row 0 from tile 0 to the given tile
+	 */
+	private static int[] straightPath(int lastTile) {
+		int[] path = new int[lastTile + 1];
+		for (int x = 0; x <= lastTile; x++) {
+			path[x] = x << 16;
+		}
+		return path;
+	}
+
+	@Test
+	public void testMonstersWalkTheirPathAndEscape() {
+		ArchetypeWorld world = createWorld();
+		MonsterArchetype monsters = world.getMonsters();
+		int handle = monsters.spawn(0, 0, 100, 2, 10, "monster", straightPath(5), null);
+		for (int i = 0; i < 40; i++) {
+			world.step();
+		}
+		int row = monsters.getRow(handle);
+		assertEquals(80, monsters.getX(row), 0.0001);
+		assertEquals(0, monsters.getY(row), 0.0001);
+
+		for (int i = 0; i < 200 && monsters.size() > 0; i++) {
+			world.step();
+		}
+		assertEquals(1, escaped);
+		assertEquals(-1, monsters.getRow(handle));
+	}
+
+	@Test
+	public void testProjectilesHitOncePerMonster() {
+		ArchetypeWorld world = createWorld();
+		MonsterArchetype monsters = world.getMonsters();
+		int first = monsters.spawn(100, 100, 30, 0, 10, "monster", straightPath(19), null);
+		int second = monsters.spawn(140, 100, 30, 0, 5, "monster", straightPath(19), null);
+		// pierces both monsters while crossing their boxes over several ticks
+		world.getProjectiles().spawn(90, 110, 4, 0, 20, "shot", 2);
+		for (int i = 0; i < 30; i++) {
+			world.step();
+		}
+		assertEquals(0, world.getProjectiles().size());
+		assertEquals(10, monsters.getHealth(monsters.getRow(first)), 0.0001);
+		assertEquals(10, monsters.getHealth(monsters.getRow(second)), 0.0001);
+
+		world.getProjectiles().spawn(150, 110, 0, 0, 20, "shot", 1);
+		world.step();
+		assertEquals(1, killed);
+		assertEquals(5, rewards, 0.0001);
+		assertEquals(-1, monsters.getRow(second));
+		assertEquals(10, monsters.getHealth(monsters.getRow(first)), 0.0001);
+	}
+
+	@Test
+	public void testNearestMonsterInRange() {
+		ArchetypeWorld world = createWorld();
+		MonsterArchetype monsters = world.getMonsters();
+		for (int i = 0; i < 1000; i++) {
+			monsters.spawn(i % 600, (i * 7) % 300, 10, 0, 0, "monster", null, null);
+		}
+		int near = monsters.spawn(505, 203, 10, 0, 0, "monster", null, null);
+		assertEquals(near, world.findNearestMonster(505.5, 203.5, 50));
+		assertEquals(EntityRegistry.NO_HANDLE, world.findNearestMonster(630, 310, 5));
+
+		// removing moves rows around; handles must still find their monsters
+		monsters.removeRow(0);
+		int row = monsters.getRow(near);
+		assertTrue(row >= 0);
+		assertEquals(505, monsters.getX(row), 0.0001);
+		assertEquals(near, world.findNearestMonster(505.5, 203.5, 50));
+	}
+}
@@ -0,0 +1,77 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import main.java.engine.agent.AgentAction;
+import main.java.engine.agent.BatchEnvironment;
+import main.java.engine.agent.Observation;
+import main.java.engine.host.MatchEngine;
+import main.java.engine.scenario.Scenario;
+import main.java.engine.scenario.ScenarioGenerator;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Copies of a generated game stepped through BatchEnvironment, each in a
+ * class loader of its own, with observations crossing back to the test's
+ */
+public class TestBatchEnvironment {
+	private static final int NUM_ENVIRONMENTS = 2;
+	private static final long SEED = 5;
+	private static final int TICKS = 100;
+
+	@Test
+	public void testPlacingATowerChangesOnlyItsCopy() throws Exception {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		Scenario scenario = ScenarioGenerator.small().setMoney(1000).generate(1);
+		// a tile the generator places towers on leaves the exit reachable
+		Scenario.TowerPlacement placement = scenario.getTowers().get(0);
+		double x = (placement.getXTile() + 0.5) * MatchEngine.TILE_WIDTH;
+		double y = (placement.getYTile() + 0.5) * MatchEngine.TILE_HEIGHT;
+		BatchEnvironment batch = new BatchEnvironment(scenario.getBlueprint(), NUM_ENVIRONMENTS, NUM_ENVIRONMENTS);
+		try {
+			Observation[] observations = batch.reset(SEED);
+			assertEquals(NUM_ENVIRONMENTS, observations.length);
+			int tile = placement.getYTile() * observations[0].getXTiles() + placement.getXTile();
+			int money = observations[0].getMoney();
+			for (Observation observation : observations) {
+				assertEquals(0, observation.getTowerGrid()[tile]);
+				assertEquals(money, observation.getMoney());
+			}
+
+			List<List<AgentAction>> actions = new ArrayList<List<AgentAction>>();
+			actions.add(Arrays.asList(AgentAction.placeTower(x, y, placement.getTowerName())));
+			actions.add(Collections.<AgentAction> emptyList());
+			observations = batch.step(actions, 0);
+
+			assertEquals(1, observations[0].getNumActions());
+			assertTrue(observations[0].getActionResults()[0]);
+			assertEquals(1, observations[0].getTowerGrid()[tile]);
+			assertTrue(observations[0].getMoney() < money);
+			assertEquals(0, observations[1].getTowerGrid()[tile]);
+			assertEquals(money, observations[1].getMoney());
+
+			List<List<AgentAction>> noActions = new ArrayList<List<AgentAction>>();
+			for (int i = 0; i < NUM_ENVIRONMENTS; i++) {
+				noActions.add(Collections.<AgentAction> emptyList());
+			}
+			observations = batch.step(noActions, TICKS);
+			for (Observation observation : observations) {
+				assertTrue(observation.getGameClock() > 0);
+			}
+			assertEquals(1, observations[0].getTowerGrid()[tile]);
+		}
+		finally {
+			batch.close();
+		}
+	}
+}
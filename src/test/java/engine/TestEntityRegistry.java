@@ -0,0 +1,60 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import main.java.engine.objects.EntityRegistry;
+import main.java.engine.util.IntSet;
+
+import org.junit.Test;
+
+public class TestEntityRegistry {
+
+	@Test
+	public void testReleasedHandlesGoStale() {
+		EntityRegistry<String> registry = new EntityRegistry<String>();
+		int first = registry.register("first");
+		assertEquals("first", registry.get(first));
+		assertTrue(registry.release(first));
+		assertFalse(registry.release(first));
+
+		// the slot is reused, but the old handle must not resolve to its new object
+		int second = registry.register("second");
+		assertEquals(EntityRegistry.getIndex(first), EntityRegistry.getIndex(second));
+		assertNull(registry.get(first));
+		assertEquals("second", registry.get(second));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	public void testHandlesStayValidAsTheTableGrows() {
+		EntityRegistry<Integer> registry = new EntityRegistry<Integer>();
+		int[] handles = new int[10000];
+		for (int i = 0; i < handles.length; i++) {
+			handles[i] = registry.register(i);
+			assertTrue(handles[i] != EntityRegistry.NO_HANDLE);
+		}
+		for (int i = 0; i < handles.length; i++) {
+			assertEquals(Integer.valueOf(i), registry.get(handles[i]));
+		}
+		registry.clear();
+		assertEquals(0, registry.size());
+		assertNull(registry.get(handles[0]));
+	}
+
+	@Test
+	public void testIntSet() {
+		IntSet set = new IntSet();
+		for (int i = 1; i <= 1000; i++) {
+			assertTrue(set.add(i << 20 | i));
+		}
+		assertFalse(set.add(5 << 20 | 5));
+		assertEquals(1000, set.size());
+		assertTrue(set.contains(1000 << 20 | 1000));
+		assertFalse(set.contains(1001));
+		assertFalse(set.contains(0));
+		set.clear();
+		assertFalse(set.contains(1 << 20 | 1));
+	}
+}
@@ -0,0 +1,25 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.GraphicsEnvironment;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Replays the golden runs and fails if any of them allocates more or keeps
+ * more objects alive than its baseline allows; tick times are only
+ * reported. See GoldenRunHarness.
+ */
+public class TestGoldenRuns {
+
+	@Test
+	public void testGoldenRunsWithinBaselines() throws Exception {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		GoldenRunHarness.Report report = new GoldenRunHarness().run();
+		System.out.print(report);
+		assertEquals(report.toString(), 0, report.getRegressions());
+	}
+}
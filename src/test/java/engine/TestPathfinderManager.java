@@ -0,0 +1,144 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import jgame.JGPoint;
+import main.java.engine.PathfinderManager;
+import main.java.engine.objects.monster.jgpathfinder.JGPathfinderHeuristic;
+import main.java.engine.objects.monster.jgpathfinder.JGTileMap;
+import main.java.engine.objects.monster.jgpathfinder.JGTileMapInterface;
+import main.java.engine.objects.monster.jgpathfinder.NoPossiblePathException;
+
+import org.junit.Test;
+
+/**
+ * Checking placements against paths, on a tile map that needs no engine
+ */
+public class TestPathfinderManager {
+	private static final int WALL_CID = 1;
+	private static final Set<Integer> BLOCKED = Collections.singleton(WALL_CID);
+
+	/**
+	 * Tile map over an array of tile CIDs, with neighbors as in JGTileMap
+	 */
+	private static class GridTileMap implements JGTileMapInterface {
+		private int[][] cids;
+		private Set<Integer> blocked;
+
+		GridTileMap(int[][] cidsInit) {
+			cids = cidsInit;
+		}
+
+		@Override
+		public int getNumXTiles() {
+			return cids.length;
+		}
+
+		@Override
+		public int getNumYTiles() {
+			return cids[0].length;
+		}
+
+		@Override
+		public void setBlockedTiles(Set<Integer> blockedInit) {
+			blocked = blockedInit;
+		}
+
+		@Override
+		public List<JGPoint> getNeighbors(JGPoint tile) {
+			List<JGPoint> neighbors = new ArrayList<JGPoint>();
+			getNeighbors(tile, neighbors);
+			return neighbors;
+		}
+
+		@Override
+		public void getNeighbors(JGPoint tile, List<JGPoint> neighbors) {
+			neighbors.clear();
+			addIfWalkable(tile.x, tile.y + 1, neighbors);
+			addIfWalkable(tile.x + 1, tile.y, neighbors);
+			addIfWalkable(tile.x, tile.y - 1, neighbors);
+			addIfWalkable(tile.x - 1, tile.y, neighbors);
+		}
+
+		private void addIfWalkable(int x, int y, List<JGPoint> neighbors) {
+			if (x >= 0 && x < cids.length && y >= 0 && y < cids[0].length
+					&& (blocked == null || !blocked.contains(cids[x][y]))) {
+				neighbors.add(new JGPoint(x, y));
+			}
+		}
+
+		@Override
+		public int getCostToMove(JGPoint source) {
+			return JGTileMap.DEFAULT_COST;
+		}
+	}
+
+	@Test
+	public void testWallWithOneGap() {
+		int[][] cids = new int[5][5];
+		for (int y = 0; y < 5; y++) {
+			cids[2][y] = WALL_CID;
+		}
+		cids[2][4] = 0;
+		PathfinderManager manager = new PathfinderManager(new GridTileMap(cids), new JGPathfinderHeuristic());
+		JGPoint source = new JGPoint(0, 0);
+		JGPoint exit = new JGPoint(4, 0);
+
+		assertTrue(manager.canReachWith(source, exit, BLOCKED, new JGPoint(0, 4)));
+		assertFalse(manager.canReachWith(source, exit, BLOCKED, new JGPoint(2, 4)));
+		// a tower on the monster's own tile leaves it a way off it
+		assertTrue(manager.canReachWith(source, exit, BLOCKED, source));
+		assertFalse(manager.canReachWith(source, exit, BLOCKED, exit));
+		assertEquals(0, cids[2][4]);
+	}
+
+	@Test
+	public void testAgreesWithPathfinder() {
+		Random random = new Random(7);
+		for (int map = 0; map < 50; map++) {
+			int[][] cids = new int[8][6];
+			for (int x = 0; x < cids.length; x++) {
+				for (int y = 0; y < cids[0].length; y++) {
+					cids[x][y] = random.nextInt(4) == 0 ? WALL_CID : 0;
+				}
+			}
+			JGPoint exit = new JGPoint(7, 5);
+			cids[exit.x][exit.y] = 0;
+			GridTileMap tileMap = new GridTileMap(cids);
+			PathfinderManager manager = new PathfinderManager(tileMap, new JGPathfinderHeuristic());
+			JGPoint unwalkable = new JGPoint(random.nextInt(8), random.nextInt(6));
+			for (int x = 0; x < cids.length; x++) {
+				for (int y = 0; y < cids[0].length; y++) {
+					JGPoint source = new JGPoint(x, y);
+					boolean reachable = manager.canReachWith(source, exit, BLOCKED, unwalkable);
+
+					int original = cids[unwalkable.x][unwalkable.y];
+					cids[unwalkable.x][unwalkable.y] = WALL_CID;
+					manager.mapChanged();
+					assertEquals("map " + map + " from " + source + " without " + unwalkable,
+							hasPath(manager, source, exit), reachable);
+					cids[unwalkable.x][unwalkable.y] = original;
+					manager.mapChanged();
+				}
+			}
+		}
+	}
+
+	private static boolean hasPath(PathfinderManager manager, JGPoint source, JGPoint target) {
+		try {
+			manager.getPath(source, target, BLOCKED);
+			return true;
+		}
+		catch (NoPossiblePathException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+
+import main.java.author.view.tabs.terrain.TerrainAttribute;
+import main.java.engine.host.Match;
+import main.java.engine.objects.tower.TowerBehaviors;
+import main.java.engine.scenario.Scenario;
+import main.java.engine.scenario.ScenarioGenerator;
+import main.java.schema.CanvasSchema;
+import main.java.schema.MonsterSpawnSchema;
+import main.java.schema.map.GameMapSchema;
+import main.java.schema.map.TileLayer;
+import main.java.schema.tdobjects.MonsterSchema;
+
+import org.junit.Test;
+
+/**
+ * Generated scenarios must be playable: the exit can still be reached once
+ * the towers are placed. Checked on the blueprint alone, without an engine.
+ */
+public class TestScenarioGenerator {
+
+	@Test
+	public void testExitIsReachableAroundTowers() {
+		for (long seed = 0; seed < 20; seed++) {
+			Scenario scenario = new ScenarioGenerator().setMapSize(30, 20).setMazeDensity(0.9).generate(seed);
+			GameMapSchema map = scenario.getBlueprint().getMyGameMapSchemas().get(0);
+			Map<String, Serializable> canvas =
+					((CanvasSchema) map.getAttribute(GameMapSchema.MY_CANVAS_ATTRIBUTES)).getAttributesMap();
+			TileLayer tiles = map.getTileLayer();
+			boolean[][] towers = new boolean[tiles.getWidth()][tiles.getHeight()];
+			for (Scenario.TowerPlacement tower : scenario.getTowers()) {
+				towers[tower.getXTile()][tower.getYTile()] = true;
+			}
+			boolean[][] reachable = findReachable(tiles, (Integer) canvas.get(CanvasSchema.ENTRY_COL),
+					(Integer) canvas.get(CanvasSchema.ENTRY_ROW), towers);
+			assertTrue("Seed " + seed, reachable[(Integer) canvas.get(CanvasSchema.EXIT_COL)]
+					[(Integer) canvas.get(CanvasSchema.EXIT_ROW)]);
+		}
+	}
+
+	@Test
+	public void testSameSeedSameScenario() throws Exception {
+		ScenarioGenerator generator = ScenarioGenerator.resurrectChains();
+		assertTrue(Arrays.equals(Match.writeBlueprint(generator.generate(7).getBlueprint()),
+				Match.writeBlueprint(generator.generate(7).getBlueprint())));
+	}
+
+	@Test
+	public void testTowerMixAndResurrection() {
+		Scenario scenario = new ScenarioGenerator().setTowerCount(9)
+				.setTowerMix(TowerBehaviors.SHOOTING, TowerBehaviors.SHOOTING, TowerBehaviors.FREEZING)
+				.setResurrection(3, 2).generate(1);
+		assertEquals(9, scenario.getTowers().size());
+		assertEquals(2, scenario.getBlueprint().getMyTowerSchemas().size());
+		assertEquals(4, scenario.getBlueprint().getMyMonsterSchemas().size());
+
+		MonsterSchema monster = scenario.getBlueprint().getMyMonsterSchemas().get(0);
+		int depth = 0;
+		while (monster.getAttribute(MonsterSchema.RESURRECT_MONSTERSPAWNSCHEMA) != null) {
+			MonsterSpawnSchema resurrect =
+					(MonsterSpawnSchema) monster.getAttribute(MonsterSchema.RESURRECT_MONSTERSPAWNSCHEMA);
+			assertEquals(2, resurrect.getSwarmSize());
+			monster = resurrect.getMonsterSchema();
+			depth++;
+		}
+		assertEquals(3, depth);
+	}
+
+	/**
+	 * Find the tiles that can be walked to without crossing a wall or tower
+	 */
+	private boolean[][] findReachable(TileLayer tiles, int col, int row, boolean[][] blocked) {
+		boolean[][] reachable = new boolean[tiles.getWidth()][tiles.getHeight()];
+		Deque<int[]> open = new ArrayDeque<int[]>();
+		reachable[col][row] = true;
+		open.add(new int[] { col, row });
+		int[][] steps = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+		while (!open.isEmpty()) {
+			int[] tile = open.remove();
+			for (int[] step : steps) {
+				int x = tile[0] + step[0];
+				int y = tile[1] + step[1];
+				if (x >= 0 && x < tiles.getWidth() && y >= 0 && y < tiles.getHeight() && !reachable[x][y]
+						&& !blocked[x][y] && tiles.getCID(x, y) != TerrainAttribute.Unwalkable.getIndex()) {
+					reachable[x][y] = true;
+					open.add(new int[] { x, y });
+				}
+			}
+		}
+		return reachable;
+	}
+}
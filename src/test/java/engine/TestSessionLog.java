@@ -0,0 +1,76 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import main.java.engine.replay.SessionEntry;
+import main.java.engine.replay.SessionReader;
+import main.java.engine.replay.SessionRecorder;
+
+import org.junit.Test;
+
+/**
+ * Session logs must read back exactly what was recorded, in order, with
+ * runs of frames of the same number of ticks merged
+ */
+public class TestSessionLog {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SessionRecorder recorder = new SessionRecorder(bytes, -7L, "blueprint.zip");
+		recorder.speedChanged(0, 45, 1);
+		recorder.placeTower(0, 48.5, 80, "tower");
+		for (int i = 0; i < 1000; i++) {
+			recorder.frame(1);
+		}
+		recorder.frame(4);
+		recorder.upgradeTower(1004, 48, 80);
+		recorder.frame(0);
+		recorder.removeTower(1004, 48, 80);
+		recorder.annihilateMonsters(1004);
+		recorder.close();
+
+		SessionReader reader = new SessionReader(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(-7L, reader.getSeed());
+		assertEquals("blueprint.zip", reader.getBlueprintPath());
+		assertEquals(45, reader.next().getFrameRate());
+		SessionEntry place = reader.next();
+		assertEquals(SessionEntry.Type.PlaceTower, place.getType());
+		assertEquals(48.5, place.getX(), 0);
+		assertEquals("tower", place.getName());
+		assertFrames(reader.next(), 1000, 1);
+		assertFrames(reader.next(), 1, 4);
+		SessionEntry upgrade = reader.next();
+		assertEquals(SessionEntry.Type.UpgradeTower, upgrade.getType());
+		assertEquals(1004, upgrade.getGameClock());
+		assertFrames(reader.next(), 1, 0);
+		assertEquals(SessionEntry.Type.RemoveTower, reader.next().getType());
+		assertEquals(SessionEntry.Type.AnnihilateMonsters, reader.next().getType());
+		assertNull(reader.next());
+	}
+
+	@Test
+	public void testTruncatedLogEndsAtLastWholeEntry() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SessionRecorder recorder = new SessionRecorder(bytes, 1L, "");
+		recorder.frame(2);
+		recorder.placeTower(2, 10, 10, "tower");
+		recorder.close();
+		byte[] log = bytes.toByteArray();
+
+		SessionReader reader = new SessionReader(new ByteArrayInputStream(Arrays.copyOf(log, log.length - 3)));
+		assertFrames(reader.next(), 1, 2);
+		assertNull(reader.next());
+	}
+
+	private void assertFrames(SessionEntry entry, int numFrames, int ticksPerFrame) {
+		assertEquals(SessionEntry.Type.Frames, entry.getType());
+		assertEquals(numFrames, entry.getNumFrames());
+		assertEquals(ticksPerFrame, entry.getTicksPerFrame());
+	}
+}
@@ -0,0 +1,161 @@
+package test.java.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+
+import jgame.JGPoint;
+import main.java.engine.EnvironmentKnowledge;
+import main.java.engine.PathOverlay;
+import main.java.engine.VisualDetail;
+import main.java.engine.factory.AssetLoader;
+import main.java.engine.host.Match;
+import main.java.engine.objects.detector.monsterdetector.NearestMonsterDetector;
+import main.java.engine.objects.item.decorations.Effect;
+import main.java.engine.objects.item.decorations.ParticleSystem;
+import main.java.engine.objects.monster.Monster;
+import main.java.engine.scenario.Scenario;
+import main.java.engine.scenario.ScenarioGenerator;
+import main.java.player.util.AllocationTracker;
+import main.java.player.util.FixedTimestep;
+import main.java.player.util.QualityGovernor;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Frames of a game whose monster count is stable should not allocate.
+ * Runs the per-frame work long enough for the JIT to settle, then checks
+ * that further frames allocate nothing: first the work that needs no
+ * display, then the ticks of a match with monsters and towers.
+ */
+public class TestSteadyStateAllocation {
+
+	private static final int WARM_UP_FRAMES = 50000;
+	private static final int MEASURED_FRAMES = 10000;
+	private static final double FRAME_RATE = 45;
+	private static final long FRAME_NANOS = (long) (1e9 / FRAME_RATE);
+	private static final int WARM_UP_TICKS = 10000;
+	private static final int MEASURED_TICKS = 2000;
+	// when compiled code is deoptimized, the objects the JIT had eliminated
+	// are allocated after all, so a round may allocate while the JIT settles,
+	// e.g. after another test ran the same code; the measured work's own
+	// allocations show in every round
+	private static final int MAX_MEASURED_ROUNDS = 5;
+
+	private FixedTimestep timestep = new FixedTimestep();
+	private QualityGovernor governor = new QualityGovernor(0.85, 0.5, 1.25, 10, 120);
+	private ParticleSystem particles = new ParticleSystem(null, new AssetLoader(null), "", new VisualDetail());
+	private PathOverlay overlay = new PathOverlay(20, 15);
+	private JGPoint[] tiles = new JGPoint[20];
+	private NearestMonsterDetector detector = new NearestMonsterDetector();
+	private EnvironmentKnowledge environ =
+			new EnvironmentKnowledge(new ArrayList<Monster>(), null, null, null, particles);
+	private Point2D target = new Point2D.Double();
+	private long now;
+
+	private void doFrame(int frame) {
+		long frameStart = now;
+		now += FRAME_NANOS;
+		timestep.advance(now, FRAME_RATE, 4);
+		if (frame % 10 == 0) {
+			particles.spawn(Effect.Explosion, frame % 640, frame % 480);
+		}
+		particles.update();
+		overlay.leaveTile(tiles[frame % tiles.length]);
+		detector.findTarget(100, 100, 200, environ, target);
+		governor.frameMeasured(frameStart, frameStart + FRAME_NANOS / 2, FRAME_RATE);
+	}
+
+	@Test
+	public void testSteadyStateFramesDoNotAllocate() {
+		AllocationTracker tracker = new AllocationTracker();
+		assertTrue("JVM cannot measure allocations", tracker.isSupported());
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = new JGPoint(i, i % 15);
+		}
+
+		for (int frame = 0; frame < WARM_UP_FRAMES; frame++) {
+			doFrame(frame);
+		}
+		long bytes = -1;
+		for (int round = 0; round < MAX_MEASURED_ROUNDS && bytes != 0; round++) {
+			tracker.frameStarted();
+			for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+				doFrame(frame);
+			}
+			tracker.frameFinished();
+			bytes = tracker.getLastFrameBytes();
+		}
+
+		assertEquals(0, bytes);
+	}
+
+	/**
+	 * A wave of monsters too slow to leave the long map during the test and
+	 * too strong to die, walking past shooting towers that target them and
+	 * fire at them every few ticks; projectiles that stop are launched again.
+	 * Each tick runs in a frame of its own, which adds the projectiles fired
+	 * in the last one. Only the ticks are measured: starting a frame runs
+	 * jgame's own frame work, which allocates.
+	 */
+	@Test
+	public void testSteadyStateTicksOfAMatchDoNotAllocate() throws Exception {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		AllocationTracker tracker = new AllocationTracker();
+		assertTrue("JVM cannot measure allocations", tracker.isSupported());
+		Scenario scenario = ScenarioGenerator.small().setMapSize(80, 15).setMonsterSpeed(0.01)
+				.setMonsterHealth(1e12).setWaves(1, 20).setTowerCount(30).generate(1);
+		Match match = scenario.createMatch(1);
+		try {
+			// adds the wave's monsters and as many projectiles as the towers
+			// ever have in flight at once, and warms up the ticks' work
+			match.step(2 * WARM_UP_TICKS);
+			match.startFrame();
+			int objects = match.countObjects();
+			assertTrue("monsters, towers and projectiles must be on the map", objects > 50);
+
+			long bytes = -1;
+			for (int round = 0; round < MAX_MEASURED_ROUNDS && bytes != 0; round++) {
+				bytes = measureTicks(match, tracker);
+			}
+
+			match.startFrame();
+			assertEquals(objects, match.countObjects());
+			assertEquals(0, bytes);
+		}
+		finally {
+			match.close();
+		}
+	}
+
+	/**
+	 * @return bytes allocated by MEASURED_TICKS ticks, each in a frame of its own
+	 */
+	private static long measureTicks(Match match, AllocationTracker tracker) throws Exception {
+		long bytes = 0;
+		for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+			match.startFrame();
+			tracker.frameStarted();
+			assertEquals(1, match.runTicks(1));
+			tracker.frameFinished();
+			bytes += tracker.getLastFrameBytes();
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testTrackerMeasuresAllocations() {
+		AllocationTracker tracker = new AllocationTracker();
+		tracker.frameStarted();
+		int[] garbage = new int[100000];
+		tracker.frameFinished();
+
+		assertEquals(100000, garbage.length);
+		assertTrue(tracker.getLastFrameBytes() >= 100000 * 4);
+	}
+}
@@ -0,0 +1,98 @@
+package test.java.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.GraphicsEnvironment;
+
+import main.java.engine.host.MatchEngine;
+import main.java.player.util.TowerGhost;
+import main.java.player.util.TowerPreview;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public class TestTowerPreview {
+
+	private static final int FRAMES = 500;
+	private static final int TILE_SIZE = MatchEngine.TILE_WIDTH;
+
+	/**
+	 * The placement check of drawTowerGhost, which needs no engine
+	 */
+	@Test
+	public void testPlacementCheckedOnlyWhenItMayChange() {
+		TowerPreview preview = new TowerPreview();
+		assertTrue(preview.isCheckNeeded(3, 4, "tower", 100));
+		preview.setValid(true);
+		for (int frame = 0; frame < FRAMES; frame++) {
+			assertFalse(preview.isCheckNeeded(3, 4, "tower", 100));
+		}
+		assertTrue(preview.isValid());
+
+		assertTrue(preview.isCheckNeeded(3, 5, "tower", 100));
+		assertTrue(preview.isCheckNeeded(3, 5, "other tower", 100));
+		assertTrue(preview.isCheckNeeded(3, 5, "other tower", 50));
+		preview.setValid(false);
+		assertFalse(preview.isCheckNeeded(3, 5, "other tower", 50));
+		assertFalse(preview.isValid());
+
+		preview.invalidate();
+		assertTrue(preview.isCheckNeeded(3, 5, "other tower", 50));
+	}
+
+	/**
+	 * drawTowerGhost's path: check when needed, then show the outcome
+	 */
+	@Test
+	public void testGhostShowsPlacementCheck() {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		// never runs frames of its own; objects are added when the test says so
+		MatchEngine engine = new MatchEngine(20, 15);
+		TowerPreview preview = new TowerPreview();
+		int checks = 0;
+
+		for (int frame = 0; frame < FRAMES; frame++) {
+			int tileX = frame / 50 % 20;
+			if (preview.isCheckNeeded(tileX, 0, "tower", 100)) {
+				checks++;
+				preview.setValid(tileX % 2 == 0);
+			}
+			preview.show(tileX * TILE_SIZE, 0, null, 100, preview.isValid());
+			engine.addAndRemoveObjects();
+			TowerGhost ghost = (TowerGhost) engine.getObject(TowerGhost.NAME);
+			assertEquals(tileX % 2 == 0, ghost.isValid());
+			assertEquals(tileX * TILE_SIZE, ghost.x, 0);
+			assertTrue(preview.isShown());
+		}
+		assertEquals(FRAMES / 50, checks);
+		engine.destroy();
+	}
+
+	@Test
+	public void testHoveringKeepsOneGhost() {
+		// jgame engines need a display, even when nothing is drawn
+		Assume.assumeFalse("No display to create engines on", GraphicsEnvironment.isHeadless());
+		// never runs frames of its own; objects are added when the test says so
+		MatchEngine engine = new MatchEngine(20, 15);
+		TowerPreview preview = new TowerPreview();
+
+		for (int frame = 0; frame < FRAMES; frame++) {
+			int tile = frame % 20;
+			preview.show(tile * TILE_SIZE, tile % 15 * TILE_SIZE, null, 100, frame % 2 == 0);
+			engine.addAndRemoveObjects();
+			assertEquals(1, engine.countObjects(TowerGhost.NAME, 0));
+		}
+
+		preview.hide();
+		engine.addAndRemoveObjects();
+		assertEquals(1, engine.countObjects(TowerGhost.NAME, 0));
+
+		preview.show(0, 0, null, 100, true);
+		engine.addAndRemoveObjects();
+		assertEquals(1, engine.countObjects(TowerGhost.NAME, 0));
+		engine.destroy();
+	}
+}